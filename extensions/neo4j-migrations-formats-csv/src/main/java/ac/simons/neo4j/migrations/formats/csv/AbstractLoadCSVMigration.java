@@ -20,11 +20,13 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.CRC32;
 
+import ac.simons.neo4j.migrations.core.ChecksumStrategy;
 import ac.simons.neo4j.migrations.core.JavaBasedMigration;
 import ac.simons.neo4j.migrations.core.MigrationContext;
 import ac.simons.neo4j.migrations.core.Migrations;
@@ -35,15 +37,21 @@ import org.neo4j.driver.Session;
  * This base class can be inherited inside applications that want to grab some data from a
  * URI for example to trigger a {@code LOAD CSV} statement inside Neo4j. Migrations
  * inheriting from it will always be repeatable (when adhering to the repeatable
- * versioning scheme, such as {@code R000__LoadBaseData.java}) but also compute a CRC32
- * checksum from the source URI, so that the migration is only repeated when the source
- * actually has changed.
+ * versioning scheme, such as {@code R000__LoadBaseData.java}) but also compute a checksum
+ * from the source URI, so that the migration is only repeated when the source actually
+ * has changed. Checksums are cached together with the {@code ETag} and
+ * {@code Last-Modified} headers of the source, so that an unchanged source is not
+ * downloaded again, see {@link #getChecksumCache()}.
  *
  * @author Michael J. Simons
  * @since 2.0.1
  */
 public abstract class AbstractLoadCSVMigration implements JavaBasedMigration {
 
+	static final int HTTP_OK = 200;
+
+	static final int HTTP_NOT_MODIFIED = 304;
+
 	static final Logger LOGGER = Logger.getLogger(AbstractLoadCSVMigration.class.getName());
 
 	private final HttpClient httpClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
@@ -98,6 +106,33 @@ public abstract class AbstractLoadCSVMigration implements JavaBasedMigration {
 		return builder.build();
 	}
 
+	/**
+	 * Overwrite this method to use a different strategy for computing the checksum of the
+	 * source. Be aware that changing the strategy for an already applied migration will
+	 * cause it to be repeated once.
+	 * @return the strategy for computing the checksum of the source, defaults to
+	 * {@link ChecksumStrategy#crc32()}
+	 * @since 4.2.0
+	 */
+	protected ChecksumStrategy getChecksumStrategy() {
+		return ChecksumStrategy.crc32();
+	}
+
+	/**
+	 * Overwrite this method to change the location of the file caching the checksums of
+	 * remote sources, or return an empty optional to disable it. The cache stores the
+	 * {@code ETag} and {@code Last-Modified} headers of the response along with the
+	 * checksum. The next checksum computation sends them as conditions, so that the
+	 * source is only downloaded again if it has been changed.
+	 * @return the location of the checksum cache, defaults to
+	 * {@code .neo4j-migrations/csv-checksums.properties} in the home directory of the
+	 * current user
+	 * @since 4.2.0
+	 */
+	protected Optional<Path> getChecksumCache() {
+		return Optional.of(ChecksumCache.DEFAULT_LOCATION);
+	}
+
 	@Override
 	public final boolean isRepeatable() {
 		return this.repeatable;
@@ -122,12 +157,31 @@ public abstract class AbstractLoadCSVMigration implements JavaBasedMigration {
 
 	private String computeChecksum() {
 		try {
-			var crc32 = new CRC32();
-			var request = customizeRequest(
-					HttpRequest.newBuilder(this.csvSource).header("User-Agent", Migrations.getUserAgent()).GET());
-			this.httpClient.send(request, HttpResponse.BodyHandlers
-				.ofByteArrayConsumer(optionalBytes -> optionalBytes.ifPresent(crc32::update)));
-			return Long.toString(crc32.getValue());
+			var checksumStrategy = getChecksumStrategy();
+			var cache = getChecksumCache().map(ChecksumCache::new);
+			var cachedEntry = cache.flatMap(c -> c.get(this.csvSource, checksumStrategy));
+			var builder = HttpRequest.newBuilder(this.csvSource).header("User-Agent", Migrations.getUserAgent()).GET();
+			cachedEntry.ifPresent(entry -> entry.addConditions(builder));
+
+			var checksum = checksumStrategy.newChecksum();
+			var contentLength = new AtomicLong();
+			var response = this.httpClient.send(customizeRequest(builder),
+					HttpResponse.BodyHandlers.ofByteArrayConsumer(optionalBytes -> optionalBytes.ifPresent(bytes -> {
+						checksum.update(bytes);
+						contentLength.addAndGet(bytes.length);
+					})));
+			if (response.statusCode() == HTTP_NOT_MODIFIED && cachedEntry.isPresent()) {
+				LOGGER.log(Level.FINE,
+						() -> String.format("%s has not been modified, using cached checksum", this.csvSource));
+				return cachedEntry.get().checksum();
+			}
+
+			var value = checksumStrategy.format(checksum.getValue());
+			if (response.statusCode() == HTTP_OK) {
+				cache.ifPresent(c -> c.put(this.csvSource, checksumStrategy,
+						ChecksumCache.Entry.of(response.headers(), contentLength.get(), value)));
+			}
+			return value;
 		}
 		catch (IOException | InterruptedException ex) {
 			LOGGER.log(Level.WARNING, ex,
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.formats.csv;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Checksum;
+import java.util.zip.GZIPInputStream;
+
+import ac.simons.neo4j.migrations.core.ChecksumStrategy;
+import ac.simons.neo4j.migrations.core.DataMigrationPipeline;
+import ac.simons.neo4j.migrations.core.JavaBasedMigration;
+import ac.simons.neo4j.migrations.core.MigrationContext;
+import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import org.neo4j.driver.Query;
+
+/**
+ * A variant of {@link AbstractLoadCSVMigration} that reads the CSV data on the client
+ * instead of asking the server to {@code LOAD CSV} it. The source is downloaded only
+ * once: while computing the checksum, a remote source is copied into a temporary file,
+ * which is then parsed and written in batches through the {@link #getQuery() query} of
+ * the migration. If the server confirms that an HTTP source matches a
+ * {@link #getChecksumCache() cached checksum}, the download is deferred until the
+ * migration is actually applied. Sources with the {@code file:} scheme are read in place.
+ * Gzip compressed sources are recognized by their content and decompressed transparently,
+ * the checksum is computed on the compressed bytes.
+ * <p>
+ * The first line of the CSV data must contain the headers. Each row is passed to the
+ * query as a map from header to value, with empty fields being {@literal null}, the same
+ * way {@code LOAD CSV WITH HEADERS} does. This makes the server-side access to the source
+ * unnecessary, so that sources only reachable by the client can be used, too.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public abstract class AbstractStreamingCSVMigration implements JavaBasedMigration {
+
+	private static final Logger LOGGER = Logger.getLogger(AbstractStreamingCSVMigration.class.getName());
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final HttpClient httpClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+
+	private final URI csvSource;
+
+	private final boolean repeatable;
+
+	@SuppressWarnings({ "OptionalUsedAsFieldOrParameterType", "squid:S3077" })
+	private volatile Optional<String> checksum;
+
+	@SuppressWarnings("squid:S3077")
+	private volatile Path localCopy;
+
+	/**
+	 * You need to call this constructor, but your implementation must have a default,
+	 * no-arg constructor to be loadable like any other Java based migration.
+	 * @param csvSource the source to load data from
+	 * @param repeatable whether this is repeatable or not
+	 */
+	protected AbstractStreamingCSVMigration(URI csvSource, boolean repeatable) {
+		this.csvSource = csvSource;
+		this.repeatable = repeatable;
+	}
+
+	@Override
+	public final void apply(MigrationContext context) {
+
+		var query = getQuery();
+		try (var reader = openReader()) {
+			var counters = DataMigrationPipeline
+				.of(context, new Rows(new CSVTokenizer(reader, getFieldTerminator())), query.text())
+				.withParameters(query.parameters().asMap())
+				.withPageSize(getBatchSize())
+				.withWorkers(getWriters())
+				.run();
+			LOGGER.log(Level.FINE,
+					() -> String.format("Streamed CSV from %s resulting in %s", this.csvSource, counters));
+		}
+		catch (IOException | UncheckedIOException ex) {
+			throw new MigrationsException("Could not read CSV from " + this.csvSource, ex);
+		}
+		finally {
+			deleteLocalCopy();
+		}
+	}
+
+	/**
+	 * The statement returned by this method is executed once per batch of rows, which are
+	 * available as {@code $rows}, for example {@code UNWIND $rows AS row MERGE (b:Book
+	 * {title: row.Title})}. Any other parameters included with the query object will just
+	 * be used as is.
+	 * @return the Cypher statement to be used to write the rows
+	 */
+	public abstract Query getQuery();
+
+	/**
+	 * Overwrite this method and apply all customization to the {@link HttpRequest.Builder
+	 * builder} that you might need, such as authentication, additional headers and
+	 * cookies.
+	 * @param builder pre-initialized with the target source
+	 * @return the usable request
+	 */
+	public HttpRequest customizeRequest(HttpRequest.Builder builder) {
+		return builder.build();
+	}
+
+	/**
+	 * Overwrite this method to use a different strategy for computing the checksum of the
+	 * source.
+	 * @return the strategy for computing the checksum of the source, defaults to
+	 * {@link ChecksumStrategy#crc32()}
+	 */
+	protected ChecksumStrategy getChecksumStrategy() {
+		return ChecksumStrategy.crc32();
+	}
+
+	/**
+	 * {@return the character separating the fields of a row, defaults to a comma}
+	 */
+	protected char getFieldTerminator() {
+		return ',';
+	}
+
+	/**
+	 * {@return the number of rows written in one transaction, defaults to 1000}
+	 */
+	protected int getBatchSize() {
+		return 1000;
+	}
+
+	/**
+	 * Overwrite this method to write batches concurrently. Only do this if the batches
+	 * don't compete for the same nodes and relationships.
+	 * @return the number of concurrent writers, defaults to 1
+	 */
+	protected int getWriters() {
+		return 1;
+	}
+
+	/**
+	 * Overwrite this method to change the location of the file caching the checksums of
+	 * HTTP sources, or return an empty optional to disable it. With a cache, an
+	 * unmodified source is not downloaded while computing the checksum, but only if the
+	 * migration is actually applied.
+	 * @return the location of the checksum cache, defaults to
+	 * {@code .neo4j-migrations/csv-checksums.properties} in the home directory of the
+	 * current user
+	 * @see AbstractLoadCSVMigration#getChecksumCache()
+	 */
+	protected Optional<Path> getChecksumCache() {
+		return Optional.of(ChecksumCache.DEFAULT_LOCATION);
+	}
+
+	@Override
+	public final boolean isRepeatable() {
+		return this.repeatable;
+	}
+
+	// Having the value in a lazily initialized optional is the point here.
+	@SuppressWarnings({ "OptionalAssignedToNull", "squid:S2789" })
+	@Override
+	public final Optional<String> getChecksum() {
+		Optional<String> availableChecksum = this.checksum;
+		if (availableChecksum == null) {
+			availableChecksum = fetch(false);
+		}
+		return availableChecksum;
+	}
+
+	/**
+	 * Computes the checksum of the source and copies remote sources into a local file.
+	 * @param download {@literal true} if the content is required, {@literal false} if a
+	 * cached checksum of an unmodified source is sufficient
+	 * @return the checksum
+	 */
+	@SuppressWarnings({ "OptionalAssignedToNull", "squid:S2789" })
+	private synchronized Optional<String> fetch(boolean download) {
+
+		if (this.checksum != null && (!download || isLocal() || this.localCopy != null)) {
+			return this.checksum;
+		}
+		try {
+			var checksumStrategy = getChecksumStrategy();
+			var newChecksum = checksumStrategy.newChecksum();
+			if (isLocal()) {
+				try (var in = Files.newInputStream(Path.of(this.csvSource))) {
+					transfer(in, newChecksum, OutputStream.nullOutputStream());
+				}
+				this.checksum = Optional.of(checksumStrategy.format(newChecksum.getValue()));
+			}
+			else if (isHttp()) {
+				this.checksum = Optional.of(fetchHttp(checksumStrategy, download));
+			}
+			else {
+				try (var in = this.csvSource.toURL().openStream()) {
+					copy(in, newChecksum);
+				}
+				this.checksum = Optional.of(checksumStrategy.format(newChecksum.getValue()));
+			}
+		}
+		catch (IOException | InterruptedException ex) {
+			LOGGER.log(Level.WARNING, ex,
+					() -> String.format(
+							"Could not retrieve %s, checksum won't be available until next migration attempt.",
+							this.csvSource));
+			if (ex instanceof InterruptedException) {
+				// Restore interrupted state...
+				Thread.currentThread().interrupt();
+			}
+			this.checksum = Optional.empty();
+		}
+		return this.checksum;
+	}
+
+	private String fetchHttp(ChecksumStrategy checksumStrategy, boolean download)
+			throws IOException, InterruptedException {
+
+		var cache = getChecksumCache().map(ChecksumCache::new);
+		var cachedEntry = download ? Optional.<ChecksumCache.Entry>empty()
+				: cache.flatMap(c -> c.get(this.csvSource, checksumStrategy));
+		var builder = HttpRequest.newBuilder(this.csvSource).header("User-Agent", Migrations.getUserAgent()).GET();
+		cachedEntry.ifPresent(entry -> entry.addConditions(builder));
+
+		var response = this.httpClient.send(customizeRequest(builder), HttpResponse.BodyHandlers.ofInputStream());
+		if (response.statusCode() == AbstractLoadCSVMigration.HTTP_NOT_MODIFIED && cachedEntry.isPresent()) {
+			response.body().close();
+			LOGGER.log(Level.FINE,
+					() -> String.format("%s has not been modified, using cached checksum", this.csvSource));
+			return cachedEntry.get().checksum();
+		}
+		if (response.statusCode() != AbstractLoadCSVMigration.HTTP_OK) {
+			response.body().close();
+			throw new IOException("Server responded with status " + response.statusCode());
+		}
+
+		var newChecksum = checksumStrategy.newChecksum();
+		long contentLength;
+		try (var in = response.body()) {
+			contentLength = copy(in, newChecksum);
+		}
+		var value = checksumStrategy.format(newChecksum.getValue());
+		cache.ifPresent(c -> c.put(this.csvSource, checksumStrategy,
+				ChecksumCache.Entry.of(response.headers(), contentLength, value)));
+		return value;
+	}
+
+	private boolean isLocal() {
+		return "file".equalsIgnoreCase(this.csvSource.getScheme());
+	}
+
+	private boolean isHttp() {
+		var scheme = this.csvSource.getScheme();
+		return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+	}
+
+	/**
+	 * Copies the content of a remote source into a new local file, replacing a previous
+	 * copy.
+	 * @param in the content of the source
+	 * @param checksum the checksum to update
+	 * @return the number of bytes copied
+	 * @throws IOException if the content cannot be copied
+	 */
+	private long copy(InputStream in, Checksum checksum) throws IOException {
+
+		var target = Files.createTempFile("neo4j-migrations-", ".csv");
+		target.toFile().deleteOnExit();
+		long contentLength;
+		try (var out = Files.newOutputStream(target)) {
+			contentLength = transfer(in, checksum, out);
+		}
+		catch (IOException ex) {
+			Files.deleteIfExists(target);
+			throw ex;
+		}
+		deleteLocalCopy();
+		this.localCopy = target;
+		return contentLength;
+	}
+
+	private static long transfer(InputStream in, Checksum checksum, OutputStream out) throws IOException {
+
+		var buffer = new byte[BUFFER_SIZE];
+		long total = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			checksum.update(buffer, 0, read);
+			out.write(buffer, 0, read);
+			total += read;
+		}
+		return total;
+	}
+
+	private Reader openReader() throws IOException {
+
+		Path path;
+		if (isLocal()) {
+			path = Path.of(this.csvSource);
+		}
+		else {
+			fetch(true);
+			path = this.localCopy;
+			if (path == null) {
+				throw new IOException("Source is not available");
+			}
+		}
+
+		var in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+		in.mark(2);
+		int magic = in.read() | (in.read() << 8);
+		in.reset();
+		InputStream content = (magic == GZIPInputStream.GZIP_MAGIC) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+		return new InputStreamReader(content, StandardCharsets.UTF_8);
+	}
+
+	private synchronized void deleteLocalCopy() {
+
+		var path = this.localCopy;
+		this.localCopy = null;
+		if (path == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException ex) {
+			LOGGER.log(Level.FINE, ex, () -> "Could not delete local copy " + path);
+		}
+	}
+
+	/**
+	 * Turns the records of the tokenizer into maps, keyed by the headers in the first
+	 * record.
+	 */
+	private static final class Rows implements Iterator<Map<String, Object>> {
+
+		private final CSVTokenizer tokenizer;
+
+		private final List<String> headers;
+
+		private List<String> next;
+
+		Rows(CSVTokenizer tokenizer) throws IOException {
+			this.tokenizer = tokenizer;
+			var firstRecord = tokenizer.nextRecord();
+			this.headers = (firstRecord != null) ? firstRecord : List.of();
+			this.next = (firstRecord != null) ? tokenizer.nextRecord() : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.next != null;
+		}
+
+		@Override
+		public Map<String, Object> next() {
+
+			var fields = this.next;
+			if (fields == null) {
+				throw new NoSuchElementException();
+			}
+			try {
+				this.next = this.tokenizer.nextRecord();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			Map<String, Object> row = new LinkedHashMap<>(this.headers.size());
+			for (int i = 0; i < this.headers.size(); ++i) {
+				var header = this.headers.get(i);
+				if (header != null) {
+					row.put(header, (i < fields.size()) ? fields.get(i) : null);
+				}
+			}
+			return row;
+		}
+
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.formats.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tokenizer for RFC 4180 style CSV data. It scans a fixed buffer and copies runs of
+ * characters into a reused field builder, so that no intermediate lines or substrings are
+ * created. Empty, unquoted fields are returned as {@literal null} like {@code LOAD CSV}
+ * does, quoted fields may contain delimiters, line breaks and escaped quotes
+ * ({@code ""}). Empty lines are skipped.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class CSVTokenizer {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final char QUOTE = '"';
+
+	private final Reader reader;
+
+	private final char delimiter;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	private final StringBuilder field = new StringBuilder();
+
+	private int position;
+
+	private int limit;
+
+	private boolean first = true;
+
+	private int width = 8;
+
+	CSVTokenizer(Reader reader, char delimiter) {
+		if (delimiter == QUOTE || delimiter == '\n' || delimiter == '\r') {
+			throw new IllegalArgumentException("Invalid field terminator '" + delimiter + "'");
+		}
+		this.reader = reader;
+		this.delimiter = delimiter;
+	}
+
+	/**
+	 * Reads the next record.
+	 * @return the fields of the next record or {@literal null} at the end of the input
+	 * @throws IOException if the underlying reader fails
+	 */
+	List<String> nextRecord() throws IOException {
+
+		List<String> fields = new ArrayList<>(this.width);
+		this.field.setLength(0);
+		boolean quoted = false;
+		boolean wasQuoted = false;
+		while (true) {
+			if (!fill()) {
+				if (fields.isEmpty() && this.field.isEmpty() && !wasQuoted) {
+					return null;
+				}
+				fields.add(value(wasQuoted));
+				return fields;
+			}
+
+			if (quoted) {
+				int start = this.position;
+				while (this.position < this.limit && this.buffer[this.position] != QUOTE) {
+					++this.position;
+				}
+				this.field.append(this.buffer, start, this.position - start);
+				if (this.position < this.limit) {
+					++this.position;
+					// Either an escaped quote or the end of the quoted section
+					if (fill() && this.buffer[this.position] == QUOTE) {
+						this.field.append(QUOTE);
+						++this.position;
+					}
+					else {
+						quoted = false;
+					}
+				}
+				continue;
+			}
+
+			int start = this.position;
+			while (this.position < this.limit && !isSpecial(this.buffer[this.position])) {
+				++this.position;
+			}
+			this.field.append(this.buffer, start, this.position - start);
+			if (this.position == this.limit) {
+				continue;
+			}
+
+			char current = this.buffer[this.position++];
+			if (current == QUOTE) {
+				quoted = true;
+				wasQuoted = true;
+			}
+			else if (current == this.delimiter) {
+				fields.add(value(wasQuoted));
+				this.field.setLength(0);
+				wasQuoted = false;
+			}
+			else {
+				if (current == '\r' && fill() && this.buffer[this.position] == '\n') {
+					++this.position;
+				}
+				if (fields.isEmpty() && this.field.isEmpty() && !wasQuoted) {
+					continue;
+				}
+				fields.add(value(wasQuoted));
+				this.width = Math.max(this.width, fields.size());
+				return fields;
+			}
+		}
+	}
+
+	private boolean isSpecial(char value) {
+		return value == this.delimiter || value == QUOTE || value == '\n' || value == '\r';
+	}
+
+	private String value(boolean wasQuoted) {
+		return (this.field.isEmpty() && !wasQuoted) ? null : this.field.toString();
+	}
+
+	private boolean fill() throws IOException {
+
+		if (this.position < this.limit) {
+			return true;
+		}
+		int read = this.reader.read(this.buffer, 0, this.buffer.length);
+		while (read == 0) {
+			read = this.reader.read(this.buffer, 0, this.buffer.length);
+		}
+		this.position = 0;
+		this.limit = Math.max(read, 0);
+		if (this.first && this.limit > 0) {
+			this.first = false;
+			// Skip a byte order mark
+			if (this.buffer[0] == '\uFEFF') {
+				this.position = 1;
+				return fill();
+			}
+		}
+		return this.limit > 0;
+	}
+
+}
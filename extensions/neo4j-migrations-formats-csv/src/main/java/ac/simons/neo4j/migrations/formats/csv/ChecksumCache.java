@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.formats.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.logging.Level;
+
+import ac.simons.neo4j.migrations.core.ChecksumStrategy;
+
+/**
+ * A persistent cache of the checksums of remote CSV sources together with the validators
+ * ({@code ETag} and {@code Last-Modified}) the server sent along with them. The cache is
+ * a properties file keyed by the URI of the source and the name of the checksum strategy.
+ * It is read and written completely on each access, which is fine for the handful of
+ * sources a migration project uses, and replaced atomically, so that several processes
+ * can share it.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class ChecksumCache {
+
+	/**
+	 * The location of the cache if none is configured. It lives in the home directory of
+	 * the current user, as a file in a shared temporary directory could be replaced by
+	 * other users.
+	 */
+	static final Path DEFAULT_LOCATION = Path.of(System.getProperty("user.home"), ".neo4j-migrations",
+			"csv-checksums.properties");
+
+	private final Path location;
+
+	ChecksumCache(Path location) {
+		this.location = location;
+	}
+
+	/**
+	 * Looks up a cached checksum.
+	 * @param source the source of the CSV data
+	 * @param strategy the strategy used to compute the checksum
+	 * @return the cached entry, if any
+	 */
+	Optional<Entry> get(URI source, ChecksumStrategy strategy) {
+
+		var prefix = key(source, strategy);
+		var properties = load();
+		var checksum = properties.getProperty(prefix + "checksum");
+		if (checksum == null) {
+			return Optional.empty();
+		}
+		var contentLength = properties.getProperty(prefix + "contentLength");
+		return Optional
+			.of(new Entry(properties.getProperty(prefix + "etag"), properties.getProperty(prefix + "lastModified"),
+					(contentLength != null) ? OptionalLong.of(Long.parseLong(contentLength)) : OptionalLong.empty(),
+					checksum));
+	}
+
+	/**
+	 * Stores a checksum. Entries without any validator are not stored, as there is no way
+	 * to revalidate them.
+	 * @param source the source of the CSV data
+	 * @param strategy the strategy used to compute the checksum
+	 * @param entry the entry to store
+	 */
+	synchronized void put(URI source, ChecksumStrategy strategy, Entry entry) {
+
+		if (!entry.isRevalidatable()) {
+			return;
+		}
+		var prefix = key(source, strategy);
+		try {
+			var properties = load();
+			properties.keySet().removeIf(key -> key.toString().startsWith(prefix));
+			setIfPresent(properties, prefix + "etag", entry.etag());
+			setIfPresent(properties, prefix + "lastModified", entry.lastModified());
+			if (entry.contentLength().isPresent()) {
+				properties.setProperty(prefix + "contentLength", Long.toString(entry.contentLength().getAsLong()));
+			}
+			properties.setProperty(prefix + "checksum", entry.checksum());
+
+			var directory = this.location.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			var temp = Files.createTempFile(directory, "csv-checksums", ".tmp");
+			try (var out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				properties.store(out, "Checksums of CSV sources used by Neo4j-Migrations");
+			}
+			Files.move(temp, this.location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException | UncheckedIOException ex) {
+			AbstractLoadCSVMigration.LOGGER.log(Level.FINE, ex,
+					() -> "Could not update checksum cache " + this.location);
+		}
+	}
+
+	private Properties load() {
+
+		var properties = new Properties();
+		try (var in = Files.newBufferedReader(this.location, StandardCharsets.UTF_8)) {
+			properties.load(in);
+		}
+		catch (NoSuchFileException ex) {
+			// Nothing cached yet
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			AbstractLoadCSVMigration.LOGGER.log(Level.FINE, ex,
+					() -> "Ignoring unreadable checksum cache " + this.location);
+		}
+		return properties;
+	}
+
+	private static String key(URI source, ChecksumStrategy strategy) {
+		return source + "|" + strategy.getName() + ".";
+	}
+
+	private static void setIfPresent(Properties properties, String key, String value) {
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	/**
+	 * A cached checksum together with the validators of the response it was computed
+	 * from.
+	 *
+	 * @param etag the entity tag sent by the server, if any
+	 * @param lastModified the last modification date sent by the server, if any
+	 * @param contentLength the number of bytes the checksum has been computed from, if
+	 * known
+	 * @param checksum the checksum of the content
+	 */
+	record Entry(String etag, String lastModified, OptionalLong contentLength, String checksum) {
+
+		static Entry of(HttpHeaders headers, long contentLength, String checksum) {
+			return new Entry(headers.firstValue("ETag").orElse(null), headers.firstValue("Last-Modified").orElse(null),
+					OptionalLong.of(contentLength), checksum);
+		}
+
+		boolean isRevalidatable() {
+			return this.etag != null || this.lastModified != null;
+		}
+
+		/**
+		 * Adds the conditional headers of this entry to a request.
+		 * @param builder the builder of the request
+		 * @return the same builder
+		 */
+		HttpRequest.Builder addConditions(HttpRequest.Builder builder) {
+			if (this.etag != null) {
+				builder.header("If-None-Match", this.etag);
+			}
+			if (this.lastModified != null) {
+				builder.header("If-Modified-Since", this.lastModified);
+			}
+			return builder;
+		}
+
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.formats.csv;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import ac.simons.neo4j.migrations.core.MigrationContext;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class AbstractStreamingCSVMigrationTests {
+
+	private static final String CONTENT = "Title,Author\nSnow Crash,Neal Stephenson\n\"Dune, Part 1\",\n";
+
+	private static final String QUERY = "UNWIND $rows AS row MERGE (b:Book {title: row.Title}) SET b.source = $source";
+
+	@TempDir
+	Path dir;
+
+	private final List<Map<String, Object>> writtenParameters = new ArrayList<>();
+
+	private MigrationContext context() {
+
+		var summary = mock(ResultSummary.class);
+		given(summary.counters()).willReturn(mock(SummaryCounters.class));
+		var result = mock(Result.class);
+		given(result.consume()).willReturn(summary);
+		var tx = mock(Transaction.class);
+		given(tx.run(eq(QUERY), anyMap())).willAnswer(invocation -> {
+			this.writtenParameters.add(invocation.getArgument(1));
+			return result;
+		});
+		var session = mock(Session.class);
+		given(session.beginTransaction()).willReturn(tx);
+		var context = mock(MigrationContext.class);
+		given(context.getSession()).willReturn(session);
+		return context;
+	}
+
+	private static long crc32(byte[] bytes) {
+		var crc32 = new CRC32();
+		crc32.update(bytes);
+		return crc32.getValue();
+	}
+
+	@Test
+	void shouldChecksumAndStreamLocalFiles() throws IOException {
+
+		var bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+		var file = Files.write(this.dir.resolve("books.csv"), bytes);
+		var migration = new Migration(file);
+
+		assertThat(migration.getChecksum()).hasValue(Long.toString(crc32(bytes)));
+		migration.apply(context());
+
+		var expectedRow = new HashMap<String, Object>();
+		expectedRow.put("Title", "Dune, Part 1");
+		expectedRow.put("Author", null);
+		assertThat(this.writtenParameters).containsExactly(Map.of("source", "test", "rows",
+				List.of(Map.of("Title", "Snow Crash", "Author", "Neal Stephenson"), expectedRow)));
+	}
+
+	@Test
+	void shouldDecompressGzip() throws IOException {
+
+		var file = this.dir.resolve("books.csv.gz");
+		try (var out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+		}
+		var migration = new Migration(file);
+
+		assertThat(migration.getChecksum()).hasValue(Long.toString(crc32(Files.readAllBytes(file))));
+		migration.apply(context());
+
+		assertThat(this.writtenParameters).hasSize(1);
+		assertThat((List<?>) this.writtenParameters.get(0).get("rows")).hasSize(2);
+	}
+
+	@Test
+	void shouldCopyOtherSources() throws IOException {
+
+		var bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+		var archive = this.dir.resolve("books.zip");
+		try (var out = new ZipOutputStream(Files.newOutputStream(archive))) {
+			out.putNextEntry(new ZipEntry("books.csv"));
+			out.write(bytes);
+			out.closeEntry();
+		}
+		var migration = new Migration(URI.create("jar:" + archive.toUri() + "!/books.csv"));
+
+		assertThat(migration.getChecksum()).hasValue(Long.toString(crc32(bytes)));
+		migration.apply(context());
+
+		assertThat(this.writtenParameters).hasSize(1);
+		assertThat(migration.getChecksum()).hasValue(Long.toString(crc32(bytes)));
+	}
+
+	@Test
+	void shouldFailOnMissingSources() {
+
+		var migration = new Migration(this.dir.resolve("missing.csv"));
+		assertThat(migration.getChecksum()).isEmpty();
+		var context = context();
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> migration.apply(context))
+			.withMessageStartingWith("Could not read CSV from file:");
+	}
+
+	static class Migration extends AbstractStreamingCSVMigration {
+
+		Migration(Path file) {
+			this(file.toUri());
+		}
+
+		Migration(URI uri) {
+			super(uri, true);
+		}
+
+		@Override
+		public Query getQuery() {
+			return new Query(QUERY, Map.of("source", "test"));
+		}
+
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.formats.csv;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Michael J. Simons
+ */
+class CSVTokenizerTests {
+
+	private static List<List<String>> tokenize(String content, char delimiter) throws IOException {
+
+		var tokenizer = new CSVTokenizer(new StringReader(content), delimiter);
+		List<List<String>> records = new ArrayList<>();
+		List<String> record;
+		while ((record = tokenizer.nextRecord()) != null) {
+			records.add(record);
+		}
+		return records;
+	}
+
+	@Test
+	void shouldTokenizeSimpleRecords() throws IOException {
+
+		assertThat(tokenize("a,b,c\n1,2,3\r\n4,5,6", ',')).containsExactly(List.of("a", "b", "c"),
+				List.of("1", "2", "3"), List.of("4", "5", "6"));
+	}
+
+	@Test
+	void shouldTreatEmptyFieldsAsNull() throws IOException {
+
+		assertThat(tokenize("a,,\"\"\n,x,\n", ',')).containsExactly(Arrays.asList("a", null, ""),
+				Arrays.asList(null, "x", null));
+	}
+
+	@Test
+	void shouldHandleQuotedFields() throws IOException {
+
+		assertThat(tokenize("\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\"\nx", ','))
+			.containsExactly(List.of("a,b", "say \"hi\"", "line\nbreak"), List.of("x"));
+	}
+
+	@Test
+	void shouldSkipEmptyLinesAndByteOrderMark() throws IOException {
+
+		assertThat(tokenize("\uFEFFa;b\n\n\r\n1;2\n\n", ';')).containsExactly(List.of("a", "b"), List.of("1", "2"));
+	}
+
+	@Test
+	void shouldHandleFieldsSpanningBuffers() throws IOException {
+
+		var longValue = "x".repeat(100_000);
+		assertThat(tokenize("\"" + longValue + "\"," + longValue + "\n1,2", ','))
+			.containsExactly(List.of(longValue, longValue), List.of("1", "2"));
+	}
+
+	@Test
+	void shouldRejectInvalidDelimiters() {
+
+		var reader = new StringReader("");
+		assertThatIllegalArgumentException().isThrownBy(() -> new CSVTokenizer(reader, '"'))
+			.withMessage("Invalid field terminator '\"'");
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.formats.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import ac.simons.neo4j.migrations.core.ChecksumStrategy;
+import ac.simons.neo4j.migrations.core.MigrationContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Michael J. Simons
+ */
+class ChecksumCacheTests {
+
+	private static final String ETAG = "\"v1\"";
+
+	@TempDir
+	Path dir;
+
+	private final List<Integer> responses = new CopyOnWriteArrayList<>();
+
+	private ServerSocket server;
+
+	private volatile String content = "a,b\n1,2\n";
+
+	/**
+	 * Serves {@link #content} with an {@code ETag} and answers matching conditional
+	 * requests with {@code 304}, one request per connection.
+	 * @throws IOException if the server cannot be started
+	 */
+	@BeforeEach
+	void startServer() throws IOException {
+
+		this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		var thread = new Thread(() -> {
+			while (!this.server.isClosed()) {
+				try (var socket = this.server.accept()) {
+					respond(socket);
+				}
+				catch (IOException ex) {
+					// Server has been stopped
+				}
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void respond(Socket socket) throws IOException {
+
+		var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+		String ifNoneMatch = null;
+		String line;
+		while ((line = reader.readLine()) != null && !line.isEmpty()) {
+			if (line.toLowerCase(Locale.ROOT).startsWith("if-none-match:")) {
+				ifNoneMatch = line.substring(line.indexOf(':') + 1).trim();
+			}
+		}
+		var body = this.content.getBytes(StandardCharsets.UTF_8);
+		var etag = "\"" + this.content.hashCode() + "\"";
+		var out = socket.getOutputStream();
+		if (etag.equals(ifNoneMatch)) {
+			this.responses.add(304);
+			out.write(("HTTP/1.1 304 Not Modified\r\nETag: " + etag + "\r\nConnection: close\r\n\r\n")
+				.getBytes(StandardCharsets.US_ASCII));
+		}
+		else {
+			this.responses.add(200);
+			out.write(("HTTP/1.1 200 OK\r\nETag: " + etag + "\r\nContent-Length: " + body.length
+					+ "\r\nConnection: close\r\n\r\n")
+				.getBytes(StandardCharsets.US_ASCII));
+			out.write(body);
+		}
+		out.flush();
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		this.server.close();
+	}
+
+	private URI source() {
+		return URI.create("http://127.0.0.1:" + this.server.getLocalPort() + "/data.csv");
+	}
+
+	@Test
+	void defaultLocationShouldBeUserSpecific() {
+
+		assertThat(ChecksumCache.DEFAULT_LOCATION).startsWith(Path.of(System.getProperty("user.home")));
+	}
+
+	@Test
+	void shouldStoreAndRetrieveEntries() {
+
+		var cache = new ChecksumCache(this.dir.resolve("cache").resolve("checksums.properties"));
+		var source = URI.create("https://example.com/data.csv");
+		assertThat(cache.get(source, ChecksumStrategy.crc32())).isEmpty();
+
+		var entry = new ChecksumCache.Entry(ETAG, null, OptionalLong.of(23), "4711");
+		cache.put(source, ChecksumStrategy.crc32(), entry);
+		assertThat(cache.get(source, ChecksumStrategy.crc32())).hasValue(entry);
+		assertThat(cache.get(source, ChecksumStrategy.xxHash64())).isEmpty();
+
+		cache.put(source, ChecksumStrategy.crc32(), new ChecksumCache.Entry(null, null, OptionalLong.empty(), "42"));
+		assertThat(cache.get(source, ChecksumStrategy.crc32())).hasValue(entry);
+	}
+
+	@Test
+	void loadCSVMigrationsShouldRevalidate() {
+
+		var cache = this.dir.resolve("checksums.properties");
+		var checksum = new LoadMigration(source(), cache).getChecksum();
+		assertThat(checksum).isPresent();
+		assertThat(new LoadMigration(source(), cache).getChecksum()).isEqualTo(checksum);
+		assertThat(this.responses).containsExactly(200, 304);
+
+		this.content = "a,b\n3,4\n";
+		assertThat(new LoadMigration(source(), cache).getChecksum()).isPresent().isNotEqualTo(checksum);
+		assertThat(this.responses).containsExactly(200, 304, 200);
+	}
+
+	@Test
+	void streamingMigrationsShouldRevalidate() {
+
+		var cache = this.dir.resolve("checksums.properties");
+		var checksum = new StreamingMigration(source(), cache).getChecksum();
+		assertThat(checksum).isPresent();
+		var secondMigration = new StreamingMigration(source(), cache);
+		assertThat(secondMigration.getChecksum()).isEqualTo(checksum);
+		assertThat(this.responses).containsExactly(200, 304);
+
+		// Applying requires the content, even if it has not been modified
+		var summary = mock(ResultSummary.class);
+		given(summary.counters()).willReturn(mock(SummaryCounters.class));
+		var result = mock(Result.class);
+		given(result.consume()).willReturn(summary);
+		var tx = mock(Transaction.class);
+		given(tx.run(anyString(), anyMap())).willReturn(result);
+		var session = mock(Session.class);
+		given(session.beginTransaction()).willReturn(tx);
+		var context = mock(MigrationContext.class);
+		given(context.getSession()).willReturn(session);
+		secondMigration.apply(context);
+		assertThat(this.responses).containsExactly(200, 304, 200);
+		verify(tx).commit();
+	}
+
+	static class LoadMigration extends AbstractLoadCSVMigration {
+
+		private final Path cache;
+
+		LoadMigration(URI source, Path cache) {
+			super(source, true);
+			this.cache = cache;
+		}
+
+		@Override
+		public Query getQuery() {
+			return new Query("LOAD CSV FROM '%s' AS row RETURN row");
+		}
+
+		@Override
+		protected Optional<Path> getChecksumCache() {
+			return Optional.of(this.cache);
+		}
+
+	}
+
+	static class StreamingMigration extends AbstractStreamingCSVMigration {
+
+		private final Path cache;
+
+		StreamingMigration(URI source, Path cache) {
+			super(source, true);
+			this.cache = cache;
+		}
+
+		@Override
+		public Query getQuery() {
+			return new Query("UNWIND $rows AS row RETURN row");
+		}
+
+		@Override
+		protected Optional<Path> getChecksumCache() {
+			return Optional.of(this.cache);
+		}
+
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.cli;
+
+import ac.simons.neo4j.migrations.core.CompactResult;
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * This command compacts long chains of applied migrations: Migrations up to a given
+ * version are folded into the baseline of the chain and old repetitions of repeatable
+ * migrations are pruned.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+@Command(name = "compact",
+		description = "Compacts the chain of applied migrations up to a given version and prunes old repetitions of repeatable migrations.")
+final class CompactCommand extends ConnectedCommand {
+
+	@ParentCommand
+	private MigrationsCli parent;
+
+	@Parameters(paramLabel = "version", arity = "0..1",
+			description = "The full name of the version or the unique name of the version up to which the chain should be compacted, omit to only prune repetitions")
+	private String versionValue;
+
+	@Option(names = "keep-repetitions", defaultValue = "1",
+			description = "The number of repetitions to keep for every repeatable migration")
+	private int repetitionsToKeep;
+
+	@Override
+	public MigrationsCli getParent() {
+		return this.parent;
+	}
+
+	@Override
+	boolean forceSilence() {
+		return true;
+	}
+
+	@Override
+	Integer withMigrations(Migrations migrations) {
+
+		MigrationVersion version = null;
+		if (this.versionValue != null) {
+			try {
+				version = MigrationVersion.parse(this.versionValue);
+			}
+			catch (MigrationsException ex) {
+				version = MigrationVersion.withValue(this.versionValue);
+			}
+		}
+
+		CompactResult result = migrations.compact(version, this.repetitionsToKeep);
+		MigrationsCli.LOGGER.info(result::prettyPrint);
+		result.getWarnings().forEach(MigrationsCli.LOGGER::warning);
+		return 0;
+	}
+
+}
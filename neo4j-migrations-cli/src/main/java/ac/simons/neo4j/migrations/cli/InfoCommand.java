@@ -38,6 +38,11 @@ final class InfoCommand extends ConnectedCommand {
 					+ "${DEFAULT-VALUE} will always compare locally discovered and remotely applied migrations, while the other options just check what's there.")
 	private MigrationChain.ChainBuilderMode mode = MigrationChain.ChainBuilderMode.COMPARE;
 
+	@Option(names = "format", defaultValue = "TABLE",
+			description = "The format in which to print the information. Valid options are ${COMPLETION-CANDIDATES} with ${DEFAULT-VALUE} being the default. "
+					+ "NDJSON and CSV print one line per migration without computing a table and don't include the connection details.")
+	private Format format = Format.TABLE;
+
 	@Override
 	public MigrationsCli getParent() {
 		return this.parent;
@@ -46,9 +51,22 @@ final class InfoCommand extends ConnectedCommand {
 	@Override
 	Integer withMigrations(Migrations migrations) {
 
-		MigrationChain migrationChain = migrations.info(this.mode);
-		MigrationsCli.LOGGER.info(migrationChain::prettyPrint);
+		if (this.format == Format.TABLE) {
+			MigrationChain migrationChain = migrations.info(this.mode);
+			MigrationsCli.LOGGER.info(migrationChain::prettyPrint);
+		}
+		else {
+			MigrationChain.ElementFormat elementFormat = MigrationChain.ElementFormat.valueOf(this.format.name());
+			elementFormat.getHeader().ifPresent(MigrationsCli.LOGGER::info);
+			migrations.info(this.mode, element -> MigrationsCli.LOGGER.info(() -> elementFormat.format(element)));
+		}
 		return 0;
 	}
 
+	enum Format {
+
+		TABLE, NDJSON, CSV
+
+	}
+
 }
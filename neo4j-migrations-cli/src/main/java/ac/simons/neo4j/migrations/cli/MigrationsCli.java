@@ -71,9 +71,10 @@ import picocli.CommandLine.Spec;
  * @since 0.0.5
  */
 @Command(name = "neo4j-migrations", mixinStandardHelpOptions = true, description = "Migrates Neo4j databases.",
-		subcommands = { CleanCommand.class, DeleteCommand.class, GenerateCompletion.class, HelpCommand.class,
-				InfoCommand.class, InitCommand.class, MigrateBTreeIndexesCommand.class, MigrateCommand.class,
-				RunCommand.class, ShowCatalogCommand.class, ValidateCommand.class, RepairCommand.class },
+		subcommands = { CleanCommand.class, CompactCommand.class, DeleteCommand.class, GenerateCompletion.class,
+				HelpCommand.class, InfoCommand.class, InitCommand.class, MigrateBTreeIndexesCommand.class,
+				MigrateCommand.class, RunCommand.class, ShowCatalogCommand.class, SnapshotCommand.class,
+				ValidateCommand.class, RepairCommand.class },
 		versionProvider = ManifestVersionProvider.class, defaultValueProvider = CommonEnvVarDefaultProvider.class)
 public final class MigrationsCli implements Runnable {
 
@@ -130,6 +131,16 @@ public final class MigrationsCli implements Runnable {
 			defaultValue = Defaults.TRANSACTION_MODE_VALUE)
 	private TransactionMode transactionMode;
 
+	@Option(names = { "--statements-per-transaction" },
+			description = "The maximum number of statements per transaction when using PER_N_STATEMENTS.",
+			defaultValue = Defaults.STATEMENTS_PER_TRANSACTION_VALUE)
+	private int statementsPerTransaction = Defaults.STATEMENTS_PER_TRANSACTION;
+
+	@Option(names = { "--max-bytes-per-transaction" },
+			description = "An optional budget of bytes of statements per transaction when using PER_N_STATEMENTS, 0 disables the budget.",
+			defaultValue = Defaults.MAX_BYTES_PER_TRANSACTION_VALUE)
+	private long maxBytesPerTransaction = Defaults.MAX_BYTES_PER_TRANSACTION;
+
 	@Option(names = { "--transaction-timeout" },
 			description = "Configures the transaction timeout that should be applied for each migration or each statement.")
 	private Duration transactionTimeout;
@@ -191,6 +202,15 @@ public final class MigrationsCli implements Runnable {
 			defaultValue = Defaults.USE_FLYWAY_COMPATIBLE_CHECKSUMS_VALUE)
 	private boolean useFlywayCompatibleChecksums;
 
+	@Option(names = { "--fuse-refactorings" },
+			description = "Fuse consecutive refactorings over the same elements into one statement where the server supports it, on by default.",
+			defaultValue = Defaults.FUSE_REFACTORINGS_VALUE)
+	private boolean fuseRefactorings;
+
+	@Option(names = { "--bootstrap-snapshot" },
+			description = "Location of a snapshot created with the snapshot command, used to bootstrap databases without any applied migrations in one step.")
+	private String bootstrapSnapshot;
+
 	@Option(names = { "--placeholder" },
 			description = "Placeholders to be replaced in Cypher scripts using the syntax ${nm:key}. Repeat for multiple placeholders.")
 	private Map<String, String> placeholders;
@@ -290,6 +310,8 @@ public final class MigrationsCli implements Runnable {
 			.withLocationsToScan(getOrComputeLocationsToScan())
 			.withPackagesToScan(this.packagesToScan)
 			.withTransactionMode(this.transactionMode)
+			.withStatementsPerTransaction(this.statementsPerTransaction)
+			.withMaxBytesPerTransaction(this.maxBytesPerTransaction)
 			.withTransactionTimeout(this.transactionTimeout)
 			.withDatabase(this.database)
 			.withSchemaDatabase(this.schemaDatabase)
@@ -300,6 +322,8 @@ public final class MigrationsCli implements Runnable {
 			.withVersionSortOrder(this.versionSortOrder)
 			.withOutOfOrderAllowed(this.outOfOrder)
 			.withFlywayCompatibleChecksums(this.useFlywayCompatibleChecksums)
+			.withFuseRefactorings(this.fuseRefactorings)
+			.withBootstrapSnapshot(this.bootstrapSnapshot)
 			.withTarget(this.target)
 			.withCypherVersion(this.cypherVersion)
 			.withPlaceholders(this.placeholders)
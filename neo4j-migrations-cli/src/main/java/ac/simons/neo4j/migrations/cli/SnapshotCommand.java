@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.cli;
+
+import java.net.URL;
+
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Creates a snapshot of the local migrations up to a given version and prints it to
+ * standard out. The snapshot can be used to bootstrap empty databases via
+ * {@code --bootstrap-snapshot}.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+@Command(name = "snapshot",
+		description = "Creates a snapshot of the local catalog and the given seed scripts up to a given version and prints it to standard out.")
+final class SnapshotCommand extends ConnectedCommand {
+
+	@ParentCommand
+	private MigrationsCli parent;
+
+	@Parameters(paramLabel = "version",
+			description = "The full name of the version or the unique name of the last version covered by the snapshot")
+	private String versionValue;
+
+	@Option(names = { "--seed" }, description = "Cypher script to add to the snapshot. Repeat for multiple scripts.",
+			split = ",")
+	private URL[] seeds = new URL[0];
+
+	@Override
+	public MigrationsCli getParent() {
+		return this.parent;
+	}
+
+	@Override
+	boolean forceSilence() {
+		return true;
+	}
+
+	@Override
+	// The snapshot must be printed and INFO will be enabled.
+	@SuppressWarnings("squid:S2629")
+	Integer withMigrations(Migrations migrations) {
+
+		MigrationVersion version;
+		try {
+			version = MigrationVersion.parse(this.versionValue);
+		}
+		catch (MigrationsException ex) {
+			version = MigrationVersion.withValue(this.versionValue);
+		}
+
+		MigrationsCli.LOGGER.info(migrations.snapshot(version, this.seeds).trim());
+		return CommandLine.ExitCode.OK;
+	}
+
+}
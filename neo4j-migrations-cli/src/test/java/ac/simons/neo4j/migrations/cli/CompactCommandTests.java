@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.cli;
+
+import java.util.Collections;
+
+import ac.simons.neo4j.migrations.core.CompactResult;
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * @author Michael J. Simons
+ */
+class CompactCommandTests {
+
+	private static void setField(CompactCommand cmd, String name, Object value) {
+		ReflectionSupport
+			.findFields(CompactCommand.class, f -> f.getName().equals(name), HierarchyTraversalMode.TOP_DOWN)
+			.forEach(f -> {
+				f.setAccessible(true);
+				try {
+					f.set(cmd, value);
+				}
+				catch (IllegalAccessException ex) {
+					throw new RuntimeException(ex);
+				}
+			});
+	}
+
+	private static CompactResult mockResult() {
+		CompactResult result = mock(CompactResult.class);
+		given(result.prettyPrint()).willReturn("compacted");
+		given(result.getWarnings()).willReturn(Collections.singletonList("a warning"));
+		return result;
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "4711", "V5000__WithCommentAtEnd.cypher" })
+	void shouldInvokeCorrectApi(String versionOrName) {
+
+		Migrations migrations = mock(Migrations.class);
+		CompactResult result = mockResult();
+		given(migrations.compact(any(MigrationVersion.class), anyInt())).willReturn(result);
+
+		CompactCommand cmd = new CompactCommand();
+		setField(cmd, "versionValue", versionOrName);
+		setField(cmd, "repetitionsToKeep", 3);
+
+		cmd.withMigrations(migrations);
+
+		verify(migrations).compact(any(MigrationVersion.class), eq(3));
+		verify(result).prettyPrint();
+		verify(result).getWarnings();
+
+		verifyNoMoreInteractions(migrations, result);
+	}
+
+	@Test
+	void versionShouldBeOptional() {
+
+		Migrations migrations = mock(Migrations.class);
+		CompactResult result = mockResult();
+		given(migrations.compact(isNull(), anyInt())).willReturn(result);
+
+		CompactCommand cmd = new CompactCommand();
+		setField(cmd, "repetitionsToKeep", 1);
+
+		cmd.withMigrations(migrations);
+
+		verify(migrations).compact(isNull(), eq(1));
+		verify(result).prettyPrint();
+		verify(result).getWarnings();
+
+		verifyNoMoreInteractions(migrations, result);
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.cli;
+
+import ac.simons.neo4j.migrations.core.MigrationChain.ChainBuilderMode;
+import ac.simons.neo4j.migrations.core.Migrations;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+import static com.github.stefanbirkner.systemlambda.SystemLambda.tapSystemOut;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * @author Michael J. Simons
+ */
+class InfoCommandTests {
+
+	private static void setFormat(InfoCommand cmd, InfoCommand.Format format) {
+		ReflectionSupport
+			.findFields(InfoCommand.class, f -> f.getName().equals("format"), HierarchyTraversalMode.TOP_DOWN)
+			.forEach(f -> {
+				f.setAccessible(true);
+				try {
+					f.set(cmd, format);
+				}
+				catch (IllegalAccessException ex) {
+					throw new RuntimeException(ex);
+				}
+			});
+	}
+
+	@Test
+	void shouldStreamCsv() throws Exception {
+
+		Migrations migrations = mock(Migrations.class);
+
+		String result = tapSystemOut(() -> {
+			InfoCommand cmd = new InfoCommand();
+			setFormat(cmd, InfoCommand.Format.CSV);
+			assertThat(cmd.withMigrations(migrations)).isZero();
+			System.out.flush();
+		});
+
+		assertThat(result).isEqualTo(
+				"version,description,type,installedOn,installedBy,executionTime,state,source" + System.lineSeparator());
+		verify(migrations).info(any(ChainBuilderMode.class), any());
+		verifyNoMoreInteractions(migrations);
+	}
+
+	@Test
+	void shouldStreamNdjson() {
+
+		Migrations migrations = mock(Migrations.class);
+
+		InfoCommand cmd = new InfoCommand();
+		setFormat(cmd, InfoCommand.Format.NDJSON);
+		assertThat(cmd.withMigrations(migrations)).isZero();
+
+		verify(migrations).info(any(ChainBuilderMode.class), any());
+		verifyNoMoreInteractions(migrations);
+	}
+
+}
@@ -205,6 +205,36 @@ class MigrationsCliTests {
 		assertThat(cli.getConfig().isUseFlywayCompatibleChecksums()).isTrue();
 	}
 
+	@Test
+	void fuseRefactoringsShouldBeEnabledByDefault() {
+
+		MigrationsCli cli = new MigrationsCli();
+		CommandLine commandLine = new CommandLine(cli);
+		commandLine.parseArgs();
+
+		assertThat(cli.getConfig().isFuseRefactorings()).isTrue();
+	}
+
+	@Test
+	void fuseRefactoringsShouldBeDisableable() {
+
+		MigrationsCli cli = new MigrationsCli();
+		CommandLine commandLine = new CommandLine(cli);
+		commandLine.parseArgs("--fuse-refactorings=false");
+
+		assertThat(cli.getConfig().isFuseRefactorings()).isFalse();
+	}
+
+	@Test
+	void bootstrapSnapshotShouldBeApplied() {
+
+		MigrationsCli cli = new MigrationsCli();
+		CommandLine commandLine = new CommandLine(cli);
+		commandLine.parseArgs("--bootstrap-snapshot=file:/tmp/snapshot.cypher");
+
+		assertThat(cli.getConfig().getOptionalBootstrapSnapshot()).hasValue("file:/tmp/snapshot.cypher");
+	}
+
 	@Test // GH-1536
 	void targetShouldBeNullByDefault() {
 
@@ -349,6 +379,20 @@ class MigrationsCliTests {
 		assertThat(cli.getConfig().getTransactionTimeout()).isEqualTo(Duration.ofSeconds(83));
 	}
 
+	@Test
+	void shouldConfigureChunkedTransactions() {
+
+		MigrationsCli cli = new MigrationsCli();
+		CommandLine commandLine = new CommandLine(cli);
+		commandLine.parseArgs("--transaction-mode", "PER_N_STATEMENTS", "--statements-per-transaction", "23",
+				"--max-bytes-per-transaction", "4096");
+
+		MigrationsConfig config = cli.getConfig();
+		assertThat(config.getTransactionMode()).isEqualTo(MigrationsConfig.TransactionMode.PER_N_STATEMENTS);
+		assertThat(config.getStatementsPerTransaction()).isEqualTo(23);
+		assertThat(config.getMaxBytesPerTransaction()).isEqualTo(4096L);
+	}
+
 	@Nested
 	class PropertiesSupport {
 
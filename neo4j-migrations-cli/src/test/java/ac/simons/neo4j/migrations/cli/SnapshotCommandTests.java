@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.cli;
+
+import java.net.URL;
+
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+import static com.github.stefanbirkner.systemlambda.SystemLambda.tapSystemOut;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * @author Michael J. Simons
+ */
+class SnapshotCommandTests {
+
+	@Test
+	void shouldPrintSnapshot() throws Exception {
+
+		Migrations migrations = mock(Migrations.class);
+		given(migrations.snapshot(any(MigrationVersion.class), any(URL[].class)))
+			.willReturn("// neo4j-migrations snapshot version=2 migrations=2 checksum=4711\n");
+
+		SnapshotCommand cmd = new SnapshotCommand();
+		ReflectionSupport
+			.findFields(SnapshotCommand.class, f -> f.getName().equals("versionValue"), HierarchyTraversalMode.TOP_DOWN)
+			.forEach(f -> {
+				f.setAccessible(true);
+				try {
+					f.set(cmd, "V2__Seed.cypher");
+				}
+				catch (IllegalAccessException ex) {
+					throw new RuntimeException(ex);
+				}
+			});
+
+		String result = tapSystemOut(() -> cmd.withMigrations(migrations));
+
+		assertThat(result).contains("// neo4j-migrations snapshot version=2 migrations=2 checksum=4711");
+		verify(migrations).snapshot(eq(MigrationVersion.withValue("2")), any(URL[].class));
+		verifyNoMoreInteractions(migrations);
+	}
+
+}
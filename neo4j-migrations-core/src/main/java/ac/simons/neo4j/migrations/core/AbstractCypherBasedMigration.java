@@ -76,7 +76,10 @@ public abstract non-sealed class AbstractCypherBasedMigration implements Migrati
 
 	@Override
 	public final void apply(MigrationContext context) throws MigrationsException {
-		DefaultCypherResource.executeIn(this.cypherResource, context, UnaryOperator.identity());
+		// A migration running in one transaction has nothing to resume
+		var progress = (context.getConfig().getTransactionMode() == MigrationsConfig.TransactionMode.PER_MIGRATION)
+				? MigrationProgress.none() : MigrationProgress.of(context, this);
+		DefaultCypherResource.executeIn(this.cypherResource, context, UnaryOperator.identity(), progress);
 	}
 
 	@Override
@@ -27,7 +27,7 @@ import org.jspecify.annotations.Nullable;
  * @since 2.2.0
  */
 abstract sealed class AbstractRepairmentResult implements DatabaseOperationResult
-		permits DeleteResult, RepairmentResult {
+		permits CompactResult, DeleteResult, RepairmentResult {
 
 	@Nullable private final String affectedDatabase;
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+/**
+ * The checksum strategies shipped with Neo4j-Migrations.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+enum BuiltInChecksumStrategy implements ChecksumStrategy {
+
+	CRC32("crc32", java.util.zip.CRC32::new),
+
+	CRC32C("crc32c", java.util.zip.CRC32C::new),
+
+	XXHASH64("xxhash64", XxHash64::new);
+
+	private final String name;
+
+	private final Supplier<Checksum> checksumSupplier;
+
+	BuiltInChecksumStrategy(String name, Supplier<Checksum> checksumSupplier) {
+		this.name = name;
+		this.checksumSupplier = checksumSupplier;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public Checksum newChecksum() {
+		return this.checksumSupplier.get();
+	}
+
+}
@@ -15,15 +15,11 @@
  */
 package ac.simons.neo4j.migrations.core;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serial;
 import java.net.URLDecoder;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -36,15 +32,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.zip.CRC32;
 
 import javax.xml.XMLConstants;
-import javax.xml.crypto.XMLCryptoContext;
-import javax.xml.crypto.dom.DOMStructure;
-import javax.xml.crypto.dsig.CanonicalizationMethod;
-import javax.xml.crypto.dsig.TransformException;
-import javax.xml.crypto.dsig.TransformService;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -61,21 +50,18 @@ import ac.simons.neo4j.migrations.core.catalog.Name;
 import ac.simons.neo4j.migrations.core.catalog.Operator;
 import ac.simons.neo4j.migrations.core.catalog.RenderConfig;
 import ac.simons.neo4j.migrations.core.catalog.Renderer;
-import ac.simons.neo4j.migrations.core.internal.NodeSetDataImpl;
-import ac.simons.neo4j.migrations.core.internal.NoopDOMCryptoContext;
 import ac.simons.neo4j.migrations.core.internal.ThrowingErrorHandler;
 import ac.simons.neo4j.migrations.core.internal.XMLSchemaConstants;
 import ac.simons.neo4j.migrations.core.refactorings.Counters;
+import ac.simons.neo4j.migrations.core.refactorings.FusedRefactoring;
 import ac.simons.neo4j.migrations.core.refactorings.Refactoring;
 import org.jspecify.annotations.Nullable;
 import org.neo4j.driver.QueryRunner;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.exceptions.Neo4jException;
 import org.neo4j.driver.summary.SummaryCounters;
-import org.w3c.dom.CharacterData;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
@@ -101,11 +87,11 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 
 	/**
 	 * Neither document builder factories nor document builders are thread safe, so here
-	 * we are… This is supposed to stay there, otherwise I can spare myself the effort of
-	 * a thread local.
+	 * we are… Builders are reset before each use, so that the schema is compiled into a
+	 * validator only once per thread.
 	 */
 	@SuppressWarnings("squid:S5164")
-	private static final ThreadLocal<DocumentBuilderFactory> DOCUMENT_BUILDER_FACTORY;
+	private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER;
 
 	static {
 		try {
@@ -117,12 +103,17 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 			throw new MigrationsException("Could not load XML schema definition for schema based migrations.", ex);
 		}
 
-		DOCUMENT_BUILDER_FACTORY = ThreadLocal.withInitial(() -> {
+		DOCUMENT_BUILDER = ThreadLocal.withInitial(() -> {
 			DocumentBuilderFactory value = DocumentBuilderFactory.newInstance();
 			value.setSchema(MIGRATION_SCHEMA);
 			value.setExpandEntityReferences(false);
 			value.setNamespaceAware(true);
-			return value;
+			try {
+				return value.newDocumentBuilder();
+			}
+			catch (ParserConfigurationException ex) {
+				throw new MigrationsException("Could not create a document builder for schema based migrations.", ex);
+			}
 		});
 	}
 
@@ -132,6 +123,11 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 
 	private final String checksum;
 
+	/**
+	 * The CRC32 checksum if the checksum has been computed with a different strategy.
+	 */
+	private final @Nullable String legacyChecksum;
+
 	private final Catalog catalog;
 
 	private final List<Operation> operations;
@@ -146,98 +142,18 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 	 */
 	private List<String> alternativeChecksums = Collections.emptyList();
 
-	private CatalogBasedMigration(String source, MigrationVersion version, String checksum, Catalog catalog,
+	private CatalogBasedMigration(String source, MigrationVersion version, Checksums.Result checksum, Catalog catalog,
 			List<Operation> operations, List<Precondition> preconditions, boolean resetCatalog) {
 		this.source = source;
 		this.version = version;
-		this.checksum = checksum;
+		this.checksum = checksum.value();
+		this.legacyChecksum = checksum.legacyValue().orElse(null);
 		this.catalog = catalog;
 		this.operations = operations;
 		this.preconditions = preconditions;
 		this.resetCatalog = resetCatalog;
 	}
 
-	private static String computeChecksum(Document document) {
-
-		final NodeList allElements = document.getElementsByTagName("*");
-
-		Node newCatalog = document.createElement(XMLSchemaConstants.CATALOG);
-		Node oldCatalog = null;
-		Node constraints = null;
-		Node indexes = null;
-
-		final List<Node> elements = new ArrayList<>();
-		for (int i = 0; i < allElements.getLength(); i++) {
-			Node currentItem = allElements.item(i);
-
-			if (currentItem.getLocalName().equals(XMLSchemaConstants.CATALOG)) {
-				oldCatalog = currentItem;
-				continue;
-			}
-			if (currentItem.getLocalName().equals(XMLSchemaConstants.INDEXES)) {
-				indexes = currentItem;
-			}
-			else if (currentItem.getLocalName().equals(XMLSchemaConstants.CONSTRAINTS)) {
-				constraints = currentItem;
-			}
-			elements.add(currentItem);
-			NodeList childNodes = currentItem.getChildNodes();
-			for (int j = 0; j < childNodes.getLength(); ++j) {
-				Node childItem = childNodes.item(j);
-				if (!(childItem instanceof CharacterData textNode) || textNode.getTextContent().trim().isEmpty()) {
-					continue;
-				}
-
-				String content = Arrays.stream(textNode.getTextContent().split("\r?\n"))
-					.map(String::trim)
-					.collect(Collectors.joining("\n"));
-				textNode.setData(content);
-				elements.add(textNode);
-			}
-		}
-
-		if (oldCatalog != null) {
-			updateCatalog(oldCatalog, newCatalog);
-		}
-		if (constraints != null) {
-			newCatalog.appendChild(constraints);
-		}
-		if (indexes != null) {
-			newCatalog.appendChild(indexes);
-		}
-		elements.add(newCatalog);
-		return canonicalizeAndChecksumElements(document, elements);
-	}
-
-	private static void updateCatalog(Node oldCatalog, Node newCatalog) {
-		oldCatalog.getParentNode().replaceChild(newCatalog, oldCatalog);
-		NamedNodeMap attributes = oldCatalog.getAttributes();
-		for (int i = 0; i < attributes.getLength(); ++i) {
-			Node attribute = attributes.item(i);
-			attributes.removeNamedItem(attribute.getNodeName());
-			newCatalog.getAttributes().setNamedItem(attribute);
-		}
-	}
-
-	private static String canonicalizeAndChecksumElements(Document document, List<Node> elements) {
-		try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-			XMLCryptoContext cryptoContext = new NoopDOMCryptoContext();
-			TransformService transformService = TransformService.getInstance(CanonicalizationMethod.INCLUSIVE, "DOM");
-			transformService.init(new DOMStructure(document.createElement("holder")), cryptoContext);
-			transformService.transform(NodeSetDataImpl.of(elements), cryptoContext, os);
-
-			os.flush();
-
-			final CRC32 crc32 = new CRC32();
-			byte[] bytes = os.toByteArray();
-			crc32.update(bytes, 0, bytes.length);
-			return Long.toString(crc32.getValue());
-		}
-		catch (TransformException | NoSuchAlgorithmException | InvalidAlgorithmParameterException | IOException ex) {
-			throw new MigrationsException("Could not canonicalize an xml document", ex);
-		}
-	}
-
 	static Migration from(ResourceContext context) {
 
 		var url = context.getUrl();
@@ -247,14 +163,16 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 		MigrationVersion version = MigrationVersion.parse(fileName);
 
 		Document document = parseDocument(context);
-		return new CatalogBasedMigration(fileName, version, computeChecksum(document), Catalog.of(document),
+		return new CatalogBasedMigration(fileName, version,
+				CatalogChecksum.of(document, context.getConfig().getChecksumStrategy()), Catalog.of(document),
 				parseOperations(document, version), getPreconditions(document), isResetCatalog(document));
 	}
 
 	static Document parseDocument(ResourceContext context) {
 
 		try (InputStream source = context.openStream()) {
-			DocumentBuilder documentBuilder = DOCUMENT_BUILDER_FACTORY.get().newDocumentBuilder();
+			DocumentBuilder documentBuilder = DOCUMENT_BUILDER.get();
+			documentBuilder.reset();
 			documentBuilder.setErrorHandler(new ThrowingErrorHandler());
 			Document document = documentBuilder.parse(source);
 
@@ -265,7 +183,7 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 		catch (SAXParseException ex) {
 			throw new MigrationsException("Could not parse migration: " + ex.getMessage());
 		}
-		catch (SAXException | IOException | ParserConfigurationException ex) {
+		catch (SAXException | IOException ex) {
 			throw new MigrationsException("Could not parse the given document", ex);
 		}
 	}
@@ -304,6 +222,8 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 			throw new MigrationsException("Invalid document: No <migration /> element.");
 		}
 		NodeList childNodes = migration.item(0).getChildNodes();
+		// Consecutive refactorings are collected so that compatible ones can be fused
+		List<Refactoring> refactorings = new ArrayList<>();
 		for (int i = 0; i < childNodes.getLength(); ++i) {
 			Node node = childNodes.item(i);
 			String nodeName = node.getNodeName();
@@ -312,13 +232,15 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 				continue;
 			}
 			if (XMLSchemaConstants.REFACTOR.equals(nodeName)) {
-				result.add(Operation.refactorWith(CatalogBasedRefactorings.fromNode(node)));
+				refactorings.add(CatalogBasedRefactorings.fromNode(node));
 			}
 			else {
+				addRefactorings(refactorings, result);
 				OperationType type = OperationType.valueOf(nodeName.toUpperCase(Locale.ROOT));
 				result.add(type.build((Element) node, version));
 			}
 		}
+		addRefactorings(refactorings, result);
 
 		Comparator<CatalogItem<?>> catalogItemComparator = CatalogBasedMigration::compareCatalogItems;
 		return result.stream().sorted((operation1, operation2) -> {
@@ -332,6 +254,11 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 		}).toList();
 	}
 
+	private static void addRefactorings(List<Refactoring> refactorings, List<Operation> operations) {
+		FusedRefactoring.fuse(refactorings).stream().map(Operation::refactorWith).forEach(operations::add);
+		refactorings.clear();
+	}
+
 	/**
 	 * Sorts operations by type (constraints before indexes).
 	 * @param o1 first item to compare
@@ -370,7 +297,13 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 
 	@Override
 	public List<String> getAlternativeChecksums() {
-		return Collections.unmodifiableList(this.alternativeChecksums);
+
+		if (this.legacyChecksum == null || this.alternativeChecksums.contains(this.legacyChecksum)) {
+			return Collections.unmodifiableList(this.alternativeChecksums);
+		}
+		List<String> result = new ArrayList<>(this.alternativeChecksums);
+		result.add(this.legacyChecksum);
+		return Collections.unmodifiableList(result);
 	}
 
 	@Override
@@ -406,18 +339,8 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 	@Override
 	public void apply(MigrationContext context) {
 
-		Neo4jVersion neo4jVersion = Neo4jVersion.of(context.getConnectionDetails().getServerVersion());
-		Neo4jEdition neo4jEdition = Neo4jEdition.of(context.getConnectionDetails().getServerEdition());
-
-		Catalog globalCatalog = context.getCatalog();
-		if (!(globalCatalog instanceof VersionedCatalog)) {
-			throw new MigrationsException("Cannot use catalog based migrations without a versioned catalog.");
-		}
-
+		OperationContext operationContext = OperationContext.of(context);
 		try {
-			OperationContext operationContext = new OperationContext(neo4jVersion, neo4jEdition,
-					(VersionedCatalog) globalCatalog, context.getConfig(), context::getSession);
-
 			Counters counters = this.operations.stream()
 				.map(op -> op.execute(operationContext))
 				.reduce(Counters.empty(), Counters::add);
@@ -744,7 +667,26 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 	}
 
 	record OperationContext(Neo4jVersion version, Neo4jEdition edition, VersionedCatalog catalog,
-			MigrationsConfig config, Supplier<Session> sessionSupplier) {
+			MigrationsConfig config, Supplier<Session> sessionSupplier, @Nullable String serverVersion,
+			DefaultRefactoringContext.PlanCache planCache) {
+
+		OperationContext(Neo4jVersion version, Neo4jEdition edition, VersionedCatalog catalog, MigrationsConfig config,
+				Supplier<Session> sessionSupplier) {
+			this(version, edition, catalog, config, sessionSupplier, null, new DefaultRefactoringContext.PlanCache());
+		}
+
+		static OperationContext of(MigrationContext context) {
+
+			ConnectionDetails connectionDetails = context.getConnectionDetails();
+			if (!(context.getCatalog() instanceof VersionedCatalog versionedCatalog)) {
+				throw new MigrationsException("Cannot use catalog based migrations without a versioned catalog.");
+			}
+			return new OperationContext(Neo4jVersion.of(connectionDetails.getServerVersion()),
+					Neo4jEdition.of(connectionDetails.getServerEdition()), versionedCatalog, context.getConfig(),
+					context::getSession, connectionDetails.getServerVersion(),
+					DefaultRefactoringContext.planCacheOf(context));
+		}
+
 	}
 
 	/**
@@ -760,7 +702,32 @@ final class CatalogBasedMigration implements MigrationWithPreconditions {
 
 		@Override
 		public Counters execute(OperationContext context) {
-			return this.refactoring.apply(new DefaultRefactoringContext(context.sessionSupplier, context.version));
+			var refactoringContext = new DefaultRefactoringContext(context.sessionSupplier, context.version,
+					context.serverVersion, context.config().getOptionalThrottle().orElse(null),
+					context.config().getOptionalRefactoringProgressListener().orElse(null), context.planCache);
+			if (this.refactoring instanceof FusedRefactoring fusedRefactoring
+					&& !(context.config().isFuseRefactorings() && fusedRefactoring.isSupportedBy(context.version()))) {
+				// Servers prior to Neo4j 5 can't run batched, fused statements
+				var counters = FusedRefactoring.FusedCounters.of(fusedRefactoring.getRefactorings()
+					.stream()
+					.map(each -> each.apply(refactoringContext))
+					.toList());
+				log(fusedRefactoring, counters);
+				return counters.total();
+			}
+			return this.refactoring.apply(refactoringContext);
+		}
+
+		private static void log(FusedRefactoring fusedRefactoring, FusedRefactoring.FusedCounters counters) {
+			if (!LOGGER.isLoggable(Level.FINE)) {
+				return;
+			}
+			var refactorings = fusedRefactoring.getRefactorings();
+			for (int i = 0; i < refactorings.size(); ++i) {
+				LOGGER.log(Level.FINE, "Unfused refactoring {0} ({1}) set {2} properties",
+						new Object[] { i + 1, refactorings.get(i).getClass().getSimpleName(),
+								counters.perRefactoring().get(i).propertiesSet() });
+			}
 		}
 
 	}
@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 
 import ac.simons.neo4j.migrations.core.catalog.Index;
 import ac.simons.neo4j.migrations.core.refactorings.AddSurrogateKey;
+import ac.simons.neo4j.migrations.core.refactorings.BulkMerge;
 import ac.simons.neo4j.migrations.core.refactorings.CustomizableRefactoring;
 import ac.simons.neo4j.migrations.core.refactorings.ListToVector;
 import ac.simons.neo4j.migrations.core.refactorings.Merge;
@@ -37,6 +38,7 @@ import ac.simons.neo4j.migrations.core.refactorings.MigrateBTreeIndexes;
 import ac.simons.neo4j.migrations.core.refactorings.Normalize;
 import ac.simons.neo4j.migrations.core.refactorings.Refactoring;
 import ac.simons.neo4j.migrations.core.refactorings.Rename;
+import ac.simons.neo4j.migrations.core.refactorings.ResumableRefactoring;
 import org.jspecify.annotations.Nullable;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -130,8 +132,8 @@ final class CatalogBasedRefactorings {
 					.orElse(r)
 				: null);
 
-		return customize(Objects.requireNonNull(refactoring.get(), "Could not determine refactoring"), node, type,
-				parameterList);
+		return resumable(customize(Objects.requireNonNull(refactoring.get(), "Could not determine refactoring"), node,
+				type, parameterList), node, parameterList);
 	}
 
 	@SuppressWarnings("squid:S3776")
@@ -180,7 +182,8 @@ final class CatalogBasedRefactorings {
 					? r.withElementType(ListToVector.ElementType.valueOf(p.trim().toUpperCase(Locale.ROOT))) : null)
 			.orElse(r));
 
-		return customize(Objects.requireNonNull(refactoring.get()), node, type, parameterList);
+		return resumable(customize(Objects.requireNonNull(refactoring.get()), node, type, parameterList), node,
+				parameterList);
 	}
 
 	private static Refactoring createMigrateBtreeIndexes(Node node, boolean drop) {
@@ -247,7 +250,9 @@ final class CatalogBasedRefactorings {
 		List<Object> trueValues = rawTrueValues.stream().map(mapToType).toList();
 		List<Object> falseValues = rawFalseValues.stream().map(mapToType).toList();
 
-		Normalize normalize = Normalize.asBoolean(property, trueValues, falseValues);
+		Normalize normalize = Normalize.asBoolean(property, trueValues, falseValues)
+			.withLabels(findParameterValues(parameterList, "labels").orElseGet(List::of).toArray(String[]::new))
+			.withTypes(findParameterValues(parameterList, "types").orElseGet(List::of).toArray(String[]::new));
 		return customize(normalize, node, type, parameterList);
 	}
 
@@ -264,6 +269,20 @@ final class CatalogBasedRefactorings {
 						nfe);
 			}
 		}
+		Optional<String> concurrency = findParameter(node, "concurrency", parameterList);
+		if (concurrency.isPresent()) {
+			try {
+				result = result.inConcurrentTransactions(Integer.parseInt(concurrency.get()));
+			}
+			catch (NumberFormatException nfe) {
+				throw createException(node, type,
+						"Invalid value `" + concurrency.get() + "` for parameter `concurrency`", nfe);
+			}
+		}
+		Optional<String> adaptiveBatchSize = findParameter(node, "adaptiveBatchSize", parameterList);
+		if (adaptiveBatchSize.isPresent()) {
+			result = result.withAdaptiveBatchSize(Boolean.parseBoolean(adaptiveBatchSize.get()));
+		}
 		Optional<String> customQuery = findParameter(node, PARAMETER_NAME_CUSTOM_QUERY, parameterList);
 		if (customQuery.isPresent()) {
 			result = result.withCustomQuery(customQuery.get());
@@ -271,9 +290,20 @@ final class CatalogBasedRefactorings {
 		return result;
 	}
 
+	private static <T extends ResumableRefactoring<T>> T resumable(T refactoring, Node node, NodeList parameterList) {
+		Optional<String> rangeProperty = findParameter(node, "rangeProperty", parameterList);
+		if (rangeProperty.isPresent()) {
+			return refactoring.resumableBy(rangeProperty.get().trim());
+		}
+		return findParameter(node, "resumable", parameterList).filter(Boolean::parseBoolean)
+			.map(v -> refactoring.resumable())
+			.orElse(refactoring);
+	}
+
 	private static Merge createMerge(Node node, String type) {
-		String sourceQuery = findParameter(node, "sourceQuery")
-			.orElseThrow(() -> createException(node, type, "No source query"));
+		Optional<String> groupingProperty = findParameter(node, "groupingProperty");
+		String sourceQuery = groupingProperty.isPresent() ? null
+				: findParameter(node, "sourceQuery").orElseThrow(() -> createException(node, type, "No source query"));
 		List<Merge.PropertyMergePolicy> mergePolicies = findAllParameters(node, "mergePolicy").stream().map(p -> {
 			String pattern = null;
 			Merge.PropertyMergePolicy.Strategy strategy = null;
@@ -291,7 +321,28 @@ final class CatalogBasedRefactorings {
 			}
 			return Merge.PropertyMergePolicy.of(pattern, strategy);
 		}).filter(Objects::nonNull).toList();
-		return Merge.nodes(sourceQuery, mergePolicies);
+		if (sourceQuery != null) {
+			return Merge.nodes(sourceQuery, mergePolicies);
+		}
+
+		String label = findParameter(node, "label")
+			.orElseThrow(() -> createException(node, type, "No `label` parameter for grouping property"));
+		BulkMerge merge = Merge.nodesGroupedBy(label, groupingProperty.get(), mergePolicies);
+		Optional<String> batchSize = findParameter(node, "batchSize");
+		Optional<String> concurrency = findParameter(node, "concurrency");
+		try {
+			if (batchSize.isPresent()) {
+				merge = merge.inBatchesOf(Integer.parseInt(batchSize.get()));
+			}
+			if (concurrency.isPresent()) {
+				merge = merge.inConcurrentTransactions(Integer.parseInt(concurrency.get()));
+			}
+		}
+		catch (NumberFormatException nfe) {
+			throw createException(node, type, "Invalid value for parameter `batchSize` or `concurrency`", nfe);
+		}
+		Optional<String> orderedBy = findParameter(node, "orderedBy");
+		return orderedBy.isPresent() ? merge.orderedBy(orderedBy.get()) : merge;
 	}
 
 	private static Refactoring createRename(Node node, String type) {
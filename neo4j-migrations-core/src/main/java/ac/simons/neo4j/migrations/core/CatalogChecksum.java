@@ -0,0 +1,309 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.xml.XMLConstants;
+import javax.xml.crypto.XMLCryptoContext;
+import javax.xml.crypto.dom.DOMStructure;
+import javax.xml.crypto.dsig.CanonicalizationMethod;
+import javax.xml.crypto.dsig.TransformException;
+import javax.xml.crypto.dsig.TransformService;
+
+import ac.simons.neo4j.migrations.core.internal.NodeSetDataImpl;
+import ac.simons.neo4j.migrations.core.internal.NoopDOMCryptoContext;
+import ac.simons.neo4j.migrations.core.internal.XMLSchemaConstants;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Computes the checksum of a catalog-based migration. The checksum is defined as the
+ * checksum of the inclusive canonical form (C14N) of all elements and non-blank text
+ * nodes of the document, after trimming each line of text and moving constraints before
+ * indexes inside the catalog. Running the XML-DSig canonicalization requires rearranging
+ * the document and buffering the result, so documents in the usual shape - one default
+ * namespace declared on the root element, no prefixes, at most one catalog - are written
+ * directly in their canonical form in a single pass. The result is byte-identical, so
+ * checksums of already applied migrations stay valid. All other documents are still
+ * canonicalized through XML-DSig.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class CatalogChecksum {
+
+	private static final Comparator<Attr> ATTRIBUTE_ORDER = Comparator.comparing(Attr::getName);
+
+	private CatalogChecksum() {
+	}
+
+	/**
+	 * Computes the checksum of a parsed document.
+	 * @param document the document, must not be modified afterward
+	 * @param checksumStrategy the strategy to use
+	 * @return the checksum
+	 */
+	static Checksums.Result of(Document document, ChecksumStrategy checksumStrategy) {
+
+		var canonicalForm = new StringBuilder(1024);
+		if (!canonicalize(document, canonicalForm)) {
+			return legacy(document, checksumStrategy);
+		}
+		return Checksums.of(checksumStrategy, canonicalForm.toString().getBytes(Defaults.CYPHER_SCRIPT_ENCODING));
+	}
+
+	/**
+	 * Writes the canonical form of the document if the document has the usual shape.
+	 * @param document the document to canonicalize
+	 * @param target receives the canonical form
+	 * @return {@literal false} if the document must be canonicalized the legacy way
+	 */
+	static boolean canonicalize(Document document, StringBuilder target) {
+
+		var root = document.getDocumentElement();
+		if (document.getDoctype() != null || root == null || root.getPrefix() != null) {
+			return false;
+		}
+		var defaultNamespace = root.getAttributeNodeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+				XMLConstants.XMLNS_ATTRIBUTE);
+		if (defaultNamespace == null || !hasUsualCatalog(root)) {
+			return false;
+		}
+		return writeElement(root, defaultNamespace, target);
+	}
+
+	private static boolean hasUsualCatalog(Element root) {
+
+		var catalogs = root.getElementsByTagNameNS("*", XMLSchemaConstants.CATALOG);
+		if (catalogs.getLength() > 1
+				|| (catalogs.getLength() == 1 && catalogs.item(0).getAttributes().getLength() > 1)) {
+			return false;
+		}
+		for (String name : List.of(XMLSchemaConstants.CONSTRAINTS, XMLSchemaConstants.INDEXES)) {
+			var elements = root.getElementsByTagNameNS("*", name);
+			if (elements.getLength() > 1 || (elements.getLength() == 1
+					&& (catalogs.getLength() == 0 || elements.item(0).getParentNode() != catalogs.item(0)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean writeElement(Element element, Attr defaultNamespace, StringBuilder target) {
+
+		var name = element.getLocalName();
+		List<Attr> attributes = new ArrayList<>();
+		NamedNodeMap attributeMap = element.getAttributes();
+		for (int i = 0; i < attributeMap.getLength(); ++i) {
+			var attribute = (Attr) attributeMap.item(i);
+			if (attribute == defaultNamespace) {
+				continue;
+			}
+			if (attribute.getNamespaceURI() != null || attribute.getPrefix() != null) {
+				return false;
+			}
+			attributes.add(attribute);
+		}
+		if (element.getPrefix() != null) {
+			return false;
+		}
+
+		target.append('<').append(name);
+		if (element.getOwnerDocument().getDocumentElement() == element) {
+			target.append(" xmlns=\"");
+			escape(defaultNamespace.getValue(), true, target);
+			target.append('"');
+		}
+		attributes.sort(ATTRIBUTE_ORDER);
+		for (Attr attribute : attributes) {
+			target.append(' ').append(attribute.getName()).append("=\"");
+			escape(attribute.getValue(), true, target);
+			target.append('"');
+		}
+		target.append('>');
+
+		if (XMLSchemaConstants.CATALOG.equals(name)) {
+			// The catalog is rewritten without its text and with constraints before
+			// indexes
+			for (String itemsName : List.of(XMLSchemaConstants.CONSTRAINTS, XMLSchemaConstants.INDEXES)) {
+				var items = element.getElementsByTagNameNS("*", itemsName);
+				if (items.getLength() == 1 && !writeElement((Element) items.item(0), defaultNamespace, target)) {
+					return false;
+				}
+			}
+		}
+		else if (!writeChildren(element, defaultNamespace, target)) {
+			return false;
+		}
+
+		target.append("</").append(name).append('>');
+		return true;
+	}
+
+	private static boolean writeChildren(Element element, Attr defaultNamespace, StringBuilder target) {
+
+		NodeList children = element.getChildNodes();
+		for (int i = 0; i < children.getLength(); ++i) {
+			var child = children.item(i);
+			switch (child.getNodeType()) {
+				case Node.ELEMENT_NODE -> {
+					if (!writeElement((Element) child, defaultNamespace, target)) {
+						return false;
+					}
+				}
+				case Node.TEXT_NODE, Node.CDATA_SECTION_NODE -> {
+					var text = child.getTextContent();
+					if (!text.trim().isEmpty()) {
+						escape(trimLines(text), false, target);
+					}
+				}
+				case Node.ENTITY_REFERENCE_NODE -> {
+					return false;
+				}
+				default -> {
+					// Comments and processing instructions are not part of the canonical
+					// form
+				}
+			}
+		}
+		return true;
+	}
+
+	private static String trimLines(String text) {
+		return Arrays.stream(text.split("\r?\n")).map(String::trim).collect(Collectors.joining("\n"));
+	}
+
+	/**
+	 * Escapes text or attribute values as defined for Canonical XML 1.0.
+	 * @param value the value to escape
+	 * @param attribute whether the value is an attribute value
+	 * @param target receives the escaped value
+	 */
+	private static void escape(String value, boolean attribute, StringBuilder target) {
+
+		for (int i = 0; i < value.length(); ++i) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '&' -> target.append("&amp;");
+				case '<' -> target.append("&lt;");
+				case '>' -> target.append(attribute ? ">" : "&gt;");
+				case '"' -> target.append(attribute ? "&quot;" : "\"");
+				case '\t' -> target.append(attribute ? "&#x9;" : "\t");
+				case '\n' -> target.append(attribute ? "&#xA;" : "\n");
+				case '\r' -> target.append("&#xD;");
+				default -> target.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Computes the checksum through XML-DSig canonicalization. This modifies the
+	 * document.
+	 * @param document the document
+	 * @param checksumStrategy the strategy to use
+	 * @return the checksum
+	 */
+	static Checksums.Result legacy(Document document, ChecksumStrategy checksumStrategy) {
+
+		final NodeList allElements = document.getElementsByTagName("*");
+
+		Node newCatalog = document.createElement(XMLSchemaConstants.CATALOG);
+		Node oldCatalog = null;
+		Node constraints = null;
+		Node indexes = null;
+
+		final List<Node> elements = new ArrayList<>();
+		for (int i = 0; i < allElements.getLength(); i++) {
+			Node currentItem = allElements.item(i);
+
+			if (currentItem.getLocalName().equals(XMLSchemaConstants.CATALOG)) {
+				oldCatalog = currentItem;
+				continue;
+			}
+			if (currentItem.getLocalName().equals(XMLSchemaConstants.INDEXES)) {
+				indexes = currentItem;
+			}
+			else if (currentItem.getLocalName().equals(XMLSchemaConstants.CONSTRAINTS)) {
+				constraints = currentItem;
+			}
+			elements.add(currentItem);
+			NodeList childNodes = currentItem.getChildNodes();
+			for (int j = 0; j < childNodes.getLength(); ++j) {
+				Node childItem = childNodes.item(j);
+				if (!(childItem instanceof CharacterData textNode) || textNode.getTextContent().trim().isEmpty()) {
+					continue;
+				}
+
+				textNode.setData(trimLines(textNode.getTextContent()));
+				elements.add(textNode);
+			}
+		}
+
+		if (oldCatalog != null) {
+			updateCatalog(oldCatalog, newCatalog);
+		}
+		if (constraints != null) {
+			newCatalog.appendChild(constraints);
+		}
+		if (indexes != null) {
+			newCatalog.appendChild(indexes);
+		}
+		elements.add(newCatalog);
+		return canonicalizeAndChecksumElements(document, elements, checksumStrategy);
+	}
+
+	private static void updateCatalog(Node oldCatalog, Node newCatalog) {
+		oldCatalog.getParentNode().replaceChild(newCatalog, oldCatalog);
+		NamedNodeMap attributes = oldCatalog.getAttributes();
+		for (int i = 0; i < attributes.getLength(); ++i) {
+			Node attribute = attributes.item(i);
+			attributes.removeNamedItem(attribute.getNodeName());
+			newCatalog.getAttributes().setNamedItem(attribute);
+		}
+	}
+
+	private static Checksums.Result canonicalizeAndChecksumElements(Document document, List<Node> elements,
+			ChecksumStrategy checksumStrategy) {
+		try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+			XMLCryptoContext cryptoContext = new NoopDOMCryptoContext();
+			TransformService transformService = TransformService.getInstance(CanonicalizationMethod.INCLUSIVE, "DOM");
+			transformService.init(new DOMStructure(document.createElement("holder")), cryptoContext);
+			transformService.transform(NodeSetDataImpl.of(elements), cryptoContext, os);
+
+			os.flush();
+
+			return Checksums.of(checksumStrategy, os.toByteArray());
+		}
+		catch (TransformException | NoSuchAlgorithmException | InvalidAlgorithmParameterException | IOException ex) {
+			throw new MigrationsException("Could not canonicalize an xml document", ex);
+		}
+	}
+
+}
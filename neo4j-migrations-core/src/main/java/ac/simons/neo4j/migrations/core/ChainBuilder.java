@@ -15,15 +15,20 @@
  */
 package ac.simons.neo4j.migrations.core;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import ac.simons.neo4j.migrations.core.MigrationChain.ChainBuilderMode;
 import ac.simons.neo4j.migrations.core.MigrationChain.Element;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
@@ -39,6 +44,45 @@ import org.neo4j.driver.types.Relationship;
  */
 final class ChainBuilder {
 
+	private static final String CHAIN_QUERY = """
+			MATCH p=(b:__Neo4jMigration {version:'BASELINE'}) - [r:MIGRATED_TO*] -> (l:__Neo4jMigration)
+			WHERE coalesce(b.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>') AND NOT (l)-[:MIGRATED_TO]->(:__Neo4jMigration)
+			WITH p
+			OPTIONAL MATCH (n:__Neo4jMigration) - [r:REPEATED] -> (n)
+			WITH p, r order by r.at DESC
+			RETURN p, collect(r) AS repetitions
+			""";
+
+	/**
+	 * Reads one page of the chain, starting after the node matched by the predicate that
+	 * is formatted into this template along with the maximum number of hops.
+	 */
+	private static final String PAGE_QUERY_TEMPLATE = """
+			MATCH (s:__Neo4jMigration) WHERE %s
+			MATCH p=(s) - [:MIGRATED_TO*1..%d] -> (:__Neo4jMigration)
+			WITH p ORDER BY length(p) DESC LIMIT 1
+			UNWIND nodes(p) AS n
+			OPTIONAL MATCH (n) - [r:REPEATED] -> (n)
+			WITH p, r ORDER BY r.at DESC
+			RETURN p, collect(r) AS repetitions, id(last(nodes(p))) AS next
+			""";
+
+	private static final String FIRST_PAGE_PREDICATE = """
+			s.version = 'BASELINE' AND coalesce(s.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')""";
+
+	private static final String NEXT_PAGE_PREDICATE = "id(s) = $start";
+
+	/**
+	 * The default number of migrations read per page.
+	 */
+	static final int PAGE_SIZE = 100;
+
+	private static final String COUNT_QUERY = """
+			MATCH (n:__Neo4jMigration)
+			WHERE n.version <> 'BASELINE' AND coalesce(n.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')
+			RETURN count(n)
+			""";
+
 	/**
 	 * A flag to force the chain builder into verification mode.
 	 */
@@ -93,28 +137,84 @@ final class ChainBuilder {
 	MigrationChain buildChain(MigrationContext context, List<Migration> discoveredMigrations, boolean detailedCauses,
 			ChainBuilderMode mode) {
 
-		final Map<MigrationVersion, Element> elements = buildChain0(context, discoveredMigrations, detailedCauses,
-				mode);
+		AppliedMigrations appliedMigrations = (mode == ChainBuilderMode.LOCAL) ? AppliedMigrations.NONE
+				: readAppliedMigrations(context);
+		return buildChain(context, discoveredMigrations, detailedCauses, mode, appliedMigrations);
+	}
+
+	/**
+	 * Builds a chain for the given context with the discovered migrations and the
+	 * migrations that have already been read from the database. Use this when several
+	 * chains are needed in one operation, so that the database is only queried once and
+	 * all chains are based on the same state.
+	 * @param context the current context
+	 * @param discoveredMigrations a list of migrations sorted by
+	 * {@link Migration#getVersion()}
+	 * @param detailedCauses set to {@literal true} to add causes to possible exceptions
+	 * @param mode local, remote or combined chain
+	 * @param appliedMigrations the applied migrations as read by
+	 * {@link #readAppliedMigrations(MigrationContext)}
+	 * @return the full migration chain.
+	 */
+	MigrationChain buildChain(MigrationContext context, List<Migration> discoveredMigrations, boolean detailedCauses,
+			ChainBuilderMode mode, AppliedMigrations appliedMigrations) {
+
+		final Map<MigrationVersion, Element> elements = buildChain0(context, discoveredMigrations, detailedCauses, mode,
+				(mode == ChainBuilderMode.LOCAL) ? AppliedMigrations.NONE : appliedMigrations);
 		return new DefaultMigrationChain(context.getConnectionDetails(), elements);
 	}
 
+	/**
+	 * Passes all elements of the chain for the given context to {@code consumer} instead
+	 * of collecting them into a {@link MigrationChain}. In {@link ChainBuilderMode#REMOTE
+	 * remote mode} the chain of applied migrations is {@link #readPages(MigrationContext,
+	 * int) read in pages} and each page is passed on as soon as it has been read, all
+	 * other modes need the complete chain of applied migrations for validation first.
+	 * @param context the current context
+	 * @param discoveredMigrations a list of migrations sorted by
+	 * {@link Migration#getVersion()}, can be empty in remote mode
+	 * @param mode local, remote or combined chain
+	 * @param consumer the consumer for the elements
+	 */
+	void forEachElement(MigrationContext context, List<Migration> discoveredMigrations, ChainBuilderMode mode,
+			Consumer<? super Element> consumer) {
+
+		if (mode == ChainBuilderMode.REMOTE) {
+			readPages(context, PAGE_SIZE).forEach(page -> page.forEach(consumer));
+		}
+		else {
+			AppliedMigrations appliedMigrations = (mode == ChainBuilderMode.LOCAL) ? AppliedMigrations.NONE
+					: readAppliedMigrations(context);
+			buildChain0(context, discoveredMigrations, false, mode, appliedMigrations).values().forEach(consumer);
+		}
+	}
+
 	// Yep, this is a complex validation, but it still fits on one screen
 	@SuppressWarnings("squid:S3776")
 	private Map<MigrationVersion, Element> buildChain0(MigrationContext context, List<Migration> discoveredMigrations,
-			boolean detailedCauses, ChainBuilderMode mode) {
+			boolean detailedCauses, ChainBuilderMode mode, AppliedMigrations appliedMigrations) {
 
-		Map<MigrationVersion, Element> appliedMigrations = (mode == ChainBuilderMode.LOCAL) ? Map.of()
-				: getChainOfAppliedMigrations(context);
+		Map<MigrationVersion, Element> appliedElements = appliedMigrations.toMap(this.alwaysVerify);
 		if (mode == ChainBuilderMode.REMOTE) {
 			// Only looking at remote, assume everything is applied
-			return Collections.unmodifiableMap(appliedMigrations);
+			return Collections.unmodifiableMap(appliedElements);
 		}
 
 		final String incompleteMigrationsMessage = "More migrations have been applied to the database than locally resolved.";
 		Map<MigrationVersion, Element> fullMigrationChain = new TreeMap<>(context.getConfig().getVersionComparator());
 		boolean outOfOrderAllowed = context.getConfig().isOutOfOrder();
+		boolean validateChecksums = context.getConfig().isValidateOnMigrate() || this.alwaysVerify;
 		int i = 0;
-		for (Map.Entry<MigrationVersion, Element> entry : appliedMigrations.entrySet()) {
+		if (appliedMigrations.compaction().isPresent()) {
+			// Compacted migrations are only recorded as part of the baseline
+			i = appliedMigrations.compaction().get().verify(discoveredMigrations, validateChecksums);
+			for (Migration compactedMigration : discoveredMigrations.subList(0, i)) {
+				fullMigrationChain.put(compactedMigration.getVersion(),
+						DefaultMigrationChainElement.compactedElement(compactedMigration));
+			}
+		}
+		// Both sequences are sorted, so they are merged without any further queries
+		for (Map.Entry<MigrationVersion, Element> entry : appliedElements.entrySet()) {
 			MigrationVersion expectedVersion = entry.getKey();
 			Optional<String> expectedChecksum = entry.getValue().getChecksum();
 
@@ -133,7 +233,7 @@ final class ChainBuilder {
 				}
 
 				if (!newMigration.getVersion().equals(expectedVersion)) {
-					if (getNumberOfAppliedMigrations(context) > discoveredMigrations.size()) {
+					if (appliedMigrations.numberOfAppliedMigrations() > discoveredMigrations.size()) {
 						throw new MigrationsException(incompleteMigrationsMessage, new IndexOutOfBoundsException());
 					}
 					if (outOfOrderAllowed) {
@@ -154,8 +254,7 @@ final class ChainBuilder {
 									: "non-repeatable to repeatable"));
 				}
 
-				if ((context.getConfig().isValidateOnMigrate() || this.alwaysVerify)
-						&& !(matches(expectedChecksum, newMigration) || expectedVersion.isRepeatable())) {
+				if (validateChecksums && !(matches(expectedChecksum, newMigration) || expectedVersion.isRepeatable())) {
 					throw new MigrationsException("Checksum of " + Migrations.toString(newMigration) + " changed!");
 				}
 
@@ -174,64 +273,170 @@ final class ChainBuilder {
 		return Collections.unmodifiableMap(fullMigrationChain);
 	}
 
-	private int getNumberOfAppliedMigrations(MigrationContext context) {
-		var query = """
-				MATCH (n:__Neo4jMigration)
-				WHERE n.version <> 'BASELINE' AND coalesce(n.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')
-				RETURN count(n)
-				""";
+	/**
+	 * Reads the chain of applied migrations together with the total number of recorded
+	 * migrations in one transaction.
+	 * @param context the current context
+	 * @return the applied migrations
+	 */
+	static AppliedMigrations readAppliedMigrations(MigrationContext context) {
 
-		try (Session session = context.getSchemaSession()) {
-			return session.executeRead(tx -> {
-				var migrationTarget = context.getConfig().getMigrationTargetIn(context).orElse(null);
-				return tx.run(query, Collections.singletonMap("migrationTarget", migrationTarget))
-					.single()
-					.get(0)
-					.asInt();
-			});
+		var chain = readChain(context);
+		if (chain.row().isEmpty()) {
+			return AppliedMigrations.NONE;
 		}
+		List<Map.Entry<MigrationVersion, Element>> elements = new ArrayList<>();
+		var compaction = forEachAppliedMigration(chain.row().get(),
+				(version, element) -> elements.add(Map.entry(version, element)));
+		return new AppliedMigrations(compaction, List.copyOf(elements), chain.numberOfAppliedMigrations());
 	}
 
-	private Map<MigrationVersion, Element> getChainOfAppliedMigrations(MigrationContext context) {
-
-		var query = """
-				MATCH p=(b:__Neo4jMigration {version:'BASELINE'}) - [r:MIGRATED_TO*] -> (l:__Neo4jMigration)
-				WHERE coalesce(b.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>') AND NOT (l)-[:MIGRATED_TO]->(:__Neo4jMigration)
-				WITH p
-				OPTIONAL MATCH (n:__Neo4jMigration) - [r:REPEATED] -> (n)
-				WITH p, r order by r.at DESC
-				RETURN p, collect(r) AS repetitions
-				""";
+	/**
+	 * Reads the chain of applied migrations. The elements are created only after the
+	 * transaction has been closed, so that a retried transaction can't create elements
+	 * twice.
+	 * @param context the current context
+	 * @return the row containing the chain, if any, and the number of all recorded
+	 * migrations, including the ones that are not part of the chain
+	 */
+	private static ChainRow readChain(MigrationContext context) {
 
-		try (Session session = context.getSchemaSession()) {
+		try (Session session = context.getSchemaSession(AccessMode.READ)) {
 			return session.executeRead(tx -> {
-				Map<MigrationVersion, Element> chain = new LinkedHashMap<>();
 				String migrationTarget = context.getConfig().getMigrationTargetIn(context).orElse(null);
-				Result result = tx.run(query, Collections.singletonMap("migrationTarget", migrationTarget));
+				Map<String, Object> parameters = Collections.singletonMap("migrationTarget", migrationTarget);
+				Result result = tx.run(CHAIN_QUERY, parameters);
 				// Might be empty (when nothing has applied yet)
-				if (result.hasNext()) {
-					Record row = result.single();
-					List<Relationship> repetitions = row.get("repetitions").asList(Value::asRelationship);
-					row.get("p").asPath().forEach(segment -> {
-						var end = segment.end();
-						if (end.get("flyway_failed").asBoolean(false) || !end.containsKey("version")
-								|| end.get("type").asString().equals("DELETE")) {
-							return;
-						}
-						var chainElement = DefaultMigrationChainElement.appliedElement(segment, repetitions);
-						var version = MigrationVersion.withValue(chainElement.getVersion(),
-								end.get("repeatable").asBoolean(false));
-						var existing = chain.get(version);
-						if (existing != null && this.alwaysVerify) {
-							throw new DuplicateMigrationsException(version,
-									List.of(existing.getSource(), chainElement.getSource()));
-						}
-						chain.put(version, chainElement);
-					});
+				if (!result.hasNext()) {
+					return ChainRow.EMPTY;
 				}
-				return chain;
+				var row = result.single();
+				int numberOfAppliedMigrations = tx.run(COUNT_QUERY, parameters).single().get(0).asInt();
+				return new ChainRow(Optional.of(row), numberOfAppliedMigrations);
 			});
 		}
 	}
 
+	/**
+	 * Reads the chain of applied migrations in pages of at most {@code pageSize}
+	 * migrations. Each page is read in its own transaction, the first one right away and
+	 * all others when the stream requests them, so that long chains are neither read in
+	 * one query nor held in memory. As the pages
+	 * are read in separate transactions, they are not guaranteed to be consistent with
+	 * each other when the chain is changed concurrently.
+	 * @param context the current context
+	 * @param pageSize the maximum number of migrations per page
+	 * @return a stream of pages of applied elements, in the order of the chain
+	 */
+	static Stream<List<Element>> readPages(MigrationContext context, int pageSize) {
+
+		String migrationTarget = context.getConfig().getMigrationTargetIn(context).orElse(null);
+		String firstPageQuery = PAGE_QUERY_TEMPLATE.formatted(FIRST_PAGE_PREDICATE, pageSize);
+		String nextPageQuery = PAGE_QUERY_TEMPLATE.formatted(NEXT_PAGE_PREDICATE, pageSize);
+
+		var firstPage = readPage(context, firstPageQuery, Collections.singletonMap("migrationTarget", migrationTarget));
+		return Stream
+			.iterate(firstPage, Optional::isPresent,
+					page -> readPage(context, nextPageQuery, Map.of("start", page.orElseThrow().next())))
+			.map(page -> page.orElseThrow().elements());
+	}
+
+	private static Optional<ChainPage> readPage(MigrationContext context, String query,
+			Map<String, Object> parameters) {
+
+		Optional<Record> row;
+		try (Session session = context.getSchemaSession(AccessMode.READ)) {
+			row = session.executeRead(tx -> {
+				Result result = tx.run(query, parameters);
+				return result.hasNext() ? Optional.of(result.single()) : Optional.<Record>empty();
+			});
+		}
+		// Elements are created outside the transaction, see readChain
+		return row.map(pageRow -> {
+			List<Element> elements = new ArrayList<>();
+			forEachSegment(pageRow, (version, element) -> elements.add(element));
+			return new ChainPage(List.copyOf(elements), pageRow.get("next").asLong());
+		});
+	}
+
+	/**
+	 * Passes each element of the chain of applied migrations to the given consumer.
+	 * @param row the row containing the chain
+	 * @param consumer the consumer for the elements
+	 * @return the compaction of the chain, if any
+	 */
+	private static Optional<ChainCompaction> forEachAppliedMigration(Record row,
+			BiConsumer<MigrationVersion, Element> consumer) {
+
+		forEachSegment(row, consumer);
+		return ChainCompaction.of(row.get("p").asPath().start());
+	}
+
+	/**
+	 * Passes each applied migration of the path contained in the given row to the
+	 * consumer, skipping failed and deleted migrations.
+	 * @param row the row containing a path and the repetitions of its migrations
+	 * @param consumer the consumer for the elements
+	 */
+	private static void forEachSegment(Record row, BiConsumer<MigrationVersion, Element> consumer) {
+
+		var path = row.get("p").asPath();
+		List<Relationship> repetitions = row.get("repetitions").asList(Value::asRelationship);
+		path.forEach(segment -> {
+			var end = segment.end();
+			if (end.get("flyway_failed").asBoolean(false) || !end.containsKey("version")
+					|| end.get("type").asString().equals("DELETE")) {
+				return;
+			}
+			var chainElement = DefaultMigrationChainElement.appliedElement(segment, repetitions);
+			var version = MigrationVersion.withValue(chainElement.getVersion(), end.get("repeatable").asBoolean(false));
+			consumer.accept(version, chainElement);
+		});
+	}
+
+	/**
+	 * The chain of applied migrations as read from the database, shared between all
+	 * chains built during one operation.
+	 *
+	 * @param compaction the compaction of the chain, if any
+	 * @param elements the elements that have not been compacted, in the order of the
+	 * chain and including duplicate versions
+	 * @param numberOfAppliedMigrations the number of all migrations recorded for the
+	 * migration target, including those that are not part of the chain
+	 */
+	record AppliedMigrations(Optional<ChainCompaction> compaction, List<Map.Entry<MigrationVersion, Element>> elements,
+			int numberOfAppliedMigrations) {
+
+		static final AppliedMigrations NONE = new AppliedMigrations(Optional.empty(), List.of(), 0);
+
+		Map<MigrationVersion, Element> toMap(boolean failOnDuplicates) {
+
+			Map<MigrationVersion, Element> chain = new LinkedHashMap<>();
+			for (Map.Entry<MigrationVersion, Element> entry : this.elements) {
+				var existing = chain.put(entry.getKey(), entry.getValue());
+				if (existing != null && failOnDuplicates) {
+					throw new DuplicateMigrationsException(entry.getKey(),
+							List.of(existing.getSource(), entry.getValue().getSource()));
+				}
+			}
+			return chain;
+		}
+
+	}
+
+	/**
+	 * One page of the chain of applied migrations.
+	 *
+	 * @param elements the applied elements of this page
+	 * @param next the id of the last node of this page, the next page starts after it
+	 */
+	private record ChainPage(List<Element> elements, long next) {
+	}
+
+	private record ChainRow(Optional<Record> row, int numberOfAppliedMigrations) {
+
+		static final ChainRow EMPTY = new ChainRow(Optional.empty(), 0);
+
+	}
+
 }
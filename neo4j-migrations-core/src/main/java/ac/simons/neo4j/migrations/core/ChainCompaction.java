@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.neo4j.driver.types.Node;
+
+/**
+ * Information about the migrations that have been compacted into the baseline node of a
+ * migration chain. Compacted migrations don't have any nodes in the chain anymore, the
+ * baseline only records how many migrations have been compacted, the last compacted
+ * version and an aggregated checksum over the versions and checksums of those migrations.
+ * Locally discovered migrations are validated against that information.
+ *
+ * @param version the value of the last compacted version
+ * @param checksum the aggregated checksum of all compacted migrations
+ * @param migrations the number of compacted migrations
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+record ChainCompaction(String version, String checksum, int migrations) {
+
+	static final String PROPERTY_VERSION = "compactedVersion";
+
+	static final String PROPERTY_CHECKSUM = "compactedChecksum";
+
+	static final String PROPERTY_MIGRATIONS = "compactedMigrations";
+
+	/**
+	 * Maximum number of migrations or repetitions removed in one transaction.
+	 */
+	static final int BATCH_SIZE = 1000;
+
+	/**
+	 * Removes all migrations up to and including {@code $version} from the chain and
+	 * connects the baseline with the successor of that version. The relationship to the
+	 * successor keeps its properties, as it describes the installation of the successor.
+	 */
+	static final String COMPACT_QUERY = """
+			MATCH (b:__Neo4jMigration {version: 'BASELINE'})
+			WHERE coalesce(b.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')
+			MATCH p=(b)-[:MIGRATED_TO*]->(l:__Neo4jMigration {version: $version})
+			MATCH (l)-[next:MIGRATED_TO]->(n:__Neo4jMigration)
+			CREATE (b)-[r:MIGRATED_TO]->(n)
+			SET r = properties(next),
+			    b.compactedVersion = $version, b.compactedChecksum = $checksum, b.compactedMigrations = $migrations,
+			    b.compactedAt = datetime({timezone: 'UTC'})
+			WITH nodes(p)[1..] AS compacted
+			UNWIND compacted AS c
+			DETACH DELETE c
+			""";
+
+	/**
+	 * Deletes all but the latest {@code $repetitionsToKeep} repetitions of repeatable
+	 * migrations, at most {@code $batchSize} at once.
+	 */
+	static final String PRUNE_QUERY = """
+			MATCH (n:__Neo4jMigration)-[r:REPEATED]->(n)
+			WHERE coalesce(n.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')
+			WITH n, r ORDER BY r.at DESC
+			WITH n, collect(r) AS repetitions
+			UNWIND repetitions[$repetitionsToKeep..] AS r
+			WITH r LIMIT $batchSize
+			DELETE r
+			""";
+
+	/**
+	 * Reads the compaction from a baseline node.
+	 * @param baseline the baseline node of a chain
+	 * @return the compaction if the chain has been compacted
+	 */
+	static Optional<ChainCompaction> of(Node baseline) {
+
+		if (!baseline.containsKey(PROPERTY_VERSION)) {
+			return Optional.empty();
+		}
+		return Optional.of(new ChainCompaction(baseline.get(PROPERTY_VERSION).asString(),
+				baseline.get(PROPERTY_CHECKSUM).asString(), baseline.get(PROPERTY_MIGRATIONS).asInt()));
+	}
+
+	/**
+	 * Computes the aggregated checksum of the given migrations.
+	 * @param migrations the migrations to compact, in the order they have been applied
+	 * @return the aggregated checksum
+	 */
+	static String checksum(List<Migration> migrations) {
+
+		List<String> entries = migrations.stream()
+			.map(m -> m.getVersion().getValue() + ":" + m.getChecksum().orElse(""))
+			.toList();
+		return Checksums.of(ChecksumStrategy.crc32(), entries).value();
+	}
+
+	/**
+	 * Verifies that the locally discovered migrations start with the compacted
+	 * migrations.
+	 * @param discoveredMigrations a list of migrations sorted by
+	 * {@link Migration#getVersion()}
+	 * @param validateChecksum set to {@literal true} to compare the aggregated checksum
+	 * @return the number of compacted migrations
+	 * @throws MigrationsException if the local migrations diverged from the compacted
+	 * ones
+	 */
+	int verify(List<Migration> discoveredMigrations, boolean validateChecksum) {
+
+		if (discoveredMigrations.size() < this.migrations) {
+			throw new MigrationsException("More migrations have been compacted in the database than locally resolved.",
+					new IndexOutOfBoundsException());
+		}
+
+		var compactedMigrations = discoveredMigrations.subList(0, this.migrations);
+		var lastCompactedMigration = compactedMigrations.get(this.migrations - 1);
+		if (!lastCompactedMigration.getVersion().getValue().equals(this.version)) {
+			throw new MigrationsException("Unexpected migration at index " + (this.migrations - 1) + ": "
+					+ Migrations.toString(lastCompactedMigration) + ", the chain has been compacted up to version "
+					+ this.version + ".");
+		}
+		if (validateChecksum && !this.checksum.equals(checksum(compactedMigrations))) {
+			throw new MigrationsException(
+					"Checksum of the migrations compacted up to version " + this.version + " changed!");
+		}
+		return this.migrations;
+	}
+
+}
@@ -34,6 +34,7 @@ import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Query;
 import org.neo4j.driver.Values;
 
@@ -112,7 +113,7 @@ final class ChainTool {
 		// we could determine them in the query itself, but we cannot easily generate the
 		// same order of versions
 		// inside the database that we provide via lexicographic or semantic ordering
-		try (var session = context.getSchemaSession()) {
+		try (var session = context.getSchemaSession(AccessMode.READ)) {
 			var duplicateVersions = session
 				.run("""
 						MATCH (n:__Neo4jMigration WHERE coalesce(n.migrationTarget, '<default>') = coalesce($migrationTarget,'<default>'))
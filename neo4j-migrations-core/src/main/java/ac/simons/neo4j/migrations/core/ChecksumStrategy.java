@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.zip.Checksum;
+
+/**
+ * A strategy for computing the checksums of Cypher- and catalog-based migrations. Apart
+ * from the built-in strategies additional strategies can be provided through the
+ * {@link ServiceLoader} mechanism and are then available via {@link #of(String)}.
+ * <p>
+ * Checksums computed with {@link #crc32() CRC32}, the default, are always accepted as
+ * alternative checksums, so that chains recorded before changing the strategy still
+ * validate.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public interface ChecksumStrategy {
+
+	/**
+	 * {@return the legacy CRC32 strategy, the default}
+	 */
+	static ChecksumStrategy crc32() {
+		return BuiltInChecksumStrategy.CRC32;
+	}
+
+	/**
+	 * {@return a strategy based on the hardware accelerated CRC32C}
+	 */
+	static ChecksumStrategy crc32c() {
+		return BuiltInChecksumStrategy.CRC32C;
+	}
+
+	/**
+	 * {@return a strategy based on the 64-bit variant of xxHash}
+	 */
+	static ChecksumStrategy xxHash64() {
+		return BuiltInChecksumStrategy.XXHASH64;
+	}
+
+	/**
+	 * Looks up a checksum strategy by its name, ignoring the case. Built-in strategies
+	 * take precedence over strategies provided via the {@link ServiceLoader}.
+	 * @param name the name of the strategy
+	 * @return the strategy with the given name
+	 * @throws MigrationsException if there is no such strategy
+	 */
+	static ChecksumStrategy of(String name) {
+
+		for (var strategy : BuiltInChecksumStrategy.values()) {
+			if (strategy.getName().equalsIgnoreCase(name)) {
+				return strategy;
+			}
+		}
+		for (var strategy : ServiceLoader.load(ChecksumStrategy.class)) {
+			if (strategy.getName().equalsIgnoreCase(name)) {
+				return strategy;
+			}
+		}
+		throw new MigrationsException("Unknown checksum strategy '" + name.toLowerCase(Locale.ROOT) + "'");
+	}
+
+	/**
+	 * {@return the unique name of this strategy}
+	 */
+	String getName();
+
+	/**
+	 * {@return a new, independent checksum instance}
+	 */
+	Checksum newChecksum();
+
+	/**
+	 * Formats the final value of a checksum as stored in the chain of applied migrations.
+	 * @param value the value of the checksum
+	 * @return the formatted value
+	 */
+	default String format(long value) {
+		return Long.toUnsignedString(value);
+	}
+
+}
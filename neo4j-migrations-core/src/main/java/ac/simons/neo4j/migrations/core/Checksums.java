@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * Utilities for computing checksums in one pass.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class Checksums {
+
+	/**
+	 * Size of the regions of a file that are mapped into memory at once.
+	 */
+	private static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private Checksums() {
+	}
+
+	/**
+	 * Computes the checksum of a list of statements with the given strategy. If the
+	 * strategy is not the legacy CRC32 strategy, the legacy checksum is computed in the
+	 * same pass.
+	 * @param strategy the strategy to use
+	 * @param statements the statements to checksum
+	 * @return the computed checksum(s)
+	 */
+	static Result of(ChecksumStrategy strategy, Collection<String> statements) {
+
+		var checksum = strategy.newChecksum();
+		var legacyChecksum = (strategy != ChecksumStrategy.crc32()) ? new CRC32() : null;
+		for (String statement : statements) {
+			byte[] bytes = statement.getBytes(Defaults.CYPHER_SCRIPT_ENCODING);
+			checksum.update(bytes, 0, bytes.length);
+			if (legacyChecksum != null) {
+				legacyChecksum.update(bytes, 0, bytes.length);
+			}
+		}
+		return new Result(strategy.format(checksum.getValue()),
+				Optional.ofNullable(legacyChecksum).map(CRC32::getValue).map(v -> Long.toString(v)));
+	}
+
+	/**
+	 * Computes the checksum of a byte array with the given strategy. If the strategy is
+	 * not the legacy CRC32 strategy, the legacy checksum is computed, too.
+	 * @param strategy the strategy to use
+	 * @param bytes the content to checksum
+	 * @return the computed checksum(s)
+	 */
+	static Result of(ChecksumStrategy strategy, byte[] bytes) {
+
+		var checksum = strategy.newChecksum();
+		checksum.update(bytes, 0, bytes.length);
+		Optional<String> legacyValue = Optional.empty();
+		if (strategy != ChecksumStrategy.crc32()) {
+			var legacyChecksum = new CRC32();
+			legacyChecksum.update(bytes, 0, bytes.length);
+			legacyValue = Optional.of(Long.toString(legacyChecksum.getValue()));
+		}
+		return new Result(strategy.format(checksum.getValue()), legacyValue);
+	}
+
+	/**
+	 * Computes a Flyway compatible checksum for a file by mapping it into memory. The
+	 * result is the same as hashing each line of the file without line terminators, but
+	 * no strings are created.
+	 * @param file the file to checksum
+	 * @return the checksum or an empty optional if the file contains malformed UTF-8 and
+	 * the checksum must be computed on the decoded content
+	 * @throws IOException if the file cannot be read
+	 */
+	static Optional<String> flywayCompatible(Path file) throws IOException {
+
+		var feeder = new FlywayChecksumFeeder();
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+				feeder.feed(channel.map(FileChannel.MapMode.READ_ONLY, position,
+						Math.min(MAPPED_REGION_SIZE, size - position)));
+			}
+		}
+		return feeder.getValue();
+	}
+
+	/**
+	 * Same as {@link #flywayCompatible(Path)}, but for arbitrary streams.
+	 * @param inputStream the stream to checksum
+	 * @return the checksum or an empty optional if the stream contains malformed UTF-8
+	 * @throws IOException if the stream cannot be read
+	 */
+	static Optional<String> flywayCompatible(InputStream inputStream) throws IOException {
+
+		var feeder = new FlywayChecksumFeeder();
+		var buffer = new byte[BUFFER_SIZE];
+		int read;
+		while ((read = inputStream.readNBytes(buffer, 0, buffer.length)) > 0) {
+			feeder.feed(ByteBuffer.wrap(buffer, 0, read));
+		}
+		return feeder.getValue();
+	}
+
+	/**
+	 * Result of computing a checksum.
+	 *
+	 * @param value the checksum
+	 * @param legacyValue the legacy CRC32 checksum if a different strategy has been used
+	 */
+	record Result(String value, Optional<String> legacyValue) {
+	}
+
+	/**
+	 * Feeds all bytes apart from line terminators and a leading byte order mark into a
+	 * CRC32 checksum and validates the UTF-8 encoding in the same pass.
+	 */
+	private static final class FlywayChecksumFeeder {
+
+		private final Checksum checksum = new CRC32();
+
+		private boolean first = true;
+
+		private boolean malformed;
+
+		private int pendingContinuationBytes;
+
+		private int lowerBound;
+
+		private int upperBound;
+
+		void feed(ByteBuffer chunk) {
+
+			int start = chunk.position();
+			int end = chunk.limit();
+			if (this.first) {
+				this.first = false;
+				if (end - start >= 3 && chunk.get(start) == (byte) 0xEF && chunk.get(start + 1) == (byte) 0xBB
+						&& chunk.get(start + 2) == (byte) 0xBF) {
+					start += 3;
+				}
+			}
+
+			int runStart = start;
+			for (int i = start; i < end; ++i) {
+				byte value = chunk.get(i);
+				if (value == '\n' || value == '\r') {
+					if (i > runStart) {
+						this.checksum.update(chunk.slice(runStart, i - runStart));
+					}
+					runStart = i + 1;
+					this.malformed |= this.pendingContinuationBytes > 0;
+				}
+				else if (value < 0 || this.pendingContinuationBytes > 0) {
+					validate(value & 0xFF);
+				}
+			}
+			if (end > runStart) {
+				this.checksum.update(chunk.slice(runStart, end - runStart));
+			}
+		}
+
+		private void validate(int value) {
+
+			if (this.pendingContinuationBytes > 0) {
+				if (value < this.lowerBound || value > this.upperBound) {
+					this.malformed = true;
+					this.pendingContinuationBytes = 0;
+					return;
+				}
+				this.lowerBound = 0x80;
+				this.upperBound = 0xBF;
+				--this.pendingContinuationBytes;
+				return;
+			}
+
+			this.lowerBound = 0x80;
+			this.upperBound = 0xBF;
+			if (value >= 0xC2 && value <= 0xDF) {
+				this.pendingContinuationBytes = 1;
+			}
+			else if (value >= 0xE0 && value <= 0xEF) {
+				this.pendingContinuationBytes = 2;
+				// Neither overlong encodings nor surrogates
+				this.lowerBound = (value == 0xE0) ? 0xA0 : 0x80;
+				this.upperBound = (value == 0xED) ? 0x9F : 0xBF;
+			}
+			else if (value >= 0xF0 && value <= 0xF4) {
+				this.pendingContinuationBytes = 3;
+				// Neither overlong encodings nor code points above U+10FFFF
+				this.lowerBound = (value == 0xF0) ? 0x90 : 0x80;
+				this.upperBound = (value == 0xF4) ? 0x8F : 0xBF;
+			}
+			else {
+				this.malformed = true;
+			}
+		}
+
+		Optional<String> getValue() {
+
+			if (this.malformed || this.pendingContinuationBytes > 0) {
+				return Optional.empty();
+			}
+			// Flyway formats the checksum as an int
+			return Optional.of(Integer.toString((int) this.checksum.getValue()));
+		}
+
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.Optional;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link CompactResult} will be created after using
+ * {@link Migrations#compact(MigrationVersion, int)} for compacting the chain of applied
+ * migrations. It contains the number of migrations that have been compacted into the
+ * baseline and the number of pruned repetitions of repeatable migrations.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public final class CompactResult extends AbstractRepairmentResult {
+
+	@Nullable private final MigrationVersion version;
+
+	private final int migrationsCompacted;
+
+	private final long repetitionsPruned;
+
+	CompactResult(@Nullable String affectedDatabase, long nodesDeleted, long relationshipsDeleted,
+			long relationshipsCreated, long propertiesSet, @Nullable MigrationVersion version, int migrationsCompacted,
+			long repetitionsPruned) {
+		super(affectedDatabase, nodesDeleted, 0, relationshipsDeleted, relationshipsCreated, propertiesSet);
+		this.version = version;
+		this.migrationsCompacted = migrationsCompacted;
+		this.repetitionsPruned = repetitionsPruned;
+	}
+
+	/**
+	 * {@return true if the database has been changed}
+	 */
+	public boolean isDatabaseChanged() {
+		return this.migrationsCompacted > 0 || this.repetitionsPruned > 0;
+	}
+
+	/**
+	 * {@return the version up to which the chain has been compacted (if any)}
+	 */
+	public Optional<MigrationVersion> getVersion() {
+		return Optional.ofNullable(this.version);
+	}
+
+	/**
+	 * {@return the number of migrations that have been compacted into the baseline}
+	 */
+	public int getMigrationsCompacted() {
+		return this.migrationsCompacted;
+	}
+
+	/**
+	 * {@return the number of pruned repetitions of repeatable migrations}
+	 */
+	public long getRepetitionsPruned() {
+		return this.repetitionsPruned;
+	}
+
+	@Override
+	@SuppressWarnings({ "NullAway", "DataFlowIssue" })
+	public String prettyPrint() {
+
+		if (!isDatabaseChanged()) {
+			return "Database is unchanged, nothing has been compacted.";
+		}
+		String database = this.getAffectedDatabase().map(v -> "`" + v + "`").orElse("the default database");
+		if (this.migrationsCompacted == 0) {
+			return String.format("Pruned %d repetitions of repeatable migrations in %s.", this.repetitionsPruned,
+					database);
+		}
+		return String.format(
+				"Compacted %d migrations up to %s into the baseline and pruned %d repetitions of repeatable migrations in %s.",
+				this.migrationsCompacted, toString(this.version), this.repetitionsPruned, database);
+	}
+
+}
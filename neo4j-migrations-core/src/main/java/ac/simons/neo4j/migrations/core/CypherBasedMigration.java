@@ -41,7 +41,7 @@ final class CypherBasedMigration extends AbstractCypherBasedMigration implements
 	private List<String> alternativeChecksums = Collections.emptyList();
 
 	@SuppressWarnings("squid:S3077") // This will always be an immutable instance
-	@Nullable private volatile Optional<String> checksumOfNonePreconditions;
+	@Nullable private volatile Optional<Checksums.Result> checksumOfNonePreconditions;
 
 	CypherBasedMigration(ResourceContext context) {
 		super(CypherResource.of(context));
@@ -51,9 +51,9 @@ final class CypherBasedMigration extends AbstractCypherBasedMigration implements
 	// String is not enough, as null is a valid value in this case and comparing
 	// to it would defeat the purpose of caching it.
 	@SuppressWarnings({ "OptionalAssignedToNull", "squid:S2789" })
-	Optional<String> getChecksumWithoutPreconditions() {
+	Optional<Checksums.Result> getChecksumWithoutPreconditions() {
 
-		Optional<String> availableChecksum = this.checksumOfNonePreconditions;
+		Optional<Checksums.Result> availableChecksum = this.checksumOfNonePreconditions;
 		if (availableChecksum == null) {
 			synchronized (this) {
 				availableChecksum = this.checksumOfNonePreconditions;
@@ -66,7 +66,7 @@ final class CypherBasedMigration extends AbstractCypherBasedMigration implements
 		return Objects.requireNonNull(availableChecksum, "Checksums could not be initialized");
 	}
 
-	private Optional<String> computeChecksumWithoutPreconditions() {
+	private Optional<Checksums.Result> computeChecksumWithoutPreconditions() {
 
 		// On JDK17 there can be only one, but alas, we aren't there yet.
 		if (!(this.cypherResource instanceof DefaultCypherResource defaultCypherResource)) {
@@ -82,19 +82,29 @@ final class CypherBasedMigration extends AbstractCypherBasedMigration implements
 			return quotedPatterns.isEmpty() ? statement
 					: statement.replaceAll("(" + quotedPatterns + ")" + Strings.LINE_DELIMITER, "");
 		}).toList();
-		return Optional.of(DefaultCypherResource.computeChecksum(statements));
+		return Optional.of(defaultCypherResource.checksumOf(statements));
 	}
 
 	@Override
 	public List<String> getAlternativeChecksums() {
 
-		Optional<String> additionalAlternativeChecksum = getChecksumWithoutPreconditions();
-		if (getChecksum().equals(additionalAlternativeChecksum)) {
+		Optional<Checksums.Result> additionalAlternativeChecksum = getChecksumWithoutPreconditions();
+		Optional<String> legacyChecksum = (this.cypherResource instanceof DefaultCypherResource defaultCypherResource)
+				? defaultCypherResource.getLegacyChecksum() : Optional.empty();
+		Optional<String> checksumWithoutPreconditions = additionalAlternativeChecksum.map(Checksums.Result::value);
+		if (legacyChecksum.isEmpty() && getChecksum().equals(checksumWithoutPreconditions)) {
 			return Collections.unmodifiableList(this.alternativeChecksums);
 		}
 
 		List<String> alternateChecksums = new ArrayList<>(this.alternativeChecksums);
-		additionalAlternativeChecksum.ifPresent(alternateChecksums::add);
+		if (!getChecksum().equals(checksumWithoutPreconditions)) {
+			checksumWithoutPreconditions.ifPresent(alternateChecksums::add);
+		}
+		// Checksums recorded before the checksum strategy has been changed remain valid
+		legacyChecksum.ifPresent(alternateChecksums::add);
+		additionalAlternativeChecksum.flatMap(Checksums.Result::legacyValue)
+			.filter(v -> !alternateChecksums.contains(v))
+			.ifPresent(alternateChecksums::add);
 		return alternateChecksums;
 	}
 
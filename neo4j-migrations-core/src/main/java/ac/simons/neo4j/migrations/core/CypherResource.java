@@ -16,6 +16,8 @@
 package ac.simons.neo4j.migrations.core;
 
 import java.io.ByteArrayInputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -35,9 +37,18 @@ public sealed interface CypherResource permits DefaultCypherResource {
 		var url = context.getUrl();
 		var autocrlf = context.getConfig().isAutocrlf();
 		var useFlywayCompatibleChecksums = context.getConfig().isUseFlywayCompatibleChecksums();
+		Path file = null;
+		if ("file".equals(url.getProtocol())) {
+			try {
+				file = Path.of(url.toURI());
+			}
+			catch (URISyntaxException | IllegalArgumentException ex) {
+				// The stream will be used
+			}
+		}
 
 		return new DefaultCypherResource(ResourceContext.generateIdentifierOf(url), autocrlf,
-				useFlywayCompatibleChecksums, context::openStream);
+				useFlywayCompatibleChecksums, context.getConfig().getChecksumStrategy(), file, context::openStream);
 	}
 
 	/**
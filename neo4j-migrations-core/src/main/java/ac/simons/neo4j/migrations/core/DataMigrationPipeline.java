@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+import ac.simons.neo4j.migrations.core.refactorings.Counters;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A pipeline for {@link JavaBasedMigration Java-based migrations} that need to rewrite
+ * large amounts of data. The pipeline reads rows in keyset-paginated pages, hands every
+ * row to a transformation and writes the transformed rows back in batches through a
+ * single {@code UNWIND} statement per page.
+ * <p>
+ * The read query is executed once per page with two parameters: {@code $lastKey}, which
+ * is {@literal null} for the first page and the key of the last row of the previous page
+ * afterward, and {@code $pageSize}. It must return a column named {@code key}, order the
+ * rows ascending by that column and limit them to {@code $pageSize}, for example: <pre>
+ * MATCH (n:Person) WHERE $lastKey IS NULL OR n.id &gt; $lastKey
+ * RETURN n.id AS key, n.name AS name ORDER BY key LIMIT $pageSize
+ * </pre> The write query receives the transformed rows of a page as {@code $rows}, for
+ * example {@code UNWIND $rows AS row MATCH (n:Person {id: row.key}) SET n.name =
+ * row.name}.
+ * <p>
+ * Pages are written by a configurable number of workers, each using its own session.
+ * Reading is suspended as soon as the configured number of pages is waiting to be
+ * written. Pages that fail with a retryable error are retried, and every written page is
+ * reported to the {@link MigrationContext#throttle(long, java.time.Duration) throttle} of
+ * the context. As pages are written concurrently, the order in which they are applied is
+ * not defined when more than one worker is used.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public sealed interface DataMigrationPipeline permits DefaultDataMigrationPipeline {
+
+	/**
+	 * Creates a new pipeline that passes all rows unchanged from the read to the write
+	 * query.
+	 * @param context the context of the migration using the pipeline
+	 * @param readQuery the query reading one page of rows
+	 * @param writeQuery the query writing the rows of one page, available as
+	 * {@code $rows}
+	 * @return a new pipeline
+	 */
+	static DataMigrationPipeline of(MigrationContext context, String readQuery, String writeQuery) {
+		return new DefaultDataMigrationPipeline(context, readQuery, writeQuery);
+	}
+
+	/**
+	 * Creates a new pipeline that writes rows provided by the caller, for example rows
+	 * parsed from a file, instead of reading them from the database. The iterator is
+	 * consumed by the first {@link #run()}.
+	 * @param context the context of the migration using the pipeline
+	 * @param rows the rows to be written
+	 * @param writeQuery the query writing the rows of one page, available as
+	 * {@code $rows}
+	 * @return a new pipeline
+	 */
+	static DataMigrationPipeline of(MigrationContext context, Iterator<Map<String, Object>> rows, String writeQuery) {
+		return new DefaultDataMigrationPipeline(context, rows, writeQuery);
+	}
+
+	/**
+	 * Configures the transformation applied to each row before it is written. Rows for
+	 * which the transformation returns {@literal null} are skipped.
+	 * @param transformation the transformation of a row
+	 * @return a new pipeline using the given transformation
+	 */
+	DataMigrationPipeline withTransformation(
+			Function<Map<String, Object>, @Nullable Map<String, Object>> transformation);
+
+	/**
+	 * Configures additional parameters passed to the write query along with
+	 * {@code $rows}.
+	 * @param parameters the additional parameters, must not contain {@code rows}
+	 * @return a new pipeline using the given parameters
+	 */
+	DataMigrationPipeline withParameters(Map<String, Object> parameters);
+
+	/**
+	 * Configures the number of rows read and written at once.
+	 * @param pageSize the number of rows per page, defaults to
+	 * {@value DefaultDataMigrationPipeline#DEFAULT_PAGE_SIZE}
+	 * @return a new pipeline using the given page size
+	 */
+	DataMigrationPipeline withPageSize(int pageSize);
+
+	/**
+	 * Configures the number of workers writing pages concurrently.
+	 * @param workers the number of workers, defaults to 1
+	 * @return a new pipeline using the given number of workers
+	 */
+	DataMigrationPipeline withWorkers(int workers);
+
+	/**
+	 * Configures how many pages may wait for a free worker before reading is suspended.
+	 * @param maxPendingPages the number of pending pages, defaults to the number of
+	 * workers
+	 * @return a new pipeline using the given limit
+	 */
+	DataMigrationPipeline withMaxPendingPages(int maxPendingPages);
+
+	/**
+	 * Configures how often a page is retried after a retryable error.
+	 * @param maxRetries the number of retries per page, defaults to
+	 * {@value DefaultDataMigrationPipeline#DEFAULT_MAX_RETRIES}
+	 * @return a new pipeline using the given number of retries
+	 */
+	DataMigrationPipeline withMaxRetries(int maxRetries);
+
+	/**
+	 * Runs the pipeline until the read query returns no more rows.
+	 * @return the aggregated counters of all pages written
+	 * @throws MigrationsException if a page could not be written
+	 */
+	Counters run();
+
+}
@@ -81,7 +81,8 @@ final class DatabaseCatalog implements Catalog {
 		Predicate<Index> internalIndexes = index -> index.getType() != Index.Type.LOOKUP
 				&& index.getType() != Index.Type.CONSTRAINT_BACKING_INDEX;
 		if (filterInternalConstraints) {
-			internalIndexes = internalIndexes.and(i -> !Migrations.REPEATED_AT.isEquivalentTo(i));
+			internalIndexes = internalIndexes.and(i -> !Migrations.REPEATED_AT.isEquivalentTo(i))
+				.and(i -> !Migrations.PROGRESS_VERSION.isEquivalentTo(i));
 		}
 		queryRunner.run(version.getShowIndexes())
 			.stream()
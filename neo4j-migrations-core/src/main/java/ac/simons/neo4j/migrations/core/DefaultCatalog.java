@@ -15,18 +15,16 @@
  */
 package ac.simons.neo4j.migrations.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.TreeMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import ac.simons.neo4j.migrations.core.catalog.Catalog;
 import ac.simons.neo4j.migrations.core.catalog.CatalogItem;
@@ -34,110 +32,71 @@ import ac.simons.neo4j.migrations.core.catalog.Name;
 import org.jspecify.annotations.Nullable;
 
 /**
- * Default catalog implementation.
+ * Default catalog implementation. The catalog is written during discovery and read many
+ * times afterwards, so each write creates a new, immutable state containing one snapshot
+ * per version. Reads don't need any locks, find the snapshot for a version with a binary
+ * search and return the precomputed items of that snapshot.
  *
  * @author Michael J. Simons
  * @since 1.7.0
  */
 class DefaultCatalog implements WriteableCatalog, VersionedCatalog {
 
-	private final Map<Name, NavigableMap<MigrationVersion, CatalogItem<?>>> items;
-
-	private final ReentrantReadWriteLock locks = new ReentrantReadWriteLock();
-
 	private final Comparator<MigrationVersion> comparator;
 
-	private final NavigableMap<MigrationVersion, VersionedCatalog> oldVersions;
+	private volatile State state = State.EMPTY;
 
 	DefaultCatalog(Comparator<MigrationVersion> comparator) {
-		this(comparator, new HashMap<>());
-	}
-
-	private DefaultCatalog(Comparator<MigrationVersion> comparator,
-			Map<Name, NavigableMap<MigrationVersion, CatalogItem<?>>> items) {
 		this.comparator = comparator;
-		this.oldVersions = new TreeMap<>(this.comparator);
-		this.items = items;
 	}
 
 	@Override
-	public void addAll(MigrationVersion version, Catalog other, boolean reset) {
-
-		WriteLock lock = this.locks.writeLock();
-		lock.lock();
-		try {
-			if (reset) {
-				if (this.oldVersions.containsKey(version)) {
-					throw new IllegalArgumentException(
-							"Catalog has been already reset at version " + version.getValue());
-				}
-				else if (containsVersion(version)) {
-					throw new IllegalArgumentException(
-							"Version " + version.getValue() + " has already been used in this catalog.");
-				}
-				this.oldVersions.put(version, new DefaultCatalog(this.comparator, new HashMap<>(this.items)));
-				this.items.clear();
-			}
+	public synchronized void addAll(MigrationVersion version, Catalog other, boolean reset) {
 
-			for (CatalogItem<?> item : other.getItems()) {
-				NavigableMap<MigrationVersion, CatalogItem<?>> versionedItems = this.items
-					.computeIfAbsent(item.getName(), k -> new TreeMap<>(this.comparator));
-				if (versionedItems.containsKey(version)) {
-					throw new MigrationsException(String.format(
-							"A constraint with the name '%s' has already been added to this catalog under the version %s.",
-							item.getName().getValue(), version.getValue()));
-				}
-				versionedItems.put(version, item);
+		State current = this.state;
+		if (reset) {
+			if (current.log.stream().anyMatch(e -> e.reset && e.version.equals(version))) {
+				throw new IllegalArgumentException("Catalog has been already reset at version " + version.getValue());
+			}
+			else if (current.log.stream().anyMatch(e -> !e.items.isEmpty() && e.version.equals(version))) {
+				throw new IllegalArgumentException(
+						"Version " + version.getValue() + " has already been used in this catalog.");
 			}
 		}
-		finally {
-			lock.unlock();
-		}
-	}
 
-	private boolean containsVersion(MigrationVersion version) {
-		return this.items.entrySet().stream().flatMap(v -> v.getValue().keySet().stream()).anyMatch(version::equals);
-	}
-
-	private <T> T withReadLockGet(Supplier<T> s) {
-
-		ReadLock lock = this.locks.readLock();
-		lock.lock();
-		try {
-			return s.get();
-		}
-		finally {
-			lock.unlock();
+		Set<Name> namesInVersion = new HashSet<>();
+		current.log.stream()
+			.filter(e -> e.version.equals(version))
+			.flatMap(e -> e.items.stream())
+			.map(CatalogItem::getName)
+			.forEach(namesInVersion::add);
+		List<CatalogItem<?>> items = List.copyOf(other.getItems());
+		for (CatalogItem<?> item : items) {
+			if (!namesInVersion.add(item.getName())) {
+				throw new MigrationsException(String.format(
+						"A constraint with the name '%s' has already been added to this catalog under the version %s.",
+						item.getName().getValue(), version.getValue()));
+			}
 		}
+
+		this.state = current.with(new Entry(version, items, reset), this.comparator);
 	}
 
 	@Override
-	@SuppressWarnings({ "squid:S6204" }) // toList vs Collectors.collect
 	public Collection<CatalogItem<?>> getItems() {
 
-		return withReadLockGet(() -> this.items.values()
-			.stream()
-			.map(NavigableMap::lastEntry)
-			.map(Map.Entry::getValue)
-			.collect(Collectors.toList()));
+		List<Snapshot> snapshots = this.state.snapshots;
+		return snapshots.isEmpty() ? List.of() : snapshots.get(snapshots.size() - 1).catalog.getItems();
 	}
 
 	@Override
-	@SuppressWarnings({ "squid:S6204" }) // toList vs Collectors.collect
 	public Collection<CatalogItem<?>> getItemsPriorTo(MigrationVersion version) {
+		return getCatalogPriorTo(version).getItems();
+	}
 
-		return withReadLockGet(() -> {
-			Map.Entry<MigrationVersion, VersionedCatalog> oldEntry = this.oldVersions.ceilingEntry(version);
-			if (oldEntry != null) {
-				return oldEntry.getValue().getItemsPriorTo(version);
-			}
-			return this.items.values()
-				.stream()
-				.map(m -> Optional.ofNullable(m.lowerEntry(version)).map(Map.Entry::getValue))
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-				.collect(Collectors.toList());
-		});
+	@Override
+	public Catalog getCatalogPriorTo(MigrationVersion version) {
+		return this.state.lower(version, this.comparator).map(Snapshot::catalog).orElseGet(Catalog::empty);
 	}
 
 	@Override
@@ -146,32 +105,17 @@ class DefaultCatalog implements WriteableCatalog, VersionedCatalog {
 		if (version == null) {
 			return Optional.empty();
 		}
-
-		return withReadLockGet(() -> {
-			Map.Entry<MigrationVersion, VersionedCatalog> oldEntry = this.oldVersions.ceilingEntry(version);
-			if (oldEntry != null) {
-				return oldEntry.getValue().getItemPriorTo(name, version);
-			}
-			return Optional.ofNullable(this.items.get(name)).map(m -> m.lowerEntry(version)).map(Map.Entry::getValue);
-		});
+		return this.state.lower(version, this.comparator).map(snapshot -> snapshot.items.get(name));
 	}
 
 	@Override
-	@SuppressWarnings({ "squid:S6204" }) // toList vs Collectors.collect
 	public Collection<CatalogItem<?>> getItems(MigrationVersion version) {
+		return getCatalogAt(version).getItems();
+	}
 
-		return withReadLockGet(() -> {
-			Map.Entry<MigrationVersion, VersionedCatalog> oldEntry = this.oldVersions.higherEntry(version);
-			if (oldEntry != null) {
-				return oldEntry.getValue().getItems(version);
-			}
-			return this.items.values()
-				.stream()
-				.map(m -> Optional.ofNullable(m.floorEntry(version)).map(Map.Entry::getValue))
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-				.collect(Collectors.toList());
-		});
+	@Override
+	public Catalog getCatalogAt(MigrationVersion version) {
+		return this.state.floor(version, this.comparator).map(Snapshot::catalog).orElseGet(Catalog::empty);
 	}
 
 	@Override
@@ -180,14 +124,134 @@ class DefaultCatalog implements WriteableCatalog, VersionedCatalog {
 		if (version == null) {
 			return Optional.empty();
 		}
+		return this.state.floor(version, this.comparator).map(snapshot -> snapshot.items.get(name));
+	}
 
-		return withReadLockGet(() -> {
-			Map.Entry<MigrationVersion, VersionedCatalog> oldEntry = this.oldVersions.higherEntry(version);
-			if (oldEntry != null) {
-				return oldEntry.getValue().getItem(name, version);
+	/**
+	 * All items added in one call to {@link #addAll(MigrationVersion, Catalog, boolean)}.
+	 *
+	 * @param version the version in which the items have been added
+	 * @param items the items added
+	 * @param reset whether the catalog has been reset in this version
+	 */
+	private record Entry(MigrationVersion version, List<CatalogItem<?>> items, boolean reset) {
+	}
+
+	/**
+	 * The catalog as it looks like after all items of a version have been applied.
+	 *
+	 * @param version the version of this snapshot
+	 * @param items the items by name
+	 * @param catalog the items as catalog
+	 */
+	private record Snapshot(MigrationVersion version, Map<Name, CatalogItem<?>> items, Catalog catalog) {
+
+		static Snapshot of(MigrationVersion version, Map<Name, CatalogItem<?>> items) {
+			return new Snapshot(version, items, Catalog.of(items.values()));
+		}
+
+	}
+
+	/**
+	 * An immutable state of the catalog.
+	 *
+	 * @param log all entries in the order they have been added
+	 * @param snapshots the snapshots, ordered by version
+	 */
+	private record State(List<Entry> log, List<Snapshot> snapshots) {
+
+		static final State EMPTY = new State(List.of(), List.of());
+
+		/**
+		 * Creates a new state with the given entry being applied. Usually versions are
+		 * added in ascending order and only the snapshot of the new version needs to be
+		 * computed. Otherwise, all snapshots are recreated from the log.
+		 * @param entry the entry to add
+		 * @param comparator the comparator for versions
+		 * @return a new state
+		 */
+		State with(Entry entry, Comparator<MigrationVersion> comparator) {
+
+			List<Entry> newLog = new ArrayList<>(this.log.size() + 1);
+			newLog.addAll(this.log);
+			newLog.add(entry);
+
+			if (this.snapshots.isEmpty()
+					|| comparator.compare(entry.version, this.snapshots.get(this.snapshots.size() - 1).version) >= 0) {
+				return new State(List.copyOf(newLog), apply(this.snapshots, entry, comparator));
 			}
-			return Optional.ofNullable(this.items.get(name)).map(m -> m.floorEntry(version)).map(Map.Entry::getValue);
-		});
+
+			// A stable sort keeps resets in front of the other entries of their version,
+			// as they are only possible before any item has been added in that version
+			List<Entry> sortedLog = new ArrayList<>(newLog);
+			sortedLog.sort(Comparator.comparing(Entry::version, comparator));
+			List<Snapshot> newSnapshots = List.of();
+			for (Entry sortedEntry : sortedLog) {
+				newSnapshots = apply(newSnapshots, sortedEntry, comparator);
+			}
+			return new State(List.copyOf(newLog), newSnapshots);
+		}
+
+		private static List<Snapshot> apply(List<Snapshot> snapshots, Entry entry,
+				Comparator<MigrationVersion> comparator) {
+
+			List<Snapshot> result = new ArrayList<>(snapshots.size() + 1);
+			result.addAll(snapshots);
+
+			@Nullable Snapshot last = result.isEmpty() ? null : result.get(result.size() - 1);
+			boolean sameVersion = last != null && comparator.compare(entry.version, last.version) == 0;
+			if (sameVersion) {
+				result.remove(result.size() - 1);
+			}
+
+			Map<Name, CatalogItem<?>> items = new HashMap<>();
+			if (last != null && !entry.reset) {
+				last.items.forEach(items::put);
+			}
+			for (CatalogItem<?> item : entry.items) {
+				items.put(item.getName(), item);
+			}
+			result.add(Snapshot.of(entry.version, Collections.unmodifiableMap(items)));
+			return List.copyOf(result);
+		}
+
+		Optional<Snapshot> floor(MigrationVersion version, Comparator<MigrationVersion> comparator) {
+			return find(version, comparator, true);
+		}
+
+		Optional<Snapshot> lower(MigrationVersion version, Comparator<MigrationVersion> comparator) {
+			return find(version, comparator, false);
+		}
+
+		/**
+		 * Finds the snapshot with the greatest version less than (or equal to) the given
+		 * version.
+		 * @param version the version to look for
+		 * @param comparator the comparator for versions
+		 * @param inclusive whether the version itself is included
+		 * @return the snapshot, if any
+		 */
+		private Optional<Snapshot> find(MigrationVersion version, Comparator<MigrationVersion> comparator,
+				boolean inclusive) {
+
+			int low = 0;
+			int high = this.snapshots.size() - 1;
+			@Nullable Snapshot result = null;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				Snapshot candidate = this.snapshots.get(mid);
+				int cmp = comparator.compare(candidate.version, version);
+				if (cmp < 0 || (inclusive && cmp == 0)) {
+					result = candidate;
+					low = mid + 1;
+				}
+				else {
+					high = mid - 1;
+				}
+			}
+			return Optional.ofNullable(result);
+		}
+
 	}
 
 }
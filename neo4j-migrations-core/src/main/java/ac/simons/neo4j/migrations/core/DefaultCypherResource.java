@@ -20,10 +20,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -38,7 +40,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.CRC32;
 
@@ -125,6 +126,14 @@ final class DefaultCypherResource implements CypherResource {
 
 	private final boolean useFlywayCompatibleChecksums;
 
+	private final ChecksumStrategy checksumStrategy;
+
+	/**
+	 * The file backing this resource, if any. It is used for computing Flyway compatible
+	 * checksums from a memory-mapped file.
+	 */
+	private final @Nullable Path file;
+
 	/**
 	 * A lazily initialized list of statements, will be initialized with Double-checked
 	 * locking into an unmodifiable list, see {@link #readStatements()}.
@@ -132,14 +141,29 @@ final class DefaultCypherResource implements CypherResource {
 	@SuppressWarnings("squid:S3077")
 	@Nullable private volatile List<String> statements;
 
-	@Nullable private volatile String checksum;
+	@SuppressWarnings("squid:S3077") // This will always be an immutable instance
+	private volatile Checksums.@Nullable Result checksum;
+
+	/**
+	 * A lazily initialized, unmodifiable list of analysed statements, see
+	 * {@link #getStatementDescriptors()}.
+	 */
+	@SuppressWarnings("squid:S3077")
+	@Nullable private volatile List<StatementDescriptor> statementDescriptors;
 
 	DefaultCypherResource(String identifier, boolean autocrlf, boolean useFlywayCompatibleChecksums,
 			Supplier<InputStream> inputStreamSupplier) {
+		this(identifier, autocrlf, useFlywayCompatibleChecksums, ChecksumStrategy.crc32(), null, inputStreamSupplier);
+	}
+
+	DefaultCypherResource(String identifier, boolean autocrlf, boolean useFlywayCompatibleChecksums,
+			ChecksumStrategy checksumStrategy, @Nullable Path file, Supplier<InputStream> inputStreamSupplier) {
 
 		this.identifier = identifier;
 		this.autocrlf = autocrlf;
 		this.useFlywayCompatibleChecksums = useFlywayCompatibleChecksums;
+		this.checksumStrategy = checksumStrategy;
+		this.file = file;
 		this.inputStreamSupplier = inputStreamSupplier;
 	}
 
@@ -156,13 +180,7 @@ final class DefaultCypherResource implements CypherResource {
 	}
 
 	static String computeChecksum(Collection<String> statements) {
-		final CRC32 crc32 = new CRC32();
-
-		for (String statement : statements) {
-			byte[] bytes = statement.getBytes(Defaults.CYPHER_SCRIPT_ENCODING);
-			crc32.update(bytes, 0, bytes.length);
-		}
-		return Long.toString(crc32.getValue());
+		return Checksums.of(ChecksumStrategy.crc32(), statements).value();
 	}
 
 	private static void handleUseStatement(List<String> newStatements, Matcher useMatcher,
@@ -199,15 +217,66 @@ final class DefaultCypherResource implements CypherResource {
 
 	static void executeIn(CypherResource cypherResource, MigrationContext context,
 			UnaryOperator<SessionConfig.Builder> sessionCustomizer) {
+		executeIn(cypherResource, context, sessionCustomizer, MigrationProgress.none());
+	}
 
-		List<String> executableStatements = cypherResource.getExecutableStatements();
-		Map<String, String> placeholders = context.getConfig().getPlaceholders();
-		if (!placeholders.isEmpty()) {
-			executableStatements = resolvePlaceholders(executableStatements, placeholders);
-		}
-		List<DatabaseAndStatements> statementsByDatabase = groupStatements(executableStatements);
+	/**
+	 * Executes the statements of the given resource, skipping the statements that have
+	 * been committed in a previous attempt according to the given progress.
+	 * @param cypherResource the resource to execute
+	 * @param context the context to execute the resource in
+	 * @param sessionCustomizer customizer for the session used
+	 * @param progress the progress of the migration to which the resource belongs
+	 */
+	static void executeIn(CypherResource cypherResource, MigrationContext context,
+			UnaryOperator<SessionConfig.Builder> sessionCustomizer, MigrationProgress progress) {
+		executeIn(cypherResource, context, sessionCustomizer, progress, context.getConfig().getTransactionMode());
+	}
+
+	/**
+	 * Executes the statements of the given resource in the given transaction mode,
+	 * regardless of the configured one.
+	 * @param cypherResource the resource to execute
+	 * @param context the context to execute the resource in
+	 * @param sessionCustomizer customizer for the session used
+	 * @param progress the progress of the migration to which the resource belongs
+	 * @param transactionMode the transaction mode to use
+	 */
+	static void executeIn(CypherResource cypherResource, MigrationContext context,
+			UnaryOperator<SessionConfig.Builder> sessionCustomizer, MigrationProgress progress,
+			MigrationsConfig.TransactionMode transactionMode) {
 
-		statementsByDatabase.forEach(databaseAndStatements -> {
+		List<StatementDescriptor> executableStatements = (cypherResource instanceof DefaultCypherResource resource)
+				? resource.getStatementDescriptors().stream().filter(StatementDescriptor::executable).toList()
+				: cypherResource.getExecutableStatements().stream().map(StatementDescriptor::of).toList();
+		Map<String, String> placeholders = context.getConfig().getPlaceholders();
+		// Placeholders must be resolved before grouping, as they may name the database in
+		// a :use statement
+		List<DatabaseAndStatements> statementsByDatabase = groupDescriptors(
+				executableStatements.stream().map(descriptor -> descriptor.resolve(placeholders)).toList());
+
+		int completedStatements = progress.getCompletedStatements();
+		int position = 0;
+		for (DatabaseAndStatements databaseAndStatements : statementsByDatabase) {
+
+			List<StatementDescriptor> descriptors = databaseAndStatements.descriptors();
+			List<String> statementsForDatabase = new ArrayList<>(descriptors.size());
+			Set<String> statementsNeedingImplicitTransactions = new HashSet<>();
+			for (StatementDescriptor descriptor : descriptors) {
+				if (position++ < completedStatements) {
+					continue;
+				}
+				var statement = descriptor.statement();
+				statementsForDatabase.add(statement);
+				if (descriptor.transactionMode() == TransactionMode.IMPLICIT) {
+					statementsNeedingImplicitTransactions.add(statement);
+				}
+			}
+			if (statementsForDatabase.isEmpty()) {
+				continue;
+			}
+			var checkpoint = new Checkpoint(progress.forDatabase(databaseAndStatements.database()),
+					position - statementsForDatabase.size());
 
 			UnaryOperator<SessionConfig.Builder> finalSessionCustomizer = databaseAndStatements.database()
 				.map(database -> (UnaryOperator<SessionConfig.Builder>) builder -> builder.withDatabase(database))
@@ -215,42 +284,37 @@ final class DefaultCypherResource implements CypherResource {
 
 			try (Session session = context.getDriver().session(context.getSessionConfig(finalSessionCustomizer))) {
 
-				List<String> statementsForDatabase = databaseAndStatements.statements();
-
-				var statementsNeedingImplicitTransactions = statementsForDatabase.stream()
-					.filter(statement -> getTransactionMode(statement) == TransactionMode.IMPLICIT)
-					.collect(Collectors.toSet());
-
 				int numberOfStatements;
-				MigrationsConfig.TransactionMode transactionMode = context.getConfig().getTransactionMode();
 				TransactionConfig transactionConfig = Optional.ofNullable(context.getConfig().getTransactionTimeout())
 					.map(TransactionConfig.builder()::withTimeout)
 					.orElse(TransactionConfig.builder().withDefaultTimeout())
 					.build();
-				if (transactionMode == MigrationsConfig.TransactionMode.PER_STATEMENT
+				if (transactionMode == MigrationsConfig.TransactionMode.PER_N_STATEMENTS) {
+
+					LOGGER.log(Level.FINE,
+							"Executing statements in script \"{0}\" in transactions of up to {1} statements",
+							new Object[] { cypherResource.getIdentifier(),
+									context.getConfig().getStatementsPerTransaction() });
+					numberOfStatements = executeInChunks(session, transactionConfig, context.getConfig(),
+							statementsForDatabase, statementsNeedingImplicitTransactions, checkpoint);
+				}
+				else if (transactionMode == MigrationsConfig.TransactionMode.PER_STATEMENT
 						|| !statementsNeedingImplicitTransactions.isEmpty()) {
 
 					LOGGER.log(Level.FINE, "Executing statements contained in script \"{0}\" in separate transactions",
 							cypherResource.getIdentifier());
 					numberOfStatements = executeInSeparateTransactions(session, transactionConfig,
 							context.getConfig().getCypherVersion(), statementsForDatabase,
-							statementsNeedingImplicitTransactions);
+							statementsNeedingImplicitTransactions, checkpoint);
 
 				}
 				else if (transactionMode == MigrationsConfig.TransactionMode.PER_MIGRATION) {
 
 					LOGGER.log(Level.FINE, "Executing statements in script \"{0}\" in one transaction",
 							cypherResource.getIdentifier());
-					Counters c = Counters.empty();
-					numberOfStatements = session.executeWrite(t -> {
-						int cnt = 0;
-						for (String statement : statementsForDatabase) {
-							c.add(run(context.getConfig().getCypherVersion(), t, statement));
-							++cnt;
-						}
-						return cnt;
-					}, transactionConfig);
-					HBD.vladimirAndEstragonMayWait(session, c);
+					numberOfStatements = executeChunk(session, transactionConfig,
+							context.getConfig().getCypherVersion(), statementsForDatabase, checkpoint);
+					HBD.vladimirAndEstragonMayWait(session, checkpoint.getCounters());
 				}
 				else {
 					throw new MigrationsException("Unknown transaction mode " + transactionMode);
@@ -258,31 +322,99 @@ final class DefaultCypherResource implements CypherResource {
 
 				LOGGER.log(Level.FINE, "Executed {0} statements", numberOfStatements);
 			}
-		});
+		}
 	}
 
 	private static int executeInSeparateTransactions(Session session, TransactionConfig transactionConfig,
 			CypherVersion cypherVersion, List<String> executableStatements,
-			Set<String> statementsNeedingImplicitTransactions) {
+			Set<String> statementsNeedingImplicitTransactions, Checkpoint checkpoint) {
 
 		int numberOfStatements = 0;
-		Counters counters = Counters.empty();
 		for (String statement : executableStatements) {
 			if (statementsNeedingImplicitTransactions.contains(statement)) {
-				++numberOfStatements;
-				run(cypherVersion, session, statement);
+				checkpoint.autoCommitted(run(cypherVersion, session, statement));
 			}
 			else {
-				numberOfStatements += session.executeWrite(t -> {
-					run(cypherVersion, t, statement);
-					return 1;
+				var counters = session.executeWrite(t -> {
+					var c = run(cypherVersion, t, statement);
+					checkpoint.recordIn(t, c, 1);
+					return c;
 				}, transactionConfig);
+				checkpoint.committed(counters, 1);
 			}
+			++numberOfStatements;
 		}
-		HBD.vladimirAndEstragonMayWait(session, counters);
+		HBD.vladimirAndEstragonMayWait(session, checkpoint.getCounters());
 		return numberOfStatements;
 	}
 
+	/**
+	 * Groups consecutive statements into transactions, bounded by the number of
+	 * statements and the optional budget of bytes per transaction. Statements that need
+	 * an implicit transaction end the current group and are run on their own.
+	 * @param session the session to use
+	 * @param transactionConfig the configuration of each transaction
+	 * @param config the configuration providing the limits and the cypher version
+	 * @param executableStatements the statements to execute
+	 * @param statementsNeedingImplicitTransactions statements that must be run in auto
+	 * commit transactions
+	 * @param checkpoint the checkpoint to update after each transaction
+	 * @return the number of statements executed
+	 */
+	private static int executeInChunks(Session session, TransactionConfig transactionConfig, MigrationsConfig config,
+			List<String> executableStatements, Set<String> statementsNeedingImplicitTransactions,
+			Checkpoint checkpoint) {
+
+		var cypherVersion = config.getCypherVersion();
+		var statementsPerTransaction = config.getStatementsPerTransaction();
+		var maxBytesPerTransaction = config.getMaxBytesPerTransaction();
+
+		int numberOfStatements = 0;
+		List<String> chunk = new ArrayList<>();
+		long bytesInChunk = 0;
+		for (String statement : executableStatements) {
+			if (statementsNeedingImplicitTransactions.contains(statement)) {
+				numberOfStatements += executeChunk(session, transactionConfig, cypherVersion, chunk, checkpoint) + 1;
+				chunk.clear();
+				bytesInChunk = 0;
+				checkpoint.autoCommitted(run(cypherVersion, session, statement));
+				continue;
+			}
+
+			long sizeInBytes = (maxBytesPerTransaction > 0) ? statement.getBytes(StandardCharsets.UTF_8).length : 0;
+			if (!chunk.isEmpty() && (chunk.size() >= statementsPerTransaction
+					|| (maxBytesPerTransaction > 0 && bytesInChunk + sizeInBytes > maxBytesPerTransaction))) {
+				numberOfStatements += executeChunk(session, transactionConfig, cypherVersion, chunk, checkpoint);
+				chunk.clear();
+				bytesInChunk = 0;
+			}
+			chunk.add(statement);
+			bytesInChunk += sizeInBytes;
+		}
+		numberOfStatements += executeChunk(session, transactionConfig, cypherVersion, chunk, checkpoint);
+		HBD.vladimirAndEstragonMayWait(session, checkpoint.getCounters());
+		return numberOfStatements;
+	}
+
+	private static int executeChunk(Session session, TransactionConfig transactionConfig, CypherVersion cypherVersion,
+			List<String> chunk, Checkpoint checkpoint) {
+
+		if (chunk.isEmpty()) {
+			return 0;
+		}
+		var statements = List.copyOf(chunk);
+		var committed = session.executeWrite(t -> {
+			Counters c = Counters.empty();
+			for (String statement : statements) {
+				c = c.add(run(cypherVersion, t, statement));
+			}
+			checkpoint.recordIn(t, c, statements.size());
+			return c;
+		}, transactionConfig);
+		checkpoint.committed(committed, statements.size());
+		return statements.size();
+	}
+
 	/**
 	 * Returns the transaction mode needed for the query. When in doubt, use a
 	 * transactional function.
@@ -321,19 +453,28 @@ final class DefaultCypherResource implements CypherResource {
 	 * @return an ordered grouped list, with groups not necessary unique
 	 */
 	static List<DatabaseAndStatements> groupStatements(List<String> statements) {
+		return groupDescriptors(statements.stream().map(StatementDescriptor::of).toList());
+	}
+
+	/**
+	 * Same as {@link #groupStatements(List)}, but on already analysed statements.
+	 * @param descriptors the list of statements to group, containing use statements
+	 * @return an ordered grouped list, with groups not necessary unique
+	 */
+	static List<DatabaseAndStatements> groupDescriptors(List<StatementDescriptor> descriptors) {
 
 		List<DatabaseAndStatements> result = new ArrayList<>();
 		Optional<String> current = Optional.empty();
-		List<String> sublist = new ArrayList<>();
-		for (String statement : statements) {
-			Optional<String> databaseName = getDatabaseName(statement);
-			if (databaseName.isPresent()) { // If empty, it is not a :use statement
+		List<StatementDescriptor> sublist = new ArrayList<>();
+		for (StatementDescriptor descriptor : descriptors) {
+			if (descriptor.database().isPresent()) { // If empty, it is not a :use
+														// statement
 				result.add(new DatabaseAndStatements(current, sublist));
-				current = databaseName;
+				current = descriptor.database();
 				sublist = new ArrayList<>();
 				continue;
 			}
-			sublist.add(statement);
+			sublist.add(descriptor);
 		}
 		result.add(new DatabaseAndStatements(current, sublist));
 		return result;
@@ -344,24 +485,42 @@ final class DefaultCypherResource implements CypherResource {
 	}
 
 	static String resolvePlaceholders(String statement, Map<String, String> placeholders) {
+		return resolvePlaceholders(statement, findPlaceholders(statement), placeholders);
+	}
+
+	private static List<PlaceholderSlot> findPlaceholders(String statement) {
+
+		if (statement.indexOf("${nm:") < 0) {
+			return List.of();
+		}
 		var matcher = PLACEHOLDER_PATTERN.matcher(statement);
-		if (!matcher.find()) {
+		List<PlaceholderSlot> slots = new ArrayList<>();
+		while (matcher.find()) {
+			slots.add(new PlaceholderSlot(matcher.start(), matcher.end(), matcher.group(1)));
+		}
+		return List.copyOf(slots);
+	}
+
+	private static String resolvePlaceholders(String statement, List<PlaceholderSlot> slots,
+			Map<String, String> placeholders) {
+
+		if (slots.isEmpty()) {
 			return statement;
 		}
-		var sb = new StringBuilder();
-		do {
-			String key = matcher.group(1);
-			String value = placeholders.get(key);
+		var sb = new StringBuilder(statement.length());
+		int position = 0;
+		for (PlaceholderSlot slot : slots) {
+			String value = placeholders.get(slot.key());
 			if (value == null) {
 				throw new MigrationsException(
 						"""
 								No value configured for placeholder "${nm:%s}". Please configure it via MigrationsConfig.builder().withPlaceholders() or via the environment variable "%s%s"."""
-							.formatted(key, Defaults.ENVIRONMENT_VARIABLE_PREFIX_PLACEHOLDERS, key));
+							.formatted(slot.key(), Defaults.ENVIRONMENT_VARIABLE_PREFIX_PLACEHOLDERS, slot.key()));
 			}
-			matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+			sb.append(statement, position, slot.start()).append(value);
+			position = slot.end();
 		}
-		while (matcher.find());
-		matcher.appendTail(sb);
+		sb.append(statement, position, statement.length());
 		return sb.toString();
 	}
 
@@ -393,8 +552,28 @@ final class DefaultCypherResource implements CypherResource {
 
 	@Override
 	public String getChecksum() {
+		return getChecksum0().value();
+	}
 
-		String availableChecksum = this.checksum;
+	/**
+	 * {@return the legacy CRC32 checksum if a different strategy is used}
+	 */
+	Optional<String> getLegacyChecksum() {
+		return getChecksum0().legacyValue();
+	}
+
+	/**
+	 * Computes the checksum of the given statements with the strategy of this resource.
+	 * @param statements the statements to checksum
+	 * @return the computed checksum(s)
+	 */
+	Checksums.Result checksumOf(List<String> statements) {
+		return Checksums.of(this.checksumStrategy, statements);
+	}
+
+	private Checksums.Result getChecksum0() {
+
+		Checksums.Result availableChecksum = this.checksum;
 		if (availableChecksum == null) {
 			synchronized (this) {
 				availableChecksum = this.checksum;
@@ -407,11 +586,35 @@ final class DefaultCypherResource implements CypherResource {
 		return availableChecksum;
 	}
 
-	private String computeChecksum() {
-		return this.useFlywayCompatibleChecksums ? flywayCompatChecksum() : computeChecksum(getStatements());
+	private Checksums.Result computeChecksum() {
+
+		// Flyway compatible checksums are always CRC32 based
+		return this.useFlywayCompatibleChecksums ? new Checksums.Result(flywayCompatChecksum(), Optional.empty())
+				: checksumOf(getStatements());
 	}
 
 	private String flywayCompatChecksum() {
+
+		try {
+			Optional<String> value;
+			if (this.file != null) {
+				value = Checksums.flywayCompatible(this.file);
+			}
+			else {
+				try (var inputStream = this.inputStreamSupplier.get()) {
+					value = Checksums.flywayCompatible(inputStream);
+				}
+			}
+			// Malformed input must be hashed the way the reader decoded it
+			return value.orElseGet(this::flywayCompatChecksumOfDecodedLines);
+		}
+		catch (IOException ex) {
+			throw new MigrationsException(
+					"Unable to calculate checksum of " + this.identifier + "\r\n" + ex.getMessage(), ex);
+		}
+	}
+
+	private String flywayCompatChecksumOfDecodedLines() {
 		final CRC32 crc32 = new CRC32();
 
 		try (var bufferedReader = new BufferedReader(
@@ -452,6 +655,23 @@ final class DefaultCypherResource implements CypherResource {
 		return (filter != null) ? availableStatements.stream().filter(filter).toList() : availableStatements;
 	}
 
+	/**
+	 * {@return all statements of this resource, analysed once}
+	 */
+	List<StatementDescriptor> getStatementDescriptors() {
+		List<StatementDescriptor> availableDescriptors = this.statementDescriptors;
+		if (availableDescriptors == null) {
+			synchronized (this) {
+				availableDescriptors = this.statementDescriptors;
+				if (availableDescriptors == null) {
+					this.statementDescriptors = getStatements0().stream().map(StatementDescriptor::of).toList();
+					availableDescriptors = this.statementDescriptors;
+				}
+			}
+		}
+		return Objects.requireNonNull(availableDescriptors, "Statement descriptors could not be initialized");
+	}
+
 	private List<String> getStatements0() {
 		List<String> availableStatements = this.statements;
 		if (availableStatements == null) {
@@ -545,13 +765,174 @@ final class DefaultCypherResource implements CypherResource {
 	 * should be executed.
 	 *
 	 * @param database the optional database name
-	 * @param statements the list of statements to execute
+	 * @param descriptors the list of statements to execute
 	 */
-	record DatabaseAndStatements(Optional<String> database, List<String> statements) {
+	record DatabaseAndStatements(Optional<String> database, List<StatementDescriptor> descriptors) {
 
 		DatabaseAndStatements {
-			statements = List.copyOf(statements);
+			descriptors = List.copyOf(descriptors);
+		}
+
+		List<String> statements() {
+			return this.descriptors.stream().map(StatementDescriptor::statement).toList();
+		}
+	}
+
+	/**
+	 * Tracks the position of the statements executed against one database within the
+	 * whole migration together with the changes done by the committed transactions.
+	 */
+	private static final class Checkpoint {
+
+		private final MigrationProgress progress;
+
+		private int completedStatements;
+
+		private Counters counters = Counters.empty();
+
+		Checkpoint(MigrationProgress progress, int completedStatements) {
+			this.progress = progress;
+			this.completedStatements = completedStatements;
+		}
+
+		void recordIn(SimpleQueryRunner runner, Counters countersInTransaction, int statementsInTransaction) {
+			this.progress.recordIn(runner, countersInTransaction, this.completedStatements + statementsInTransaction);
+		}
+
+		void committed(Counters countersInTransaction, int statementsInTransaction) {
+			this.completedStatements += statementsInTransaction;
+			this.counters = this.counters.add(countersInTransaction);
+			this.progress.recordAfterCommit(countersInTransaction, this.completedStatements);
+		}
+
+		void autoCommitted(Counters countersOfStatement) {
+			++this.completedStatements;
+			this.counters = this.counters.add(countersOfStatement);
+			this.progress.recordAfterAutoCommit(this.completedStatements);
+		}
+
+		Counters getCounters() {
+			return this.counters;
+		}
+
+	}
+
+	/**
+	 * The position of a placeholder inside a statement.
+	 *
+	 * @param start the index of the first character of the placeholder
+	 * @param end the index after the last character of the placeholder
+	 * @param key the name of the placeholder
+	 */
+	private record PlaceholderSlot(int start, int end, String key) {
+	}
+
+	/**
+	 * An immutable description of a single statement. All regular expressions needed to
+	 * execute a statement are evaluated once when the descriptor is created, so that
+	 * grouping by database, choosing the transaction mode and resolving placeholders
+	 * become simple lookups. Statements containing placeholders must be
+	 * {@link #resolve(Map) resolved} before they are grouped or executed, as the
+	 * placeholders may change the database or the transaction mode.
+	 */
+	static final class StatementDescriptor {
+
+		private final String statement;
+
+		private final boolean executable;
+
+		private final Optional<String> database;
+
+		/**
+		 * Will be {@literal null} if the transaction mode of the statement could not be
+		 * determined. The statement will be rejected when it is about to be executed.
+		 */
+		private final @Nullable TransactionMode transactionMode;
+
+		private final List<PlaceholderSlot> placeholders;
+
+		private StatementDescriptor(String statement) {
+
+			this.statement = statement;
+			this.executable = NOT_A_SINGLE_COMMENT.test(statement);
+			this.database = getDatabaseName(statement);
+
+			TransactionMode newTransactionMode = TransactionMode.MANAGED;
+			if (this.executable && this.database.isEmpty()) {
+				try {
+					newTransactionMode = getTransactionMode(statement);
+				}
+				catch (MigrationsException ex) {
+					newTransactionMode = null;
+				}
+			}
+			this.transactionMode = newTransactionMode;
+			this.placeholders = this.executable ? findPlaceholders(statement) : List.of();
+		}
+
+		/**
+		 * Analyses the given statement.
+		 * @param statement the statement to analyse
+		 * @return a new descriptor
+		 */
+		static StatementDescriptor of(String statement) {
+			return new StatementDescriptor(statement);
 		}
+
+		/**
+		 * {@return the original statement}
+		 */
+		String statement() {
+			return this.statement;
+		}
+
+		/**
+		 * {@return {@literal true} if the statement is not only made up of single line
+		 * comments}
+		 */
+		boolean executable() {
+			return this.executable;
+		}
+
+		/**
+		 * {@return the database to switch to if this is a {@code :use} statement}
+		 */
+		Optional<String> database() {
+			return this.database;
+		}
+
+		/**
+		 * {@return the transaction mode needed for this statement}
+		 * @throws MigrationsException if the statement is invalid
+		 */
+		TransactionMode transactionMode() {
+			if (this.transactionMode == null) {
+				throw new MigrationsException("Invalid statement: " + this.statement);
+			}
+			return this.transactionMode;
+		}
+
+		/**
+		 * Resolves all placeholders in this statement.
+		 * @param values the values of the placeholders
+		 * @return the statement with all placeholders replaced
+		 * @throws MigrationsException if there is no value for a placeholder
+		 */
+		String resolvePlaceholders(Map<String, String> values) {
+			return DefaultCypherResource.resolvePlaceholders(this.statement, this.placeholders, values);
+		}
+
+		/**
+		 * Resolves all placeholders in this statement and analyses the result again.
+		 * Descriptors without placeholders are returned as they are.
+		 * @param values the values of the placeholders
+		 * @return a descriptor of the resolved statement
+		 * @throws MigrationsException if there is no value for a placeholder
+		 */
+		StatementDescriptor resolve(Map<String, String> values) {
+			return this.placeholders.isEmpty() ? this : new StatementDescriptor(resolvePlaceholders(values));
+		}
+
 	}
 
 }
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ac.simons.neo4j.migrations.core.refactorings.Counters;
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.exceptions.RetryableException;
+
+/**
+ * Default implementation of the {@link DataMigrationPipeline}. The calling thread reads
+ * and transforms the pages, a fixed pool of workers writes them.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class DefaultDataMigrationPipeline implements DataMigrationPipeline {
+
+	static final int DEFAULT_PAGE_SIZE = 1000;
+
+	static final int DEFAULT_MAX_RETRIES = 3;
+
+	static final Duration INITIAL_BACKOFF = Duration.ofMillis(50);
+
+	private static final Logger LOGGER = Logger.getLogger(DefaultDataMigrationPipeline.class.getName());
+
+	private final MigrationContext context;
+
+	private final Supplier<Source> source;
+
+	private final String writeQuery;
+
+	private final Map<String, Object> parameters;
+
+	private final Function<Map<String, Object>, @Nullable Map<String, Object>> transformation;
+
+	private final int pageSize;
+
+	private final int workers;
+
+	/**
+	 * Zero means the same as the number of workers.
+	 */
+	private final int maxPendingPages;
+
+	private final int maxRetries;
+
+	DefaultDataMigrationPipeline(MigrationContext context, String readQuery, String writeQuery) {
+		this(context, keysetSource(context, readQuery), writeQuery);
+	}
+
+	DefaultDataMigrationPipeline(MigrationContext context, Iterator<Map<String, Object>> rows, String writeQuery) {
+		this(context, () -> new IteratorSource(rows), writeQuery);
+	}
+
+	private DefaultDataMigrationPipeline(MigrationContext context, Supplier<Source> source, String writeQuery) {
+		this(context, source, requireQuery(writeQuery), Map.of(), Function.identity(), DEFAULT_PAGE_SIZE, 1, 0,
+				DEFAULT_MAX_RETRIES);
+	}
+
+	private DefaultDataMigrationPipeline(MigrationContext context, Supplier<Source> source, String writeQuery,
+			Map<String, Object> parameters, Function<Map<String, Object>, @Nullable Map<String, Object>> transformation,
+			int pageSize, int workers, int maxPendingPages, int maxRetries) {
+
+		this.context = context;
+		this.source = source;
+		this.writeQuery = writeQuery;
+		this.parameters = parameters;
+		this.transformation = transformation;
+		this.pageSize = pageSize;
+		this.workers = workers;
+		this.maxPendingPages = maxPendingPages;
+		this.maxRetries = maxRetries;
+	}
+
+	private static String requireQuery(String query) {
+		if (query.isBlank()) {
+			throw new IllegalArgumentException("Both the read and the write query are required");
+		}
+		return query;
+	}
+
+	private static Supplier<Source> keysetSource(MigrationContext context, String readQuery) {
+		requireQuery(readQuery);
+		return () -> new KeysetSource(context, readQuery);
+	}
+
+	private static int requirePositive(int value, String name) {
+		if (value <= 0) {
+			throw new IllegalArgumentException("The " + name + " must be greater than 0");
+		}
+		return value;
+	}
+
+	@Override
+	public DataMigrationPipeline withTransformation(
+			Function<Map<String, Object>, @Nullable Map<String, Object>> newTransformation) {
+
+		return new DefaultDataMigrationPipeline(this.context, this.source, this.writeQuery, this.parameters,
+				newTransformation, this.pageSize, this.workers, this.maxPendingPages, this.maxRetries);
+	}
+
+	@Override
+	public DataMigrationPipeline withParameters(Map<String, Object> newParameters) {
+
+		if (newParameters.containsKey("rows")) {
+			throw new IllegalArgumentException("The parameter `rows` is reserved for the rows of a page");
+		}
+		return new DefaultDataMigrationPipeline(this.context, this.source, this.writeQuery, Map.copyOf(newParameters),
+				this.transformation, this.pageSize, this.workers, this.maxPendingPages, this.maxRetries);
+	}
+
+	@Override
+	public DataMigrationPipeline withPageSize(int newPageSize) {
+
+		return new DefaultDataMigrationPipeline(this.context, this.source, this.writeQuery, this.parameters,
+				this.transformation, requirePositive(newPageSize, "page size"), this.workers, this.maxPendingPages,
+				this.maxRetries);
+	}
+
+	@Override
+	public DataMigrationPipeline withWorkers(int newWorkers) {
+
+		return new DefaultDataMigrationPipeline(this.context, this.source, this.writeQuery, this.parameters,
+				this.transformation, this.pageSize, requirePositive(newWorkers, "number of workers"),
+				this.maxPendingPages, this.maxRetries);
+	}
+
+	@Override
+	public DataMigrationPipeline withMaxPendingPages(int newMaxPendingPages) {
+
+		return new DefaultDataMigrationPipeline(this.context, this.source, this.writeQuery, this.parameters,
+				this.transformation, this.pageSize, this.workers,
+				requirePositive(newMaxPendingPages, "number of pending pages"), this.maxRetries);
+	}
+
+	@Override
+	public DataMigrationPipeline withMaxRetries(int newMaxRetries) {
+
+		if (newMaxRetries < 0) {
+			throw new IllegalArgumentException("The number of retries must not be negative");
+		}
+		return new DefaultDataMigrationPipeline(this.context, this.source, this.writeQuery, this.parameters,
+				this.transformation, this.pageSize, this.workers, this.maxPendingPages, newMaxRetries);
+	}
+
+	@Override
+	public Counters run() {
+
+		Queue<Session> sessions = new ConcurrentLinkedQueue<>();
+		ThreadLocal<Session> workerSession = ThreadLocal.withInitial(() -> {
+			var session = this.context.getSession();
+			sessions.add(session);
+			return session;
+		});
+		// Pages being written plus pages waiting for a free worker
+		var inFlight = new Semaphore(this.workers + ((this.maxPendingPages > 0) ? this.maxPendingPages : this.workers));
+		List<Future<Counters>> pending = new ArrayList<>();
+		var counters = Counters.empty();
+
+		var threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(this.workers, runnable -> {
+			var thread = new Thread(runnable, "neo4j-migrations-pipeline-" + threadCount.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try (Source pages = this.source.get()) {
+			var page = pages.nextPage(this.pageSize);
+			while (!page.isEmpty()) {
+				var rows = transform(page);
+				if (!rows.isEmpty()) {
+					inFlight.acquire();
+					pending.add(executor.submit(() -> {
+						try {
+							return write(workerSession.get(), rows);
+						}
+						finally {
+							inFlight.release();
+						}
+					}));
+				}
+				counters = counters.add(collect(pending, false));
+				page = pages.nextPage(this.pageSize);
+			}
+			return counters.add(collect(pending, true));
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MigrationsException("Data migration pipeline has been interrupted", ex);
+		}
+		finally {
+			pending.forEach(future -> future.cancel(false));
+			executor.shutdown();
+			awaitTermination(executor);
+			sessions.forEach(Session::close);
+		}
+	}
+
+	private List<Map<String, Object>> transform(List<Map<String, Object>> page) {
+
+		List<Map<String, Object>> rows = new ArrayList<>(page.size());
+		for (Map<String, Object> value : page) {
+			var row = this.transformation.apply(value);
+			if (row != null) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Removes finished writes from the list of pending writes.
+	 * @param pending the pending writes
+	 * @param all whether to wait for all writes or to collect only those already done
+	 * @return the counters of the collected writes
+	 * @throws InterruptedException if interrupted while waiting for a write
+	 */
+	private static Counters collect(List<Future<Counters>> pending, boolean all) throws InterruptedException {
+
+		var counters = Counters.empty();
+		Iterator<Future<Counters>> iterator = pending.iterator();
+		while (iterator.hasNext()) {
+			var future = iterator.next();
+			if (!(all || future.isDone())) {
+				continue;
+			}
+			try {
+				counters = counters.add(future.get());
+			}
+			catch (ExecutionException ex) {
+				var cause = ex.getCause();
+				if (cause instanceof MigrationsException migrationsException) {
+					throw migrationsException;
+				}
+				throw new MigrationsException("Could not write a page of the data migration pipeline", cause);
+			}
+			iterator.remove();
+		}
+		return counters;
+	}
+
+	private Counters write(Session session, List<Map<String, Object>> rows) throws InterruptedException {
+
+		var parameters = new HashMap<>(this.parameters);
+		parameters.put("rows", rows);
+		for (int attempt = 0;; ++attempt) {
+			long start = System.nanoTime();
+			try (var tx = session.beginTransaction()) {
+				var summary = tx.run(this.writeQuery, parameters).consume();
+				tx.commit();
+				this.context.throttle(rows.size(), Duration.ofNanos(System.nanoTime() - start));
+				return Counters.of(summary.counters());
+			}
+			catch (RuntimeException ex) {
+				if (!(ex instanceof RetryableException) || attempt >= this.maxRetries) {
+					throw ex;
+				}
+				var backoff = INITIAL_BACKOFF.multipliedBy(1L << attempt);
+				LOGGER.log(Level.FINE, ex,
+						() -> "Retrying page of %d rows in %d ms".formatted(rows.size(), backoff.toMillis()));
+				TimeUnit.NANOSECONDS.sleep(backoff.toNanos());
+			}
+		}
+	}
+
+	private static void awaitTermination(ExecutorService executor) {
+
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				LOGGER.log(Level.FINE, "Waiting for pending writes of the data migration pipeline");
+			}
+		}
+		catch (InterruptedException ex) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The source of the pages to be written.
+	 */
+	private interface Source extends AutoCloseable {
+
+		/**
+		 * Reads the next page.
+		 * @param pageSize the maximum number of rows of the page
+		 * @return the next page, empty when there are no more rows
+		 */
+		List<Map<String, Object>> nextPage(int pageSize);
+
+		@Override
+		void close();
+
+	}
+
+	/**
+	 * Reads the pages through a keyset-paginated query in a session of its own.
+	 */
+	private static final class KeysetSource implements Source {
+
+		private final Session session;
+
+		private final String readQuery;
+
+		private @Nullable Object lastKey;
+
+		private boolean exhausted;
+
+		KeysetSource(MigrationContext context, String readQuery) {
+			this.session = context.getSession();
+			this.readQuery = readQuery;
+		}
+
+		@Override
+		public List<Map<String, Object>> nextPage(int pageSize) {
+
+			if (this.exhausted) {
+				return List.of();
+			}
+			var parameters = new HashMap<String, Object>();
+			parameters.put("lastKey", this.lastKey);
+			parameters.put("pageSize", pageSize);
+			List<Record> records = this.session.executeRead(tx -> tx.run(this.readQuery, parameters).list());
+			this.exhausted = records.size() < pageSize;
+			if (records.isEmpty()) {
+				return List.of();
+			}
+			this.lastKey = records.get(records.size() - 1).get("key").asObject();
+			return records.stream().map(Record::asMap).toList();
+		}
+
+		@Override
+		public void close() {
+			this.session.close();
+		}
+
+	}
+
+	/**
+	 * Pulls the pages from an iterator of rows.
+	 */
+	private static final class IteratorSource implements Source {
+
+		private final Iterator<Map<String, Object>> rows;
+
+		IteratorSource(Iterator<Map<String, Object>> rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public List<Map<String, Object>> nextPage(int pageSize) {
+
+			List<Map<String, Object>> page = new ArrayList<>(pageSize);
+			while (page.size() < pageSize && this.rows.hasNext()) {
+				page.add(this.rows.next());
+			}
+			return page;
+		}
+
+		@Override
+		public void close() {
+			// Nothing to close, the owner of the iterator is responsible for it
+		}
+
+	}
+
+}
@@ -98,6 +98,18 @@ final class DefaultMigrationChainElement implements MigrationChain.Element {
 				pendingMigration.getOptionalDescription().orElse(null), pendingMigration.getSource(), null);
 	}
 
+	/**
+	 * Creates an element for a migration that has been applied but is only recorded as
+	 * part of a compacted baseline, so there is no installation info available anymore.
+	 * @param compactedMigration the local migration
+	 * @return an applied element
+	 */
+	static MigrationChain.Element compactedElement(Migration compactedMigration) {
+		return new DefaultMigrationChainElement(MigrationState.APPLIED, Migrations.getMigrationType(compactedMigration),
+				compactedMigration.getChecksum().orElse(null), compactedMigration.getVersion().getValue(),
+				compactedMigration.getOptionalDescription().orElse(null), compactedMigration.getSource(), null);
+	}
+
 	@Override
 	public MigrationState getState() {
 		return this.state;
@@ -64,6 +64,8 @@ final class DefaultMigrationContext implements MigrationContext {
 	@SuppressWarnings("squid:S3077") // This will always be an immutable instance.
 	@Nullable private volatile ConnectionDetails connectionDetails;
 
+	private final DefaultRefactoringContext.PlanCache planCache = new DefaultRefactoringContext.PlanCache();
+
 	DefaultMigrationContext(MigrationsConfig config, Driver driver) {
 
 		if (config.getOptionalImpersonatedUser().isPresent() && WITH_IMPERSONATED_USER == null) {
@@ -144,6 +146,12 @@ final class DefaultMigrationContext implements MigrationContext {
 		return getDriver().session(getSessionConfig(this.applySchemaDatabase));
 	}
 
+	@Override
+	public Session getSchemaSession(AccessMode accessMode) {
+		return getDriver().session(
+				getSessionConfig(builder -> this.applySchemaDatabase.apply(builder).withDefaultAccessMode(accessMode)));
+	}
+
 	@Override
 	public ConnectionDetails getConnectionDetails() {
 
@@ -165,6 +173,10 @@ final class DefaultMigrationContext implements MigrationContext {
 		return this.catalog;
 	}
 
+	DefaultRefactoringContext.PlanCache getPlanCache() {
+		return this.planCache;
+	}
+
 	// We cannot jump on GQL codes here easily, given we want to keep support for 4.4 and
 	// older
 	// servers. They don't have those error codes, and the method would just blow up.
@@ -15,15 +15,26 @@
  */
 package ac.simons.neo4j.migrations.core;
 
+import java.io.Serial;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import ac.simons.neo4j.migrations.core.internal.Strings;
 import ac.simons.neo4j.migrations.core.refactorings.QueryRunner;
 import ac.simons.neo4j.migrations.core.refactorings.RefactoringContext;
+import ac.simons.neo4j.migrations.core.refactorings.RefactoringProgress;
 import org.jspecify.annotations.Nullable;
 import org.neo4j.driver.Query;
 import org.neo4j.driver.Result;
@@ -52,17 +63,71 @@ final class DefaultRefactoringContext implements RefactoringContext {
 		.compile("(?i)ProduceResults(@" + Strings.VALID_DATABASE_NAME + ")?");
 	static final String KEY_DETAILS = "Details";
 
+	/**
+	 * Calendar versions of Neo4j, such as {@literal 2025.06.0}, are all mapped to
+	 * {@link Neo4jVersion#LATEST}, so requirements like these are checked against the
+	 * version reported by the server.
+	 */
+	static final Pattern CALENDAR_VERSION_PATTERN = Pattern.compile("(?i)(?:Neo4j[/:])?(\\d{4})\\.(\\d+).*");
+
+	/**
+	 * Maximum number of analyzed plans kept in one {@link PlanCache}.
+	 */
+	static final int PLAN_CACHE_SIZE = 256;
+
+	private static final Logger LOGGER = Logger.getLogger(DefaultRefactoringContext.class.getName());
+
 	private final Supplier<Session> sessionSupplier;
 
+	@Nullable private final Throttle throttle;
+
+	@Nullable private final Consumer<RefactoringProgress> progressListener;
+
 	@Nullable private volatile Neo4jVersion version;
 
+	@Nullable private volatile String serverVersion;
+
+	private final PlanCache planCache;
+
 	DefaultRefactoringContext(Supplier<Session> sessionSupplier) {
 		this(sessionSupplier, null);
 	}
 
 	DefaultRefactoringContext(Supplier<Session> sessionSupplier, @Nullable Neo4jVersion neo4jVersion) {
+		this(sessionSupplier, neo4jVersion, null, null, null, new PlanCache());
+	}
+
+	/**
+	 * Creates a new context sharing the analysis of query plans with all other contexts
+	 * using the same cache.
+	 * @param sessionSupplier supplier for sessions to the target database
+	 * @param neo4jVersion the version of the server, if known
+	 * @param serverVersion the version as reported by the server, if known
+	 * @param throttle optional throttle
+	 * @param progressListener optional listener for the progress of resumable
+	 * refactorings
+	 * @param planCache the cache for analyzed query plans
+	 */
+	DefaultRefactoringContext(Supplier<Session> sessionSupplier, @Nullable Neo4jVersion neo4jVersion,
+			@Nullable String serverVersion, @Nullable Throttle throttle,
+			@Nullable Consumer<RefactoringProgress> progressListener, PlanCache planCache) {
 		this.sessionSupplier = sessionSupplier;
 		this.version = neo4jVersion;
+		this.serverVersion = serverVersion;
+		this.throttle = throttle;
+		this.progressListener = progressListener;
+		this.planCache = planCache;
+	}
+
+	/**
+	 * {@return the cache for analyzed query plans of the given migration context} The
+	 * plans are cached per instance of {@link Migrations}, other contexts get a new
+	 * cache.
+	 * @param context the migration context owning the cache
+	 */
+	static PlanCache planCacheOf(MigrationContext context) {
+		return (context instanceof DefaultMigrationContext defaultMigrationContext)
+				? defaultMigrationContext.getPlanCache() : new PlanCache();
 	}
 
 	static boolean isProduceResultOperator(Plan plan) {
@@ -104,20 +169,51 @@ final class DefaultRefactoringContext implements RefactoringContext {
 			synchronized (this) {
 				availableVersion = this.version;
 				if (availableVersion == null) {
-					String value = this.sessionSupplier.get()
-						.executeRead(tx -> tx.run(new Query(
-								"CALL dbms.components() YIELD name, versions WHERE name = 'Neo4j Kernel' RETURN versions[0] AS version"))
-							.single())
-						.get("version")
-						.asString();
-					this.version = Neo4jVersion.of(value);
-					availableVersion = this.version;
+					availableVersion = Neo4jVersion.of(getServerVersion());
+					this.version = availableVersion;
 				}
 			}
 		}
 		return availableVersion;
 	}
 
+	String getServerVersion() {
+
+		String availableServerVersion = this.serverVersion;
+		if (availableServerVersion == null) {
+			synchronized (this) {
+				availableServerVersion = this.serverVersion;
+				if (availableServerVersion == null) {
+					try (Session session = this.sessionSupplier.get()) {
+						availableServerVersion = session.executeRead(tx -> tx.run(new Query(
+								"CALL dbms.components() YIELD name, versions WHERE name = 'Neo4j Kernel' RETURN versions[0] AS version"))
+							.single()).get("version").asString();
+					}
+					this.serverVersion = availableServerVersion;
+				}
+			}
+		}
+		return availableServerVersion;
+	}
+
+	/**
+	 * Checks whether a calendar version reported by the server is below a required
+	 * calendar version. Versions that don't follow the calendar scheme are never below.
+	 * @param serverVersion the version reported by the server
+	 * @param requiredVersion the required version
+	 * @return {@literal true} if the server is older than required
+	 */
+	static boolean isCalendarVersionBelow(String serverVersion, String requiredVersion) {
+
+		Matcher server = CALENDAR_VERSION_PATTERN.matcher(serverVersion);
+		Matcher required = CALENDAR_VERSION_PATTERN.matcher(requiredVersion);
+		if (!(server.matches() && required.matches())) {
+			return false;
+		}
+		int year = Integer.compare(Integer.parseInt(server.group(1)), Integer.parseInt(required.group(1)));
+		return year < 0 || (year == 0 && Integer.parseInt(server.group(2)) < Integer.parseInt(required.group(2)));
+	}
+
 	@Override
 	public QueryRunner getQueryRunner(QueryRunner.FeatureSet featureSet) {
 
@@ -138,28 +234,53 @@ final class DefaultRefactoringContext implements RefactoringContext {
 			}
 			supportsBatching = currentVersion.compareTo(Neo4jVersion.V4_4) >= 0;
 		}
+		else if (featureSet.requiredVersion() != null
+				&& CALENDAR_VERSION_PATTERN.matcher(featureSet.requiredVersion()).matches()
+				&& isCalendarVersionBelow(getServerVersion(), featureSet.requiredVersion())) {
+			throw new IllegalArgumentException("Supported version is " + getServerVersion()
+					+ " which is below the required value of " + featureSet.requiredVersion());
+		}
 
 		if (featureSet.hasBatchingSupport() && !supportsBatching) {
 			throw new IllegalArgumentException("Batching is supported only with Neo4j >= 4.4");
 		}
 
-		return new DefaultQueryRunner(featureSet, this.sessionSupplier.get(),
-				featureSet.hasElementIdSupport() ? this::adaptQuery : UnaryOperator.identity());
+		// Concurrent transactions are optional and silently dropped prior to Neo4j 2025
+		var availableFeatures = featureSet
+			.withConcurrentTransactionsSupport(featureSet.hasConcurrentTransactionsSupport()
+					&& featureSet.hasBatchingSupport() && currentVersion == Neo4jVersion.LATEST);
+		return new DefaultQueryRunner(availableFeatures, this.sessionSupplier.get(),
+				featureSet.hasElementIdSupport() ? this::adaptQuery : UnaryOperator.identity(), this::throttle);
 	}
 
 	@Override
 	public Optional<String> findSingleResultIdentifier(String query) {
 
+		// Contexts created for an instance of Migrations always know the exact version of
+		// the server, the coarse version is only used by contexts with their own cache
+		Neo4jVersion coarseVersion = getVersion();
+		String availableServerVersion = this.serverVersion;
+		PlanKey key = new PlanKey(query,
+				(availableServerVersion != null) ? availableServerVersion : coarseVersion.toString());
+		PlanMetadata metadata = this.planCache.get(key);
+		if (metadata == null) {
+			metadata = explain(query);
+			this.planCache.put(key, metadata);
+		}
+		return metadata.singleResultIdentifier();
+	}
+
+	private PlanMetadata explain(String query) {
+
 		try (Session session = this.sessionSupplier.get()) {
 			ResultSummary resultSummary = session.executeRead(tx -> tx.run(new Query("EXPLAIN " + query)).consume());
 			Plan root = resultSummary.queryPlan().orElse(null);
-			if (root != null && isProduceResultOperator(root) && hasSingleElement(root)
-					&& root.arguments().containsKey(KEY_DETAILS)) {
-				return Optional.of(root.arguments().get(KEY_DETAILS).asString());
+			if (root == null || !isProduceResultOperator(root)) {
+				return new PlanMetadata(false, null);
 			}
+			Value details = root.arguments().get(KEY_DETAILS);
+			return new PlanMetadata(true, (details != null && hasSingleElement(root)) ? details.asString() : null);
 		}
-
-		return Optional.empty();
 	}
 
 	@Override
@@ -167,8 +288,62 @@ final class DefaultRefactoringContext implements RefactoringContext {
 		return this.getVersion().sanitizeSchemaName(potentiallyNonIdentifier);
 	}
 
+	private void throttle(long rows, int transactions, Duration elapsed) {
+		if (this.throttle != null) {
+			this.throttle.acquire(rows, transactions, elapsed,
+					() -> Throttle.countActiveTransactions(this.sessionSupplier));
+		}
+	}
+
+	@Override
+	public void onProgress(RefactoringProgress progress) {
+		LOGGER.log(Level.INFO,
+				() -> String.format(Locale.ROOT, "Refactoring %s processed %d of %d rows (%.1f rows/s, remaining %s)",
+						progress.checkpointId(), progress.rowsProcessed(), progress.rowsTotal(),
+						progress.rowsPerSecond(),
+						progress.estimatedTimeRemaining().map(Duration::toString).orElse("unknown")));
+		if (this.progressListener != null) {
+			this.progressListener.accept(progress);
+		}
+	}
+
+	/**
+	 * Key of a cached plan analysis.
+	 *
+	 * @param query the text of the analyzed query
+	 * @param serverVersion the version of the server that planned the query
+	 */
+	private record PlanKey(String query, String serverVersion) {
+	}
+
+	/**
+	 * The result of analyzing the plan of a query.
+	 *
+	 * @param producesResults {@literal true} if the root operator produces results
+	 * @param identifier the single element returned per row, if any
+	 */
+	private record PlanMetadata(boolean producesResults, @Nullable String identifier) {
+
+		Optional<String> singleResultIdentifier() {
+			return this.producesResults ? Optional.ofNullable(this.identifier) : Optional.empty();
+		}
+
+	}
+
+	/**
+	 * Applies the configured throttle, if any, to a query runner.
+	 */
+	@FunctionalInterface
+	interface Throttling {
+
+		void apply(long rows, int transactions, Duration elapsed);
+
+	}
+
 	static final class DefaultQueryRunner implements QueryRunner {
 
+		private final FeatureSet featureSet;
+
 		private final Session session;
 
 		@Nullable private final Transaction transaction;
@@ -177,18 +352,32 @@ final class DefaultRefactoringContext implements RefactoringContext {
 
 		private final org.neo4j.driver.QueryRunner delegate;
 
-		DefaultQueryRunner(FeatureSet featureSet, Session session, UnaryOperator<Query> filter) {
+		private final Throttling throttle;
+
+		DefaultQueryRunner(FeatureSet featureSet, Session session, UnaryOperator<Query> filter, Throttling throttle) {
+			this.featureSet = featureSet;
+			this.throttle = throttle;
 			this.session = session;
 			this.transaction = featureSet.hasBatchingSupport() ? null : session.beginTransaction();
 			this.filter = filter;
 			this.delegate = (this.transaction != null) ? this.transaction : session;
 		}
 
+		@Override
+		public FeatureSet getFeatureSet() {
+			return this.featureSet;
+		}
+
 		@Override
 		public Result run(Query query) {
 			return this.delegate.run(this.filter.apply(query));
 		}
 
+		@Override
+		public void throttle(long rows, int transactions, Duration elapsed) {
+			this.throttle.apply(rows, transactions, elapsed);
+		}
+
 		@Override
 		public void close() {
 			if (this.transaction != null) {
@@ -200,4 +389,37 @@ final class DefaultRefactoringContext implements RefactoringContext {
 
 	}
 
+	/**
+	 * A bounded cache of analyzed query plans. Refactorings of catalog based migrations get
+	 * a new context each, but often use the same custom queries, so all contexts created on
+	 * behalf of one instance of {@link Migrations} share one cache.
+	 */
+	static final class PlanCache {
+
+		private final Map<PlanKey, PlanMetadata> plans = Collections
+			.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+				@Serial
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<PlanKey, PlanMetadata> eldest) {
+					return size() > PLAN_CACHE_SIZE;
+				}
+			});
+
+		@Nullable PlanMetadata get(PlanKey key) {
+			return this.plans.get(key);
+		}
+
+		void put(PlanKey key, PlanMetadata metadata) {
+			this.plans.put(key, metadata);
+		}
+
+		int size() {
+			return this.plans.size();
+		}
+
+	}
+
 }
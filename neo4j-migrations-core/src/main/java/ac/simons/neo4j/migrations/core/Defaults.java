@@ -74,6 +74,34 @@ public final class Defaults {
 	 */
 	public static final TransactionMode TRANSACTION_MODE = TransactionMode.PER_MIGRATION;
 
+	/**
+	 * Default number of statements per transaction when using
+	 * {@link TransactionMode#PER_N_STATEMENTS}.
+	 * @since 4.2.0
+	 */
+	public static final int STATEMENTS_PER_TRANSACTION = 100;
+
+	/**
+	 * Same as {@link #STATEMENTS_PER_TRANSACTION} but as {@link String string value} to
+	 * be used in configuration that requires defaults given as string.
+	 * @since 4.2.0
+	 */
+	public static final String STATEMENTS_PER_TRANSACTION_VALUE = "100";
+
+	/**
+	 * Default budget in bytes of statements per transaction when using
+	 * {@link TransactionMode#PER_N_STATEMENTS}. {@literal 0} means no budget.
+	 * @since 4.2.0
+	 */
+	public static final long MAX_BYTES_PER_TRANSACTION = 0L;
+
+	/**
+	 * Same as {@link #MAX_BYTES_PER_TRANSACTION} but as {@link String string value} to be
+	 * used in configuration that requires defaults given as string.
+	 * @since 4.2.0
+	 */
+	public static final String MAX_BYTES_PER_TRANSACTION_VALUE = "0";
+
 	/**
 	 * Default setting for {@code validateOnMigrate}.
 	 */
@@ -146,6 +174,19 @@ public final class Defaults {
 	 */
 	public static final String CYPHER_VERSION_VALUE = "DATABASE_DEFAULT";
 
+	/**
+	 * Default setting for {@code fuseRefactorings}.
+	 * @since 4.2.0
+	 */
+	public static final boolean FUSE_REFACTORINGS = true;
+
+	/**
+	 * Default setting for {@code fuseRefactorings} but as a {@link String string value}
+	 * to be used in configuration that requires defaults given as string.
+	 * @since 4.2.0
+	 */
+	public static final String FUSE_REFACTORINGS_VALUE = "true";
+
 	/**
 	 * The prefix used for environment variables that define placeholders. An environment
 	 * variable named {@code NM_PLACEHOLDERS_MyKey} will create a placeholder named
@@ -127,6 +127,43 @@ public sealed interface MigrationChain extends ConnectionDetails permits Default
 
 	}
 
+	/**
+	 * Formats for writing a chain element by element, one line per element, without
+	 * computing a layout over the whole chain first. Absent values are written as empty
+	 * fields in CSV and as {@literal null} in JSON.
+	 *
+	 * @since 4.2.0
+	 * @see Migrations#info(ChainBuilderMode, java.util.function.Consumer)
+	 */
+	enum ElementFormat {
+
+		/**
+		 * Newline delimited JSON, one object per element.
+		 */
+		NDJSON,
+		/**
+		 * Comma separated values as defined by RFC 4180, starting with a header line.
+		 */
+		CSV;
+
+		/**
+		 * {@return the line to be written before the first element, if any}
+		 */
+		public Optional<String> getHeader() {
+			return (this == CSV) ? Optional.of(MigrationChainFormat.CSV_HEADER) : Optional.empty();
+		}
+
+		/**
+		 * Formats a single element.
+		 * @param element the element to format
+		 * @return a single line without line terminator
+		 */
+		public String format(Element element) {
+			return (this == CSV) ? MigrationChainFormat.toCsv(element) : MigrationChainFormat.toJson(element);
+		}
+
+	}
+
 	/**
 	 * A chain element describing a pending or applied migration.
 	 */
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * Utility class for formatting a migration chain and its elements.
  *
@@ -37,6 +39,84 @@ final class MigrationChainFormat {
 	private MigrationChainFormat() {
 	}
 
+	static final String CSV_HEADER = "version,description,type,installedOn,installedBy,executionTime,state,source";
+
+	private static final String[] JSON_KEYS = CSV_HEADER.split(",");
+
+	static String toCsv(MigrationChain.Element element) {
+
+		StringBuilder sb = new StringBuilder();
+		@Nullable String[] values = values(element);
+		for (int i = 0; i < values.length; ++i) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			@Nullable String value = values[i];
+			if (value == null) {
+				continue;
+			}
+			if (value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\r' || c == '\n')) {
+				sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+			}
+			else {
+				sb.append(value);
+			}
+		}
+		return sb.toString();
+	}
+
+	static String toJson(MigrationChain.Element element) {
+
+		StringBuilder sb = new StringBuilder("{");
+		@Nullable String[] values = values(element);
+		for (int i = 0; i < values.length; ++i) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append('"').append(JSON_KEYS[i]).append("\":");
+			@Nullable String value = values[i];
+			if (value == null) {
+				sb.append("null");
+			}
+			else {
+				appendJsonString(value, sb);
+			}
+		}
+		return sb.append('}').toString();
+	}
+
+	private static void appendJsonString(String value, StringBuilder target) {
+
+		target.append('"');
+		for (int i = 0; i < value.length(); ++i) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> target.append("\\\"");
+				case '\\' -> target.append("\\\\");
+				case '\n' -> target.append("\\n");
+				case '\r' -> target.append("\\r");
+				case '\t' -> target.append("\\t");
+				default -> {
+					if (c < 0x20) {
+						target.append(String.format("\\u%04x", (int) c));
+					}
+					else {
+						target.append(c);
+					}
+				}
+			}
+		}
+		target.append('"');
+	}
+
+	private static @Nullable String[] values(MigrationChain.Element element) {
+
+		return new String[] { element.getVersion(), element.getOptionalDescription().orElse(null),
+				element.getType().name(), element.getInstalledOn().map(ZonedDateTime::toString).orElse(null),
+				element.getInstalledBy().orElse(null), element.getExecutionTime().map(Duration::toString).orElse(null),
+				element.getState().name(), element.getSource() };
+	}
+
 	static void formatElements(MigrationChain chain, StringBuilder target) {
 
 		Map<String, List<String>> table = buildMigrationTable(chain);
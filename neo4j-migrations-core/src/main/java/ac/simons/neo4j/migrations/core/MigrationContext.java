@@ -15,9 +15,11 @@
  */
 package ac.simons.neo4j.migrations.core;
 
+import java.time.Duration;
 import java.util.function.UnaryOperator;
 
 import ac.simons.neo4j.migrations.core.catalog.Catalog;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.SessionConfig;
@@ -89,6 +91,33 @@ public interface MigrationContext {
 	 */
 	Session getSchemaSession();
 
+	/**
+	 * Returns a session against the configured database that uses the given access mode.
+	 * Sessions with {@link AccessMode#READ} are routed to secondaries in a cluster. They
+	 * share the bookmarks of all other sessions of this context and are therefore
+	 * causally consistent with the writes done through it.
+	 * @param accessMode the access mode of the session
+	 * @return a session configured to use the migration context's database name
+	 * @since 4.2.0
+	 */
+	default Session getSession(AccessMode accessMode) {
+
+		return getDriver().session(getSessionConfig(builder -> builder.withDefaultAccessMode(accessMode)));
+	}
+
+	/**
+	 * Same as {@link #getSchemaSession()}, but with the given access mode. The default
+	 * implementation ignores the access mode.
+	 * @param accessMode the access mode of the session
+	 * @return a session accessing the configured schema database if any or the default
+	 * database
+	 * @since 4.2.0
+	 */
+	default Session getSchemaSession(AccessMode accessMode) {
+
+		return getSchemaSession();
+	}
+
 	/**
 	 * The details will give detailed information about the user being connected, server
 	 * address and which databases - if available - are being migrated and which are used
@@ -103,4 +132,34 @@ public interface MigrationContext {
 	 */
 	Catalog getCatalog();
 
+	/**
+	 * Java-based migrations processing data in batches should call this method after each
+	 * batch. If a {@link MigrationsConfig#getOptionalThrottle() throttle} is configured,
+	 * the method blocks until the next batch may start or while the throttle is paused;
+	 * otherwise it returns immediately.
+	 * @param rows the number of rows processed in the finished batch
+	 * @param elapsed the duration of the finished batch
+	 * @since 4.2.0
+	 */
+	default void throttle(long rows, Duration elapsed) {
+
+		getConfig().getOptionalThrottle()
+			.ifPresent(throttle -> throttle.acquire(rows, 1, elapsed,
+					() -> Throttle.countActiveTransactions(this::getSession)));
+	}
+
+	/**
+	 * Creates a {@link DataMigrationPipeline pipeline} for rewriting data in pages from
+	 * within a Java-based migration, using sessions of this context.
+	 * @param readQuery the query reading one page of rows
+	 * @param writeQuery the query writing the rows of one page, available as
+	 * {@code $rows}
+	 * @return a new pipeline
+	 * @since 4.2.0
+	 */
+	default DataMigrationPipeline dataMigrationPipeline(String readQuery, String writeQuery) {
+
+		return DataMigrationPipeline.of(this, readQuery, writeQuery);
+	}
+
 }
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ac.simons.neo4j.migrations.core.refactorings.Counters;
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SimpleQueryRunner;
+
+/**
+ * Keeps track of the number of statements of a Cypher-based migration that have already
+ * been committed. The progress is stored on a {@code __Neo4jMigrationProgress} node in
+ * the schema database, keyed by version and migration target, so that a migration that
+ * failed halfway through can be resumed after the last committed statement as long as its
+ * checksum has not changed. If the statements are executed in the schema database and
+ * don't change the schema themselves, the progress is updated in the same transaction as
+ * the statements, otherwise directly after each commit. Migrations executed in
+ * {@link MigrationsConfig.TransactionMode#PER_MIGRATION one transaction} have nothing to
+ * resume and don't keep any progress.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class MigrationProgress {
+
+	static final String DELETE_QUERY = "MATCH (p:__Neo4jMigrationProgress {version: $version, migrationTarget: coalesce($migrationTarget, '<default>')}) DELETE p";
+
+	private static final Logger LOGGER = Logger.getLogger(MigrationProgress.class.getName());
+
+	private static final MigrationProgress NONE = new MigrationProgress(null, "", "", null, false);
+
+	private static final String READ_QUERY = "MATCH (p:__Neo4jMigrationProgress {version: $version, migrationTarget: coalesce($migrationTarget, '<default>')}) RETURN p.checksum AS checksum, p.statements AS statements";
+
+	private static final String UPDATE_QUERY = """
+			MERGE (p:__Neo4jMigrationProgress {version: $version, migrationTarget: coalesce($migrationTarget, '<default>')})
+			SET p.checksum = $checksum, p.statements = $statements, p.updatedAt = datetime({timezone: 'UTC'})
+			""";
+
+	private final @Nullable MigrationContext context;
+
+	private final String version;
+
+	private final String checksum;
+
+	private final @Nullable String migrationTarget;
+
+	private final boolean sharesTransactions;
+
+	private MigrationProgress(@Nullable MigrationContext context, String version, String checksum,
+			@Nullable String migrationTarget, boolean sharesTransactions) {
+		this.context = context;
+		this.version = version;
+		this.checksum = checksum;
+		this.migrationTarget = migrationTarget;
+		this.sharesTransactions = sharesTransactions;
+	}
+
+	/**
+	 * {@return an instance that neither skips nor records anything, used for callbacks}
+	 */
+	static MigrationProgress none() {
+		return NONE;
+	}
+
+	/**
+	 * Creates the progress for a migration in the given context.
+	 * @param context the context in which the migration is applied
+	 * @param migration the migration being applied
+	 * @return the progress of the migration
+	 */
+	static MigrationProgress of(MigrationContext context, Migration migration) {
+
+		var optionalChecksum = migration.getChecksum();
+		if (optionalChecksum.isEmpty()) {
+			return NONE;
+		}
+		var migrationTarget = context.getConfig().getMigrationTargetIn(context);
+		return new MigrationProgress(context, migration.getVersion().getValue(), optionalChecksum.get(),
+				migrationTarget.orElse(null), migrationTarget.isEmpty());
+	}
+
+	/**
+	 * Returns a view on this progress for statements that are executed in the given
+	 * database. Statements that are redirected to another database can never share a
+	 * transaction with the progress marker.
+	 * @param database the database the statements are executed in
+	 * @return a progress for the given database
+	 */
+	MigrationProgress forDatabase(@SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<String> database) {
+
+		if (database.isEmpty() || !this.sharesTransactions) {
+			return this;
+		}
+		return new MigrationProgress(this.context, this.version, this.checksum, this.migrationTarget, false);
+	}
+
+	/**
+	 * Retrieves the number of statements that have been committed during a previous,
+	 * failed attempt. A marker with a different checksum is removed, as the migration
+	 * must start from scratch in that case.
+	 * @return the number of statements that can be skipped
+	 */
+	int getCompletedStatements() {
+
+		if (this.context == null) {
+			return 0;
+		}
+
+		try (Session session = this.context.getSchemaSession()) {
+			var optionalRecord = session.executeRead(tx -> tx.run(READ_QUERY, parameters()).stream().findFirst());
+			if (optionalRecord.isEmpty()) {
+				return 0;
+			}
+			var marker = optionalRecord.get();
+			if (!this.checksum.equals(marker.get("checksum").asString(null))) {
+				LOGGER.log(Level.INFO,
+						"Discarding progress of migration {0} because its checksum changed, starting from the beginning",
+						this.version);
+				session.executeWriteWithoutResult(tx -> tx.run(DELETE_QUERY, parameters()).consume());
+				return 0;
+			}
+			int completedStatements = marker.get("statements").asInt(0);
+			LOGGER.log(Level.INFO, "Resuming migration {0} after {1} already committed statements",
+					new Object[] { this.version, completedStatements });
+			return completedStatements;
+		}
+	}
+
+	/**
+	 * Records the progress within the transaction executing the statements, if possible.
+	 * Neo4j does not allow data writes in a transaction that changed the schema, so in
+	 * that case the progress is recorded after the commit.
+	 * @param runner the transaction executing the statements
+	 * @param counters the changes done by the statements in the transaction so far
+	 * @param completedStatements the total number of statements completed once the
+	 * transaction commits
+	 */
+	void recordIn(SimpleQueryRunner runner, Counters counters, int completedStatements) {
+
+		if (this.context != null && canRecordIn(counters)) {
+			runner.run(UPDATE_QUERY, parameters(completedStatements)).consume();
+		}
+	}
+
+	/**
+	 * Records the progress after a transaction has been committed, unless that already
+	 * happened within the transaction itself.
+	 * @param counters the changes done by the committed transaction
+	 * @param completedStatements the total number of statements completed
+	 */
+	void recordAfterCommit(Counters counters, int completedStatements) {
+
+		if (!canRecordIn(counters)) {
+			recordAfterAutoCommit(completedStatements);
+		}
+	}
+
+	/**
+	 * Records the progress after a statement has been run in an implicit transaction.
+	 * @param completedStatements the total number of statements completed
+	 */
+	void recordAfterAutoCommit(int completedStatements) {
+
+		if (this.context == null) {
+			return;
+		}
+		try (Session session = this.context.getSchemaSession()) {
+			session.executeWriteWithoutResult(tx -> tx.run(UPDATE_QUERY, parameters(completedStatements)).consume());
+		}
+	}
+
+	private boolean canRecordIn(Counters counters) {
+		return this.sharesTransactions && counters.indexesAdded() + counters.indexesRemoved()
+				+ counters.constraintsAdded() + counters.constraintsRemoved() == 0;
+	}
+
+	private Map<String, Object> parameters() {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("version", this.version);
+		parameters.put(Migrations.PROPERTY_MIGRATION_TARGET, this.migrationTarget);
+		return parameters;
+	}
+
+	private Map<String, Object> parameters(int completedStatements) {
+		var parameters = parameters();
+		parameters.put("checksum", this.checksum);
+		parameters.put("statements", completedStatements);
+		return parameters;
+	}
+
+}
@@ -18,12 +18,15 @@ package ac.simons.neo4j.migrations.core;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -32,6 +35,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import ac.simons.neo4j.migrations.core.MigrationChain.ChainBuilderMode;
 import ac.simons.neo4j.migrations.core.MigrationVersion.StopVersion;
@@ -42,14 +46,17 @@ import ac.simons.neo4j.migrations.core.catalog.Index;
 import ac.simons.neo4j.migrations.core.catalog.RenderConfig;
 import ac.simons.neo4j.migrations.core.catalog.Renderer;
 import ac.simons.neo4j.migrations.core.refactorings.Counters;
+import ac.simons.neo4j.migrations.core.refactorings.FusedRefactoring;
 import ac.simons.neo4j.migrations.core.refactorings.Refactoring;
 import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Query;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.TransactionCallback;
 import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.TransactionContext;
 import org.neo4j.driver.Values;
 import org.neo4j.driver.exceptions.NoSuchRecordException;
 import org.neo4j.driver.exceptions.ServiceUnavailableException;
@@ -79,6 +86,10 @@ public final class Migrations {
 		.named("repeated_at__Neo4jMigration")
 		.onProperties("at");
 
+	static final Index PROGRESS_VERSION = Index.forNode("__Neo4jMigrationProgress")
+		.named("version_target__Neo4jMigrationProgress")
+		.onProperties(PROPERTY_MIGRATION_VERSION, PROPERTY_MIGRATION_TARGET);
+
 	// Used when rewiring relationships during out-of-order migrations
 	private static final String OLD_REL_ID = "oldRelId";
 
@@ -162,6 +173,10 @@ public final class Migrations {
 			stmt = Renderer.get(Renderer.Format.CYPHER, Index.class).render(REPEATED_AT, createConfig);
 			HBD.silentCreateConstraintOrIndex(context.getConnectionDetails(), session, stmt, null,
 					() -> "Could not create index constraint for repeated migrations.");
+
+			stmt = Renderer.get(Renderer.Format.CYPHER, Index.class).render(PROGRESS_VERSION, createConfig);
+			HBD.silentCreateConstraintOrIndex(context.getConnectionDetails(), session, stmt, null,
+					() -> "Could not create index for the progress of migrations.");
 		}
 	}
 
@@ -310,6 +325,49 @@ public final class Migrations {
 				LifecyclePhase.BEFORE_INFO, LifecyclePhase.AFTER_INFO, true);
 	}
 
+	/**
+	 * Passes information about all applied and all pending migrations to the given
+	 * consumer without creating a {@link MigrationChain} first. This is useful for very
+	 * long chains that are written somewhere else anyway, for example in one of the
+	 * {@link MigrationChain.ElementFormat element formats}. In
+	 * {@link ChainBuilderMode#REMOTE remote mode} no local migrations are discovered,
+	 * nothing is validated and the applied migrations are read in pages, each element
+	 * being passed on as soon as its page has been read. All other modes read the
+	 * complete chain of applied migrations first.
+	 * @param mode specify how the chain should be computed
+	 * @param consumer the consumer for all elements of the chain
+	 * @throws ServiceUnavailableException in case the driver is not connected
+	 * @throws MigrationsException for everything caused by failing migrations
+	 * @since 4.2.0
+	 */
+	public void info(ChainBuilderMode mode, Consumer<? super MigrationChain.Element> consumer) {
+
+		executeWithinLock(() -> {
+			List<Migration> migrations = (mode == ChainBuilderMode.REMOTE) ? List.of() : this.getMigrations();
+			this.chainBuilder.forEachElement(this.context, migrations, mode, consumer);
+			return null;
+		}, LifecyclePhase.BEFORE_INFO, LifecyclePhase.AFTER_INFO, true);
+	}
+
+	/**
+	 * Reads the chain of applied migrations in pages of at most {@code pageSize}
+	 * elements. The first page is read right away, all others in their own transaction
+	 * when the stream requests them, so the returned stream should be consumed soon. Nothing is validated and no lock
+	 * is acquired: Pages are not guaranteed to be consistent with each other while other
+	 * instances apply migrations.
+	 * @param pageSize the maximum number of elements per page, must be greater than zero
+	 * @return a stream of pages of applied migrations, in the order of the chain
+	 * @throws ServiceUnavailableException in case the driver is not connected
+	 * @since 4.2.0
+	 */
+	public Stream<List<MigrationChain.Element>> getAppliedMigrationsInPages(int pageSize) {
+
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("The page size must be greater than zero");
+		}
+		return ChainBuilder.readPages(this.context, pageSize);
+	}
+
 	/**
 	 * Applies all discovered Neo4j migrations. Migrations can either be classes
 	 * implementing {@link JavaBasedMigration} or Cypher script migrations that are on the
@@ -370,16 +428,10 @@ public final class Migrations {
 			return Counters.empty();
 		}
 
-		Neo4jVersion neo4jVersion = Neo4jVersion.of(this.context.getConnectionDetails().getServerVersion());
-		Neo4jEdition neo4jEdition = Neo4jEdition.of(this.context.getConnectionDetails().getServerEdition());
+		var operationContext = CatalogBasedMigration.OperationContext.of(this.context);
 
-		CatalogBasedMigration.OperationContext operationContext = new CatalogBasedMigration.OperationContext(
-				neo4jVersion, neo4jEdition, (VersionedCatalog) this.context.getCatalog(), this.config,
-				this.context::getSession);
-
-		return Arrays.stream(refactorings)
-			.filter(Objects::nonNull)
-			.sequential()
+		return FusedRefactoring.fuse(Arrays.stream(refactorings).filter(Objects::nonNull).toList())
+			.stream()
 			.map(CatalogBasedMigration.Operation::refactorWith)
 			.map(op -> op.execute(operationContext))
 			.reduce(Counters.empty(), Counters::add);
@@ -431,6 +483,64 @@ public final class Migrations {
 		return cnt;
 	}
 
+	/**
+	 * Applies migrations that have already been parsed on top of the chain of applied
+	 * migrations and records them like {@link #apply()} does. Nothing is discovered and
+	 * the chain is not validated against all local migrations: Migrations that have
+	 * already been applied are skipped, unless they are repeatable and have been changed.
+	 * This is meant for tools that only look at a few changed resources, for example
+	 * while watching locations during development. The given migrations are added to the
+	 * cache of discovered migrations, if any.
+	 * @param newMigrations the migrations to apply, in any order
+	 * @return the last applied migration (if any)
+	 * @throws ServiceUnavailableException in case the driver is not connected
+	 * @throws MigrationsException for everything caused by failing migrations or if a
+	 * migration is out of order and out-of-order migrations are not allowed
+	 * @since 4.2.0
+	 */
+	public Optional<MigrationVersion> apply(Collection<? extends Migration> newMigrations) {
+
+		List<Migration> migrations = new ArrayList<>(newMigrations);
+		migrations.sort(Comparator.comparing(Migration::getVersion, this.config.getVersionComparator()));
+
+		return executeWithinLock(() -> {
+			ensureConstraints(this.context);
+
+			MigrationChain chain = this.chainBuilder.buildChain(this.context, List.of(), false,
+					ChainBuilderMode.REMOTE);
+			MigrationVersion lastAppliedVersion = getLastAppliedVersion().orElseGet(MigrationVersion::baseline);
+			if (!this.config.isOutOfOrder() && lastAppliedVersion != MigrationVersion.baseline()) {
+				var outOfOrderMigration = migrations.stream()
+					.filter(migration -> !chain.isApplied(migration.getVersion().getValue()))
+					.filter(migration -> this.config.getVersionComparator()
+						.compare(migration.getVersion(), lastAppliedVersion) < 0)
+					.findFirst();
+				if (outOfOrderMigration.isPresent()) {
+					throw new MigrationsException("Unexpected migration " + toString(outOfOrderMigration.get())
+							+ ", the database has already been migrated to " + lastAppliedVersion.getValue() + ".");
+				}
+			}
+
+			applyEach(chain, IterableMigrations.of(this.config, migrations), lastAppliedVersion);
+			addToCache(migrations);
+			return getLastAppliedVersion();
+		}, LifecyclePhase.BEFORE_MIGRATE, LifecyclePhase.AFTER_MIGRATE, true);
+	}
+
+	private void addToCache(List<Migration> newMigrations) {
+
+		synchronized (this) {
+			List<Migration> cachedMigrations = this.resolvedMigrations;
+			if (cachedMigrations == null) {
+				return;
+			}
+			Map<MigrationVersion, Migration> migrations = new TreeMap<>(this.config.getVersionComparator());
+			cachedMigrations.forEach(migration -> migrations.put(migration.getVersion(), migration));
+			newMigrations.forEach(migration -> migrations.put(migration.getVersion(), migration));
+			this.resolvedMigrations = List.copyOf(migrations.values());
+		}
+	}
+
 	/**
 	 * Cleans the {@link MigrationsConfig#getOptionalSchemaDatabase() selected schema
 	 * database}. If there is no schema database selected, the operation uses the
@@ -462,7 +572,8 @@ public final class Migrations {
 				() -> clean0(optionalMigrationTarget, all), LifecyclePhase.BEFORE_CLEAN, LifecyclePhase.AFTER_CLEAN,
 				true);
 
-		long nodesDeleted = deletedChainsWithCounters.counter.nodesDeleted();
+		long nodesDeleted = deletedChainsWithCounters.counter.nodesDeleted()
+				+ deletedChainsWithCounters.additionalNodesDeleted;
 		long relationshipsDeleted = deletedChainsWithCounters.counter.relationshipsDeleted();
 		long constraintsRemoved = deletedChainsWithCounters.counter.constraintsRemoved()
 				+ deletedChainsWithCounters.additionalConstraintsRemoved;
@@ -495,9 +606,32 @@ public final class Migrations {
 			DeletedChainsWithCounters deletedChainsWithCounters = session.executeWrite(tx -> {
 				Result result = tx.run(query,
 						Values.parameters(PROPERTY_MIGRATION_TARGET, migrationTarget.orElse(null), "all", all));
-				return new DeletedChainsWithCounters(result.list(r -> r.get(PROPERTY_MIGRATION_TARGET).asString()),
-						result.consume().counters());
+				var chainsDeleted = result.list(r -> r.get(PROPERTY_MIGRATION_TARGET).asString());
+				var counters = result.consume().counters();
+				// Progress of migrations that failed halfway through is meaningless
+				// without the chain
+				long progressDeleted = tx.run(
+						"MATCH (p:__Neo4jMigrationProgress) WHERE p.migrationTarget = coalesce($migrationTarget,'<default>') OR $all DELETE p",
+						Values.parameters(PROPERTY_MIGRATION_TARGET, migrationTarget.orElse(null), "all", all))
+					.consume()
+					.counters()
+					.nodesDeleted();
+				return new DeletedChainsWithCounters(chainsDeleted, counters, progressDeleted);
 			});
+			if (all) {
+				// Checkpoints of resumable refactorings are kept in the target database and
+				// don't belong to any migration target, so they are only deleted with all
+				// other constructs
+				try (Session targetSession = this.context.getSession()) {
+					long checkpointsDeleted = targetSession.executeWrite(tx -> tx
+						.run("MATCH (c:__Neo4jRefactoringCheckpoint) DELETE c")
+						.consume()
+						.counters()
+						.nodesDeleted());
+					deletedChainsWithCounters = new DeletedChainsWithCounters(deletedChainsWithCounters,
+							deletedChainsWithCounters.additionalNodesDeleted + checkpointsDeleted, 0L);
+				}
+			}
 			ConnectionDetails cd = this.context.getConnectionDetails();
 			if (all && HBD.is44OrHigher(cd)) {
 
@@ -507,6 +641,7 @@ public final class Migrations {
 					.forVersionAndEdition(cd.getServerVersion(), cd.getServerEdition());
 
 				return new DeletedChainsWithCounters(deletedChainsWithCounters,
+						deletedChainsWithCounters.additionalNodesDeleted,
 						session.run(renderer.render(UNIQUE_VERSION, dropConfig))
 							.consume()
 							.counters()
@@ -557,6 +692,178 @@ public final class Migrations {
 		}, null, null, true);
 	}
 
+	/**
+	 * Compacts the chain of applied migrations in the
+	 * {@link MigrationsConfig#getOptionalSchemaDatabase() selected schema database}. All
+	 * migrations up to and including the given version are removed from the chain and
+	 * only recorded as part of its baseline, together with an aggregated checksum, so
+	 * that locally discovered migrations are still validated against them. In addition,
+	 * only the latest {@code repetitionsToKeep} repetitions of repeatable migrations are
+	 * kept. Both steps are executed in batches, each batch in a separate transaction that
+	 * leaves a valid chain behind.
+	 * <p>
+	 * The chain can only be compacted if the database is in a valid state. Neither the
+	 * last applied migration nor repeatable migrations can be compacted, and compacted
+	 * migrations can't be repaired anymore.
+	 * @param version the version up to which the chain should be compacted, use
+	 * {@literal null} to only prune repetitions
+	 * @param repetitionsToKeep the number of repetitions to keep for every repeatable
+	 * migration, must be at least 1
+	 * @return the result of the operation
+	 * @since 4.2.0
+	 */
+	public CompactResult compact(@Nullable MigrationVersion version, int repetitionsToKeep) {
+
+		if (repetitionsToKeep < 1) {
+			throw new IllegalArgumentException("At least the latest repetition of repeatable migrations must be kept.");
+		}
+
+		return executeWithinLock(() -> {
+
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put(PROPERTY_MIGRATION_TARGET, this.config.getMigrationTargetIn(this.context).orElse(null));
+			parameters.put("repetitionsToKeep", repetitionsToKeep);
+			parameters.put("batchSize", ChainCompaction.BATCH_SIZE);
+
+			var nodesDeleted = 0L;
+			var relationshipsDeleted = 0L;
+			var relationshipsCreated = 0L;
+			var propertiesSet = 0L;
+			var migrationsCompacted = 0;
+			try (Session session = this.context.getSchemaSession()) {
+				if (version != null) {
+					for (Map<String, Object> batch : getCompactionBatches(version)) {
+						parameters.putAll(batch);
+						var counters = session
+							.executeWrite(tx -> tx.run(ChainCompaction.COMPACT_QUERY, parameters).consume().counters());
+						if (counters.nodesDeleted() == 0) {
+							throw new MigrationsException("Could not compact the migration chain up to version "
+									+ batch.get("version") + ".");
+						}
+						nodesDeleted += counters.nodesDeleted();
+						relationshipsDeleted += counters.relationshipsDeleted();
+						relationshipsCreated += counters.relationshipsCreated();
+						propertiesSet += counters.propertiesSet();
+						migrationsCompacted += (int) batch.get("migrationsInBatch");
+					}
+				}
+
+				var repetitionsPruned = 0L;
+				long pruned;
+				do {
+					pruned = session
+						.executeWrite(tx -> tx.run(ChainCompaction.PRUNE_QUERY, parameters).consume().counters())
+						.relationshipsDeleted();
+					repetitionsPruned += pruned;
+				}
+				while (pruned > 0);
+
+				return new CompactResult(this.config.getOptionalSchemaDatabase().orElse(null), nodesDeleted,
+						relationshipsDeleted + repetitionsPruned, relationshipsCreated, propertiesSet,
+						(migrationsCompacted > 0) ? version : null, migrationsCompacted, repetitionsPruned);
+			}
+		}, null, null, true);
+	}
+
+	/**
+	 * Creates a snapshot of all locally discovered migrations up to and including the
+	 * given version. The snapshot is a Cypher script containing the local catalog at that
+	 * version, rendered for the connected database, followed by the statements of the
+	 * given seed scripts. Databases without any applied migrations can be bootstrapped
+	 * from it in one step, see
+	 * {@link MigrationsConfig.Builder#withBootstrapSnapshot(String)}. Only the catalog
+	 * and the seeds are part of the snapshot, so any data or schema changes done by
+	 * Cypher- or Java-based migrations must be covered by the seeds.
+	 * @param version the last version covered by the snapshot, must not be a repeatable
+	 * migration and must be preceded by non-repeatable migrations only
+	 * @param seeds scripts in Cypher that are added to the snapshot after the catalog
+	 * @return the content of the snapshot
+	 * @since 4.2.0
+	 */
+	public String snapshot(MigrationVersion version, URL... seeds) {
+
+		if (version == null) {
+			throw new IllegalArgumentException("A valid version must be passed to the snapshot operation");
+		}
+
+		List<CypherResource> seedResources = (seeds != null) ? Arrays.stream(seeds)
+			.filter(Objects::nonNull)
+			.map(seed -> CypherResource.of(ResourceContext.of(seed, this.config)))
+			.toList() : List.of();
+		return Snapshot.create(this.context, getMigrations(), version, seedResources);
+	}
+
+	/**
+	 * Validates whether the chain can be compacted up to the given version and computes
+	 * the parameters for each batch.
+	 * @param version the version up to which the chain should be compacted
+	 * @return the parameters of all batches, empty if the chain is already compacted up
+	 * to the given version
+	 */
+	private List<Map<String, Object>> getCompactionBatches(MigrationVersion version) {
+
+		var appliedMigrations = ChainBuilder.readAppliedMigrations(this.context);
+		var validationResult = validate0(appliedMigrations);
+		if (!(validationResult.isValid() || validationResult.getOutcome() == Outcome.INCOMPLETE_DATABASE)) {
+			throw new MigrationsException("Only a database in a valid state can be compacted, it is "
+					+ validationResult.getOutcome() + ": " + String.join(", ", validationResult.getWarnings()));
+		}
+
+		List<Migration> migrations = this.getMigrations();
+		List<MigrationChain.Element> elements = List.copyOf(this.chainBuilder
+			.buildChain(this.context, migrations, false, ChainBuilderMode.COMPARE, appliedMigrations)
+			.getElements());
+		int index = -1;
+		for (int i = 0; i < elements.size() && index < 0; ++i) {
+			var element = elements.get(i);
+			if (element.getState() != MigrationState.APPLIED) {
+				throw new MigrationsException("Migration " + toString(migrations.get(i))
+						+ " has not been applied, the chain can only be compacted up to the first pending migration.");
+			}
+			if (migrations.get(i).isRepeatable()) {
+				throw new MigrationsException(
+						"Repeatable migration " + toString(migrations.get(i)) + " can't be compacted.");
+			}
+			if (element.getVersion().equals(version.getValue())) {
+				index = i;
+			}
+		}
+		if (index < 0) {
+			throw new MigrationsException("Migration " + version.getValue() + " has not been applied.");
+		}
+		if (elements.stream().skip(index + 1L).noneMatch(e -> e.getState() == MigrationState.APPLIED)) {
+			throw new MigrationsException("The last applied migration can't be compacted.");
+		}
+
+		int alreadyCompacted = appliedMigrations.compaction().map(ChainCompaction::migrations).orElse(0);
+		// The chain is compacted along the path in the database, which follows the order of
+		// application, while batches, counts and checksums follow the order of versions
+		if (index >= alreadyCompacted) {
+			var appliedVersions = appliedMigrations.elements()
+				.stream()
+				.limit(index + 1L - alreadyCompacted)
+				.map(entry -> entry.getKey().getValue())
+				.toList();
+			var localVersions = migrations.subList(alreadyCompacted, index + 1)
+				.stream()
+				.map(migration -> migration.getVersion().getValue())
+				.toList();
+			if (!appliedVersions.equals(localVersions)) {
+				throw new MigrationsException("Migrations up to version " + version.getValue()
+						+ " have not been applied in the order of their versions, the chain can't be compacted up to that version.");
+			}
+		}
+		List<Map<String, Object>> batches = new ArrayList<>();
+		for (int start = alreadyCompacted; start <= index; start += ChainCompaction.BATCH_SIZE) {
+			int end = Math.min(start + ChainCompaction.BATCH_SIZE, index + 1);
+			var compactedMigrations = migrations.subList(0, end);
+			batches.add(Map.of("version", compactedMigrations.get(end - 1).getVersion().getValue(), "checksum",
+					ChainCompaction.checksum(compactedMigrations), "migrations", end, "migrationsInBatch",
+					end - start));
+		}
+		return batches;
+	}
+
 	/**
 	 * This command repairs databases containing Neo4j-Migration chains. Those schema
 	 * databases need to be repaired if the locally discovered migrations have diverged
@@ -601,14 +908,21 @@ public final class Migrations {
 						"Zero migrations have been discovered and repairing the database would lead to the deletion of all migrations recorded; if you want that, use the clean operation");
 			}
 
-			var validationResult = validate0();
+			// All chains are based on the same state of the database
+			var appliedMigrations = ChainBuilder.readAppliedMigrations(this.context);
+			var validationResult = validate0(appliedMigrations);
 			if (validationResult.isValid() || validationResult.getOutcome() == Outcome.INCOMPLETE_DATABASE) {
 				return RepairmentResult.unnecessary(affectedDatabase);
 			}
 
+			// Compacted migrations are only recorded as part of the baseline and must
+			// not be recreated
+			int compactedMigrations = appliedMigrations.compaction().map(ChainCompaction::migrations).orElse(0);
+			migrations = migrations.subList(Math.min(compactedMigrations, migrations.size()), migrations.size());
+
 			var nonVerifyingChainBuilder = new ChainBuilder(false);
 			MigrationChain remoteChain = nonVerifyingChainBuilder.buildChain(this.context, migrations, true,
-					ChainBuilderMode.REMOTE);
+					ChainBuilderMode.REMOTE, appliedMigrations);
 			MigrationChain localChain = nonVerifyingChainBuilder.buildChain(this.context, migrations, true,
 					ChainBuilderMode.LOCAL);
 
@@ -665,17 +979,17 @@ public final class Migrations {
 	 */
 	public ValidationResult validate(boolean doLock) {
 
-		return executeWithinLock(this::validate0, LifecyclePhase.BEFORE_VALIDATE, LifecyclePhase.AFTER_VALIDATE,
-				doLock);
+		return executeWithinLock(() -> validate0(ChainBuilder.readAppliedMigrations(this.context)),
+				LifecyclePhase.BEFORE_VALIDATE, LifecyclePhase.AFTER_VALIDATE, doLock);
 	}
 
-	private ValidationResult validate0() {
+	private ValidationResult validate0(ChainBuilder.AppliedMigrations appliedMigrations) {
 
 		Optional<String> targetDatabase = this.config.getOptionalSchemaDatabase();
 		try {
 			List<Migration> migrations = this.getMigrations();
 			MigrationChain migrationChain = new ChainBuilder(true).buildChain(this.context, migrations, true,
-					ChainBuilderMode.COMPARE);
+					ChainBuilderMode.COMPARE, appliedMigrations);
 			int numberOfAppliedMigrations = (int) migrationChain.getElements()
 				.stream()
 				.filter(m -> m.getState() == MigrationState.APPLIED)
@@ -723,7 +1037,7 @@ public final class Migrations {
 	public Catalog getDatabaseCatalog() {
 
 		return executeWithinLock(() -> {
-			try (Session session = this.context.getSession()) {
+			try (Session session = this.context.getSession(AccessMode.READ)) {
 				Neo4jVersion neo4jVersion = Neo4jVersion.of(this.context.getConnectionDetails().getServerVersion());
 				return DatabaseCatalog.of(neo4jVersion, session, true);
 			}
@@ -788,7 +1102,7 @@ public final class Migrations {
 
 	private Optional<MigrationVersion> getLastAppliedVersion() {
 
-		try (Session session = this.context.getSchemaSession()) {
+		try (Session session = this.context.getSchemaSession(AccessMode.READ)) {
 			Node lastMigration = session.executeRead(tx -> tx.run(
 					"MATCH (l:__Neo4jMigration) WHERE coalesce(l.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>') AND NOT (l)-[:MIGRATED_TO]->(:__Neo4jMigration) RETURN l",
 					Collections.singletonMap(PROPERTY_MIGRATION_TARGET,
@@ -832,7 +1146,52 @@ public final class Migrations {
 
 		StopWatch stopWatch = new StopWatch();
 		MigrationVersion previousVersion = getLastAppliedVersion().orElseGet(MigrationVersion::baseline);
-		for (Migration migration : IterableMigrations.of(this.config, migrations, optionalStop)) {
+		if (previousVersion == MigrationVersion.baseline()) {
+			var optionalSnapshot = Snapshot.of(this.config);
+			if (optionalSnapshot.isPresent()) {
+				Snapshot.assertNotPartiallyApplied(this.context);
+				var snapshot = optionalSnapshot.get();
+				var lastCoveredMigration = snapshot.verify(migrations);
+				if ((optionalStop == null || this.config.getVersionComparator()
+					.compare(lastCoveredMigration.getVersion(), optionalStop.version()) <= 0)
+						&& bootstrapFrom(snapshot)) {
+					try {
+						stopWatch.start();
+						snapshot.applyTo(this.context);
+						long executionTime = stopWatch.stop();
+						snapshot.recordCompactionIn(this.context, migrations);
+						previousVersion = recordApplication(chain.getUsername(), previousVersion, lastCoveredMigration,
+								executionTime, false);
+						snapshot.complete(this.context);
+					}
+					catch (Exception ex) {
+						throw MigrationsException.of(ex,
+								() -> "Could not apply snapshot " + snapshot.identifier() + ".");
+					}
+					finally {
+						stopWatch.reset();
+					}
+					LOGGER.log(Level.INFO, "Bootstrapped database from snapshot {0} up to version {1}.",
+							new Object[] { snapshot.identifier(), lastCoveredMigration.getVersion().getValue() });
+					chain = this.chainBuilder.buildChain(this.context, migrations);
+				}
+			}
+		}
+		applyEach(chain, IterableMigrations.of(this.config, migrations, optionalStop), previousVersion);
+	}
+
+	/**
+	 * Applies and records the given migrations that are not part of the given chain yet,
+	 * or that are repeatable and have been changed.
+	 * @param chain the chain of migrations applied so far
+	 * @param migrations the migrations to apply, in order
+	 * @param lastAppliedVersion the version of the last applied migration
+	 */
+	private void applyEach(MigrationChain chain, Iterable<Migration> migrations, MigrationVersion lastAppliedVersion) {
+
+		StopWatch stopWatch = new StopWatch();
+		MigrationVersion previousVersion = lastAppliedVersion;
+		for (Migration migration : migrations) {
 			var isApplied = chain.isApplied(migration.getVersion().getValue());
 			var isRepeated = false;
 
@@ -874,6 +1233,17 @@ public final class Migrations {
 		}
 	}
 
+	private boolean bootstrapFrom(Snapshot snapshot) {
+
+		if (Snapshot.isTargetEmpty(this.context)) {
+			return true;
+		}
+		LOGGER.log(Level.WARNING,
+				"Not bootstrapping from snapshot {0}, the target database already contains data or schema, applying migrations one by one.",
+				snapshot.identifier());
+		return false;
+	}
+
 	private MigrationVersion recordApplication(String neo4jUser, MigrationVersion previousVersion,
 			Migration appliedMigration, long executionTime, boolean repeated) {
 
@@ -896,6 +1266,7 @@ public final class Migrations {
 						+ "CREATE (l) - [:REPEATED {checksum: $appliedMigration['checksum'], at: datetime({timezone: 'UTC'}), in: duration( {milliseconds: $executionTime} ), by: $installedBy, connectedAs: $neo4jUser}] -> (l)",
 						parameters)
 					.consume();
+				clearProgress(t, appliedMigration, migrationTarget);
 				return Optional.empty();
 			};
 		}
@@ -926,6 +1297,7 @@ public final class Migrations {
 						""";
 
 				var result = t.run(mergePreviousMigration + " " + createNewMigrationAndPath, parameters).single();
+				clearProgress(t, appliedMigration, migrationTarget);
 				if (!result.get(OLD_REL_ID).isNull()) {
 					return Optional
 						.of(new ReplacedMigration(result.get(OLD_REL_ID).asLong(), result.get(INSERTED_ID).asLong()));
@@ -957,23 +1329,41 @@ public final class Migrations {
 		return appliedMigration.getVersion();
 	}
 
+	private void clearProgress(TransactionContext t, Migration appliedMigration,
+			@SuppressWarnings("OptionalUsedAsFieldOrParameterType") Optional<String> migrationTarget) {
+		// Only Cypher-based migrations spanning several transactions record progress
+		if (!(appliedMigration instanceof AbstractCypherBasedMigration)
+				|| this.config.getTransactionMode() == MigrationsConfig.TransactionMode.PER_MIGRATION) {
+			return;
+		}
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("version", appliedMigration.getVersion().getValue());
+		parameters.put(PROPERTY_MIGRATION_TARGET, migrationTarget.orElse(null));
+		t.run(MigrationProgress.DELETE_QUERY, parameters).consume();
+	}
+
 	static class DeletedChainsWithCounters {
 
 		final List<String> chainsDeleted;
 
 		final SummaryCounters counter;
 
+		final long additionalNodesDeleted;
+
 		final long additionalConstraintsRemoved;
 
-		DeletedChainsWithCounters(List<String> chainsDeleted, SummaryCounters counter) {
+		DeletedChainsWithCounters(List<String> chainsDeleted, SummaryCounters counter, long additionalNodesDeleted) {
 			this.chainsDeleted = chainsDeleted;
 			this.counter = counter;
+			this.additionalNodesDeleted = additionalNodesDeleted;
 			this.additionalConstraintsRemoved = 0L;
 		}
 
-		DeletedChainsWithCounters(DeletedChainsWithCounters source, long additionalConstraintsRemoved) {
+		DeletedChainsWithCounters(DeletedChainsWithCounters source, long additionalNodesDeleted,
+				long additionalConstraintsRemoved) {
 			this.chainsDeleted = source.chainsDeleted;
 			this.counter = source.counter;
+			this.additionalNodesDeleted = additionalNodesDeleted;
 			this.additionalConstraintsRemoved = additionalConstraintsRemoved;
 		}
 
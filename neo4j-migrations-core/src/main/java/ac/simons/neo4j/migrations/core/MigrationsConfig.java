@@ -24,12 +24,15 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ac.simons.neo4j.migrations.core.catalog.RenderConfig;
 import ac.simons.neo4j.migrations.core.internal.Strings;
+import ac.simons.neo4j.migrations.core.refactorings.RefactoringProgress;
 import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.exceptions.ClientException;
 import org.neo4j.driver.summary.DatabaseInfo;
@@ -48,6 +51,10 @@ public final class MigrationsConfig {
 
 	private final TransactionMode transactionMode;
 
+	private final int statementsPerTransaction;
+
+	private final long maxBytesPerTransaction;
+
 	/**
 	 * The database to migrate.
 	 */
@@ -75,6 +82,10 @@ public final class MigrationsConfig {
 	 */
 	private final @Nullable Duration delayBetweenMigrations;
 
+	private final @Nullable Throttle throttle;
+
+	private final @Nullable Consumer<RefactoringProgress> refactoringProgressListener;
+
 	private final List<? extends RenderConfig.AdditionalRenderingOptions> constraintOptions;
 
 	private final VersionSortOrder versionSortOrder;
@@ -87,6 +98,12 @@ public final class MigrationsConfig {
 
 	private final boolean useFlywayCompatibleChecksums;
 
+	private final ChecksumStrategy checksumStrategy;
+
+	private final boolean fuseRefactorings;
+
+	private final @Nullable String bootstrapSnapshot;
+
 	private final CypherVersion cypherVersion;
 
 	private final Map<String, String> placeholders;
@@ -98,6 +115,8 @@ public final class MigrationsConfig {
 		this.locationsToScan = (builder.locationsToScan != null) ? builder.locationsToScan
 				: Defaults.LOCATIONS_TO_SCAN.toArray(new String[0]);
 		this.transactionMode = Optional.ofNullable(builder.transactionMode).orElse(TransactionMode.PER_MIGRATION);
+		this.statementsPerTransaction = builder.statementsPerTransaction;
+		this.maxBytesPerTransaction = builder.maxBytesPerTransaction;
 		this.database = builder.database;
 		this.impersonatedUser = builder.impersonatedUser;
 		this.installedBy = Optional.ofNullable(builder.installedBy).orElse(System.getProperty("user.name"));
@@ -109,11 +128,17 @@ public final class MigrationsConfig {
 				: new DefaultClasspathResourceScanner();
 		this.schemaDatabase = builder.schemaDatabase;
 		this.delayBetweenMigrations = builder.delayBetweenMigrations;
+		this.throttle = builder.throttle;
+		this.refactoringProgressListener = builder.refactoringProgressListener;
 		this.constraintOptions = builder.constraintOptions;
 		this.versionSortOrder = builder.versionSortOrder;
 		this.transactionTimeout = builder.transactionTimeout;
 		this.outOfOrder = builder.outOfOrder;
 		this.useFlywayCompatibleChecksums = builder.useFlywayCompatibleChecksums;
+		this.checksumStrategy = (builder.checksumStrategy != null) ? builder.checksumStrategy
+				: ChecksumStrategy.crc32();
+		this.fuseRefactorings = builder.fuseRefactorings;
+		this.bootstrapSnapshot = builder.bootstrapSnapshot;
 		if (builder.target == null || builder.target.isBlank()) {
 			this.target = null;
 		}
@@ -177,6 +202,25 @@ public final class MigrationsConfig {
 		return this.transactionMode;
 	}
 
+	/**
+	 * {@return the maximum number of statements run in one transaction} Only used with
+	 * {@link TransactionMode#PER_N_STATEMENTS}.
+	 * @since 4.2.0
+	 */
+	public int getStatementsPerTransaction() {
+		return this.statementsPerTransaction;
+	}
+
+	/**
+	 * {@return the budget in bytes of all statements run in one transaction} {@literal 0}
+	 * means that transactions are only limited by {@link #getStatementsPerTransaction()
+	 * the number of statements}. Only used with {@link TransactionMode#PER_N_STATEMENTS}.
+	 * @since 4.2.0
+	 */
+	public long getMaxBytesPerTransaction() {
+		return this.maxBytesPerTransaction;
+	}
+
 	/**
 	 * Returns an optional target database.
 	 * @return an optional target database
@@ -256,6 +300,22 @@ public final class MigrationsConfig {
 		return Optional.ofNullable(this.delayBetweenMigrations);
 	}
 
+	/**
+	 * {@return the throttle limiting the rate of batched data migrations, if any}
+	 * @since 4.2.0
+	 */
+	public Optional<Throttle> getOptionalThrottle() {
+		return Optional.ofNullable(this.throttle);
+	}
+
+	/**
+	 * {@return the listener receiving the progress of resumable refactorings, if any}
+	 * @since 4.2.0
+	 */
+	public Optional<Consumer<RefactoringProgress>> getOptionalRefactoringProgressListener() {
+		return Optional.ofNullable(this.refactoringProgressListener);
+	}
+
 	/**
 	 * {@return the list of additional options to use when rendering constraints}
 	 * @since 2.8.2
@@ -303,6 +363,34 @@ public final class MigrationsConfig {
 		return this.useFlywayCompatibleChecksums;
 	}
 
+	/**
+	 * {@return the strategy used for computing checksums of Cypher- and catalog-based
+	 * migrations} Flyway compatible checksums are always computed with CRC32.
+	 * @since 4.2.0
+	 */
+	public ChecksumStrategy getChecksumStrategy() {
+		return this.checksumStrategy;
+	}
+
+	/**
+	 * {@return if consecutive refactorings over the same elements should be fused into
+	 * one statement} Fusion is skipped on servers that don't support the fused statement.
+	 * @since 4.2.0
+	 */
+	public boolean isFuseRefactorings() {
+		return this.fuseRefactorings;
+	}
+
+	/**
+	 * Returns the optional location of a snapshot used to bootstrap databases without any
+	 * applied migrations.
+	 * @return the optional location of a snapshot
+	 * @since 4.2.0
+	 */
+	public Optional<String> getOptionalBootstrapSnapshot() {
+		return Strings.optionalOf(this.bootstrapSnapshot);
+	}
+
 	/**
 	 * {@return the cypher version used as prefix for all Cypher scripts}
 	 * @since 2.19.0
@@ -341,9 +429,12 @@ public final class MigrationsConfig {
 			if (this.getLocationsToScan().length > 0) {
 				logger.log(Level.INFO, "Will search for Cypher scripts in \"{0}\"",
 						String.join("", this.getLocationsToScan()));
-				logger.log(Level.INFO, "Statements will be applied {0}",
-						(this.getTransactionMode() == TransactionMode.PER_MIGRATION)
-								? "in one transaction per migration" : "in separate transactions");
+				logger.log(Level.INFO, "Statements will be applied {0}", switch (this.getTransactionMode()) {
+					case PER_MIGRATION -> "in one transaction per migration";
+					case PER_STATEMENT -> "in separate transactions";
+					case PER_N_STATEMENTS ->
+						"in transactions of up to " + this.getStatementsPerTransaction() + " statements";
+				});
 			}
 			if (this.getPackagesToScan().length > 0) {
 				logger.log(Level.INFO, "Will scan for Java-based migrations in \"{0}\"",
@@ -379,7 +470,7 @@ public final class MigrationsConfig {
 
 		if (optionalDatabase.isEmpty()) {
 			// We need to connect to get this information
-			try (Session session = context.getSession()) {
+			try (Session session = context.getSession(AccessMode.READ)) {
 				try {
 					optionalDatabase = Optional.of(session
 						.executeRead(tx -> tx.run("CALL db.info() YIELD name").single().get("name").asString()));
@@ -423,7 +514,17 @@ public final class MigrationsConfig {
 		 * Runs each statement in a separate transaction. May leave your database in an
 		 * inconsistent state when one statement fails.
 		 */
-		PER_STATEMENT
+		PER_STATEMENT,
+		/**
+		 * Groups consecutive statements into transactions of a configurable number of
+		 * statements, optionally limited by the size of the statements, too. This keeps
+		 * the transaction state bounded without paying one commit per statement. Like
+		 * {@link #PER_STATEMENT}, a failing statement may leave your database in an
+		 * inconsistent state, as previous transactions have already been committed.
+		 *
+		 * @since 4.2.0
+		 */
+		PER_N_STATEMENTS
 
 	}
 
@@ -502,6 +603,10 @@ public final class MigrationsConfig {
 
 		private @Nullable TransactionMode transactionMode;
 
+		private int statementsPerTransaction = Defaults.STATEMENTS_PER_TRANSACTION;
+
+		private long maxBytesPerTransaction = Defaults.MAX_BYTES_PER_TRANSACTION;
+
 		private @Nullable String database;
 
 		private @Nullable String impersonatedUser;
@@ -520,6 +625,10 @@ public final class MigrationsConfig {
 
 		private @Nullable Duration delayBetweenMigrations;
 
+		private @Nullable Throttle throttle;
+
+		private @Nullable Consumer<RefactoringProgress> refactoringProgressListener;
+
 		private List<? extends RenderConfig.AdditionalRenderingOptions> constraintOptions = List.of();
 
 		private VersionSortOrder versionSortOrder = Defaults.VERSION_SORT_ORDER;
@@ -532,6 +641,12 @@ public final class MigrationsConfig {
 
 		private boolean useFlywayCompatibleChecksums = Defaults.USE_FLYWAY_COMPATIBLE_CHECKSUMS;
 
+		private @Nullable ChecksumStrategy checksumStrategy;
+
+		private boolean fuseRefactorings = Defaults.FUSE_REFACTORINGS;
+
+		private @Nullable String bootstrapSnapshot;
+
 		private @Nullable CypherVersion cypherVersion = Defaults.CYPHER_VERSION;
 
 		private @Nullable Map<String, String> placeholders;
@@ -580,6 +695,44 @@ public final class MigrationsConfig {
 			return this;
 		}
 
+		/**
+		 * Configures the maximum number of statements run in one transaction when using
+		 * {@link TransactionMode#PER_N_STATEMENTS}.
+		 * @param newStatementsPerTransaction the new number of statements, must be
+		 * positive
+		 * @return the builder for further customization
+		 * @throws IllegalArgumentException if the number of statements is not positive
+		 * @since 4.2.0
+		 */
+		public Builder withStatementsPerTransaction(int newStatementsPerTransaction) {
+
+			if (newStatementsPerTransaction < 1) {
+				throw new IllegalArgumentException("The number of statements per transaction must be greater than 0");
+			}
+			this.statementsPerTransaction = newStatementsPerTransaction;
+			return this;
+		}
+
+		/**
+		 * Configures a budget for the size of all statements run in one transaction when
+		 * using {@link TransactionMode#PER_N_STATEMENTS}. The size of a statement is the
+		 * length of its UTF-8 encoding. A statement exceeding the budget on its own will
+		 * run in a transaction of its own.
+		 * @param newMaxBytesPerTransaction the new budget in bytes, {@literal 0} to
+		 * disable the budget
+		 * @return the builder for further customization
+		 * @throws IllegalArgumentException if the budget is negative
+		 * @since 4.2.0
+		 */
+		public Builder withMaxBytesPerTransaction(long newMaxBytesPerTransaction) {
+
+			if (newMaxBytesPerTransaction < 0) {
+				throw new IllegalArgumentException("The maximum number of bytes per transaction must not be negative");
+			}
+			this.maxBytesPerTransaction = newMaxBytesPerTransaction;
+			return this;
+		}
+
 		/**
 		 * Configures the database to apply Cypher-based migrations too. Leave null for
 		 * the default database.
@@ -716,6 +869,40 @@ public final class MigrationsConfig {
 			return this;
 		}
 
+		/**
+		 * Other than {@link #withDelayBetweenMigrations(Duration)}, a throttle limits the
+		 * rate inside long-running migrations, such as backfills in Java-based migrations
+		 * or resumable refactorings, so that they can run against a database under
+		 * production load.
+		 * @param newThrottle the throttle to use. Use {@literal null} to run at full
+		 * speed (which is the default)
+		 * @return the builder for further customization
+		 * @since 4.2.0
+		 */
+		public Builder withThrottle(@Nullable Throttle newThrottle) {
+
+			this.throttle = newThrottle;
+			return this;
+		}
+
+		/**
+		 * Configures a listener that receives the progress of
+		 * {@link ac.simons.neo4j.migrations.core.refactorings.ResumableRefactoring
+		 * resumable refactorings} after each completed range, both when applied
+		 * programmatically and from within catalog based migrations. The progress is
+		 * logged regardless of the listener.
+		 * @param newRefactoringProgressListener the listener to use, {@literal null} to
+		 * only log the progress
+		 * @return the builder for further customization
+		 * @since 4.2.0
+		 */
+		public Builder withRefactoringProgressListener(
+				@Nullable Consumer<RefactoringProgress> newRefactoringProgressListener) {
+
+			this.refactoringProgressListener = newRefactoringProgressListener;
+			return this;
+		}
+
 		/**
 		 * Configures the rendering options for constraints defined by a catalog. Can be
 		 * {@literal null} but must not contain any {@literal null} items.
@@ -794,6 +981,51 @@ public final class MigrationsConfig {
 			return this;
 		}
 
+		/**
+		 * Enables or disables fusing consecutive refactorings over the same elements into
+		 * one statement. When disabled, all refactorings are applied one by one.
+		 * @param enabled use {@literal false} to disable fusing refactorings
+		 * @return the builder for further customization
+		 * @since 4.2.0
+		 */
+		public Builder withFuseRefactorings(boolean enabled) {
+			this.fuseRefactorings = enabled;
+			return this;
+		}
+
+		/**
+		 * Configures the strategy for computing checksums. A {@literal null} argument
+		 * uses the legacy {@link ChecksumStrategy#crc32() CRC32} strategy. Checksums
+		 * computed with CRC32 are accepted as alternative checksums regardless of the
+		 * strategy, so that the strategy can be changed without repairing existing
+		 * chains.
+		 * @param newChecksumStrategy the new checksum strategy
+		 * @return the builder for further customization
+		 * @since 4.2.0
+		 */
+		public Builder withChecksumStrategy(@Nullable ChecksumStrategy newChecksumStrategy) {
+			this.checksumStrategy = newChecksumStrategy;
+			return this;
+		}
+
+		/**
+		 * Configures a snapshot created with
+		 * {@link Migrations#snapshot(MigrationVersion, java.net.URL...)}. When migrations
+		 * are applied to a database without any applied migrations, the snapshot is
+		 * applied in one step instead of all migrations it covers. The location is given
+		 * like the {@link #withLocationsToScan(String...) locations to scan}, for example
+		 * {@code classpath:neo4j/snapshot.cypher} or
+		 * {@code file:/path/to/snapshot.cypher}.
+		 * @param newBootstrapSnapshot the location of the snapshot, {@literal null} to
+		 * always apply all migrations
+		 * @return the builder for further customization
+		 * @since 4.2.0
+		 */
+		public Builder withBootstrapSnapshot(@Nullable String newBootstrapSnapshot) {
+			this.bootstrapSnapshot = newBootstrapSnapshot;
+			return this;
+		}
+
 		/**
 		 * Selects the default cypher version. A {@literal null} argument uses
 		 * {@link Defaults#CYPHER_VERSION}.
@@ -21,6 +21,7 @@ import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Session;
 
 /**
@@ -76,8 +77,8 @@ final class QueryPrecondition extends AbstractPrecondition implements Preconditi
 
 	@Override
 	public boolean isMet(MigrationContext migrationContext) {
-		try (Session session = (this.database == Database.SCHEMA) ? migrationContext.getSchemaSession()
-				: migrationContext.getSession()) {
+		try (Session session = (this.database == Database.SCHEMA) ? migrationContext.getSchemaSession(AccessMode.READ)
+				: migrationContext.getSession(AccessMode.READ)) {
 			return session.executeRead(tx -> tx.run(this.query).single().get(0).asBoolean());
 		}
 	}
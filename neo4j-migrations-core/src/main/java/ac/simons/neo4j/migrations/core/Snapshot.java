@@ -0,0 +1,325 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ac.simons.neo4j.migrations.core.catalog.Catalog;
+import ac.simons.neo4j.migrations.core.catalog.RenderConfig;
+import ac.simons.neo4j.migrations.core.catalog.Renderer;
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Session;
+
+/**
+ * A consolidated snapshot of all migrations up to a given version, used to bootstrap
+ * databases without any applied migrations in one step. A snapshot is a Cypher script:
+ * The first line describes the covered migrations like a {@link ChainCompaction},
+ * followed by the local catalog at the snapshot version and an arbitrary number of seed
+ * scripts. The last migration covered by the snapshot is recorded as applied, all
+ * migrations before it are compacted into the baseline of the chain.
+ *
+ * @param identifier the identifier of the resource the snapshot has been read from
+ * @param chain the migrations covered by this snapshot
+ * @param resource the resource containing the statements of the snapshot
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+record Snapshot(String identifier, ChainCompaction chain, CypherResource resource) {
+
+	private static final String HEADER = "// neo4j-migrations snapshot version=%s migrations=%d checksum=%s";
+
+	private static final Pattern HEADER_PATTERN = Pattern
+		.compile("// neo4j-migrations snapshot version=(\\S+) migrations=(\\d+) checksum=(\\S+)");
+
+	private static final String RECORD_BASELINE_QUERY = """
+			OPTIONAL MATCH (b:__Neo4jMigration {version: 'BASELINE'})
+			WHERE coalesce(b.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')
+			WITH b WHERE b IS NULL
+			CREATE (:__Neo4jMigration {version: 'BASELINE', migrationTarget: $migrationTarget})
+			""";
+
+	private static final String RECORD_COMPACTION_QUERY = """
+			MATCH (b:__Neo4jMigration {version: 'BASELINE'})
+			WHERE coalesce(b.migrationTarget,'<default>') = coalesce($migrationTarget,'<default>')
+			SET b.compactedVersion = $version, b.compactedChecksum = $checksum, b.compactedMigrations = $migrations,
+			    b.compactedAt = datetime({timezone: 'UTC'})
+			""";
+
+	private static final List<String> INTERNAL_LABELS = List.of("__Neo4jMigration", "__Neo4jMigrationsLock",
+			"__Neo4jMigrationProgress", "__Neo4jRefactoringCheckpoint");
+
+	private static final String HAS_DATA_QUERY = "MATCH (n) WHERE none(l IN labels(n) WHERE l IN $internalLabels) RETURN 1 LIMIT 1";
+
+	/**
+	 * The marker is stored like the progress of a migration, so that it is removed when
+	 * the database is cleaned.
+	 */
+	private static final String MARKER_VERSION = "SNAPSHOT";
+
+	private static final String READ_MARKER_QUERY = "MATCH (p:__Neo4jMigrationProgress {version: $version, migrationTarget: coalesce($migrationTarget, '<default>')}) RETURN p.snapshot AS snapshot";
+
+	private static final String CREATE_MARKER_QUERY = """
+			MERGE (p:__Neo4jMigrationProgress {version: $version, migrationTarget: coalesce($migrationTarget, '<default>')})
+			SET p.snapshot = $snapshot, p.updatedAt = datetime({timezone: 'UTC'})
+			""";
+
+	/**
+	 * Creates the content of a snapshot.
+	 * @param context the context providing the local catalog and the connection details
+	 * used for rendering the catalog
+	 * @param migrations all locally discovered migrations, in order
+	 * @param version the last version to be covered by the snapshot
+	 * @param seeds scripts to be added after the catalog
+	 * @return the snapshot as Cypher script
+	 */
+	static String create(MigrationContext context, List<Migration> migrations, MigrationVersion version,
+			List<CypherResource> seeds) {
+
+		int numberOfMigrations = 0;
+		while (numberOfMigrations < migrations.size()
+				&& !migrations.get(numberOfMigrations).getVersion().getValue().equals(version.getValue())) {
+			++numberOfMigrations;
+		}
+		if (numberOfMigrations == migrations.size()) {
+			throw new MigrationsException("Migration " + version.getValue() + " has not been resolved locally.");
+		}
+		var coveredMigrations = migrations.subList(0, numberOfMigrations + 1);
+		coveredMigrations.stream().filter(Migration::isRepeatable).findFirst().ifPresent(m -> {
+			throw new MigrationsException(
+					"Repeatable migration " + Migrations.toString(m) + " can't be part of a snapshot.");
+		});
+
+		var connectionDetails = context.getConnectionDetails();
+		var neo4jVersion = Neo4jVersion.of(connectionDetails.getServerVersion());
+		var renderConfig = RenderConfig.create()
+			.idempotent(neo4jVersion.hasIdempotentOperations())
+			.forVersionAndEdition(neo4jVersion, Neo4jEdition.of(connectionDetails.getServerEdition()));
+		Catalog catalog = ((VersionedCatalog) context.getCatalog()).getCatalogAt(version);
+
+		var snapshot = new StringBuilder();
+		snapshot
+			.append(String.format(HEADER, version.getValue(), coveredMigrations.size(),
+					ChainCompaction.checksum(coveredMigrations)))
+			.append(MigrationChainFormat.LS);
+		if (!catalog.isEmpty()) {
+			snapshot.append("// Catalog at version ")
+				.append(version.getValue())
+				.append(MigrationChainFormat.LS)
+				.append(Renderer.get(Renderer.Format.CYPHER, Catalog.class).render(catalog, renderConfig));
+		}
+		for (CypherResource seed : seeds) {
+			snapshot.append("// Seed ").append(seed.getIdentifier()).append(MigrationChainFormat.LS);
+			for (String statement : seed.getExecutableStatements()) {
+				snapshot.append(statement.trim()).append(";").append(MigrationChainFormat.LS);
+			}
+		}
+		return snapshot.toString();
+	}
+
+	/**
+	 * Loads the snapshot configured via
+	 * {@link MigrationsConfig#getOptionalBootstrapSnapshot()}.
+	 * @param config the configuration in use
+	 * @return the configured snapshot
+	 * @throws MigrationsException if the snapshot cannot be found or isn't a valid
+	 * snapshot
+	 */
+	static Optional<Snapshot> of(MigrationsConfig config) {
+
+		return config.getOptionalBootstrapSnapshot().map(value -> {
+			var resource = CypherResource.of(ResourceContext.of(resolve(value), config));
+			var matcher = resource.getSingleLineComments()
+				.stream()
+				.map(HEADER_PATTERN::matcher)
+				.filter(Matcher::matches)
+				.findFirst()
+				.orElseThrow(() -> new MigrationsException(value + " is not a valid snapshot."));
+			return new Snapshot(value,
+					new ChainCompaction(matcher.group(1), matcher.group(3), Integer.parseInt(matcher.group(2))),
+					resource);
+		});
+	}
+
+	private static URL resolve(String value) {
+
+		var location = Location.of(value);
+		URL url;
+		if (location.getType() == Location.LocationType.FILESYSTEM) {
+			try {
+				url = Path.of(location.getName()).toUri().toURL();
+			}
+			catch (MalformedURLException ex) {
+				throw new MigrationsException("Invalid snapshot location " + value, ex);
+			}
+		}
+		else {
+			var classLoader = Optional.ofNullable(Thread.currentThread().getContextClassLoader())
+				.orElseGet(Snapshot.class::getClassLoader);
+			var name = location.getName();
+			url = classLoader.getResource(name.startsWith("/") ? name.substring(1) : name);
+		}
+		if (url == null || (location.getType() == Location.LocationType.FILESYSTEM
+				&& !Path.of(location.getName()).toFile().isFile())) {
+			throw new MigrationsException("Could not find snapshot " + value + ".");
+		}
+		return url;
+	}
+
+	/**
+	 * Checks whether this snapshot covers the given migrations and returns the last
+	 * covered migration.
+	 * @param migrations all locally discovered migrations, in order
+	 * @return the last migration covered by this snapshot
+	 * @throws MigrationsException if the local migrations don't start with the covered
+	 * ones
+	 */
+	Migration verify(List<Migration> migrations) {
+
+		try {
+			return migrations.get(this.chain.verify(migrations, true) - 1);
+		}
+		catch (MigrationsException ex) {
+			throw new MigrationsException(
+					"Snapshot " + this.identifier + " does not match the locally resolved migrations.", ex);
+		}
+	}
+
+	/**
+	 * Checks whether the target database is empty, so that it can be bootstrapped from a
+	 * snapshot. A database is empty if it contains neither nodes apart from the ones
+	 * created by Neo4j-Migrations itself nor any constraints or indexes.
+	 * @param context the context in which the snapshot is to be applied
+	 * @return {@literal true} if the target database is empty
+	 */
+	static boolean isTargetEmpty(MigrationContext context) {
+
+		try (Session session = context.getSession(AccessMode.READ)) {
+			if (session.executeRead(tx -> tx.run(HAS_DATA_QUERY, Map.of("internalLabels", INTERNAL_LABELS)).hasNext())) {
+				return false;
+			}
+			var neo4jVersion = Neo4jVersion.of(context.getConnectionDetails().getServerVersion());
+			return DatabaseCatalog.of(neo4jVersion, session, false).isEmpty();
+		}
+	}
+
+	/**
+	 * Makes sure that no previous attempt to apply a snapshot failed halfway through.
+	 * The statements of a snapshot are not recorded one by one, so such a database must
+	 * be cleaned up manually.
+	 * @param context the context in which the snapshot is to be applied
+	 * @throws MigrationsException if a previous attempt failed
+	 */
+	static void assertNotPartiallyApplied(MigrationContext context) {
+
+		try (Session session = context.getSchemaSession(AccessMode.READ)) {
+			var optionalRecord = session
+				.executeRead(tx -> tx.run(READ_MARKER_QUERY, markerParameters(context, null)).stream().findFirst());
+			if (optionalRecord.isPresent()) {
+				throw new MigrationsException(partiallyAppliedMessage(optionalRecord.get().get("snapshot").asString()));
+			}
+		}
+	}
+
+	/**
+	 * Executes the statements of this snapshot, each in its own transaction, as schema
+	 * and data changes can't be mixed in one transaction. A marker is kept until
+	 * {@link #complete(MigrationContext)} is called, so that a snapshot that failed
+	 * halfway through is never applied again.
+	 * @param context the context in which the snapshot is applied
+	 * @throws MigrationsException if the snapshot could not be applied completely
+	 */
+	void applyTo(MigrationContext context) {
+
+		try (Session session = context.getSchemaSession()) {
+			session.executeWriteWithoutResult(
+					tx -> tx.run(CREATE_MARKER_QUERY, markerParameters(context, this.identifier)).consume());
+		}
+		try {
+			DefaultCypherResource.executeIn(this.resource, context, UnaryOperator.identity(),
+					MigrationProgress.none(), MigrationsConfig.TransactionMode.PER_STATEMENT);
+		}
+		catch (Exception ex) {
+			throw new MigrationsException(partiallyAppliedMessage(this.identifier), ex);
+		}
+	}
+
+	/**
+	 * Removes the marker created while applying this snapshot, must be called after the
+	 * last covered migration has been recorded.
+	 * @param context the context in which the snapshot has been applied
+	 */
+	void complete(MigrationContext context) {
+
+		try (Session session = context.getSchemaSession()) {
+			session.executeWriteWithoutResult(
+					tx -> tx.run(MigrationProgress.DELETE_QUERY, markerParameters(context, null)).consume());
+		}
+	}
+
+	private static Map<String, Object> markerParameters(MigrationContext context, @Nullable String snapshot) {
+
+		var parameters = new HashMap<String, Object>();
+		parameters.put("version", MARKER_VERSION);
+		parameters.put(Migrations.PROPERTY_MIGRATION_TARGET,
+				context.getConfig().getMigrationTargetIn(context).orElse(null));
+		parameters.put("snapshot", snapshot);
+		return parameters;
+	}
+
+	private static String partiallyAppliedMessage(String snapshot) {
+		return "Snapshot " + snapshot
+				+ " has only been partly applied, the target database must be cleaned up manually before it can be migrated.";
+	}
+
+	/**
+	 * Records all covered migrations apart from the last one as compacted into the
+	 * baseline, creating the baseline if necessary. The last migration must be recorded
+	 * as applied afterward, so that the chain is complete.
+	 * @param context the context in which the snapshot has been applied
+	 * @param migrations all locally discovered migrations, in order
+	 */
+	void recordCompactionIn(MigrationContext context, List<Migration> migrations) {
+
+		var compactedMigrations = migrations.subList(0, this.chain.migrations() - 1);
+		if (compactedMigrations.isEmpty()) {
+			return;
+		}
+
+		var parameters = new HashMap<String, Object>();
+		parameters.put(Migrations.PROPERTY_MIGRATION_TARGET,
+				context.getConfig().getMigrationTargetIn(context).orElse(null));
+		parameters.put("version", compactedMigrations.get(compactedMigrations.size() - 1).getVersion().getValue());
+		parameters.put("checksum", ChainCompaction.checksum(compactedMigrations));
+		parameters.put("migrations", compactedMigrations.size());
+		try (Session session = context.getSchemaSession()) {
+			session.executeWriteWithoutResult(tx -> {
+				tx.run(RECORD_BASELINE_QUERY, parameters).consume();
+				tx.run(RECORD_COMPACTION_QUERY, parameters).consume();
+			});
+		}
+	}
+
+}
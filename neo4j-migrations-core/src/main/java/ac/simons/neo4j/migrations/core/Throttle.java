@@ -0,0 +1,280 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.exceptions.Neo4jException;
+
+/**
+ * Limits the rate at which large data migrations write to a live database. A throttle is
+ * configured once via {@link MigrationsConfig.Builder#withThrottle(Throttle)} and is then
+ * applied after each batch of
+ * <ul>
+ * <li>{@link JavaBasedMigration Java-based migrations} calling
+ * {@link MigrationContext#throttle(long, Duration)}</li>
+ * <li>resumable refactorings and refactorings with an adaptive batch size, after each
+ * range or round</li>
+ * </ul>
+ * The rate is given in rows or transactions per second. Optionally, the rate is halved
+ * whenever a batch took longer than a latency target or the database reports more active
+ * transactions than allowed, and recovers step by step once both signals are below their
+ * limits again. A throttle can be {@link #pause() paused} and {@link #resume() resumed}
+ * from any thread while migrations are running. Instances are thread-safe, the withers
+ * return new instances with their own state.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public final class Throttle {
+
+	/**
+	 * The lowest fraction of the configured rate a throttle slows down to.
+	 */
+	static final double MIN_FACTOR = 1.0 / 16;
+
+	/**
+	 * How much of the configured rate is recovered after each batch without load signals.
+	 */
+	static final double RECOVERY_STEP = 0.1;
+
+	/**
+	 * Minimum time between two queries for the number of active transactions.
+	 */
+	static final Duration PROBE_INTERVAL = Duration.ofSeconds(1);
+
+	private static final Logger LOGGER = Logger.getLogger(Throttle.class.getName());
+
+	private final Unit unit;
+
+	private final double rate;
+
+	@Nullable private final Integer maxActiveTransactions;
+
+	@Nullable private final Duration latencyTarget;
+
+	private final LongSupplier nanoTime;
+
+	private final Sleeper sleeper;
+
+	private boolean paused;
+
+	private double factor = 1.0;
+
+	private long lastRelease = Long.MIN_VALUE;
+
+	private long lastProbe = Long.MIN_VALUE;
+
+	Throttle(Unit unit, double rate, @Nullable Integer maxActiveTransactions, @Nullable Duration latencyTarget,
+			LongSupplier nanoTime, Sleeper sleeper) {
+		if (!(rate > 0)) {
+			throw new IllegalArgumentException("The rate must be greater than 0");
+		}
+		this.unit = unit;
+		this.rate = rate;
+		this.maxActiveTransactions = maxActiveTransactions;
+		this.latencyTarget = latencyTarget;
+		this.nanoTime = nanoTime;
+		this.sleeper = sleeper;
+	}
+
+	/**
+	 * Creates a throttle limiting the number of processed rows per second.
+	 * @param rowsPerSecond the maximum number of rows per second
+	 * @return a new throttle
+	 */
+	public static Throttle rowsPerSecond(double rowsPerSecond) {
+		return new Throttle(Unit.ROWS, rowsPerSecond, null, null, System::nanoTime, TimeUnit.NANOSECONDS::timedWait);
+	}
+
+	/**
+	 * Creates a throttle limiting the number of transactions, that is batches, per
+	 * second.
+	 * @param transactionsPerSecond the maximum number of transactions per second
+	 * @return a new throttle
+	 */
+	public static Throttle transactionsPerSecond(double transactionsPerSecond) {
+		return new Throttle(Unit.TRANSACTIONS, transactionsPerSecond, null, null, System::nanoTime,
+				TimeUnit.NANOSECONDS::timedWait);
+	}
+
+	/**
+	 * Slows down while the database reports more active transactions (via
+	 * {@code SHOW TRANSACTIONS}) than the given number.
+	 * @param newMaxActiveTransactions the maximum number of active transactions at which
+	 * the full rate is used
+	 * @return a new throttle
+	 */
+	public Throttle withMaxActiveTransactions(int newMaxActiveTransactions) {
+		if (newMaxActiveTransactions < 1) {
+			throw new IllegalArgumentException("The maximum number of active transactions must be greater than 0");
+		}
+		return new Throttle(this.unit, this.rate, newMaxActiveTransactions, this.latencyTarget, this.nanoTime,
+				this.sleeper);
+	}
+
+	/**
+	 * Slows down while batches take longer than the given latency.
+	 * @param newLatencyTarget the maximum duration of a batch at which the full rate is
+	 * used
+	 * @return a new throttle
+	 */
+	public Throttle withLatencyTarget(Duration newLatencyTarget) {
+		if (newLatencyTarget.isNegative() || newLatencyTarget.isZero()) {
+			throw new IllegalArgumentException("The latency target must be positive");
+		}
+		return new Throttle(this.unit, this.rate, this.maxActiveTransactions, newLatencyTarget, this.nanoTime,
+				this.sleeper);
+	}
+
+	/**
+	 * Pauses all migrations using this throttle after their current batch.
+	 */
+	public synchronized void pause() {
+		this.paused = true;
+	}
+
+	/**
+	 * Resumes all migrations waiting in a paused throttle.
+	 */
+	public synchronized void resume() {
+		this.paused = false;
+		notifyAll();
+	}
+
+	/**
+	 * {@return <code>true</code> if this throttle is paused}
+	 */
+	public synchronized boolean isPaused() {
+		return this.paused;
+	}
+
+	/**
+	 * {@return the fraction of the configured rate currently in use}
+	 */
+	synchronized double currentFactor() {
+		return this.factor;
+	}
+
+	/**
+	 * Waits until the next batch may start. The time spent in the finished batches counts
+	 * towards the wait.
+	 * @param rows the number of rows processed in the finished batches
+	 * @param transactions the number of finished batches
+	 * @param elapsed the time it took to process the batches
+	 * @param activeTransactions source for the number of active transactions, only used
+	 * if a maximum is configured
+	 */
+	synchronized void acquire(long rows, int transactions, Duration elapsed, IntSupplier activeTransactions) {
+
+		try {
+			while (this.paused) {
+				LOGGER.log(Level.FINE, "Throttle paused, waiting to be resumed");
+				wait();
+			}
+
+			long now = this.nanoTime.getAsLong();
+			adapt(elapsed.dividedBy(Math.max(1, transactions)), now, activeTransactions);
+
+			double permits = (this.unit == Unit.ROWS) ? rows : transactions;
+			long cost = (long) (permits / (this.rate * this.factor) * TimeUnit.SECONDS.toNanos(1));
+			long since = (this.lastRelease == Long.MIN_VALUE) ? elapsed.toNanos() : now - this.lastRelease;
+			long remaining = cost - since;
+			while (remaining > 0) {
+				this.sleeper.sleep(this, remaining);
+				remaining = cost - (this.nanoTime.getAsLong() - now + since);
+			}
+			this.lastRelease = this.nanoTime.getAsLong();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MigrationsException("Interrupted while waiting for the throttle", ex);
+		}
+	}
+
+	private void adapt(Duration latency, long now, IntSupplier activeTransactions) {
+
+		boolean overloaded = this.latencyTarget != null && latency.compareTo(this.latencyTarget) > 0;
+		if (!overloaded && this.maxActiveTransactions != null
+				&& (this.lastProbe == Long.MIN_VALUE || now - this.lastProbe >= PROBE_INTERVAL.toNanos())) {
+			this.lastProbe = now;
+			overloaded = activeTransactions.getAsInt() > this.maxActiveTransactions;
+		}
+
+		double newFactor = overloaded ? Math.max(MIN_FACTOR, this.factor / 2)
+				: Math.min(1.0, this.factor + RECOVERY_STEP);
+		if (newFactor != this.factor) {
+			LOGGER.log(Level.FINE, "Throttle changed to {0} of the configured rate", newFactor);
+			this.factor = newFactor;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Throttle{" + "unit=" + this.unit + ", rate=" + this.rate + ", maxActiveTransactions="
+				+ this.maxActiveTransactions + ", latencyTarget=" + this.latencyTarget + '}';
+	}
+
+	/**
+	 * Counts the active transactions of the database. Failures, for example on versions
+	 * without {@code SHOW TRANSACTIONS}, are logged and treated as no load.
+	 * @param sessionSupplier supplies a session to the database to probe
+	 * @return the number of active transactions, not including the probe itself
+	 */
+	static int countActiveTransactions(Supplier<Session> sessionSupplier) {
+
+		try (Session session = sessionSupplier.get()) {
+			return Math.max(0,
+					session.run("SHOW TRANSACTIONS YIELD transactionId RETURN count(*) AS cnt")
+						.single()
+						.get("cnt")
+						.asInt() - 1);
+		}
+		catch (Neo4jException ex) {
+			LOGGER.log(Level.FINE, ex, () -> "Could not count active transactions");
+			return 0;
+		}
+	}
+
+	/**
+	 * What the rate of a throttle is measured in.
+	 */
+	enum Unit {
+
+		ROWS, TRANSACTIONS
+
+	}
+
+	/**
+	 * Waits on the throttle's monitor, so that it can be paused and resumed while
+	 * waiting.
+	 */
+	@FunctionalInterface
+	interface Sleeper {
+
+		void sleep(Object monitor, long nanos) throws InterruptedException;
+
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.zip.Checksum;
+
+/**
+ * A streaming implementation of <a href="https://xxhash.com">xxHash64</a> with a seed of
+ * {@literal 0}, so that it can be used wherever a {@link Checksum} is expected.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class XxHash64 implements Checksum {
+
+	private static final VarHandle LONG_HANDLE = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	private static final VarHandle INT_HANDLE = MethodHandles.byteArrayViewVarHandle(int[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+
+	private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+	private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+	private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+
+	private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+	private static final int STRIPE_LENGTH = 32;
+
+	private final byte[] buffer = new byte[STRIPE_LENGTH];
+
+	private int bufferSize;
+
+	private long totalLength;
+
+	private long v1;
+
+	private long v2;
+
+	private long v3;
+
+	private long v4;
+
+	XxHash64() {
+		reset();
+	}
+
+	private static long round(long acc, long input) {
+		return Long.rotateLeft(acc + input * PRIME_2, 31) * PRIME_1;
+	}
+
+	private static long mergeRound(long acc, long value) {
+		return (acc ^ round(0, value)) * PRIME_1 + PRIME_4;
+	}
+
+	@Override
+	public void update(int b) {
+
+		++this.totalLength;
+		this.buffer[this.bufferSize++] = (byte) b;
+		if (this.bufferSize == STRIPE_LENGTH) {
+			processStripe(this.buffer, 0);
+			this.bufferSize = 0;
+		}
+	}
+
+	@Override
+	public void update(byte[] b, int off, int len) {
+
+		Objects.checkFromIndexSize(off, len, b.length);
+		this.totalLength += len;
+
+		if (this.bufferSize + len < STRIPE_LENGTH) {
+			System.arraycopy(b, off, this.buffer, this.bufferSize, len);
+			this.bufferSize += len;
+			return;
+		}
+
+		int position = off;
+		int end = off + len;
+		if (this.bufferSize > 0) {
+			int missing = STRIPE_LENGTH - this.bufferSize;
+			System.arraycopy(b, position, this.buffer, this.bufferSize, missing);
+			processStripe(this.buffer, 0);
+			position += missing;
+			this.bufferSize = 0;
+		}
+		while (end - position >= STRIPE_LENGTH) {
+			processStripe(b, position);
+			position += STRIPE_LENGTH;
+		}
+		this.bufferSize = end - position;
+		System.arraycopy(b, position, this.buffer, 0, this.bufferSize);
+	}
+
+	private void processStripe(byte[] b, int off) {
+		this.v1 = round(this.v1, (long) LONG_HANDLE.get(b, off));
+		this.v2 = round(this.v2, (long) LONG_HANDLE.get(b, off + 8));
+		this.v3 = round(this.v3, (long) LONG_HANDLE.get(b, off + 16));
+		this.v4 = round(this.v4, (long) LONG_HANDLE.get(b, off + 24));
+	}
+
+	@Override
+	public long getValue() {
+
+		long hash;
+		if (this.totalLength >= STRIPE_LENGTH) {
+			hash = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7) + Long.rotateLeft(this.v3, 12)
+					+ Long.rotateLeft(this.v4, 18);
+			hash = mergeRound(hash, this.v1);
+			hash = mergeRound(hash, this.v2);
+			hash = mergeRound(hash, this.v3);
+			hash = mergeRound(hash, this.v4);
+		}
+		else {
+			hash = PRIME_5;
+		}
+		hash += this.totalLength;
+
+		int position = 0;
+		while (position + 8 <= this.bufferSize) {
+			hash ^= round(0, (long) LONG_HANDLE.get(this.buffer, position));
+			hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+			position += 8;
+		}
+		if (position + 4 <= this.bufferSize) {
+			hash ^= (Integer.toUnsignedLong((int) INT_HANDLE.get(this.buffer, position))) * PRIME_1;
+			hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+			position += 4;
+		}
+		while (position < this.bufferSize) {
+			hash ^= (this.buffer[position] & 0xFFL) * PRIME_5;
+			hash = Long.rotateLeft(hash, 11) * PRIME_1;
+			++position;
+		}
+
+		hash ^= hash >>> 33;
+		hash *= PRIME_2;
+		hash ^= hash >>> 29;
+		hash *= PRIME_3;
+		hash ^= hash >>> 32;
+		return hash;
+	}
+
+	@Override
+	public void reset() {
+		this.v1 = PRIME_1 + PRIME_2;
+		this.v2 = PRIME_2;
+		this.v3 = 0;
+		this.v4 = -PRIME_1;
+		this.bufferSize = 0;
+		this.totalLength = 0;
+	}
+
+}
@@ -20,10 +20,11 @@ import java.util.Optional;
 import java.util.function.Function;
 
 import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Query;
 
 /**
- * Abstract base class to hold state that many refactorings have, such as custom queries
- * or a batch-size.
+ * Abstract base class to hold state that many refactorings have, such as custom queries,
+ * a batch-size, the number of concurrent batches or whether the batch-size adapts itself.
  *
  * @author Michael J. Simons
  * @since 1.10.0
@@ -44,9 +45,81 @@ abstract class AbstractCustomizableRefactoring {
 	 */
 	@Nullable protected final Integer batchSize;
 
-	protected AbstractCustomizableRefactoring(@Nullable String customQuery, @Nullable Integer batchSize) {
+	/**
+	 * The number of batches that may run concurrently. Only used when batching is enabled
+	 * and the database supports concurrent transactions.
+	 */
+	@Nullable protected final Integer concurrency;
+
+	/**
+	 * Flag, if the batch size is only used as a starting point and adapted while the
+	 * refactoring is applied.
+	 */
+	protected final boolean adaptiveBatchSize;
+
+	protected AbstractCustomizableRefactoring(@Nullable String customQuery, @Nullable Integer batchSize,
+			@Nullable Integer concurrency, boolean adaptiveBatchSize) {
 		this.customQuery = customQuery;
 		this.batchSize = batchSize;
+		this.concurrency = concurrency;
+		this.adaptiveBatchSize = adaptiveBatchSize;
+	}
+
+	/**
+	 * Computes the feature set for batched refactorings.
+	 * @param requiredVersion the minimum version required for the batched refactoring
+	 * @return the feature set for the batched refactoring
+	 */
+	protected final QueryRunner.FeatureSet batchingFeatureSet(String requiredVersion) {
+		return QueryRunner.defaultFeatureSet()
+			.withRequiredVersion(requiredVersion)
+			.withBatchingSupport(true)
+			.withConcurrentTransactionsSupport(this.concurrency != null);
+	}
+
+	/**
+	 * {@return the concurrency usable with the given runner or <code>null</code>}
+	 * @param queryRunner the query runner that will run the refactoring
+	 */
+	@Nullable protected final Integer concurrencyAvailableIn(QueryRunner queryRunner) {
+		return queryRunner.getFeatureSet().hasConcurrentTransactionsSupport() ? this.concurrency : null;
+	}
+
+	/**
+	 * {@return the batching to use with the given runner or <code>null</code>}
+	 * @param queryRunner the query runner that will run the refactoring
+	 */
+	@Nullable protected final Batching batchingIn(QueryRunner queryRunner) {
+		return Batching.of(this.batchSize, concurrencyAvailableIn(queryRunner));
+	}
+
+	/**
+	 * Runs the query generated for this refactoring, either once or in adaptive rounds if
+	 * adaptive batch sizes are enabled.
+	 * @param queryRunner the query runner to use
+	 * @param boundedRounds {@literal true} if already processed elements are excluded
+	 * from the source of the refactoring
+	 * @param queryGenerator generates the query for a given batching
+	 * @return the counters of the refactoring
+	 */
+	protected final Counters run(QueryRunner queryRunner, boolean boundedRounds,
+			Function<@Nullable Batching, Query> queryGenerator) {
+
+		if (this.batchSize != null && this.adaptiveBatchSize) {
+			return AdaptiveBatching.run(queryRunner, this.batchSize, concurrencyAvailableIn(queryRunner), boundedRounds,
+					queryGenerator::apply);
+		}
+		return Counters.of(queryRunner.run(queryGenerator.apply(batchingIn(queryRunner))).consume().counters());
+	}
+
+	/**
+	 * {@return the fusion key of this refactoring if it runs over a custom query}
+	 */
+	protected final Optional<FusibleRefactoring.Key> fusionKey() {
+		if (this.customQuery == null || this.adaptiveBatchSize) {
+			return Optional.empty();
+		}
+		return Optional.of(new FusibleRefactoring.Key(this.customQuery, this.batchSize, this.concurrency));
 	}
 
 	@Nullable protected final String filterCustomQuery(@Nullable String newCustomQuery) {
@@ -63,6 +136,23 @@ abstract class AbstractCustomizableRefactoring {
 		return Objects.equals(this.batchSize, newBatchSize) ? type.cast(this) : newInstanceSupplier.apply(newBatchSize);
 	}
 
+	protected final <T extends CustomizableRefactoring<?>> T inConcurrentTransactions0(@Nullable Integer newConcurrency,
+			Class<T> type, Function<@Nullable Integer, ? extends T> newInstanceSupplier) {
+		if (newConcurrency != null && newConcurrency < 1) {
+			throw new IllegalArgumentException("Concurrency must be either null or equal or greater one");
+		}
+
+		return Objects.equals(this.concurrency, newConcurrency) ? type.cast(this)
+				: newInstanceSupplier.apply(newConcurrency);
+	}
+
+	protected final <T extends CustomizableRefactoring<?>> T withAdaptiveBatchSize0(boolean newAdaptiveBatchSize,
+			Class<T> type, Function<Boolean, ? extends T> newInstanceSupplier) {
+
+		return (this.adaptiveBatchSize == newAdaptiveBatchSize) ? type.cast(this)
+				: newInstanceSupplier.apply(newAdaptiveBatchSize);
+	}
+
 	protected final <T extends CustomizableRefactoring<?>> T withCustomQuery0(@Nullable String newCustomQuery,
 			Class<T> type, Function<@Nullable String, ? extends T> newInstanceSupplier) {
 		String value = filterCustomQuery(newCustomQuery);
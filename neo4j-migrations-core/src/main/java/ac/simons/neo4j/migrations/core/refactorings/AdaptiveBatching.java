@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+
+/**
+ * Runs a batched refactoring in rounds, adapting the batch size between rounds. Each
+ * round continues after failing inner transactions and reports their status. If
+ * transactions failed because they ran out of memory, the round is retried with half the
+ * batch size. With bounded rounds, each round processes at most
+ * {@link #BATCHES_PER_ROUND} batches and the batch size is doubled or halved depending on
+ * the measured latency per batch. Bounded rounds require a refactoring whose source
+ * excludes already processed elements, so that the next round picks up the remaining
+ * ones.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class AdaptiveBatching {
+
+	/**
+	 * Number of batches processed in one bounded round.
+	 */
+	static final int BATCHES_PER_ROUND = 10;
+
+	/**
+	 * Batches completing faster than this will lead to a larger batch size.
+	 */
+	static final Duration GROW_BELOW = Duration.ofSeconds(1);
+
+	/**
+	 * Batches taking longer than this will lead to a smaller batch size.
+	 */
+	static final Duration SHRINK_ABOVE = Duration.ofSeconds(10);
+
+	private static final Logger LOGGER = Logger.getLogger(AdaptiveBatching.class.getName());
+
+	private static final int MAX_BATCH_SIZE = 1_000_000;
+
+	private AdaptiveBatching() {
+	}
+
+	static Counters run(QueryRunner queryRunner, int initialBatchSize, @Nullable Integer concurrency,
+			boolean boundedRounds, Function<Batching, Query> queryGenerator) {
+		return run(queryRunner, initialBatchSize, concurrency, boundedRounds, queryGenerator, System::nanoTime);
+	}
+
+	/**
+	 * Runs the batched refactoring until all elements have been processed.
+	 * @param queryRunner the runner to use
+	 * @param initialBatchSize the batch size to start with
+	 * @param concurrency the number of concurrent transactions, may be {@literal null}
+	 * @param boundedRounds {@literal true} if the source of the refactoring excludes
+	 * already processed elements
+	 * @param queryGenerator generates the query for a given batching
+	 * @param nanoTime source of the current time in nanoseconds
+	 * @return the accumulated counters of all rounds
+	 */
+	static Counters run(QueryRunner queryRunner, int initialBatchSize, @Nullable Integer concurrency,
+			boolean boundedRounds, Function<Batching, Query> queryGenerator, LongSupplier nanoTime) {
+
+		var counters = Counters.empty();
+		int batchSize = initialBatchSize;
+		while (true) {
+			Integer limit = boundedRounds ? (int) Math.min(Integer.MAX_VALUE, (long) batchSize * BATCHES_PER_ROUND)
+					: null;
+			long start = nanoTime.getAsLong();
+			Result result = queryRunner.run(queryGenerator.apply(new Batching(batchSize, concurrency, limit, true)));
+			var round = Round.of(result.list());
+			long elapsed = nanoTime.getAsLong() - start;
+			var roundCounters = Counters.of(result.consume().counters());
+			counters = counters.add(roundCounters);
+
+			if (!round.errors().isEmpty()) {
+				String error = round.errors().get(0);
+				if (batchSize == 1 || !round.errors().stream().allMatch(AdaptiveBatching::isMemoryRelated)) {
+					throw new IllegalStateException("Batched refactoring failed with batch size " + batchSize
+							+ (boundedRounds ? "" : " after committing " + round.rows() + " rows") + ": " + error);
+				}
+				batchSize = Math.max(1, batchSize / 2);
+				LOGGER.log(Level.FINE, "{0} batch(es) ran out of memory, retrying with batch size {1}",
+						new Object[] { round.errors().size(), batchSize });
+				continue;
+			}
+
+			// A round that did not change anything would not change anything when
+			// repeated
+			if (limit == null || round.rows() < limit || !changedData(roundCounters)) {
+				return counters;
+			}
+			queryRunner.throttle(round.rows(), round.batches(), Duration.ofNanos(elapsed));
+
+			int consecutiveBatches = (concurrency != null) ? (round.batches() + concurrency - 1) / concurrency
+					: round.batches();
+			long latency = elapsed / Math.max(1, consecutiveBatches);
+			if (latency < GROW_BELOW.toNanos() && batchSize < MAX_BATCH_SIZE) {
+				batchSize = Math.min(MAX_BATCH_SIZE, batchSize * 2);
+				LOGGER.log(Level.FINE, "Growing batch size to {0}", batchSize);
+			}
+			else if (latency > SHRINK_ABOVE.toNanos() && batchSize > 1) {
+				batchSize = batchSize / 2;
+				LOGGER.log(Level.FINE, "Shrinking batch size to {0}", batchSize);
+			}
+		}
+	}
+
+	private static boolean changedData(Counters counters) {
+		return counters.nodesCreated() + counters.nodesDeleted() + counters.labelsAdded() + counters.labelsRemoved()
+				+ counters.typesAdded() + counters.typesRemoved() + counters.propertiesSet() > 0;
+	}
+
+	static boolean isMemoryRelated(String errorMessage) {
+		String value = errorMessage.toLowerCase(Locale.ROOT);
+		return value.contains("memory") || value.contains("allocation");
+	}
+
+	/**
+	 * The outcome of one round.
+	 *
+	 * @param rows the number of rows processed in committed batches
+	 * @param batches the number of batches
+	 * @param errors the error messages of failed batches
+	 */
+	private record Round(long rows, int batches, List<String> errors) {
+
+		static Round of(List<Record> records) {
+			long rows = 0;
+			List<String> errors = new ArrayList<>();
+			for (Record record : records) {
+				if (record.get("committed").asBoolean(false)) {
+					rows += record.get("rows").asLong();
+				}
+				else {
+					errors.add(record.get("error").asString("Unknown error"));
+				}
+			}
+			return new Round(rows, records.size(), errors);
+		}
+
+	}
+
+}
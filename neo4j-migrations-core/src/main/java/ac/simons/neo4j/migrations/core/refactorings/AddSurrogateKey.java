@@ -30,8 +30,8 @@ import java.util.Set;
  * @author Michael J. Simons
  * @since 1.15.2
  */
-public sealed interface AddSurrogateKey extends CustomizableRefactoring<AddSurrogateKey>
-		permits DefaultAddSurrogateKey {
+public sealed interface AddSurrogateKey extends CustomizableRefactoring<AddSurrogateKey>,
+		ResumableRefactoring<AddSurrogateKey> permits DefaultAddSurrogateKey {
 
 	/**
 	 * The default property name to store the surrogate key.
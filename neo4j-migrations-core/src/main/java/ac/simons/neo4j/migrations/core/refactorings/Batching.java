@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Describes how the batched action of a refactoring is rendered: The number of rows per
+ * transaction, how many transactions may run concurrently, an optional limit of rows
+ * processed by one statement and whether the status of each transaction is reported
+ * instead of failing the statement.
+ *
+ * @param size the number of rows per transaction
+ * @param concurrency the number of concurrent transactions, {@literal null} to run them
+ * one after another
+ * @param limit the maximum number of rows processed by the statement, {@literal null} for
+ * no limit
+ * @param reportStatus {@literal true} to continue after failed transactions and return
+ * their status
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+record Batching(int size, @Nullable Integer concurrency, @Nullable Integer limit, boolean reportStatus) {
+
+	/**
+	 * Fragment aggregating the reported status per inner transaction.
+	 */
+	static final String STATUS_FRAGMENT = " ON ERROR CONTINUE REPORT STATUS AS status"
+			+ " RETURN status.transactionId AS transactionId, status.committed AS committed,"
+			+ " status.errorMessage AS error, count(*) AS rows";
+
+	/**
+	 * Creates a plain batching or none at all.
+	 * @param size the batch size, may be {@literal null}
+	 * @param concurrency the number of concurrent transactions, may be {@literal null}
+	 * @return {@literal null} if {@code size} is {@literal null}
+	 */
+	static @Nullable Batching of(@Nullable Integer size, @Nullable Integer concurrency) {
+		return (size != null) ? new Batching(size, concurrency, null, false) : null;
+	}
+
+	/**
+	 * Renders a batched fragment according to this batching.
+	 * @param batchedFragment a fragment ending with {@code IN TRANSACTIONS OF n ROWS}
+	 * @return the fragment to use
+	 */
+	String render(String batchedFragment) {
+
+		var result = new StringBuilder();
+		if (this.limit != null) {
+			result.append("WITH * LIMIT ").append(this.limit).append(" ");
+		}
+		if (this.concurrency != null) {
+			result.append(
+					batchedFragment.replace("IN TRANSACTIONS", "IN " + this.concurrency + " CONCURRENT TRANSACTIONS"));
+		}
+		else {
+			result.append(batchedFragment);
+		}
+		if (this.reportStatus) {
+			result.append(STATUS_FRAGMENT);
+		}
+		else if (this.concurrency != null) {
+			result.append(" ON ERROR RETRY");
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+/**
+ * A {@link Merge} of many groups of nodes at once. All nodes with the same label and the
+ * same value of a grouping property are merged into one, the groups are processed in
+ * batches of separate transactions. Relationships are recreated with dynamic types and
+ * properties are combined on the server, so neither the number of relationships nor the
+ * size of the properties affect the size of the generated statements. This refactoring
+ * uses Cypher 25 and requires Neo4j 2025.06 or higher.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public sealed interface BulkMerge extends Merge permits DefaultBulkMerge {
+
+	/**
+	 * Configures the number of groups merged per transaction.
+	 * @param batchSize the new batch size, must be greater than 0
+	 * @return a new refactoring, merging groups in batches of the given size
+	 */
+	BulkMerge inBatchesOf(int batchSize);
+
+	/**
+	 * Runs the batches in up to the given number of concurrent transactions. Batches
+	 * failing because groups sharing relationships are merged at the same time are
+	 * retried ({@code ON ERROR RETRY}). As with all other refactorings, concurrency is
+	 * ignored prior to Neo4j 2025.
+	 * @param concurrency the maximum number of concurrent transactions, must be greater
+	 * than 0
+	 * @return a new refactoring, merging groups concurrently
+	 */
+	BulkMerge inConcurrentTransactions(int concurrency);
+
+	/**
+	 * Defines the order of the nodes inside each group. The first node of each group is
+	 * kept, and the order defines what {@link PropertyMergePolicy.Strategy#KEEP_FIRST
+	 * first} and {@link PropertyMergePolicy.Strategy#KEEP_LAST last} mean. Without an
+	 * order, nodes are ordered by their element id.
+	 * @param property the property to order the nodes of each group by, in ascending
+	 * order
+	 * @return a new refactoring, using the given order
+	 */
+	BulkMerge orderedBy(String property);
+
+}
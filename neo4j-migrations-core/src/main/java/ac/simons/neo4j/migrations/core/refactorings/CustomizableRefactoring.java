@@ -17,7 +17,8 @@ package ac.simons.neo4j.migrations.core.refactorings;
 
 /**
  * A customizable refactoring. Customizations here include providing a custom query as
- * source for entities and a batch size.
+ * source for entities, a batch size, the number of concurrent batches and adaptive batch
+ * sizes.
  *
  * @param <T> the type of the refactoring after customization has been applied
  * @author Michael J. Simons
@@ -34,6 +35,32 @@ public interface CustomizableRefactoring<T extends CustomizableRefactoring<T>> e
 	 */
 	T inBatchesOf(Integer newBatchSize);
 
+	/**
+	 * Creates a new refactoring that runs its batches in concurrent transactions. This
+	 * setting only has an effect when batching is enabled and the database supports
+	 * {@code CALL ... IN CONCURRENT TRANSACTIONS}, otherwise the batches will be run one
+	 * after another. Failing batches are retried.
+	 * @param newConcurrency use {@literal null} to run batches sequentially or any value
+	 * >= 1 to define the maximum number of batches running concurrently
+	 * @return a new refactoring.
+	 * @since 4.2.0
+	 */
+	T inConcurrentTransactions(Integer newConcurrency);
+
+	/**
+	 * Creates a new refactoring that uses the batch size only as a starting point. The
+	 * refactoring is then applied in rounds, reporting the status of each batch. Rounds
+	 * in which batches ran out of memory are retried with a smaller batch size, and
+	 * between rounds the batch size grows or shrinks with the measured latency of the
+	 * batches. This setting only has an effect when batching is enabled and requires
+	 * Neo4j 5.7 or higher.
+	 * @param newAdaptiveBatchSize {@literal true} to adapt the batch size while the
+	 * refactoring is applied
+	 * @return a new refactoring.
+	 * @since 4.2.0
+	 */
+	T withAdaptiveBatchSize(boolean newAdaptiveBatchSize);
+
 	/**
 	 * Creates a new {@link Rename refactoring} that may use a custom query.
 	 * @param newCustomQuery use {@literal null} to disable any custom query or a valid
@@ -18,6 +18,7 @@ package ac.simons.neo4j.migrations.core.refactorings;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -35,7 +36,8 @@ import org.neo4j.driver.Query;
  * @author Michael J. Simons
  * @since 1.15.2
  */
-final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring implements AddSurrogateKey {
+final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring
+		implements AddSurrogateKey, FusibleRefactoring {
 
 	static final Pattern OPENING_CLOSING_BRACES = Pattern.compile("\\(?.+\\)");
 
@@ -47,19 +49,26 @@ final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring imple
 
 	private final String generator;
 
+	@Nullable private final KeysetRanges keysetRanges;
+
 	private final QueryRunner.FeatureSet featureSet;
 
 	DefaultAddSurrogateKey(Target target, Collection<String> identifiers, String property, String generator) {
-		this(target, identifiers, property, generator, null, null);
+		this(target, identifiers, property, generator, null, null, null, false, null);
 	}
 
 	DefaultAddSurrogateKey(Target target, String customQuery, String property, String generator) {
-		this(target, null, property, generator, customQuery, null);
+		this(target, null, property, generator, customQuery, null, null, false, null);
 	}
 
 	private DefaultAddSurrogateKey(Target target, @Nullable Collection<String> identifiers, String property,
-			String generator, @Nullable String customQuery, @Nullable Integer batchSize) {
-		super(customQuery, batchSize);
+			String generator, @Nullable String customQuery, @Nullable Integer batchSize, @Nullable Integer concurrency,
+			boolean adaptiveBatchSize, @Nullable KeysetRanges keysetRanges) {
+		super(customQuery, batchSize, concurrency, adaptiveBatchSize);
+
+		if (keysetRanges != null && customQuery != null) {
+			throw new IllegalArgumentException("Resumable refactorings cannot be combined with custom queries");
+		}
 
 		this.target = target;
 		this.identifiers = (identifiers != null)
@@ -67,9 +76,13 @@ final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring imple
 				: Collections.emptySet();
 		this.property = property;
 		this.generator = generator;
+		this.keysetRanges = keysetRanges;
 
-		if (this.batchSize != null) {
-			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.4").withBatchingSupport(true);
+		if (this.keysetRanges != null) {
+			this.featureSet = this.keysetRanges.featureSet("4.4");
+		}
+		else if (this.batchSize != null) {
+			this.featureSet = batchingFeatureSet(this.adaptiveBatchSize ? "5.7" : "4.4");
 		}
 		else if (this.customQuery != null) {
 			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.1");
@@ -79,6 +92,10 @@ final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring imple
 		}
 	}
 
+	QueryRunner.FeatureSet getFeatures() {
+		return this.featureSet;
+	}
+
 	static boolean isReadyMadeFunctionCall(String value) {
 		return OPENING_CLOSING_BRACES.matcher(value.trim()).find();
 	}
@@ -90,7 +107,7 @@ final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring imple
 			throw new IllegalArgumentException("Property name must not be null or blank");
 		}
 		return new DefaultAddSurrogateKey(this.target, this.identifiers, name, this.generator, this.customQuery,
-				this.batchSize);
+				this.batchSize, this.concurrency, this.adaptiveBatchSize, this.keysetRanges);
 	}
 
 	@Override
@@ -100,55 +117,125 @@ final class DefaultAddSurrogateKey extends AbstractCustomizableRefactoring imple
 			throw new IllegalArgumentException("Generator function must not be null or blank");
 		}
 		return new DefaultAddSurrogateKey(this.target, this.identifiers, this.property, name, this.customQuery,
-				this.batchSize);
+				this.batchSize, this.concurrency, this.adaptiveBatchSize, this.keysetRanges);
 	}
 
 	@Override
 	public AddSurrogateKey inBatchesOf(Integer newBatchSize) {
 
-		return inBatchesOf0(newBatchSize, AddSurrogateKey.class, v -> new DefaultAddSurrogateKey(this.target,
-				this.identifiers, this.property, this.generator, this.customQuery, v));
+		return inBatchesOf0(newBatchSize, AddSurrogateKey.class,
+				v -> new DefaultAddSurrogateKey(this.target, this.identifiers, this.property, this.generator,
+						this.customQuery, v, this.concurrency, this.adaptiveBatchSize, this.keysetRanges));
+	}
+
+	@Override
+	public AddSurrogateKey inConcurrentTransactions(Integer newConcurrency) {
+
+		return inConcurrentTransactions0(newConcurrency, AddSurrogateKey.class,
+				v -> new DefaultAddSurrogateKey(this.target, this.identifiers, this.property, this.generator,
+						this.customQuery, this.batchSize, v, this.adaptiveBatchSize, this.keysetRanges));
+	}
+
+	@Override
+	public AddSurrogateKey withAdaptiveBatchSize(boolean newAdaptiveBatchSize) {
+
+		return withAdaptiveBatchSize0(newAdaptiveBatchSize, AddSurrogateKey.class,
+				v -> new DefaultAddSurrogateKey(this.target, this.identifiers, this.property, this.generator,
+						this.customQuery, this.batchSize, this.concurrency, v, this.keysetRanges));
+	}
+
+	@Override
+	public AddSurrogateKey resumable() {
+
+		return new DefaultAddSurrogateKey(this.target, this.identifiers, this.property, this.generator,
+				this.customQuery, this.batchSize, this.concurrency, this.adaptiveBatchSize, new KeysetRanges(null));
+	}
+
+	@Override
+	public AddSurrogateKey resumableBy(String rangeProperty) {
+
+		if (rangeProperty == null || rangeProperty.isBlank()) {
+			throw new IllegalArgumentException("The range property must not be null or blank");
+		}
+		return new DefaultAddSurrogateKey(this.target, this.identifiers, this.property, this.generator,
+				this.customQuery, this.batchSize, this.concurrency, this.adaptiveBatchSize,
+				new KeysetRanges(rangeProperty));
 	}
 
 	@Override
 	public AddSurrogateKey withCustomQuery(String newCustomQuery) {
 
-		return withCustomQuery0(newCustomQuery, AddSurrogateKey.class, v -> new DefaultAddSurrogateKey(this.target,
-				(v != null) ? null : this.identifiers, this.property, this.generator, v, this.batchSize));
+		return withCustomQuery0(newCustomQuery, AddSurrogateKey.class,
+				v -> new DefaultAddSurrogateKey(this.target, (v != null) ? null : this.identifiers, this.property,
+						this.generator, v, this.batchSize, this.concurrency, this.adaptiveBatchSize,
+						this.keysetRanges));
 	}
 
 	@Override
 	public Counters apply(RefactoringContext context) {
 		try (QueryRunner queryRunner = context.getQueryRunner(this.featureSet)) {
-			return new DefaultCounters(
-					queryRunner.run(generateQuery(context::sanitizeSchemaName, context::findSingleResultIdentifier))
-						.consume()
-						.counters());
+			if (this.keysetRanges != null) {
+				return KeysetRanges.run(queryRunner,
+						Objects.requireNonNullElse(this.batchSize, KeysetRanges.DEFAULT_RANGE_SIZE),
+						count -> generateRangeQuery(context::sanitizeSchemaName, count), context::onProgress);
+			}
+			// Only the default source skips elements that already have a key
+			return run(queryRunner, this.customQuery == null, batching -> generateQuery(context::sanitizeSchemaName,
+					context::findSingleResultIdentifier, batching));
 		}
 	}
 
 	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor) {
+		return generateQuery(sanitizer, elementExtractor, Batching.of(this.batchSize, null));
+	}
+
+	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor,
+			@Nullable Batching batching) {
 
 		String entityName = (this.customQuery == null) ? ""
 				: elementExtractor.apply(this.customQuery).orElseThrow(IllegalArgumentException::new);
 
-		String varName = switch (this.target) {
+		String sanitizedIdentifiers = this.identifiers.stream().map(sanitizer).collect(Collectors.joining(":"));
+		String sanitizedProperty = sanitizer.apply(this.property);
+		String generatorCall = generatorCall(variable());
+
+		return new Query(String.format(this.target.generateFormatString(this.customQuery, batching),
+				sanitizedIdentifiers, sanitizedProperty, generatorCall, (batching != null) ? batching.size() : null,
+				this.customQuery, entityName));
+	}
+
+	Query generateRangeQuery(UnaryOperator<String> sanitizer, boolean count) {
+
+		String formatString = Objects.requireNonNull(this.keysetRanges)
+			.generateFormatString(this.target, variable(), sanitizer, count);
+		String sanitizedIdentifiers = this.identifiers.stream().map(sanitizer).collect(Collectors.joining(":"));
+		return new Query(String.format(formatString, sanitizedIdentifiers, sanitizer.apply(this.property),
+				generatorCall(variable())));
+	}
+
+	private String variable() {
+		return switch (this.target) {
 			case NODE -> "n";
 			case RELATIONSHIP -> "r";
 		};
+	}
 
-		String sanitizedIdentifiers = this.identifiers.stream().map(sanitizer).collect(Collectors.joining(":"));
-		String sanitizedProperty = sanitizer.apply(this.property);
-		String generatorCall;
+	private String generatorCall(String variable) {
 		if (isReadyMadeFunctionCall(this.generator)) {
-			generatorCall = String.format(this.generator, varName);
-		}
-		else {
-			generatorCall = this.generator + "()";
+			return String.format(this.generator, variable);
 		}
+		return this.generator + "()";
+	}
 
-		return new Query(String.format(this.target.generateFormatString(this.customQuery, this.batchSize),
-				sanitizedIdentifiers, sanitizedProperty, generatorCall, this.batchSize, this.customQuery, entityName));
+	@Override
+	public Optional<Key> getFusionKey() {
+		return fusionKey();
+	}
+
+	@Override
+	public Step generateFusionStep(UnaryOperator<String> sanitizer, String variable, String parameterPrefix) {
+		String property = variable + "." + sanitizer.apply(this.property);
+		return new Step(property + " IS NULL", "SET " + property + " = " + generatorCall(variable), Map.of());
 	}
 
 	@Override
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Value;
+
+/**
+ * Implements the {@link BulkMerge bulk merge refactoring}. Other than
+ * {@link DefaultMerge} nothing but the names of properties without a policy is read by
+ * the client.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class DefaultBulkMerge implements BulkMerge {
+
+	/**
+	 * Default number of groups merged per transaction.
+	 */
+	static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * Finds all properties of nodes to be merged that are not covered by any policy.
+	 */
+	private static final String UNMATCHED_PROPERTIES_QUERY = """
+			MATCH (n:%1$s) WHERE n.%2$s IS NOT NULL
+			WITH n.%2$s AS groupKey, collect(n) AS nodes
+			WHERE size(nodes) > 1
+			UNWIND nodes AS node
+			UNWIND keys(node) AS key
+			WITH DISTINCT key
+			WHERE none(policy IN $policies WHERE key =~ policy.pattern)
+			RETURN collect(key) AS keys""";
+
+	/**
+	 * Merges each group into its first node: Properties are combined according to the
+	 * first matching policy, labels are copied, relationships are recreated with their
+	 * dynamic type (relationships between nodes of the same group become self
+	 * relationships) before the other nodes are deleted. Concurrent transactions are
+	 * rendered by {@link Batching} together with {@code ON ERROR RETRY}, the required
+	 * calendar version is checked against the server by the context.
+	 */
+	private static final String MERGE_QUERY = """
+			CYPHER 25
+			MATCH (n:%1$s) WHERE n.%2$s IS NOT NULL
+			WITH n ORDER BY %3$s ASC
+			WITH n.%2$s AS groupKey, collect(n) AS nodes
+			WHERE size(nodes) > 1
+			CALL (nodes) {
+			  WITH head(nodes) AS target, tail(nodes) AS sources
+			  CALL (target, nodes) {
+			    UNWIND nodes AS node
+			    UNWIND keys(node) AS key
+			    WITH target, key, collect(node[key]) AS values
+			    WITH target, key, values, [policy IN $policies WHERE key =~ policy.pattern][0].strategy AS strategy
+			    SET target[key] = CASE strategy WHEN 'KEEP_ALL' THEN values WHEN 'KEEP_LAST' THEN last(values) ELSE head(values) END
+			  }
+			  CALL (target, sources) {
+			    UNWIND sources AS source
+			    SET target:$(labels(source))
+			  }
+			  CALL (target, sources) {
+			    UNWIND sources AS source
+			    MATCH (source)-[r]->(other)
+			    WITH target, r, CASE WHEN other IN sources THEN target ELSE other END AS end
+			    CREATE (target)-[copy:$(type(r))]->(end) SET copy = properties(r)
+			  }
+			  CALL (target, sources) {
+			    UNWIND sources AS source
+			    MATCH (source)<-[r]-(other) WHERE NOT other IN sources
+			    CREATE (other)-[copy:$(type(r))]->(target) SET copy = properties(r)
+			  }
+			  FOREACH (source IN sources | DETACH DELETE source)
+			} IN TRANSACTIONS OF %4$d ROWS""";
+
+	private final String label;
+
+	private final String groupingProperty;
+
+	private final List<PropertyMergePolicy> mergePolicies;
+
+	private final int batchSize;
+
+	@Nullable private final Integer concurrency;
+
+	@Nullable private final String orderProperty;
+
+	private final QueryRunner.FeatureSet featureSet;
+
+	DefaultBulkMerge(String label, String groupingProperty, List<PropertyMergePolicy> mergePolicies) {
+		this(label, groupingProperty, mergePolicies, DEFAULT_BATCH_SIZE, null, null);
+	}
+
+	private DefaultBulkMerge(String label, String groupingProperty, List<PropertyMergePolicy> mergePolicies,
+			int batchSize, @Nullable Integer concurrency, @Nullable String orderProperty) {
+
+		if (label.isBlank() || groupingProperty.isBlank()) {
+			throw new IllegalArgumentException("Label and grouping property must not be blank");
+		}
+		this.label = label;
+		this.groupingProperty = groupingProperty;
+		this.mergePolicies = mergePolicies;
+		this.batchSize = batchSize;
+		this.concurrency = concurrency;
+		this.orderProperty = orderProperty;
+		this.featureSet = QueryRunner.defaultFeatureSet()
+			.withRequiredVersion("2025.06")
+			.withBatchingSupport(true)
+			.withElementIdSupport(true)
+			.withConcurrentTransactionsSupport(concurrency != null);
+	}
+
+	QueryRunner.FeatureSet getFeatures() {
+		return this.featureSet;
+	}
+
+	@Override
+	public BulkMerge inBatchesOf(int newBatchSize) {
+		if (newBatchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be equal or greater one");
+		}
+		return (this.batchSize == newBatchSize) ? this : new DefaultBulkMerge(this.label, this.groupingProperty,
+				this.mergePolicies, newBatchSize, this.concurrency, this.orderProperty);
+	}
+
+	@Override
+	public BulkMerge inConcurrentTransactions(int newConcurrency) {
+		if (newConcurrency < 1) {
+			throw new IllegalArgumentException("Concurrency must be equal or greater one");
+		}
+		return Objects.equals(this.concurrency, newConcurrency) ? this : new DefaultBulkMerge(this.label,
+				this.groupingProperty, this.mergePolicies, this.batchSize, newConcurrency, this.orderProperty);
+	}
+
+	@Override
+	public BulkMerge orderedBy(String property) {
+		String newOrderProperty = (property == null || property.isBlank()) ? null : property;
+		return Objects.equals(this.orderProperty, newOrderProperty) ? this : new DefaultBulkMerge(this.label,
+				this.groupingProperty, this.mergePolicies, this.batchSize, this.concurrency, newOrderProperty);
+	}
+
+	@Override
+	public Counters apply(RefactoringContext context) {
+
+		try (QueryRunner queryRunner = context.getQueryRunner(this.featureSet)) {
+			List<String> unmatchedProperties = queryRunner
+				.run(generateUnmatchedPropertiesQuery(context::sanitizeSchemaName))
+				.single()
+				.get("keys")
+				.asList(Value::asString);
+			if (!unmatchedProperties.isEmpty()) {
+				throw new IllegalStateException(String.format("Could not find merge policy for node properties %s",
+						String.join(", ", unmatchedProperties.stream().map(p -> "`" + p + "`").toList())));
+			}
+
+			Integer availableConcurrency = queryRunner.getFeatureSet().hasConcurrentTransactionsSupport()
+					? this.concurrency : null;
+			return Counters.of(
+					queryRunner
+						.run(generateQuery(context::sanitizeSchemaName,
+								new Batching(this.batchSize, availableConcurrency, null, false)))
+						.consume()
+						.counters());
+		}
+	}
+
+	Query generateUnmatchedPropertiesQuery(UnaryOperator<String> sanitizer) {
+		return new Query(String.format(UNMATCHED_PROPERTIES_QUERY, sanitizer.apply(this.label),
+				sanitizer.apply(this.groupingProperty)), Map.of("policies", policies()));
+	}
+
+	Query generateQuery(UnaryOperator<String> sanitizer, Batching batching) {
+
+		String order = (this.orderProperty != null) ? "n." + sanitizer.apply(this.orderProperty) : "elementId(n)";
+		String statement = String.format(MERGE_QUERY, sanitizer.apply(this.label),
+				sanitizer.apply(this.groupingProperty), order, batching.size());
+		return new Query(batching.render(statement), Map.of("policies", policies()));
+	}
+
+	private List<Map<String, String>> policies() {
+		return this.mergePolicies.stream()
+			.map(policy -> Map.of("pattern", policy.pattern().pattern(), "strategy", policy.strategy().name()))
+			.toList();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		DefaultBulkMerge that = (DefaultBulkMerge) o;
+		return this.label.equals(that.label) && this.groupingProperty.equals(that.groupingProperty)
+				&& this.mergePolicies.equals(that.mergePolicies) && this.batchSize == that.batchSize
+				&& Objects.equals(this.concurrency, that.concurrency)
+				&& Objects.equals(this.orderProperty, that.orderProperty);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.label, this.groupingProperty, this.mergePolicies, this.batchSize, this.concurrency,
+				this.orderProperty);
+	}
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import ac.simons.neo4j.migrations.core.Neo4jVersion;
+
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+
+/**
+ * Fuses several {@link FusibleRefactoring fusible refactorings} with the same key into
+ * one statement. Each refactoring becomes a step that evaluates its condition on the
+ * element after the previous steps have been applied and executes its action in a
+ * {@code FOREACH} when the condition holds. The statement returns the number of changed
+ * elements per step, which make up the counters of each refactoring, the total counters
+ * are the ones reported by the server.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class DefaultFusedRefactoring implements FusedRefactoring {
+
+	private static final Logger LOGGER = Logger.getLogger(DefaultFusedRefactoring.class.getName());
+
+	private static final String VARIABLE = "e";
+
+	private final FusibleRefactoring.Key key;
+
+	private final List<FusibleRefactoring> refactorings;
+
+	private final QueryRunner.FeatureSet featureSet;
+
+	DefaultFusedRefactoring(FusibleRefactoring.Key key, List<FusibleRefactoring> refactorings) {
+		if (refactorings.size() < 2) {
+			throw new IllegalArgumentException("At least two refactorings are required for fusing them");
+		}
+		this.key = key;
+		this.refactorings = List.copyOf(refactorings);
+		if (key.batchSize() != null) {
+			// Returning subqueries in transactions are not available before Neo4j 5
+			this.featureSet = QueryRunner.defaultFeatureSet()
+				.withRequiredVersion("5.0")
+				.withBatchingSupport(true)
+				.withConcurrentTransactionsSupport(key.concurrency() != null);
+		}
+		else {
+			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.1");
+		}
+	}
+
+	static List<Refactoring> fuse(List<? extends Refactoring> refactorings) {
+
+		List<Refactoring> result = new ArrayList<>();
+		List<FusibleRefactoring> run = new ArrayList<>();
+		FusibleRefactoring.@Nullable Key runKey = null;
+		for (Refactoring refactoring : refactorings) {
+			Optional<FusibleRefactoring.Key> optionalKey = (refactoring instanceof FusibleRefactoring fusible)
+					? fusible.getFusionKey() : Optional.empty();
+			if (optionalKey.isPresent() && optionalKey.get().equals(runKey)) {
+				run.add((FusibleRefactoring) refactoring);
+				continue;
+			}
+			flush(runKey, run, result);
+			if (optionalKey.isPresent()) {
+				runKey = optionalKey.get();
+				run.add((FusibleRefactoring) refactoring);
+			}
+			else {
+				runKey = null;
+				result.add(refactoring);
+			}
+		}
+		flush(runKey, run, result);
+		return result;
+	}
+
+	private static void flush(FusibleRefactoring.@Nullable Key key, List<FusibleRefactoring> run,
+			List<Refactoring> result) {
+		if (key == null || run.isEmpty()) {
+			return;
+		}
+		result.add((run.size() == 1) ? run.get(0) : new DefaultFusedRefactoring(key, run));
+		run.clear();
+	}
+
+	QueryRunner.FeatureSet getFeatures() {
+		return this.featureSet;
+	}
+
+	@Override
+	public List<Refactoring> getRefactorings() {
+		return List.copyOf(this.refactorings);
+	}
+
+	@Override
+	public boolean isSupportedBy(Neo4jVersion version) {
+		if (version == Neo4jVersion.LATEST) {
+			return true;
+		}
+		Neo4jVersion requiredVersion = Neo4jVersion.of(this.featureSet.requiredVersion());
+		return version != Neo4jVersion.UNDEFINED && version.compareTo(requiredVersion) >= 0;
+	}
+
+	@Override
+	public Counters apply(RefactoringContext context) {
+		return applyFused(context).total();
+	}
+
+	@Override
+	public FusedCounters applyFused(RefactoringContext context) {
+		try (QueryRunner queryRunner = context.getQueryRunner(this.featureSet)) {
+			Integer concurrency = queryRunner.getFeatureSet().hasConcurrentTransactionsSupport()
+					? this.key.concurrency() : null;
+			Result result = queryRunner.run(generateQuery(context::sanitizeSchemaName,
+					context::findSingleResultIdentifier, Batching.of(this.key.batchSize(), concurrency)));
+			Record record = result.single();
+			List<Counters> perRefactoring = new ArrayList<>(this.refactorings.size());
+			for (int i = 0; i < this.refactorings.size(); ++i) {
+				int changedElements = record.get(stepVariable(i)).asInt();
+				if (LOGGER.isLoggable(Level.FINE)) {
+					LOGGER.log(Level.FINE, "Fused refactoring {0} ({1}) changed {2} elements", new Object[] { i + 1,
+							this.refactorings.get(i).getClass().getSimpleName(), changedElements });
+				}
+				perRefactoring.add(Counters.of(Map.of("propertiesSet", changedElements)));
+			}
+			return new FusedCounters(Counters.of(result.consume().counters()), perRefactoring);
+		}
+	}
+
+	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor,
+			@Nullable Batching batching) {
+
+		String element = elementExtractor.apply(this.key.customQuery()).orElseThrow(IllegalArgumentException::new);
+
+		Map<String, Object> parameters = new HashMap<>();
+		List<String> stepVariables = new ArrayList<>();
+		StringBuilder steps = new StringBuilder();
+		List<FusibleRefactoring.Step> generatedSteps = generateSteps(sanitizer);
+		for (int i = 0; i < generatedSteps.size(); ++i) {
+			var step = generatedSteps.get(i);
+			String stepVariable = stepVariable(i);
+			steps.append("WITH ")
+				.append(String.join(", ", prepend(VARIABLE, stepVariables)))
+				.append(", ")
+				.append(step.condition())
+				.append(" AS ")
+				.append(stepVariable)
+				.append(" FOREACH (_ IN CASE WHEN ")
+				.append(stepVariable)
+				.append(" THEN [1] ELSE [] END | ")
+				.append(step.action().replaceAll("\\s*\n\\s*", " "))
+				.append(") ");
+			stepVariables.add(stepVariable);
+			parameters.putAll(step.parameters());
+		}
+
+		String source = "CALL { " + this.key.customQuery() + " } WITH " + element + " AS " + VARIABLE + " ";
+		String counts = "RETURN " + String.join(", ",
+				stepVariables.stream().map(v -> "count(CASE WHEN " + v + " THEN 1 END) AS " + v).toList());
+		String statement;
+		if (batching == null) {
+			statement = source + steps + counts;
+		}
+		else {
+			statement = source
+					+ batching.render("CALL { WITH " + VARIABLE + " " + steps + "RETURN "
+							+ String.join(", ", stepVariables) + " } IN TRANSACTIONS OF " + batching.size() + " ROWS")
+					+ " " + counts;
+		}
+		return new Query(statement, parameters);
+	}
+
+	private List<FusibleRefactoring.Step> generateSteps(UnaryOperator<String> sanitizer) {
+		List<FusibleRefactoring.Step> steps = new ArrayList<>(this.refactorings.size());
+		for (int i = 0; i < this.refactorings.size(); ++i) {
+			steps.add(this.refactorings.get(i).generateFusionStep(sanitizer, VARIABLE, "r" + i + "_"));
+		}
+		return steps;
+	}
+
+	private static String stepVariable(int i) {
+		return "step" + i;
+	}
+
+	private static List<String> prepend(String first, List<String> others) {
+		List<String> result = new ArrayList<>(others.size() + 1);
+		result.add(first);
+		result.addAll(others);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		DefaultFusedRefactoring that = (DefaultFusedRefactoring) o;
+		return this.key.equals(that.key) && this.refactorings.equals(that.refactorings);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.key, this.refactorings);
+	}
+
+}
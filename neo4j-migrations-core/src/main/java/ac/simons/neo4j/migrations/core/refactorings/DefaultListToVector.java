@@ -19,10 +19,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.jspecify.annotations.Nullable;
@@ -38,43 +40,94 @@ final class DefaultListToVector extends AbstractCustomizableRefactoring implemen
 
 	private final ElementType elementType;
 
+	@Nullable private final KeysetRanges keysetRanges;
+
 	private final QueryRunner.FeatureSet featureSet;
 
 	DefaultListToVector(Target target, @Nullable Collection<String> identifiers, @Nullable String property,
 			@Nullable String customQuery, @Nullable Integer batchSize, @Nullable ElementType elementType) {
-		super(customQuery, batchSize);
+		this(target, identifiers, property, customQuery, batchSize, null, false, null, elementType);
+	}
+
+	private DefaultListToVector(Target target, @Nullable Collection<String> identifiers, @Nullable String property,
+			@Nullable String customQuery, @Nullable Integer batchSize, @Nullable Integer concurrency,
+			boolean adaptiveBatchSize, @Nullable KeysetRanges keysetRanges, @Nullable ElementType elementType) {
+		super(customQuery, batchSize, concurrency, adaptiveBatchSize);
+
+		if (keysetRanges != null && customQuery != null) {
+			throw new IllegalArgumentException("Resumable refactorings cannot be combined with custom queries");
+		}
 		this.target = Objects.requireNonNull(target);
 		this.identifiers = (identifiers != null)
 				? identifiers.stream().map(String::trim).collect(Collectors.toCollection(LinkedHashSet::new))
 				: Collections.emptySet();
 		this.property = Objects.requireNonNullElse(property, DEFAULT_PROPERTY_NAME);
-		this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("2025.10").withBatchingSupport(true);
+		this.keysetRanges = keysetRanges;
+		this.featureSet = (keysetRanges != null) ? keysetRanges.featureSet("2025.10") : batchingFeatureSet("2025.10");
 		this.elementType = Objects.requireNonNullElse(elementType, ElementType.FLOAT);
 	}
 
 	@Override
 	public Counters apply(RefactoringContext context) {
 		try (QueryRunner queryRunner = context.getQueryRunner(this.featureSet)) {
-			var query = generateQuery(context::findSingleResultIdentifier);
-			return new DefaultCounters(queryRunner.run(query).consume().counters());
+			if (this.keysetRanges != null) {
+				return KeysetRanges.run(queryRunner,
+						Objects.requireNonNullElse(this.batchSize, KeysetRanges.DEFAULT_RANGE_SIZE),
+						count -> generateRangeQuery(context::sanitizeSchemaName, count), context::onProgress);
+			}
+			// Converted lists are vectors afterwards and not matched again
+			return run(queryRunner, this.customQuery == null,
+					batching -> generateQuery(context::findSingleResultIdentifier, batching));
 		}
 	}
 
 	Query generateQuery(Function<String, Optional<String>> elementExtractor) {
+		return generateQuery(elementExtractor, Batching.of(this.batchSize, null));
+	}
+
+	Query generateQuery(Function<String, Optional<String>> elementExtractor, @Nullable Batching batching) {
 		String entityName = (this.customQuery == null) ? ""
 				: elementExtractor.apply(this.customQuery).orElseThrow(IllegalArgumentException::new);
 
+		var parameters = parameters();
+		if (batching != null) {
+			parameters.put("batchSize", batching.size());
+		}
+
+		return new Query(String.format(this.target.generateFormatString(this.customQuery, batching), this.customQuery,
+				entityName, this.elementType.name()), parameters);
+	}
+
+	Query generateRangeQuery(UnaryOperator<String> sanitizer, boolean count) {
+
+		String formatString = Objects.requireNonNull(this.keysetRanges)
+			.generateFormatString(this.target, this.target.variable, sanitizer, count);
+		return new Query(String.format(formatString, this.customQuery, "", this.elementType.name()), parameters());
+	}
+
+	private Map<String, Object> parameters() {
 		var parameters = new HashMap<String, Object>();
 		if (!this.identifiers.isEmpty()) {
 			parameters.put("identifiers", this.identifiers);
 		}
 		parameters.put("property", this.property);
-		if (this.batchSize != null) {
-			parameters.put("batchSize", this.batchSize);
-		}
+		return parameters;
+	}
 
-		return new Query(String.format(this.target.generateFormatString(this.customQuery, this.batchSize),
-				this.customQuery, entityName, this.elementType.name()), parameters);
+	@Override
+	public ListToVector resumable() {
+		return new DefaultListToVector(this.target, this.identifiers, this.property, this.customQuery, this.batchSize,
+				this.concurrency, this.adaptiveBatchSize, new KeysetRanges(null), this.elementType);
+	}
+
+	@Override
+	public ListToVector resumableBy(String rangeProperty) {
+
+		if (Objects.requireNonNull(rangeProperty, "Range property is required").isBlank()) {
+			throw new IllegalArgumentException("Range property must not be blank");
+		}
+		return new DefaultListToVector(this.target, this.identifiers, this.property, this.customQuery, this.batchSize,
+				this.concurrency, this.adaptiveBatchSize, new KeysetRanges(rangeProperty), this.elementType);
 	}
 
 	@Override
@@ -84,27 +137,45 @@ final class DefaultListToVector extends AbstractCustomizableRefactoring implemen
 			throw new IllegalArgumentException("Property name must not be blank");
 		}
 		return new DefaultListToVector(this.target, this.identifiers, name, this.customQuery, this.batchSize,
-				this.elementType);
+				this.concurrency, this.adaptiveBatchSize, this.keysetRanges, this.elementType);
 	}
 
 	@Override
 	public ListToVector withElementType(ElementType type) {
 		return new DefaultListToVector(this.target, this.identifiers, this.property, this.customQuery, this.batchSize,
-				type);
+				this.concurrency, this.adaptiveBatchSize, this.keysetRanges, type);
 	}
 
 	@Override
 	public ListToVector inBatchesOf(Integer newBatchSize) {
 
-		return inBatchesOf0(newBatchSize, ListToVector.class, v -> new DefaultListToVector(this.target,
-				this.identifiers, this.property, this.customQuery, v, this.elementType));
+		return inBatchesOf0(newBatchSize, ListToVector.class,
+				v -> new DefaultListToVector(this.target, this.identifiers, this.property, this.customQuery, v,
+						this.concurrency, this.adaptiveBatchSize, this.keysetRanges, this.elementType));
+	}
+
+	@Override
+	public ListToVector inConcurrentTransactions(Integer newConcurrency) {
+
+		return inConcurrentTransactions0(newConcurrency, ListToVector.class,
+				v -> new DefaultListToVector(this.target, this.identifiers, this.property, this.customQuery,
+						this.batchSize, v, this.adaptiveBatchSize, this.keysetRanges, this.elementType));
+	}
+
+	@Override
+	public ListToVector withAdaptiveBatchSize(boolean newAdaptiveBatchSize) {
+
+		return withAdaptiveBatchSize0(newAdaptiveBatchSize, ListToVector.class,
+				v -> new DefaultListToVector(this.target, this.identifiers, this.property, this.customQuery,
+						this.batchSize, this.concurrency, v, this.keysetRanges, this.elementType));
 	}
 
 	@Override
 	public ListToVector withCustomQuery(String newCustomQuery) {
 
-		return withCustomQuery0(newCustomQuery, ListToVector.class, v -> new DefaultListToVector(this.target,
-				(v != null) ? null : this.identifiers, this.property, v, this.batchSize, this.elementType));
+		return withCustomQuery0(newCustomQuery, ListToVector.class,
+				v -> new DefaultListToVector(this.target, (v != null) ? null : this.identifiers, this.property, v,
+						this.batchSize, this.concurrency, this.adaptiveBatchSize, this.keysetRanges, this.elementType));
 	}
 
 	/**
@@ -129,8 +200,11 @@ final class DefaultListToVector extends AbstractCustomizableRefactoring implemen
 
 		private final Fragments fragments;
 
+		private final String variable;
+
 		Target(String sourceFragment, String sourceFragmentWithCustomQuery, String actionFragment, String target) {
 
+			this.variable = target;
 			this.fragments = new Fragments(sourceFragment, sourceFragmentWithCustomQuery, actionFragment,
 					"CALL(%s) { %s } IN TRANSACTIONS OF $batchSize ROWS".formatted(target, actionFragment));
 		}
@@ -15,6 +15,8 @@
  */
 package ac.simons.neo4j.migrations.core.refactorings;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -33,7 +35,18 @@ import org.neo4j.driver.Values;
  * @author Michael J. Simons
  * @since 1.10.0
  */
-final class DefaultNormalize extends AbstractCustomizableRefactoring implements Normalize {
+final class DefaultNormalize extends AbstractCustomizableRefactoring implements Normalize, FusibleRefactoring {
+
+	/**
+	 * Sets the normalized value of the property {@code %1$s} on the element {@code e}.
+	 */
+	private static final String SET_FRAGMENT = """
+			SET e.%1$s = CASE
+			  WHEN e.%1$s IN $trueValues THEN true
+			  WHEN e.%1$s IN $falseValues THEN false
+			  WHEN e.%1$s IN [true, false] THEN e.%1$s
+			  ELSE $nullValue
+			END""";
 
 	private final String property;
 
@@ -41,15 +54,24 @@ final class DefaultNormalize extends AbstractCustomizableRefactoring implements
 
 	private final List<Object> falseValues;
 
+	private final List<String> labels;
+
+	private final List<String> types;
+
 	private final QueryRunner.FeatureSet featureSet;
 
 	DefaultNormalize(String property, List<Object> trueValues, List<Object> falseValues) {
-		this(property, trueValues, falseValues, null, null);
+		this(property, trueValues, falseValues, List.of(), List.of(), null, null, null, false);
 	}
 
-	private DefaultNormalize(String property, List<Object> trueValues, List<Object> falseValues,
-			@Nullable String customQuery, @Nullable Integer batchSize) {
-		super(customQuery, batchSize);
+	private DefaultNormalize(String property, List<Object> trueValues, List<Object> falseValues, List<String> labels,
+			List<String> types, @Nullable String customQuery, @Nullable Integer batchSize,
+			@Nullable Integer concurrency, boolean adaptiveBatchSize) {
+		super(customQuery, batchSize, concurrency, adaptiveBatchSize);
+
+		if (this.customQuery != null && !(labels.isEmpty() && types.isEmpty())) {
+			throw new IllegalArgumentException("Labels or types cannot be combined with custom queries");
+		}
 
 		boolean nullIsTrue = trueValues.stream().anyMatch(DefaultNormalize::isNull);
 		boolean nullIsFalse = falseValues.stream().anyMatch(DefaultNormalize::isNull);
@@ -65,9 +87,11 @@ final class DefaultNormalize extends AbstractCustomizableRefactoring implements
 		this.property = property;
 		this.trueValues = trueValues;
 		this.falseValues = falseValues;
+		this.labels = labels;
+		this.types = types;
 
 		if (this.batchSize != null) {
-			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.4").withBatchingSupport(true);
+			this.featureSet = batchingFeatureSet(this.adaptiveBatchSize ? "5.7" : "4.4");
 		}
 		else {
 			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.1");
@@ -86,44 +110,87 @@ final class DefaultNormalize extends AbstractCustomizableRefactoring implements
 	public Normalize inBatchesOf(Integer newBatchSize) {
 
 		return inBatchesOf0(newBatchSize, DefaultNormalize.class,
-				v -> new DefaultNormalize(this.property, this.trueValues, this.falseValues, this.customQuery, v));
+				v -> new DefaultNormalize(this.property, this.trueValues, this.falseValues, this.labels, this.types,
+						this.customQuery, v, this.concurrency, this.adaptiveBatchSize));
+	}
+
+	@Override
+	public Normalize inConcurrentTransactions(Integer newConcurrency) {
+
+		return inConcurrentTransactions0(newConcurrency, Normalize.class,
+				v -> new DefaultNormalize(this.property, this.trueValues, this.falseValues, this.labels, this.types,
+						this.customQuery, this.batchSize, v, this.adaptiveBatchSize));
+	}
+
+	@Override
+	public Normalize withAdaptiveBatchSize(boolean newAdaptiveBatchSize) {
+
+		return withAdaptiveBatchSize0(newAdaptiveBatchSize, Normalize.class,
+				v -> new DefaultNormalize(this.property, this.trueValues, this.falseValues, this.labels, this.types,
+						this.customQuery, this.batchSize, this.concurrency, v));
 	}
 
 	@Override
 	public Normalize withCustomQuery(String newCustomQuery) {
 
 		return withCustomQuery0(newCustomQuery, Normalize.class,
-				v -> new DefaultNormalize(this.property, this.trueValues, this.falseValues, v, this.batchSize));
+				v -> new DefaultNormalize(this.property, this.trueValues, this.falseValues, this.labels, this.types, v,
+						this.batchSize, this.concurrency, this.adaptiveBatchSize));
+	}
+
+	@Override
+	public Normalize withLabels(String... newLabels) {
+
+		return new DefaultNormalize(this.property, this.trueValues, this.falseValues, scope(newLabels), this.types,
+				this.customQuery, this.batchSize, this.concurrency, this.adaptiveBatchSize);
+	}
+
+	@Override
+	public Normalize withTypes(String... newTypes) {
+
+		return new DefaultNormalize(this.property, this.trueValues, this.falseValues, this.labels, scope(newTypes),
+				this.customQuery, this.batchSize, this.concurrency, this.adaptiveBatchSize);
+	}
+
+	private static List<String> scope(String... values) {
+		if (values == null) {
+			return List.of();
+		}
+		return Arrays.stream(values)
+			.filter(Objects::nonNull)
+			.map(String::trim)
+			.filter(Predicate.not(String::isEmpty))
+			.distinct()
+			.toList();
 	}
 
 	@Override
 	public Counters apply(RefactoringContext context) {
 		try (QueryRunner queryRunner = context.getQueryRunner(this.featureSet)) {
-			return new DefaultCounters(
-					queryRunner.run(generateQuery(context::sanitizeSchemaName, context::findSingleResultIdentifier))
-						.consume()
-						.counters());
+			// Normalized values are still matched, so rounds can't be bounded
+			return run(queryRunner, false, batching -> generateQuery(context::sanitizeSchemaName,
+					context::findSingleResultIdentifier, batching));
 		}
 	}
 
 	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor) {
+		return generateQuery(sanitizer, elementExtractor, Batching.of(this.batchSize, null));
+	}
 
-		List<Object> tv = this.trueValues;
-		List<Object> fv = this.falseValues;
-		Boolean nullValue = null;
-		Predicate<Object> isNull = DefaultNormalize::isNull;
-		if (this.trueValues.stream().anyMatch(isNull)) {
-			nullValue = true;
-			tv = this.trueValues.stream().filter(isNull.negate()).toList();
-		}
-		else if (this.falseValues.stream().anyMatch(DefaultNormalize::isNull)) {
-			nullValue = false;
-			fv = this.falseValues.stream().filter(isNull.negate()).toList();
-		}
+	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor,
+			@Nullable Batching batching) {
+
+		var values = normalizedValues();
+		String quotedProperty = sanitizer.apply(this.property);
+		boolean scoped = !(this.labels.isEmpty() && this.types.isEmpty());
 
 		String varName;
 		String innerQuery;
-		if (this.customQuery == null) {
+		if (scoped) {
+			varName = "t";
+			innerQuery = generateScopedQuery(sanitizer, quotedProperty, values.nullValue() == null);
+		}
+		else if (this.customQuery == null) {
 			varName = "t";
 			innerQuery = "MATCH (n) RETURN n AS t UNION ALL MATCH ()-[r]->() RETURN r AS t";
 		}
@@ -132,31 +199,80 @@ final class DefaultNormalize extends AbstractCustomizableRefactoring implements
 			innerQuery = this.customQuery;
 		}
 
-		String quotedProperty = sanitizer.apply(this.property);
-		String formatString = """
-				CALL { %2$s } WITH %3$s AS e
-				<FILTER />
-				<BATCH>SET e.%1$s = CASE
-				  WHEN e.%1$s IN $trueValues THEN true
-				  WHEN e.%1$s IN $falseValues THEN false
-				  WHEN e.%1$s IN [true, false] THEN e.%1$s
-				  ELSE $nullValue
-				END</BATCH>""";
-
-		if (this.batchSize == null) {
+		String formatString = "CALL { %2$s } WITH %3$s AS e\n<FILTER />\n<BATCH>" + SET_FRAGMENT + "</BATCH>";
+
+		if (batching == null) {
 			formatString = formatString.replaceAll("<BATCH>|</BATCH>", "");
 		}
 		else {
-			formatString = formatString.replace("<BATCH>", "CALL { WITH e ")
-				.replace("</BATCH>", " } IN TRANSACTIONS OF %4$d ROWS");
+			formatString = batching.render(formatString.replace("<BATCH>", "CALL { WITH e ")
+				.replace("</BATCH>", " } IN TRANSACTIONS OF %4$d ROWS"));
 		}
+
 		// If the property does not exist and the value for non-existing properties is
-		// undefined, we can reduce the number of touched entities.
-		formatString = formatString.replace("<FILTER />\n", (nullValue != null) ? "" : "WHERE e.%1$s IS NOT NULL\n");
+		// undefined, we can reduce the number of touched entities. Scoped queries
+		// already filter per label or type.
+		formatString = formatString.replace("<FILTER />\n",
+				(values.nullValue() != null || scoped) ? "" : "WHERE e.%1$s IS NOT NULL\n");
+
+		return new Query(String.format(formatString, quotedProperty, innerQuery, varName,
+				(batching != null) ? batching.size() : null), values.asParameters(""));
+	}
+
+	/**
+	 * Generates one branch per label and type, each filtering on the property directly in
+	 * the match, so that an existing property or range index can be used instead of
+	 * scanning all nodes and relationships.
+	 * @param sanitizer used to quote labels and types
+	 * @param quotedProperty the already quoted property
+	 * @param filter whether elements without the property can be skipped
+	 * @return the union of all branches
+	 */
+	private String generateScopedQuery(UnaryOperator<String> sanitizer, String quotedProperty, boolean filter) {
+
+		List<String> branches = new ArrayList<>();
+		for (String label : this.labels) {
+			branches.add("MATCH (n:" + sanitizer.apply(label) + ")"
+					+ (filter ? " WHERE n." + quotedProperty + " IS NOT NULL" : "") + " RETURN n AS t");
+		}
+		for (String type : this.types) {
+			branches.add("MATCH ()-[r:" + sanitizer.apply(type) + "]->()"
+					+ (filter ? " WHERE r." + quotedProperty + " IS NOT NULL" : "") + " RETURN r AS t");
+		}
+		return String.join(" UNION ALL ", branches);
+	}
+
+	@Override
+	public Optional<Key> getFusionKey() {
+		return fusionKey();
+	}
+
+	@Override
+	public Step generateFusionStep(UnaryOperator<String> sanitizer, String variable, String parameterPrefix) {
+		String quotedProperty = sanitizer.apply(this.property);
+		var values = normalizedValues();
+		String action = String.format(SET_FRAGMENT.replace("e.%1$s", variable + ".%1$s"), quotedProperty)
+			.replace("$", "$" + parameterPrefix);
+		String condition = (values.nullValue() != null) ? "true" : variable + "." + quotedProperty + " IS NOT NULL";
+		return new Step(condition, action, values.asParameters(parameterPrefix));
+	}
 
-		Map<String, Object> parameters = Map.of("trueValues", Values.value(tv), "falseValues", Values.value(fv),
-				"nullValue", Values.value(nullValue));
-		return new Query(String.format(formatString, quotedProperty, innerQuery, varName, this.batchSize), parameters);
+	private NormalizedValues normalizedValues() {
+
+		List<Object> tv = this.trueValues;
+		List<Object> fv = this.falseValues;
+		Boolean nullValue = null;
+		Predicate<Object> isNull = DefaultNormalize::isNull;
+		if (this.trueValues.stream().anyMatch(isNull)) {
+			nullValue = true;
+			tv = this.trueValues.stream().filter(isNull.negate()).toList();
+		}
+		else if (this.falseValues.stream().anyMatch(DefaultNormalize::isNull)) {
+			nullValue = false;
+			fv = this.falseValues.stream().filter(isNull.negate()).toList();
+		}
+
+		return new NormalizedValues(tv, fv, nullValue);
 	}
 
 	@Override
@@ -169,13 +285,32 @@ final class DefaultNormalize extends AbstractCustomizableRefactoring implements
 		}
 		DefaultNormalize that = (DefaultNormalize) o;
 		return this.property.equals(that.property) && this.trueValues.equals(that.trueValues)
-				&& this.falseValues.equals(that.falseValues) && Objects.equals(this.customQuery, that.customQuery)
-				&& Objects.equals(this.batchSize, that.batchSize);
+				&& this.falseValues.equals(that.falseValues) && this.labels.equals(that.labels)
+				&& this.types.equals(that.types) && Objects.equals(this.customQuery, that.customQuery)
+				&& Objects.equals(this.batchSize, that.batchSize) && Objects.equals(this.concurrency, that.concurrency)
+				&& this.adaptiveBatchSize == that.adaptiveBatchSize;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.property, this.trueValues, this.falseValues, this.customQuery, this.batchSize);
+		return Objects.hash(this.property, this.trueValues, this.falseValues, this.labels, this.types, this.customQuery,
+				this.batchSize, this.concurrency, this.adaptiveBatchSize);
+	}
+
+	/**
+	 * The values to normalize, without {@literal null}, which is mapped separately.
+	 *
+	 * @param trueValues the values mapped to {@literal true}
+	 * @param falseValues the values mapped to {@literal false}
+	 * @param nullValue the value for missing properties, may be {@literal null}
+	 */
+	private record NormalizedValues(List<Object> trueValues, List<Object> falseValues, @Nullable Boolean nullValue) {
+
+		Map<String, Object> asParameters(String prefix) {
+			return Map.of(prefix + "trueValues", Values.value(this.trueValues), prefix + "falseValues",
+					Values.value(this.falseValues), prefix + "nullValue", Values.value(this.nullValue));
+		}
+
 	}
 
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Default implementation of {@link RefactoringProgress}.
+ *
+ * @param checkpointId the id of the checkpoint
+ * @param rowsProcessed the number of rows processed so far
+ * @param rowsTotal the number of rows processed so far and still to process
+ * @param rowsPerSecond the rate in the current run
+ * @param estimatedTimeRemaining the estimated time remaining
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+record DefaultRefactoringProgress(String checkpointId, long rowsProcessed, long rowsTotal, double rowsPerSecond,
+		Optional<Duration> estimatedTimeRemaining) implements RefactoringProgress {
+}
@@ -15,6 +15,7 @@
  */
 package ac.simons.neo4j.migrations.core.refactorings;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -29,7 +30,7 @@ import org.neo4j.driver.Query;
  * @author Michael J. Simons
  * @since 1.10.0
  */
-final class DefaultRename extends AbstractCustomizableRefactoring implements Rename {
+final class DefaultRename extends AbstractCustomizableRefactoring implements Rename, FusibleRefactoring {
 
 	/**
 	 * The target of this refactoring.
@@ -49,19 +50,19 @@ final class DefaultRename extends AbstractCustomizableRefactoring implements Ren
 	private final QueryRunner.FeatureSet featureSet;
 
 	DefaultRename(Target targetEntityType, String oldValue, String newValue) {
-		this(targetEntityType, oldValue, newValue, null, null);
+		this(targetEntityType, oldValue, newValue, null, null, null, false);
 	}
 
 	private DefaultRename(Target target, String oldValue, String newValue, @Nullable String customQuery,
-			@Nullable Integer batchSize) {
-		super(customQuery, batchSize);
+			@Nullable Integer batchSize, @Nullable Integer concurrency, boolean adaptiveBatchSize) {
+		super(customQuery, batchSize, concurrency, adaptiveBatchSize);
 
 		this.target = target;
 		this.oldValue = oldValue;
 		this.newValue = newValue;
 
 		if (this.batchSize != null) {
-			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.4").withBatchingSupport(true);
+			this.featureSet = batchingFeatureSet(this.adaptiveBatchSize ? "5.7" : "4.4");
 		}
 		else if (this.customQuery != null) {
 			this.featureSet = QueryRunner.defaultFeatureSet().withRequiredVersion("4.1");
@@ -78,26 +79,42 @@ final class DefaultRename extends AbstractCustomizableRefactoring implements Ren
 	@Override
 	public Counters apply(RefactoringContext context) {
 		try (QueryRunner queryRunner = context.getQueryRunner(this.featureSet)) {
-			return new DefaultCounters(
-					queryRunner.run(generateQuery(context::sanitizeSchemaName, context::findSingleResultIdentifier))
-						.consume()
-						.counters());
+			// Renamed elements drop out of the source unless a custom query is used
+			return run(queryRunner, this.customQuery == null, batching -> generateQuery(context::sanitizeSchemaName,
+					context::findSingleResultIdentifier, batching));
 		}
 	}
 
 	@Override
 	public Rename inBatchesOf(Integer newBatchSize) {
-		return inBatchesOf0(newBatchSize, Rename.class,
-				v -> new DefaultRename(this.target, this.oldValue, this.newValue, this.customQuery, v));
+		return inBatchesOf0(newBatchSize, Rename.class, v -> new DefaultRename(this.target, this.oldValue,
+				this.newValue, this.customQuery, v, this.concurrency, this.adaptiveBatchSize));
+	}
+
+	@Override
+	public Rename inConcurrentTransactions(Integer newConcurrency) {
+		return inConcurrentTransactions0(newConcurrency, Rename.class, v -> new DefaultRename(this.target,
+				this.oldValue, this.newValue, this.customQuery, this.batchSize, v, this.adaptiveBatchSize));
+	}
+
+	@Override
+	public Rename withAdaptiveBatchSize(boolean newAdaptiveBatchSize) {
+		return withAdaptiveBatchSize0(newAdaptiveBatchSize, Rename.class, v -> new DefaultRename(this.target,
+				this.oldValue, this.newValue, this.customQuery, this.batchSize, this.concurrency, v));
 	}
 
 	@Override
 	public Rename withCustomQuery(String newCustomQuery) {
-		return withCustomQuery0(newCustomQuery, Rename.class,
-				v -> new DefaultRename(this.target, this.oldValue, this.newValue, v, this.batchSize));
+		return withCustomQuery0(newCustomQuery, Rename.class, v -> new DefaultRename(this.target, this.oldValue,
+				this.newValue, v, this.batchSize, this.concurrency, this.adaptiveBatchSize));
 	}
 
 	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor) {
+		return generateQuery(sanitizer, elementExtractor, Batching.of(this.batchSize, null));
+	}
+
+	Query generateQuery(UnaryOperator<String> sanitizer, Function<String, Optional<String>> elementExtractor,
+			@Nullable Batching batching) {
 
 		String varName;
 		if (this.customQuery == null) {
@@ -107,9 +124,23 @@ final class DefaultRename extends AbstractCustomizableRefactoring implements Ren
 			varName = elementExtractor.apply(this.customQuery).orElseThrow(IllegalArgumentException::new);
 		}
 
-		return new Query(String.format(this.target.generateFormatString(this.customQuery, this.batchSize),
-				sanitizer.apply(this.oldValue), sanitizer.apply(this.newValue), this.batchSize, this.customQuery,
-				varName));
+		return new Query(String.format(this.target.generateFormatString(this.customQuery, batching),
+				sanitizer.apply(this.oldValue), sanitizer.apply(this.newValue),
+				(batching != null) ? batching.size() : null, this.customQuery, varName));
+	}
+
+	@Override
+	public Optional<Key> getFusionKey() {
+		return (this.target == Target.NODE_PROPERTY || this.target == Target.REL_PROPERTY) ? fusionKey()
+				: Optional.empty();
+	}
+
+	@Override
+	public Step generateFusionStep(UnaryOperator<String> sanitizer, String variable, String parameterPrefix) {
+		String oldProperty = variable + "." + sanitizer.apply(this.oldValue);
+		String newProperty = variable + "." + sanitizer.apply(this.newValue);
+		return new Step(oldProperty + " IS NOT NULL",
+				"SET " + newProperty + " = " + oldProperty + " REMOVE " + oldProperty, Map.of());
 	}
 
 	@Override
@@ -122,12 +153,15 @@ final class DefaultRename extends AbstractCustomizableRefactoring implements Ren
 		}
 		DefaultRename that = (DefaultRename) o;
 		return this.target == that.target && this.oldValue.equals(that.oldValue) && this.newValue.equals(that.newValue)
-				&& Objects.equals(this.customQuery, that.customQuery) && Objects.equals(this.batchSize, that.batchSize);
+				&& Objects.equals(this.customQuery, that.customQuery) && Objects.equals(this.batchSize, that.batchSize)
+				&& Objects.equals(this.concurrency, that.concurrency)
+				&& this.adaptiveBatchSize == that.adaptiveBatchSize;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.target, this.oldValue, this.newValue, this.customQuery, this.batchSize);
+		return Objects.hash(this.target, this.oldValue, this.newValue, this.customQuery, this.batchSize,
+				this.concurrency, this.adaptiveBatchSize);
 	}
 
 	/**
@@ -31,6 +31,10 @@ interface FormatStringGenerator {
 	Fragments getFragments();
 
 	default String generateFormatString(@Nullable String customQuery, @Nullable Integer batchSize) {
+		return generateFormatString(customQuery, Batching.of(batchSize, null));
+	}
+
+	default String generateFormatString(@Nullable String customQuery, @Nullable Batching batching) {
 		Fragments fragments = getFragments();
 
 		String ptSource;
@@ -43,11 +47,11 @@ interface FormatStringGenerator {
 			ptSource = fragments.sourceWithCustomQuery();
 		}
 
-		if (batchSize == null) {
+		if (batching == null) {
 			ptAction = fragments.action();
 		}
 		else {
-			ptAction = fragments.actionWithBatchSize();
+			ptAction = batching.render(fragments.actionWithBatchSize());
 		}
 
 		return ptSource + " " + ptAction;
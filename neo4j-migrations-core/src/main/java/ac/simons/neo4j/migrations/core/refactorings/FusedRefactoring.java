@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.List;
+
+import ac.simons.neo4j.migrations.core.Neo4jVersion;
+
+/**
+ * A refactoring that applies several other refactorings in one pass over the same
+ * elements. Consecutive refactorings can be fused if they change properties of the
+ * elements returned by the same custom query with the same batch size and concurrency.
+ * These are renaming node or relationship properties, normalizing properties and adding
+ * surrogate keys. The refactorings are applied one after another to each element, so that
+ * later refactorings see the changes of earlier ones. The counters returned by
+ * {@link #apply(RefactoringContext)} are the counters of the fused statement reported by
+ * the server, {@link #applyFused(RefactoringContext)} additionally reports one set of
+ * counters per fused refactoring.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public sealed interface FusedRefactoring extends Refactoring permits DefaultFusedRefactoring {
+
+	/**
+	 * Replaces all runs of consecutive refactorings that can be fused with a fused
+	 * refactoring. All other refactorings are returned as is, the order is kept.
+	 * @param refactorings the refactorings to optimize
+	 * @return the optimized list of refactorings
+	 */
+	static List<Refactoring> fuse(List<? extends Refactoring> refactorings) {
+		return DefaultFusedRefactoring.fuse(refactorings);
+	}
+
+	/**
+	 * {@return the refactorings that have been fused, in order of application}
+	 */
+	List<Refactoring> getRefactorings();
+
+	/**
+	 * Checks whether the fused statement can be run against a server in the given
+	 * version. Callers are supposed to apply the {@link #getRefactorings() refactorings}
+	 * one by one if it can't.
+	 * @param version the version of the server the refactoring is to be applied to
+	 * @return {@literal true} if the fused statement is supported
+	 */
+	boolean isSupportedBy(Neo4jVersion version);
+
+	/**
+	 * Applies the fused statement like {@link #apply(RefactoringContext)} does, but keeps
+	 * track of the changes of each fused refactoring. The server only reports counters
+	 * for the whole statement, so the counters of each refactoring contain the number of
+	 * elements it changed as {@link Counters#propertiesSet() properties set}.
+	 * @param context the context in which the refactoring is applied
+	 * @return the counters of the fused statement and of each fused refactoring
+	 */
+	FusedCounters applyFused(RefactoringContext context);
+
+	/**
+	 * The counters of a fused refactoring.
+	 *
+	 * @param total the counters of the whole refactoring
+	 * @param perRefactoring one set of counters per fused refactoring, in order of
+	 * application
+	 */
+	record FusedCounters(Counters total, List<Counters> perRefactoring) {
+
+		/**
+		 * Makes the list of counters per refactoring unmodifiable.
+		 * @param total the counters of the whole refactoring
+		 * @param perRefactoring one set of counters per fused refactoring
+		 */
+		public FusedCounters {
+			perRefactoring = List.copyOf(perRefactoring);
+		}
+
+		/**
+		 * Creates the counters of refactorings that have been applied one by one, the
+		 * total being the sum of all of them.
+		 * @param perRefactoring one set of counters per refactoring, in order of
+		 * application
+		 * @return new counters
+		 */
+		public static FusedCounters of(List<Counters> perRefactoring) {
+			return new FusedCounters(perRefactoring.stream().reduce(Counters.empty(), Counters::add),
+					perRefactoring);
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A refactoring that changes properties of the elements returned by a custom query one
+ * element at a time, so that it can be fused with other refactorings over the same
+ * elements into a single pass.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+interface FusibleRefactoring extends Refactoring {
+
+	/**
+	 * {@return the key of all refactorings this refactoring can be fused with, if any}
+	 */
+	Optional<Key> getFusionKey();
+
+	/**
+	 * Generates the part of the fused statement for this refactoring.
+	 * @param sanitizer used to quote names
+	 * @param variable the variable holding the element
+	 * @param parameterPrefix prefix for all parameters used by this refactoring
+	 * @return the part of the fused statement
+	 */
+	Step generateFusionStep(UnaryOperator<String> sanitizer, String variable, String parameterPrefix);
+
+	/**
+	 * Refactorings with equal keys run over the same elements in the same way.
+	 *
+	 * @param customQuery the custom query selecting the elements
+	 * @param batchSize the batch size, may be {@literal null}
+	 * @param concurrency the number of concurrent batches, may be {@literal null}
+	 */
+	record Key(String customQuery, @Nullable Integer batchSize, @Nullable Integer concurrency) {
+	}
+
+	/**
+	 * One step of a fused statement.
+	 *
+	 * @param condition the condition an element must satisfy to be changed
+	 * @param action the updating clauses applied to matching elements
+	 * @param parameters the parameters used by condition and action
+	 */
+	record Step(String condition, String action, Map<String, Object> parameters) {
+	}
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.jspecify.annotations.Nullable;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+
+/**
+ * Processes the entities of a refactoring in ranges ordered either by element id or by a
+ * property, one transaction per range. After each range, the last key is stored on a
+ * {@code __Neo4jRefactoringCheckpoint} node in the target database, which is used to
+ * resume an interrupted run and removed after the last range. The checkpoint is written
+ * after the range has been committed, so the refactorings using ranges must exclude
+ * already processed entities on their own for this to be safe.
+ *
+ * @param property the property defining the order or {@literal null} to order by element
+ * id
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+record KeysetRanges(@Nullable String property) {
+
+	/**
+	 * Size of the ranges if no batch size is configured.
+	 */
+	static final int DEFAULT_RANGE_SIZE = 10_000;
+
+	static final String READ_QUERY = "MATCH (c:__Neo4jRefactoringCheckpoint {id: $checkpointId}) RETURN c.last AS last, c.rows AS rows";
+
+	static final String UPDATE_QUERY = "MERGE (c:__Neo4jRefactoringCheckpoint {id: $checkpointId}) SET c.last = $last, c.rows = $rows, c.updatedAt = datetime({timezone: 'UTC'})";
+
+	static final String DELETE_QUERY = "MATCH (c:__Neo4jRefactoringCheckpoint {id: $checkpointId}) DELETE c";
+
+	private static final Logger LOGGER = Logger.getLogger(KeysetRanges.class.getName());
+
+	KeysetRanges {
+		if (property != null && property.isBlank()) {
+			throw new IllegalArgumentException("The range property must not be blank");
+		}
+	}
+
+	/**
+	 * Computes the feature set for refactorings in ranges. Ranges must run in their own
+	 * transactions and ordering by element id needs the adapted id function on older
+	 * databases.
+	 * @param requiredVersion the minimum version required by the refactoring
+	 * @return the feature set for a refactoring in ranges
+	 */
+	QueryRunner.FeatureSet featureSet(String requiredVersion) {
+		return QueryRunner.defaultFeatureSet()
+			.withRequiredVersion(requiredVersion)
+			.withBatchingSupport(true)
+			.withElementIdSupport(this.property == null);
+	}
+
+	/**
+	 * Generates the format string for processing one range or for counting the entities
+	 * that are still to process. The source fragment of the target must end with a
+	 * {@code WHERE} clause.
+	 * @param target provides the source and action fragments
+	 * @param variable the variable the source fragment binds the entities to
+	 * @param sanitizer used to quote the range property
+	 * @param count {@literal true} to generate a counting statement
+	 * @return a format string with the same arguments as the fragments of the target
+	 */
+	String generateFormatString(FormatStringGenerator target, String variable, UnaryOperator<String> sanitizer,
+			boolean count) {
+
+		var fragments = target.getFragments();
+		String key = ((this.property != null) ? variable + "." + sanitizer.apply(this.property)
+				: "elementId(" + variable + ")")
+			.replace("%", "%%");
+		String source = fragments.source() + " AND ($checkpoint IS NULL OR " + key + " > $checkpoint)";
+		if (count) {
+			return source + " RETURN count(*) AS remaining";
+		}
+		return source + " WITH " + variable + " ORDER BY " + key + " ASC LIMIT $rangeSize " + fragments.action()
+				+ " RETURN count(*) AS rows, max(" + key + ") AS last";
+	}
+
+	static Counters run(QueryRunner queryRunner, int rangeSize, Function<Boolean, Query> queryGenerator,
+			Consumer<RefactoringProgress> progressConsumer) {
+		return run(queryRunner, rangeSize, queryGenerator, progressConsumer, System::nanoTime);
+	}
+
+	/**
+	 * Processes all ranges, starting after the last checkpoint if there is one.
+	 * @param queryRunner the runner to use, must not use a shared transaction
+	 * @param rangeSize the maximum number of entities per range
+	 * @param queryGenerator generates the statement for a range or for counting
+	 * @param progressConsumer notified after each range
+	 * @param nanoTime source of the current time in nanoseconds
+	 * @return the accumulated counters of all ranges
+	 */
+	static Counters run(QueryRunner queryRunner, int rangeSize, Function<Boolean, Query> queryGenerator,
+			Consumer<RefactoringProgress> progressConsumer, LongSupplier nanoTime) {
+
+		var rangeQuery = queryGenerator.apply(false);
+		var checkpointId = checkpointId(rangeQuery);
+		var parameters = new HashMap<String, @Nullable Object>(rangeQuery.parameters().asMap());
+		parameters.put("checkpointId", checkpointId);
+		parameters.put("rangeSize", rangeSize);
+
+		Object last = null;
+		long rowsProcessed = 0;
+		var checkpoint = queryRunner.run(new Query(READ_QUERY, Map.of("checkpointId", checkpointId))).list();
+		if (!checkpoint.isEmpty()) {
+			last = checkpoint.get(0).get("last").asObject();
+			rowsProcessed = checkpoint.get(0).get("rows").asLong(0);
+			LOGGER.log(Level.INFO, "Resuming refactoring {0} after {1} already processed rows",
+					new Object[] { checkpointId, rowsProcessed });
+		}
+		parameters.put("checkpoint", last);
+		long rowsTotal = rowsProcessed + queryRunner.run(queryGenerator.apply(true).withParameters(parameters))
+			.single()
+			.get("remaining")
+			.asLong();
+
+		var counters = Counters.empty();
+		long start = nanoTime.getAsLong();
+		long rowsProcessedInRun = 0;
+		while (true) {
+			long rangeStart = nanoTime.getAsLong();
+			Result result = queryRunner.run(rangeQuery.withParameters(parameters));
+			Record range = result.single();
+			counters = counters.add(Counters.of(result.consume().counters()));
+			long rows = range.get("rows").asLong();
+			if (rows == 0) {
+				break;
+			}
+
+			last = range.get("last").asObject();
+			rowsProcessed += rows;
+			rowsProcessedInRun += rows;
+			parameters.put("checkpoint", last);
+			var checkpointParameters = new HashMap<String, @Nullable Object>();
+			checkpointParameters.put("checkpointId", checkpointId);
+			checkpointParameters.put("last", last);
+			checkpointParameters.put("rows", rowsProcessed);
+			queryRunner.run(new Query(UPDATE_QUERY, checkpointParameters)).consume();
+
+			progressConsumer.accept(progress(checkpointId, rowsProcessed, Math.max(rowsTotal, rowsProcessed),
+					rowsProcessedInRun, nanoTime.getAsLong() - start));
+			if (rows < rangeSize) {
+				break;
+			}
+			queryRunner.throttle(rows, 1, Duration.ofNanos(nanoTime.getAsLong() - rangeStart));
+		}
+		queryRunner.run(new Query(DELETE_QUERY, Map.of("checkpointId", checkpointId))).consume();
+		return counters;
+	}
+
+	/**
+	 * {@return a stable id derived from the statement and its parameters}
+	 * @param rangeQuery the statement processing one range
+	 */
+	static String checkpointId(Query rangeQuery) {
+		var crc32 = new CRC32();
+		crc32.update((rangeQuery.text() + rangeQuery.parameters()).getBytes(StandardCharsets.UTF_8));
+		return "refactoring-" + Long.toHexString(crc32.getValue());
+	}
+
+	static RefactoringProgress progress(String checkpointId, long rowsProcessed, long rowsTotal,
+			long rowsProcessedInRun, long elapsedNanos) {
+
+		double rowsPerSecond = (elapsedNanos > 0) ? rowsProcessedInRun / (elapsedNanos / 1_000_000_000.0) : 0.0;
+		Optional<Duration> estimatedTimeRemaining = (rowsPerSecond > 0.0)
+				? Optional.of(Duration.ofMillis((long) ((rowsTotal - rowsProcessed) / rowsPerSecond * 1000)))
+				: Optional.empty();
+		return new DefaultRefactoringProgress(checkpointId, rowsProcessed, rowsTotal, rowsPerSecond,
+				estimatedTimeRemaining);
+	}
+
+}
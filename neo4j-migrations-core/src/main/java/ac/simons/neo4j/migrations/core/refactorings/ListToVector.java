@@ -43,7 +43,8 @@ import ac.simons.neo4j.migrations.core.refactorings.DefaultListToVector.Target;
  * @author Michael J. Simons
  * @since 3.0.0
  */
-public sealed interface ListToVector extends CustomizableRefactoring<ListToVector> permits DefaultListToVector {
+public sealed interface ListToVector extends CustomizableRefactoring<ListToVector>, ResumableRefactoring<ListToVector>
+		permits DefaultListToVector {
 
 	/**
 	 * The default property name holding the embedding.
@@ -29,7 +29,7 @@ import org.jspecify.annotations.Nullable;
  * @author Michael J. Simons
  * @since 1.10.0
  */
-public sealed interface Merge extends Refactoring permits DefaultMerge {
+public sealed interface Merge extends Refactoring permits DefaultMerge, BulkMerge {
 
 	/**
 	 * Provides a refactoring merging a set of nodes. The custom query must return nodes
@@ -55,6 +55,36 @@ public sealed interface Merge extends Refactoring permits DefaultMerge {
 		return new DefaultMerge(sourceQuery, new ArrayList<>(Objects.requireNonNull(mergePolicies)));
 	}
 
+	/**
+	 * Provides a refactoring merging all nodes with a given label that have the same
+	 * value for the grouping property. Other than {@link #nodes(String)}, this
+	 * refactoring merges any number of groups and runs entirely on the server. The
+	 * returned refactoring won't provide any policies how do deal with duplicate
+	 * properties.
+	 * @param label the label of the nodes to merge
+	 * @param groupingProperty the property whose value identifies the nodes to merge
+	 * @return the refactoring ready to use
+	 * @since 4.2.0
+	 */
+	static BulkMerge nodesGroupedBy(String label, String groupingProperty) {
+		return nodesGroupedBy(label, groupingProperty, Collections.emptyList());
+	}
+
+	/**
+	 * Provides a refactoring merging all nodes with a given label that have the same
+	 * value for the grouping property.
+	 * @param label the label of the nodes to merge
+	 * @param groupingProperty the property whose value identifies the nodes to merge
+	 * @param mergePolicies the policies that describe how to deal with duplicated
+	 * properties.
+	 * @return the refactoring ready to use
+	 * @since 4.2.0
+	 */
+	static BulkMerge nodesGroupedBy(String label, String groupingProperty, List<PropertyMergePolicy> mergePolicies) {
+		return new DefaultBulkMerge(Objects.requireNonNull(label), Objects.requireNonNull(groupingProperty),
+				new ArrayList<>(Objects.requireNonNull(mergePolicies)));
+	}
+
 	/**
 	 * A {@link PropertyMergePolicy property merge policy} defines how properties with the
 	 * same name defined on several nodes to be merged should be handled. A policy
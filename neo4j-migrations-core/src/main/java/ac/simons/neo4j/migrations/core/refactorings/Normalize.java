@@ -52,4 +52,26 @@ public sealed interface Normalize extends CustomizableRefactoring<Normalize> per
 		return new DefaultNormalize(pn, tv, fv);
 	}
 
+	/**
+	 * Restricts this refactoring to nodes with any of the given labels. Unless
+	 * {@link #withTypes(String...) types} are given as well, relationships are not
+	 * normalized at all. Each label is matched separately and filtered on the property,
+	 * so that an existing index on the property can be used instead of scanning all nodes
+	 * and relationships. Cannot be combined with a custom query.
+	 * @param labels the labels of the nodes to normalize
+	 * @return a new refactoring, restricted to the given labels
+	 * @since 4.2.0
+	 */
+	Normalize withLabels(String... labels);
+
+	/**
+	 * Restricts this refactoring to relationships with any of the given types. Unless
+	 * {@link #withLabels(String...) labels} are given as well, nodes are not normalized
+	 * at all. Cannot be combined with a custom query.
+	 * @param types the types of the relationships to normalize
+	 * @return a new refactoring, restricted to the given types
+	 * @since 4.2.0
+	 */
+	Normalize withTypes(String... types);
+
 }
@@ -15,6 +15,7 @@
  */
 package ac.simons.neo4j.migrations.core.refactorings;
 
+import java.time.Duration;
 import java.util.Objects;
 
 import org.neo4j.driver.Query;
@@ -34,7 +35,7 @@ public interface QueryRunner extends AutoCloseable {
 	 * @return the default feature set
 	 */
 	static FeatureSet defaultFeatureSet() {
-		return new FeatureSet(false, false, "4.4");
+		return new FeatureSet(false, false, false, "4.4");
 	}
 
 	/**
@@ -44,6 +45,28 @@ public interface QueryRunner extends AutoCloseable {
 	 */
 	Result run(Query query);
 
+	/**
+	 * Returns the features that are actually available to this runner. Optional features,
+	 * such as concurrent transactions, might be missing from the set of requested
+	 * features when the database does not support them.
+	 * @return the available features
+	 * @since 4.2.0
+	 */
+	default FeatureSet getFeatureSet() {
+		return defaultFeatureSet();
+	}
+
+	/**
+	 * Called by refactorings that run in several statements after each of them, so that a
+	 * configured throttle can delay the next one. Defaults to a NOOP.
+	 * @param rows the number of rows processed by the finished statement
+	 * @param transactions the number of transactions committed by the finished statement
+	 * @param elapsed the duration of the finished statement
+	 * @since 4.2.0
+	 */
+	default void throttle(long rows, int transactions, Duration elapsed) {
+	}
+
 	/**
 	 * Defaults to a NOOP.
 	 */
@@ -63,9 +86,13 @@ public interface QueryRunner extends AutoCloseable {
 
 		private final boolean hasElementIdSupport;
 
-		private FeatureSet(boolean hasBatchingSupport, boolean hasElementIdSupport, String requiredVersion) {
+		private final boolean hasConcurrentTransactionsSupport;
+
+		private FeatureSet(boolean hasBatchingSupport, boolean hasElementIdSupport,
+				boolean hasConcurrentTransactionsSupport, String requiredVersion) {
 			this.hasBatchingSupport = hasBatchingSupport;
 			this.hasElementIdSupport = hasElementIdSupport;
+			this.hasConcurrentTransactionsSupport = hasConcurrentTransactionsSupport;
 			this.requiredVersion = requiredVersion;
 		}
 
@@ -90,14 +117,22 @@ public interface QueryRunner extends AutoCloseable {
 			return this.hasElementIdSupport;
 		}
 
+		/**
+		 * {@return <code>true</code> when concurrent transactions are requested}
+		 * @since 4.2.0
+		 */
+		public boolean hasConcurrentTransactionsSupport() {
+			return this.hasConcurrentTransactionsSupport;
+		}
+
 		/**
 		 * Configures batching support.
 		 * @param batchingSupport set to <code>true</code> for requesting batching support
 		 * @return new feature set
 		 */
 		public FeatureSet withBatchingSupport(boolean batchingSupport) {
-			return (this.hasBatchingSupport == batchingSupport) ? this
-					: new FeatureSet(batchingSupport, this.hasElementIdSupport, this.requiredVersion);
+			return (this.hasBatchingSupport == batchingSupport) ? this : new FeatureSet(batchingSupport,
+					this.hasElementIdSupport, this.hasConcurrentTransactionsSupport, this.requiredVersion);
 		}
 
 		/**
@@ -107,8 +142,23 @@ public interface QueryRunner extends AutoCloseable {
 		 * @return new feature set
 		 */
 		public FeatureSet withElementIdSupport(boolean elementIdSupport) {
-			return (this.hasElementIdSupport == elementIdSupport) ? this
-					: new FeatureSet(this.hasBatchingSupport, elementIdSupport, this.requiredVersion);
+			return (this.hasElementIdSupport == elementIdSupport) ? this : new FeatureSet(this.hasBatchingSupport,
+					elementIdSupport, this.hasConcurrentTransactionsSupport, this.requiredVersion);
+		}
+
+		/**
+		 * Configures support for concurrent transactions. Other than the required
+		 * version, this is an optional feature: A query runner will not fail if the
+		 * database does not support it, but will not report it as available.
+		 * @param concurrentTransactionsSupport set to <code>true</code> for requesting
+		 * concurrent transactions
+		 * @return new feature set
+		 * @since 4.2.0
+		 */
+		public FeatureSet withConcurrentTransactionsSupport(boolean concurrentTransactionsSupport) {
+			return (this.hasConcurrentTransactionsSupport == concurrentTransactionsSupport) ? this
+					: new FeatureSet(this.hasBatchingSupport, this.hasElementIdSupport, concurrentTransactionsSupport,
+							this.requiredVersion);
 		}
 
 		/**
@@ -119,7 +169,8 @@ public interface QueryRunner extends AutoCloseable {
 		public FeatureSet withRequiredVersion(String newRequiredVersion) {
 
 			return Objects.equals(this.requiredVersion, newRequiredVersion) ? this
-					: new FeatureSet(this.hasBatchingSupport, this.hasElementIdSupport, newRequiredVersion);
+					: new FeatureSet(this.hasBatchingSupport, this.hasElementIdSupport,
+							this.hasConcurrentTransactionsSupport, newRequiredVersion);
 		}
 
 	}
@@ -66,4 +66,13 @@ public interface RefactoringContext {
 		return Neo4jVersion.LATEST.sanitizeSchemaName(potentiallyNonIdentifier);
 	}
 
+	/**
+	 * Notifies this context about the progress of a {@link ResumableRefactoring resumable
+	 * refactoring}. The default implementation ignores the progress.
+	 * @param progress the current progress
+	 * @since 4.2.0
+	 */
+	default void onProgress(RefactoringProgress progress) {
+	}
+
 }
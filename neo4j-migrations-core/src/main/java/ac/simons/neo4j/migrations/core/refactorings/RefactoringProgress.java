@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The progress of a {@link ResumableRefactoring resumable refactoring}, reported after
+ * each completed range.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public sealed interface RefactoringProgress permits DefaultRefactoringProgress {
+
+	/**
+	 * {@return the id of the checkpoint that tracks the refactoring}
+	 */
+	String checkpointId();
+
+	/**
+	 * {@return the number of rows processed so far, including previous runs}
+	 */
+	long rowsProcessed();
+
+	/**
+	 * {@return the number of rows processed so far and still to process}
+	 */
+	long rowsTotal();
+
+	/**
+	 * {@return the number of rows processed per second in the current run}
+	 */
+	double rowsPerSecond();
+
+	/**
+	 * {@return the estimated time until all rows are processed, if it can be estimated}
+	 */
+	Optional<Duration> estimatedTimeRemaining();
+
+}
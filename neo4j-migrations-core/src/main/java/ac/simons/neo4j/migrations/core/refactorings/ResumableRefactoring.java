@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+/**
+ * A refactoring that can process its entities in ranges ordered by a key, recording the
+ * last completed range as a checkpoint in the target database. A run that failed or was
+ * interrupted will resume after the last checkpoint when the same refactoring is applied
+ * again. The checkpoint is removed once all ranges have been processed. While running,
+ * the progress is reported via
+ * {@link RefactoringContext#onProgress(RefactoringProgress)}.
+ * <p>
+ * Each range is processed in its own transaction, the size of the ranges is the batch
+ * size of the refactoring if configured. Resumable refactorings cannot be combined with
+ * custom queries, and concurrency as well as adaptive batch sizes are not used.
+ *
+ * @param <T> the type of the refactoring after customization has been applied
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public interface ResumableRefactoring<T extends ResumableRefactoring<T>> extends Refactoring {
+
+	/**
+	 * Creates a new refactoring that processes its entities in ranges ordered by their
+	 * element id. This works without further prerequisites, but ordering by element id
+	 * cannot use an index, so prefer {@link #resumableBy(String)} for very large sets.
+	 * @return a new refactoring
+	 */
+	T resumable();
+
+	/**
+	 * Creates a new refactoring that processes its entities in ranges ordered by the
+	 * given property. The property must be backed by an index and its values must be
+	 * unique, entities without the property will not be processed.
+	 * @param rangeProperty the property defining the order of the ranges
+	 * @return a new refactoring
+	 */
+	T resumableBy(String rangeProperty);
+
+}
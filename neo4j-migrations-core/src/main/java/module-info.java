@@ -44,5 +44,6 @@ module ac.simons.neo4j.migrations.core {
 	provides ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider with
 		ac.simons.neo4j.migrations.core.CypherResourceBasedMigrationProvider,
 		ac.simons.neo4j.migrations.core.DefaultCatalogBasedMigrationProvider;
+	uses ac.simons.neo4j.migrations.core.ChecksumStrategy;
 	uses ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider;
 }
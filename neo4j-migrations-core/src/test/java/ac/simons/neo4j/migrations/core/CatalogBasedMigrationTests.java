@@ -222,13 +222,22 @@ class CatalogBasedMigrationTests {
 						Merge.nodes("MATCH (p:Person) RETURN p ORDER BY p.name ASC", Arrays.asList(
 								Merge.PropertyMergePolicy.of("name", Merge.PropertyMergePolicy.Strategy.KEEP_LAST),
 								Merge.PropertyMergePolicy.of(".*", Merge.PropertyMergePolicy.Strategy.KEEP_FIRST))),
+						Merge
+							.nodesGroupedBy("Person", "email",
+									List.of(Merge.PropertyMergePolicy.of(".*",
+											Merge.PropertyMergePolicy.Strategy.KEEP_FIRST)))
+							.orderedBy("createdAt")
+							.inBatchesOf(500)
+							.inConcurrentTransactions(4),
 						Rename.type("ACTED_IN", "HAT_GESPIELT_IN"), Rename.label("MOVIE", "FILM"),
 						Rename.nodeProperty("released", "veröffentlicht im Jahr"),
 						Rename.relationshipProperty("roles", "rollen"),
 						Rename.type("ACTED_IN", "HAT_GESPIELT_IN")
 							.withCustomQuery(
 									"MATCH (n:Movie) <-[r:ACTED_IN] -() WHERE n.title =~ '.*Matrix.*' RETURN r AS n")
-							.inBatchesOf(23),
+							.inBatchesOf(23)
+							.inConcurrentTransactions(4)
+							.withAdaptiveBatchSize(true),
 						AddSurrogateKey.toNodes("Movie", "Person"),
 						AddSurrogateKey.toNodes("Movie", "Person")
 							.withGeneratorFunction("elementId(%s)")
@@ -247,6 +256,9 @@ class CatalogBasedMigrationTests {
 									Arrays.asList("Das deutsche Kettensägenmassaker", null, null))
 							.withCustomQuery("MATCH (n:Movie) return n")
 							.inBatchesOf(42),
+						Normalize.asBoolean("watched", List.of("y"), List.of("n"))
+							.withLabels("Movie", "Series")
+							.withTypes("REVIEWED"),
 						MigrateBTreeIndexes.createFutureIndexes(),
 						MigrateBTreeIndexes.createFutureIndexes("_future")
 							.withExcludes(Arrays.asList("a", "b"))
@@ -339,6 +351,7 @@ class CatalogBasedMigrationTests {
 				no-anything-1,: The rename refactoring requires `from` and `to` parameters
 				no-anything-2,: No `from` parameter
 				invalid-batch-size,: Invalid value `foobar` for parameter `batchSize`
+				invalid-concurrency,: Invalid value `many` for parameter `concurrency`
 				""")
 		void brokenRenames(String id, String message) {
 			Node refactoring = getElementById("rename-" + id);
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import ac.simons.neo4j.migrations.test_resources.TestResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.w3c.dom.Document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Michael J. Simons
+ */
+class CatalogChecksumTests {
+
+	static Stream<String> catalogBasedMigrations() throws IOException, URISyntaxException {
+
+		URL url = Objects.requireNonNull(TestResources.class.getResource("/catalogbased/parsing/full-example.xml"));
+		var uri = url.toURI();
+		if ("jar".equals(uri.getScheme())) {
+			FileSystems.newFileSystem(uri, Map.of());
+		}
+		var root = Path.of(uri).getParent().getParent();
+		try (var files = Files.walk(root)) {
+			List<String> names = files.filter(p -> p.toString().endsWith(".xml"))
+				.map(p -> root.relativize(p).toString())
+				.sorted()
+				.toList();
+			assertThat(names).hasSizeGreaterThan(30);
+			return names.stream();
+		}
+	}
+
+	private static Document parse(String name) {
+		URL url = Objects.requireNonNull(TestResources.class.getResource("/catalogbased/" + name));
+		return CatalogBasedMigration.parseDocument(ResourceContext.of(url));
+	}
+
+	private static Document parseWithoutValidation(String xml) throws Exception {
+		var factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		var document = factory.newDocumentBuilder()
+			.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+		document.normalizeDocument();
+		return document;
+	}
+
+	@ParameterizedTest
+	@MethodSource("catalogBasedMigrations")
+	void shouldBeIdenticalToLegacyChecksums(String name) {
+
+		Document document;
+		try {
+			document = parse(name);
+		}
+		catch (MigrationsException ex) {
+			// Invalid on purpose
+			return;
+		}
+		assertThat(CatalogChecksum.canonicalize(document, new StringBuilder())).isTrue();
+		for (ChecksumStrategy strategy : List.of(ChecksumStrategy.crc32(), ChecksumStrategy.xxHash64())) {
+			assertThat(CatalogChecksum.of(document, strategy)).isEqualTo(CatalogChecksum.legacy(parse(name), strategy));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"<migration xmlns=\"urn:x\"><catalog reset=\"true\"><indexes><index a=\"1\"/></indexes><constraints z=\"&amp;&lt;&gt;&quot;\" b=\"2\"><!-- no --><c>  a &amp; b\n   &lt;c&gt; \"d\"\r\n  </c></constraints></catalog><?pi x?><x><![CDATA[ <y> ]]>text</x></migration>",
+			"<migration xmlns=\"urn:x\">\n\t<verify/>\n\t<refactor type=\"rename.label\"><parameters><parameter name=\"from\">A</parameter></parameters></refactor>\n</migration>",
+			"<migration xmlns=\"urn:x\"><x> </x><y>  \n  </y></migration>" })
+	void shouldEscapeLikeCanonicalXml(String xml) throws Exception {
+
+		var document = parseWithoutValidation(xml);
+		assertThat(CatalogChecksum.canonicalize(document, new StringBuilder())).isTrue();
+		assertThat(CatalogChecksum.of(document, ChecksumStrategy.crc32()))
+			.isEqualTo(CatalogChecksum.legacy(parseWithoutValidation(xml), ChecksumStrategy.crc32()));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "<m:migration xmlns:m=\"urn:x\"><m:verify/></m:migration>",
+			"<migration xmlns=\"urn:x\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"><verify/></migration>",
+			"<migration><verify/></migration>",
+			"<migration xmlns=\"urn:x\"><catalog/><catalog><indexes/></catalog></migration>",
+			"<migration xmlns=\"urn:x\"><indexes/></migration>" })
+	void shouldFallbackForUnusualDocuments(String xml) throws Exception {
+
+		var document = parseWithoutValidation(xml);
+		assertThat(CatalogChecksum.canonicalize(document, new StringBuilder())).isFalse();
+		assertThat(CatalogChecksum.of(document, ChecksumStrategy.crc32()))
+			.isEqualTo(CatalogChecksum.legacy(parseWithoutValidation(xml), ChecksumStrategy.crc32()));
+	}
+
+	@Test
+	void shouldNotModifyTheDocument() {
+
+		var document = parse("identical-migrations/V01__01.xml");
+		var catalog = document.getElementsByTagNameNS("*", "catalog").item(0);
+		CatalogChecksum.of(document, ChecksumStrategy.crc32());
+		assertThat(catalog.getParentNode()).isSameAs(document.getDocumentElement());
+		assertThat(document.getElementsByTagNameNS("*", "catalog").item(0)).isSameAs(catalog);
+	}
+
+}
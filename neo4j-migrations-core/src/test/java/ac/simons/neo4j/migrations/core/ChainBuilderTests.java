@@ -15,13 +15,23 @@
  */
 package ac.simons.neo4j.migrations.core;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import ac.simons.neo4j.migrations.core.MigrationChain.ChainBuilderMode;
 import ac.simons.neo4j.migrations.test_resources.TestResources;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Michael J. Simons
@@ -42,4 +52,83 @@ class ChainBuilderTests {
 		assertThat(ChainBuilder.matches(Optional.of("foobar"), cypherBasedMigration)).isTrue();
 	}
 
+	private static Migration migration(String version) {
+		var migration = mock(JavaBasedMigration.class);
+		given(migration.getVersion()).willReturn(MigrationVersion.withValue(version));
+		given(migration.getSource()).willReturn("V" + version + "__Java");
+		return migration;
+	}
+
+	private static ChainBuilder.AppliedMigrations applied(int numberOfAppliedMigrations, Migration... migrations) {
+		return new ChainBuilder.AppliedMigrations(Optional.empty(),
+				Arrays.stream(migrations)
+					.map(m -> Map.entry(m.getVersion(), DefaultMigrationChainElement.compactedElement(m)))
+					.toList(),
+				numberOfAppliedMigrations);
+	}
+
+	private static MigrationContext context(boolean outOfOrder) {
+		var context = mock(MigrationContext.class);
+		given(context.getConfig()).willReturn(MigrationsConfig.builder().withOutOfOrderAllowed(outOfOrder).build());
+		given(context.getConnectionDetails())
+			.willReturn(ConnectionDetails.of("n/a", "2026.05.0", "Enterprise", "msimons", null, null));
+		return context;
+	}
+
+	@Test
+	void chainsShouldBeBuiltFromSharedAppliedMigrations() {
+
+		var v1 = migration("1");
+		var v2 = migration("2");
+		var v3 = migration("3");
+		var v4 = migration("4");
+		var appliedMigrations = applied(3, v1, v3, v4);
+		var context = context(true);
+
+		var chainBuilder = new ChainBuilder();
+		var chain = chainBuilder.buildChain(context, List.of(v1, v2, v3, v4), false, ChainBuilderMode.COMPARE,
+				appliedMigrations);
+		assertThat(chain.getElements()).extracting(MigrationChain.Element::getState)
+			.containsExactly(MigrationState.APPLIED, MigrationState.PENDING, MigrationState.APPLIED,
+					MigrationState.APPLIED);
+
+		var remoteChain = chainBuilder.buildChain(context, List.of(v1, v2, v3, v4), false, ChainBuilderMode.REMOTE,
+				appliedMigrations);
+		assertThat(remoteChain.getElements()).extracting(MigrationChain.Element::getVersion)
+			.containsExactly("1", "3", "4");
+
+		verify(context, never()).getSchemaSession();
+		verify(context, never()).getSchemaSession(any());
+	}
+
+	@Test
+	void numberOfAppliedMigrationsShouldBeUsedOnMismatch() {
+
+		var v1 = migration("1");
+		var v2 = migration("2");
+		var v3 = migration("3");
+		var context = context(true);
+
+		var chainBuilder = new ChainBuilder();
+		var discoveredMigrations = List.of(v1, v2);
+		var appliedMigrations = applied(3, v1, v3);
+		assertThatExceptionOfType(MigrationsException.class)
+			.isThrownBy(() -> chainBuilder.buildChain(context, discoveredMigrations, false, ChainBuilderMode.COMPARE,
+					appliedMigrations))
+			.withMessage("More migrations have been applied to the database than locally resolved.")
+			.withCauseInstanceOf(IndexOutOfBoundsException.class);
+		verify(context, never()).getSchemaSession();
+		verify(context, never()).getSchemaSession(any());
+	}
+
+	@Test
+	void duplicatesShouldOnlyFailWhenVerifying() {
+
+		var v1 = migration("1");
+		var appliedMigrations = applied(2, v1, v1);
+
+		assertThat(appliedMigrations.toMap(false)).containsOnlyKeys(v1.getVersion());
+		assertThatExceptionOfType(DuplicateMigrationsException.class).isThrownBy(() -> appliedMigrations.toMap(true));
+	}
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.types.Node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class ChainCompactionTests {
+
+	private static List<Migration> migrations(int n) {
+		return IntStream.rangeClosed(1, n).mapToObj(i -> migration(Integer.toString(i), "c" + i)).toList();
+	}
+
+	private static Migration migration(String version, String checksum) {
+		var migration = mock(AbstractCypherBasedMigration.class);
+		given(migration.getVersion()).willReturn(MigrationVersion.withValue(version));
+		given(migration.getChecksum()).willReturn(Optional.of(checksum));
+		return migration;
+	}
+
+	@Test
+	void shouldReadCompactionFromBaseline() {
+
+		var baseline = mock(Node.class);
+		given(baseline.containsKey(ChainCompaction.PROPERTY_VERSION)).willReturn(true);
+		given(baseline.get(ChainCompaction.PROPERTY_VERSION)).willReturn(Values.value("3"));
+		given(baseline.get(ChainCompaction.PROPERTY_CHECKSUM)).willReturn(Values.value("4711"));
+		given(baseline.get(ChainCompaction.PROPERTY_MIGRATIONS)).willReturn(Values.value(3));
+
+		assertThat(ChainCompaction.of(baseline)).hasValue(new ChainCompaction("3", "4711", 3));
+	}
+
+	@Test
+	void uncompactedBaselineShouldNotHaveCompaction() {
+
+		var baseline = mock(Node.class);
+		given(baseline.asMap()).willReturn(Map.of("version", "BASELINE"));
+
+		assertThat(ChainCompaction.of(baseline)).isEmpty();
+	}
+
+	@Test
+	void checksumShouldDependOnVersionsAndChecksums() {
+
+		var checksum = ChainCompaction.checksum(migrations(3));
+		assertThat(ChainCompaction.checksum(migrations(3))).isEqualTo(checksum);
+		assertThat(ChainCompaction.checksum(migrations(2))).isNotEqualTo(checksum);
+		assertThat(ChainCompaction.checksum(List.of(migration("1", "c1"), migration("2", "c2"), migration("3", "x"))))
+			.isNotEqualTo(checksum);
+	}
+
+	@Test
+	void verifyShouldReturnNumberOfCompactedMigrations() {
+
+		var compaction = new ChainCompaction("2", ChainCompaction.checksum(migrations(2)), 2);
+		assertThat(compaction.verify(migrations(4), true)).isEqualTo(2);
+	}
+
+	@Test
+	void verifyShouldDetectMissingMigrations() {
+
+		var compaction = new ChainCompaction("3", ChainCompaction.checksum(migrations(3)), 3);
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> compaction.verify(migrations(2), true))
+			.withMessage("More migrations have been compacted in the database than locally resolved.");
+	}
+
+	@Test
+	void verifyShouldDetectUnexpectedMigrations() {
+
+		var compaction = new ChainCompaction("3", ChainCompaction.checksum(migrations(3)), 3);
+		var discovered = List.of(migration("1", "c1"), migration("2", "c2"), migration("2.5", "c2.5"),
+				migration("3", "c3"));
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> compaction.verify(discovered, true))
+			.withMessageStartingWith("Unexpected migration at index 2: ")
+			.withMessageEndingWith(", the chain has been compacted up to version 3.");
+	}
+
+	@Test
+	void verifyShouldDetectChangedChecksums() {
+
+		var compaction = new ChainCompaction("2", ChainCompaction.checksum(migrations(2)), 2);
+		var discovered = List.of(migration("1", "c1"), migration("2", "changed"), migration("3", "c3"));
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> compaction.verify(discovered, true))
+			.withMessage("Checksum of the migrations compacted up to version 2 changed!");
+		assertThat(compaction.verify(discovered, false)).isEqualTo(2);
+	}
+
+}
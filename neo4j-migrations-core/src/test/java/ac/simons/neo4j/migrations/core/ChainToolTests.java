@@ -40,6 +40,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.platform.commons.util.ReflectionUtils;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
@@ -132,6 +133,7 @@ final class ChainToolTests {
 		given(context.getConnectionDetails())
 			.willReturn(ConnectionDetails.of("n/a", "2026.05.0", "Enterprise", "msimons", null, null));
 		given(context.getSchemaSession()).willReturn(session);
+		given(context.getSchemaSession(AccessMode.READ)).willReturn(session);
 		return context;
 	}
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Michael J. Simons
+ */
+class ChecksumStrategyTests {
+
+	private static long xxHash64(byte[] bytes) {
+		var checksum = ChecksumStrategy.xxHash64().newChecksum();
+		checksum.update(bytes, 0, bytes.length);
+		return checksum.getValue();
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', textBlock = """
+			|ef46db3751d8e999
+			a|d24ec4f1a98c6e5b
+			abc|44bc2cf5ad770999
+			Nobody inspects the spammish repetition|fbcea83c8a378bf1
+			""")
+	void xxHash64ShouldBeCorrect(String input, String expected) {
+
+		var bytes = ((input != null) ? input : "").getBytes(StandardCharsets.UTF_8);
+		assertThat(Long.toHexString(xxHash64(bytes))).isEqualTo(expected);
+	}
+
+	@Test
+	void xxHash64ShouldBeStreamable() {
+
+		var bytes = new byte[1031];
+		for (int i = 0; i < bytes.length; ++i) {
+			bytes[i] = (byte) (i * 31);
+		}
+		var expected = xxHash64(bytes);
+
+		for (int chunkSize : new int[] { 1, 3, 7, 31, 32, 33, 100 }) {
+			var checksum = ChecksumStrategy.xxHash64().newChecksum();
+			for (int i = 0; i < bytes.length; i += chunkSize) {
+				checksum.update(bytes, i, Math.min(chunkSize, bytes.length - i));
+			}
+			assertThat(checksum.getValue()).isEqualTo(expected);
+			checksum.reset();
+			checksum.update(bytes, 0, bytes.length);
+			assertThat(checksum.getValue()).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void xxHash64ShouldAcceptSingleBytes() {
+
+		var bytes = new byte[1031];
+		for (int i = 0; i < bytes.length; ++i) {
+			bytes[i] = (byte) (i * 31);
+		}
+		var expected = xxHash64(bytes);
+
+		var checksum = ChecksumStrategy.xxHash64().newChecksum();
+		checksum.update(bytes, 0, 5);
+		for (int i = 5; i < bytes.length - 40; ++i) {
+			checksum.update(bytes[i]);
+		}
+		checksum.update(bytes, bytes.length - 40, 40);
+		assertThat(checksum.getValue()).isEqualTo(expected);
+	}
+
+	@Test
+	void crc32cShouldUseJdkImplementation() {
+
+		var bytes = "MATCH (n) RETURN n".getBytes(StandardCharsets.UTF_8);
+		var expected = new CRC32C();
+		expected.update(bytes);
+
+		var checksum = ChecksumStrategy.crc32c().newChecksum();
+		checksum.update(bytes);
+		assertThat(checksum.getValue()).isEqualTo(expected.getValue());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "crc32", "CRC32C", "xxHash64" })
+	void shouldFindBuiltInStrategies(String name) {
+
+		assertThat(ChecksumStrategy.of(name).getName()).isEqualToIgnoringCase(name);
+	}
+
+	@Test
+	void shouldFailOnUnknownStrategies() {
+
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> ChecksumStrategy.of("md5"))
+			.withMessage("Unknown checksum strategy 'md5'");
+	}
+
+	@Test
+	void formatShouldBeUnsigned() {
+
+		assertThat(ChecksumStrategy.xxHash64().format(-1L)).isEqualTo("18446744073709551615");
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Michael J. Simons
+ */
+class ChecksumsTests {
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * The way checksums have been computed before, reading line by line.
+	 */
+	private static String flywayCompatibleChecksumOfLines(byte[] content) throws IOException {
+
+		var crc32 = new CRC32();
+		try (var reader = new BufferedReader(
+				new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			if (line != null) {
+				if (!line.isEmpty() && line.charAt(0) == '﻿') {
+					line = line.substring(1);
+				}
+				do {
+					crc32.update(line.getBytes(StandardCharsets.UTF_8));
+				}
+				while ((line = reader.readLine()) != null);
+			}
+		}
+		return Integer.toString((int) crc32.getValue());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "MATCH (n) RETURN n", "MATCH (n)\nRETURN n;\n", "MATCH (n)\r\nRETURN n;\r\n",
+			"MATCH (n)\rRETURN n;\r", "﻿MATCH (n)\nRETURN n", "\n\n\r\n", "CREATE (n:Ümläut {name: '😀'})\n",
+			"MATCH (n:`﻿`) RETURN n" })
+	void shouldBeCompatibleWithLineBasedChecksums(String content) throws IOException {
+
+		var bytes = content.getBytes(StandardCharsets.UTF_8);
+		var expected = flywayCompatibleChecksumOfLines(bytes);
+
+		var file = Files.write(this.dir.resolve("V1__test.cypher"), bytes);
+		assertThat(Checksums.flywayCompatible(file)).hasValue(expected);
+		assertThat(Checksums.flywayCompatible(new ByteArrayInputStream(bytes))).hasValue(expected);
+	}
+
+	@Test
+	void shouldDetectMalformedInput() throws IOException {
+
+		for (var bytes : List.of(new byte[] { 'a', (byte) 0xC3 }, new byte[] { 'a', (byte) 0xC3, '\n', (byte) 0xA4 },
+				new byte[] { (byte) 0xED, (byte) 0xA0, (byte) 0x80 }, new byte[] { (byte) 0xFF })) {
+			assertThat(Checksums.flywayCompatible(new ByteArrayInputStream(bytes))).isEmpty();
+		}
+	}
+
+	@Test
+	void shouldComputeLegacyChecksumInSamePass() {
+
+		var statements = List.of("MATCH (n) RETURN n", "CREATE (n)");
+
+		var crc32 = Checksums.of(ChecksumStrategy.crc32(), statements);
+		assertThat(crc32.legacyValue()).isEmpty();
+
+		var xxHash64 = Checksums.of(ChecksumStrategy.xxHash64(), statements);
+		assertThat(xxHash64.value()).isNotEqualTo(crc32.value());
+		assertThat(xxHash64.legacyValue()).hasValue(crc32.value());
+		assertThat(crc32.value()).isEqualTo(DefaultCypherResource.computeChecksum(statements));
+	}
+
+}
@@ -123,4 +123,28 @@ class CleanIT extends TestBase {
 		assertThat(numConstraints()).isZero();
 	}
 
+	@Test
+	void refactoringCheckpointsShouldOnlyBeCleanedWithAll() {
+
+		try (Session session = this.driver.session()) {
+			session.run("CREATE (:__Neo4jRefactoringCheckpoint {id: 'x', last: 23, rows: 42})").consume();
+		}
+
+		Migrations migrations;
+		migrations = new Migrations(MigrationsConfig.builder().withSchemaDatabase("neo4j").build(), this.driver);
+
+		assertThat(migrations.clean(false).getNodesDeleted()).isEqualTo(2);
+		assertThat(numCheckpoints()).isOne();
+
+		CleanResult cleanResult = migrations.clean(true);
+		assertThat(cleanResult.getNodesDeleted()).isEqualTo(6);
+		assertThat(numCheckpoints()).isZero();
+	}
+
+	private int numCheckpoints() {
+		try (Session session = this.driver.session()) {
+			return session.run("MATCH (c:__Neo4jRefactoringCheckpoint) RETURN count(c)").single().get(0).asInt();
+		}
+	}
+
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.TransactionContext;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.exceptions.TransientException;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Michael J. Simons
+ */
+class DataMigrationPipelineTests {
+
+	private static final String READ_QUERY = "MATCH (n:Person) WHERE $lastKey IS NULL OR n.id > $lastKey RETURN n.id AS key, n.name AS name ORDER BY key LIMIT $pageSize";
+
+	private static final String WRITE_QUERY = "UNWIND $rows AS row MATCH (n:Person {id: row.key}) SET n.name = row.name";
+
+	private final List<Map<String, Object>> readParameters = new ArrayList<>();
+
+	private final List<Map<String, Object>> writtenRows = new ArrayList<>();
+
+	private static Record row(int key, String name) {
+		var record = mock(Record.class);
+		given(record.get("key")).willReturn(Values.value(key));
+		given(record.asMap()).willReturn(Map.of("key", key, "name", name));
+		return record;
+	}
+
+	private static Result writeResult(int propertiesSet) {
+		var counters = mock(SummaryCounters.class);
+		given(counters.propertiesSet()).willReturn(propertiesSet);
+		var summary = mock(ResultSummary.class);
+		given(summary.counters()).willReturn(counters);
+		var result = mock(Result.class);
+		given(result.consume()).willReturn(summary);
+		return result;
+	}
+
+	private Session reader(List<List<Record>> pages) {
+
+		var remainingPages = new ArrayList<>(pages);
+		var tx = mock(TransactionContext.class);
+		given(tx.run(eq(READ_QUERY), anyMap())).willAnswer(invocation -> {
+			this.readParameters.add(new HashMap<>(invocation.<Map<String, Object>>getArgument(1)));
+			var result = mock(Result.class);
+			given(result.list()).willReturn(remainingPages.isEmpty() ? List.of() : remainingPages.remove(0));
+			return result;
+		});
+		var session = mock(Session.class);
+		given(session.executeRead(any())).willAnswer(invocation -> {
+			TransactionCallback<?> callback = invocation.getArgument(0);
+			return callback.execute(tx);
+		});
+		return session;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Transaction writeTransaction(RuntimeException... failures) {
+
+		var tx = mock(Transaction.class);
+		var remainingFailures = new ArrayList<>(List.of(failures));
+		given(tx.run(eq(WRITE_QUERY), anyMap())).willAnswer(invocation -> {
+			if (!remainingFailures.isEmpty()) {
+				throw remainingFailures.remove(0);
+			}
+			Map<String, Object> parameters = invocation.getArgument(1);
+			var rows = (List<Map<String, Object>>) parameters.get("rows");
+			synchronized (this.writtenRows) {
+				this.writtenRows.addAll(rows);
+			}
+			return writeResult(rows.size());
+		});
+		return tx;
+	}
+
+	private static MigrationContext context(Session reader, Session... writers) {
+		var context = mock(MigrationContext.class);
+		given(context.getSession()).willReturn(reader, writers);
+		return context;
+	}
+
+	@Test
+	void shouldReadTransformAndWritePages() {
+
+		var reader = reader(List.of(List.of(row(1, "a"), row(2, "b")), List.of(row(3, "c"))));
+		var writer = mock(Session.class);
+		var tx = writeTransaction();
+		given(writer.beginTransaction()).willReturn(tx);
+
+		var counters = DataMigrationPipeline.of(context(reader, writer), READ_QUERY, WRITE_QUERY)
+			.withPageSize(2)
+			.withTransformation(row -> ((int) row.get("key") == 2) ? null
+					: Map.of("key", row.get("key"), "name", ((String) row.get("name")).toUpperCase()))
+			.run();
+
+		assertThat(counters.propertiesSet()).isEqualTo(2);
+		assertThat(this.writtenRows).containsExactly(Map.of("key", 1, "name", "A"), Map.of("key", 3, "name", "C"));
+		assertThat(this.readParameters).hasSize(2);
+		assertThat(this.readParameters.get(0)).containsEntry("lastKey", null).containsEntry("pageSize", 2);
+		assertThat(this.readParameters.get(1)).containsEntry("lastKey", 2L);
+		verify(tx, times(2)).commit();
+		verify(reader).close();
+		verify(writer).close();
+	}
+
+	@Test
+	void shouldStopAfterAnEmptyPage() {
+
+		var reader = reader(List.of(List.of(row(1, "a"), row(2, "b"))));
+		var writer = mock(Session.class);
+		var tx = writeTransaction();
+		given(writer.beginTransaction()).willReturn(tx);
+
+		var counters = DataMigrationPipeline.of(context(reader, writer), READ_QUERY, WRITE_QUERY).withPageSize(2).run();
+
+		assertThat(counters.propertiesSet()).isEqualTo(2);
+		assertThat(this.readParameters).hasSize(2);
+	}
+
+	@Test
+	void shouldRetryRetryableErrors() {
+
+		var reader = reader(List.of(List.of(row(1, "a"))));
+		var writer = mock(Session.class);
+		var tx = writeTransaction(new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "Oops"));
+		given(writer.beginTransaction()).willReturn(tx);
+
+		var counters = DataMigrationPipeline.of(context(reader, writer), READ_QUERY, WRITE_QUERY).run();
+
+		assertThat(counters.propertiesSet()).isEqualTo(1);
+		verify(writer, times(2)).beginTransaction();
+		verify(tx).commit();
+	}
+
+	@Test
+	void shouldFailAfterTooManyRetries() {
+
+		var reader = reader(List.of(List.of(row(1, "a"))));
+		var writer = mock(Session.class);
+		var tx = writeTransaction(new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "1"),
+				new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "2"));
+		given(writer.beginTransaction()).willReturn(tx);
+
+		var pipeline = DataMigrationPipeline.of(context(reader, writer), READ_QUERY, WRITE_QUERY).withMaxRetries(1);
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(pipeline::run)
+			.withMessage("Could not write a page of the data migration pipeline")
+			.withCauseInstanceOf(TransientException.class);
+		verify(writer, times(2)).beginTransaction();
+		verify(writer).close();
+	}
+
+	@Test
+	void shouldNotRetryOtherErrors() {
+
+		var reader = reader(List.of(List.of(row(1, "a"))));
+		var writer = mock(Session.class);
+		var tx = writeTransaction(new ClientException("Neo.ClientError.Statement.SyntaxError", "Nope"));
+		given(writer.beginTransaction()).willReturn(tx);
+
+		var pipeline = DataMigrationPipeline.of(context(reader, writer), READ_QUERY, WRITE_QUERY);
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(pipeline::run)
+			.withCauseInstanceOf(ClientException.class);
+		verify(writer).beginTransaction();
+	}
+
+	@Test
+	void shouldUseOneSessionPerWorker() {
+
+		var reader = reader(
+				List.of(List.of(row(1, "a")), List.of(row(2, "b")), List.of(row(3, "c")), List.of(row(4, "d"))));
+		var writers = new Session[] { mock(Session.class), mock(Session.class) };
+		for (Session writer : writers) {
+			var tx = writeTransaction();
+			given(writer.beginTransaction()).willReturn(tx);
+		}
+
+		var counters = DataMigrationPipeline.of(context(reader, writers), READ_QUERY, WRITE_QUERY)
+			.withPageSize(1)
+			.withWorkers(2)
+			.withMaxPendingPages(1)
+			.run();
+
+		assertThat(counters.propertiesSet()).isEqualTo(4);
+		assertThat(this.writtenRows).hasSize(4);
+		verify(reader).close();
+	}
+
+	@Test
+	void shouldWriteRowsFromAnIterator() {
+
+		var writer = mock(Session.class);
+		var tx = mock(Transaction.class);
+		var writeParameters = new ArrayList<Map<String, Object>>();
+		given(tx.run(eq(WRITE_QUERY), anyMap())).willAnswer(invocation -> {
+			writeParameters.add(invocation.getArgument(1));
+			return writeResult(1);
+		});
+		given(writer.beginTransaction()).willReturn(tx);
+		var context = mock(MigrationContext.class);
+		given(context.getSession()).willReturn(writer);
+
+		List<Map<String, Object>> rows = List.of(Map.of("key", 1), Map.of("key", 2), Map.of("key", 3));
+		var counters = DataMigrationPipeline.of(context, rows.iterator(), WRITE_QUERY)
+			.withParameters(Map.of("source", "test"))
+			.withPageSize(2)
+			.run();
+
+		assertThat(counters.propertiesSet()).isEqualTo(2);
+		assertThat(writeParameters).containsExactly(Map.of("source", "test", "rows", rows.subList(0, 2)),
+				Map.of("source", "test", "rows", rows.subList(2, 3)));
+		verify(context).getSession();
+	}
+
+	@Test
+	void shouldValidateConfiguration() {
+
+		var pipeline = DataMigrationPipeline.of(mock(MigrationContext.class), READ_QUERY, WRITE_QUERY);
+		assertThatIllegalArgumentException().isThrownBy(() -> pipeline.withPageSize(0))
+			.withMessage("The page size must be greater than 0");
+		assertThatIllegalArgumentException().isThrownBy(() -> pipeline.withWorkers(-1))
+			.withMessage("The number of workers must be greater than 0");
+		assertThatIllegalArgumentException().isThrownBy(() -> pipeline.withMaxRetries(-1))
+			.withMessage("The number of retries must not be negative");
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> DataMigrationPipeline.of(mock(MigrationContext.class), " ", WRITE_QUERY))
+			.withMessage("Both the read and the write query are required");
+		assertThatIllegalArgumentException().isThrownBy(() -> pipeline.withParameters(Map.of("rows", List.of())))
+			.withMessage("The parameter `rows` is reserved for the rows of a page");
+	}
+
+}
@@ -225,4 +225,53 @@ class DefaultCatalogTests {
 					this.c1v1.getName().getValue(), v1.getValue());
 	}
 
+	@Test
+	void shouldNotAddAnythingOnDuplicateVersion() {
+
+		DefaultCatalog catalog = new DefaultCatalog(MigrationsConfig.defaultConfig().getVersionComparator());
+
+		MigrationVersion v1 = MigrationVersion.withValue("1");
+		catalog.addAll(v1, this.catalog1, false);
+		Catalog catalog3 = () -> Arrays.asList(this.c2v1, this.c1v2);
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> catalog.addAll(v1, catalog3, false));
+
+		assertThat(catalog.getItems()).containsExactly(this.c1v1);
+	}
+
+	@Test
+	void versionsAddedOutOfOrderShouldWork() {
+
+		MigrationVersion v1 = MigrationVersion.withValue("1");
+		MigrationVersion v2 = MigrationVersion.withValue("2");
+		MigrationVersion v3 = MigrationVersion.withValue("3");
+
+		DefaultCatalog catalog = new DefaultCatalog(MigrationsConfig.defaultConfig().getVersionComparator());
+		catalog.addAll(v3, Collections::emptyList, true);
+		catalog.addAll(v2, this.catalog2, false);
+		catalog.addAll(v1, this.catalog1, false);
+
+		assertThat(catalog.getItems()).isEmpty();
+		assertThat(catalog.getItems(v1)).containsExactly(this.c1v1);
+		assertThat(catalog.getItems(v2)).containsExactly(this.c1v2, this.c2v1);
+		assertThat(catalog.getItemPriorTo(Name.of("cv1"), v2)).hasValue(this.c1v1);
+		assertThat(catalog.getItemPriorTo(Name.of("cv1"), v3)).hasValue(this.c1v2);
+		assertThat(catalog.getItem(Name.of("cv1"), v3)).isEmpty();
+	}
+
+	@Test
+	void snapshotsShouldBeStable() {
+
+		MigrationVersion v1 = MigrationVersion.withValue("1");
+
+		DefaultCatalog catalog = new DefaultCatalog(MigrationsConfig.defaultConfig().getVersionComparator());
+		catalog.addAll(v1, this.catalog1, false);
+		var items = catalog.getItems(v1);
+		catalog.addAll(MigrationVersion.withValue("2"), this.catalog2, false);
+
+		assertThat(items).containsExactly(this.c1v1);
+		assertThat(catalog.getCatalogAt(v1)).isSameAs(catalog.getCatalogAt(v1));
+		assertThat(catalog.getCatalogPriorTo(v1).isEmpty()).isTrue();
+		assertThat(catalog.getItem(null, v1)).isEmpty();
+	}
+
 }
@@ -16,9 +16,12 @@
 package ac.simons.neo4j.migrations.core;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import ac.simons.neo4j.migrations.test_resources.TestResources;
 import org.assertj.core.data.Index;
@@ -26,9 +29,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentMatchers;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.TransactionContext;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Michael J. Simons
@@ -207,6 +230,24 @@ class DefaultCypherResourceTests {
 		assertThat(migrationWithAssumptions.getAlternativeChecksums()).contains("1995107586");
 	}
 
+	@Test
+	void alternateChecksumsShouldContainLegacyChecksum() {
+
+		var config = MigrationsConfig.builder().withChecksumStrategy(ChecksumStrategy.xxHash64()).build();
+
+		URL script1 = DefaultCypherResourceTests.class.getResource("/parsing/V01__without_assumption.cypher");
+		CypherBasedMigration migrationWithoutAssumptions = new CypherBasedMigration(
+				ResourceContext.of(script1, config));
+		assertThat(migrationWithoutAssumptions.getChecksum()).isPresent().get().isNotEqualTo("1995107586");
+		assertThat(migrationWithoutAssumptions.getAlternativeChecksums()).containsExactly("1995107586");
+
+		URL script2 = DefaultCypherResourceTests.class.getResource("/parsing/V01__with_assumption.cypher");
+		CypherBasedMigration migrationWithAssumptions = new CypherBasedMigration(ResourceContext.of(script2, config));
+		assertThat(migrationWithAssumptions.getChecksum()).isPresent().get().isNotEqualTo("2044432884");
+		assertThat(migrationWithAssumptions.getAlternativeChecksums()).contains("2044432884", "1995107586")
+			.contains(migrationWithoutAssumptions.getChecksum().orElseThrow());
+	}
+
 	@SuppressWarnings("deprecation")
 	@Test
 	void shouldParseDescription() {
@@ -445,6 +486,343 @@ class DefaultCypherResourceTests {
 		assertThat(resolved).isEqualTo("CREATE (n:`Person` {env: 'prod', host: 'localhost'}) RETURN n");
 	}
 
+	@Test
+	void statementDescriptorsShouldBeAnalysedOnce() {
+		DefaultCypherResource cypherResource = (DefaultCypherResource) CypherResource.of(ResourceContext
+			.of(DefaultCypherResourceTests.class.getResource("/parsing/with_use_statements.cypher")));
+
+		var descriptors = cypherResource.getStatementDescriptors();
+		assertThat(cypherResource.getStatementDescriptors()).isSameAs(descriptors);
+		assertThat(descriptors).map(DefaultCypherResource.StatementDescriptor::statement)
+			.containsExactlyElementsOf(cypherResource.getStatements());
+		assertThat(descriptors).filteredOn(DefaultCypherResource.StatementDescriptor::executable)
+			.map(DefaultCypherResource.StatementDescriptor::statement)
+			.containsExactlyElementsOf(cypherResource.getExecutableStatements());
+		assertThat(descriptors).filteredOn(d -> d.database().isPresent())
+			.map(d -> d.database().orElseThrow())
+			.containsExactly("system", "neo4j", "system");
+	}
+
+	@Test
+	void statementDescriptorsShouldDeferInvalidStatements() {
+
+		var descriptor = DefaultCypherResource.StatementDescriptor
+			.of("MATCH (n) CALL {blub} IN concurrently TRANSACTIONS RETURN n");
+		assertThat(descriptor.executable()).isTrue();
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(descriptor::transactionMode)
+			.withMessageStartingWith("Invalid statement: ");
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|',
+			textBlock = """
+					MATCH (n:`${nm:label}`) RETURN n|MANAGED|MATCH (n:`Person`) RETURN n
+					MATCH (n) CALL (n) { SET n.x = '${nm:label}' } IN TRANSACTIONS|IMPLICIT|MATCH (n) CALL (n) { SET n.x = 'Person' } IN TRANSACTIONS
+					RETURN '${nm:invalid name}'|MANAGED|RETURN '${nm:invalid name}'
+					""")
+	void statementDescriptorsShouldCacheTransactionModeAndPlaceholders(String statement, String transactionMode,
+			String expected) {
+
+		var descriptor = DefaultCypherResource.StatementDescriptor.of(statement);
+		assertThat(descriptor.database()).isEmpty();
+		assertThat(descriptor.transactionMode())
+			.isEqualTo(DefaultCypherResource.TransactionMode.valueOf(transactionMode));
+		assertThat(descriptor.resolvePlaceholders(Map.of("label", "Person"))).isEqualTo(expected);
+	}
+
+	@ParameterizedTest
+	@CsvSource(textBlock = """
+			3,0,'3,3,1'
+			100,0,'7'
+			100,63,'3,3,1'
+			100,62,'2,2,2,1'
+			1,0,'1,1,1,1,1,1,1'
+			2,15,'1,1,1,1,1,1,1'
+			""")
+	void shouldGroupStatementsIntoTransactions(int statementsPerTransaction, long maxBytesPerTransaction,
+			String expectedSizes) {
+
+		var cypherResource = CypherResource.withContent("""
+				CREATE (n:A) RETURN n;
+				CREATE (n:B) RETURN n;
+				CREATE (n:C) RETURN n;
+				CREATE (n:D) RETURN n;
+				CREATE (n:E) RETURN n;
+				CREATE (n:F) RETURN n;
+				CREATE (n:G) RETURN n;
+				""").identifiedBy("V1__chunks.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_N_STATEMENTS)
+			.withStatementsPerTransaction(statementsPerTransaction)
+			.withMaxBytesPerTransaction(maxBytesPerTransaction)
+			.build();
+
+		var transactionSizes = new ArrayList<Integer>();
+		var session = mockSession(transactionSizes);
+		DefaultCypherResource.executeIn(cypherResource, mockContext(config, session), UnaryOperator.identity());
+
+		assertThat(transactionSizes).map(String::valueOf).containsExactly(expectedSizes.split(","));
+		verify(session, never()).run(anyString());
+	}
+
+	@Test
+	void placeholdersShouldBeResolvedBeforeSwitchingDatabases() {
+
+		var cypherResource = CypherResource.withContent("""
+				:use ${nm:db};
+				CREATE (n:`${nm:label}`) RETURN n;
+				""").identifiedBy("V1__use_placeholder.cypher");
+		var config = MigrationsConfig.builder().withPlaceholders(Map.of("db", "movies", "label", "Person")).build();
+
+		var executedStatements = new ArrayList<String>();
+		var session = mockSession(new ArrayList<>(), executedStatements, new ArrayList<>());
+		var driver = mock(Driver.class);
+		var sessionConfigs = new ArrayList<SessionConfig>();
+		given(driver.session(any(SessionConfig.class))).willAnswer(invocation -> {
+			sessionConfigs.add(invocation.getArgument(0));
+			return session;
+		});
+		var context = mock(MigrationContext.class);
+		given(context.getConfig()).willReturn(config);
+		given(context.getDriver()).willReturn(driver);
+		given(context.getSessionConfig(any()))
+			.willAnswer(invocation -> invocation.<UnaryOperator<SessionConfig.Builder>>getArgument(0)
+				.apply(SessionConfig.builder())
+				.build());
+
+		DefaultCypherResource.executeIn(cypherResource, context, UnaryOperator.identity());
+
+		assertThat(sessionConfigs).singleElement()
+			.satisfies(sessionConfig -> assertThat(sessionConfig.database()).hasValue("movies"));
+		assertThat(executedStatements).containsExactly("CREATE (n:`Person`) RETURN n");
+	}
+
+	@Test
+	void budgetOfBytesShouldUseTheEncodedSize() {
+
+		// 21 characters each, but 22 bytes in UTF-8
+		var cypherResource = CypherResource.withContent("""
+				CREATE (n:Ä) RETURN n;
+				CREATE (n:Ö) RETURN n;
+				CREATE (n:Ü) RETURN n;
+				""").identifiedBy("V1__chunks.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_N_STATEMENTS)
+			.withMaxBytesPerTransaction(43)
+			.build();
+
+		var transactionSizes = new ArrayList<Integer>();
+		var session = mockSession(transactionSizes);
+		DefaultCypherResource.executeIn(cypherResource, mockContext(config, session), UnaryOperator.identity());
+
+		assertThat(transactionSizes).containsExactly(1, 1, 1);
+	}
+
+	@Test
+	void statementsNeedingImplicitTransactionsShouldEndTheCurrentTransaction() {
+
+		var cypherResource = CypherResource.withContent("""
+				CREATE (n:A) RETURN n;
+				CREATE (n:B) RETURN n;
+				MATCH (n) CALL (n) { SET n.x = 1 } IN TRANSACTIONS;
+				CREATE (n:C) RETURN n;
+				""").identifiedBy("V1__chunks.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_N_STATEMENTS)
+			.withStatementsPerTransaction(10)
+			.build();
+
+		var transactionSizes = new ArrayList<Integer>();
+		var session = mockSession(transactionSizes);
+		DefaultCypherResource.executeIn(cypherResource, mockContext(config, session), UnaryOperator.identity());
+
+		assertThat(transactionSizes).containsExactly(2, 1);
+		verify(session).run("MATCH (n) CALL (n) { SET n.x = 1 } IN TRANSACTIONS");
+	}
+
+	@Test
+	void statementsPerTransactionMustBePositive() {
+
+		var builder = MigrationsConfig.builder();
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.withStatementsPerTransaction(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> builder.withMaxBytesPerTransaction(-1));
+	}
+
+	@ParameterizedTest
+	@CsvSource(textBlock = """
+			PER_STATEMENT,0,'A,B,C,D,E','1,2,3,4,5'
+			PER_STATEMENT,3,'D,E','4,5'
+			PER_N_STATEMENTS,0,'A,B,C,D,E','2,4,5'
+			PER_N_STATEMENTS,2,'C,D,E','4,5'
+			PER_N_STATEMENTS,5,'',''
+			""")
+	void shouldResumeAfterCommittedStatements(MigrationsConfig.TransactionMode transactionMode, int completedStatements,
+			String expectedLabels, String expectedCheckpoints) {
+
+		var cypherResource = CypherResource.withContent("""
+				CREATE (n:A);
+				CREATE (n:B);
+				CREATE (n:C);
+				CREATE (n:D);
+				CREATE (n:E);
+				""").identifiedBy("V1__resume.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(transactionMode)
+			.withStatementsPerTransaction(2)
+			.build();
+
+		var executedStatements = new ArrayList<String>();
+		var checkpoints = new ArrayList<Integer>();
+		var session = mockSession(new ArrayList<>(), executedStatements, checkpoints);
+		var context = mockContext(config, session);
+		var schemaSession = mockSchemaSession(cypherResource.getChecksum(), completedStatements);
+		given(context.getSchemaSession()).willReturn(schemaSession);
+
+		DefaultCypherResource.executeIn(cypherResource, context, UnaryOperator.identity(),
+				MigrationProgress.of(context, new AbstractCypherBasedMigration(cypherResource) {
+				}));
+
+		assertThat(executedStatements).map(statement -> statement.substring(10, 11))
+			.containsExactly(expectedLabels.isEmpty() ? new String[0] : expectedLabels.split(","));
+		assertThat(checkpoints).map(String::valueOf)
+			.containsExactly(expectedCheckpoints.isEmpty() ? new String[0] : expectedCheckpoints.split(","));
+	}
+
+	@Test
+	void migrationsInOneTransactionShouldNotKeepProgress() {
+
+		var cypherResource = CypherResource.withContent("""
+				CREATE (n:A);
+				CREATE (n:B);
+				""").identifiedBy("V1__resume.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_MIGRATION)
+			.build();
+
+		var executedStatements = new ArrayList<String>();
+		var checkpoints = new ArrayList<Integer>();
+		var session = mockSession(new ArrayList<>(), executedStatements, checkpoints);
+		var context = mockContext(config, session);
+
+		new AbstractCypherBasedMigration(cypherResource) {
+		}.apply(context);
+
+		assertThat(executedStatements).containsExactly("CREATE (n:A)", "CREATE (n:B)");
+		assertThat(checkpoints).isEmpty();
+		verify(context, never()).getSchemaSession();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void progressWithDifferentChecksumShouldBeDiscarded() {
+
+		var cypherResource = CypherResource.withContent("""
+				CREATE (n:A);
+				CREATE (n:B);
+				""").identifiedBy("V1__resume.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_STATEMENT)
+			.build();
+
+		var executedStatements = new ArrayList<String>();
+		var session = mockSession(new ArrayList<>(), executedStatements, new ArrayList<>());
+		var context = mockContext(config, session);
+		var schemaSession = mockSchemaSession("4711", 1);
+		given(context.getSchemaSession()).willReturn(schemaSession);
+
+		DefaultCypherResource.executeIn(cypherResource, context, UnaryOperator.identity(),
+				MigrationProgress.of(context, new AbstractCypherBasedMigration(cypherResource) {
+				}));
+
+		assertThat(executedStatements).containsExactly("CREATE (n:A)", "CREATE (n:B)");
+		verify(schemaSession).executeWriteWithoutResult(any(Consumer.class));
+	}
+
+	@Test
+	void progressShouldBeRecordedAfterCommitForOtherDatabases() {
+
+		var cypherResource = CypherResource.withContent("""
+				:use other;
+				CREATE (n:A);
+				CREATE (n:B);
+				""").identifiedBy("V1__resume.cypher");
+		var config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_STATEMENT)
+			.build();
+
+		var checkpoints = new ArrayList<Integer>();
+		var session = mockSession(new ArrayList<>(), new ArrayList<>(), checkpoints);
+		var context = mockContext(config, session);
+		var schemaSession = mockSchemaSession(cypherResource.getChecksum(), 0);
+		given(context.getSchemaSession()).willReturn(schemaSession);
+
+		DefaultCypherResource.executeIn(cypherResource, context, UnaryOperator.identity(),
+				MigrationProgress.of(context, new AbstractCypherBasedMigration(cypherResource) {
+				}));
+
+		assertThat(checkpoints).isEmpty();
+		verify(schemaSession, times(2)).executeWriteWithoutResult(ArgumentMatchers.<Consumer<TransactionContext>>any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Session mockSchemaSession(String checksum, int completedStatements) {
+
+		var marker = mock(org.neo4j.driver.Record.class);
+		given(marker.get("checksum")).willReturn(Values.value(checksum));
+		given(marker.get("statements")).willReturn(Values.value(completedStatements));
+
+		var schemaSession = mock(Session.class);
+		given(schemaSession.executeRead(any(TransactionCallback.class)))
+			.willReturn((completedStatements > 0) ? Optional.of(marker) : Optional.empty());
+		return schemaSession;
+	}
+
+	private static Session mockSession(List<Integer> transactionSizes) {
+		return mockSession(transactionSizes, new ArrayList<>(), new ArrayList<>());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Session mockSession(List<Integer> transactionSizes, List<String> executedStatements,
+			List<Integer> checkpoints) {
+
+		var summary = mock(ResultSummary.class);
+		given(summary.counters()).willReturn(mock(SummaryCounters.class));
+		var result = mock(Result.class);
+		given(result.consume()).willReturn(summary);
+
+		var session = mock(Session.class);
+		given(session.run(anyString())).willReturn(result);
+		given(session.executeWrite(any(TransactionCallback.class), any(TransactionConfig.class)))
+			.willAnswer(invocation -> {
+				var statements = new ArrayList<String>();
+				var tx = mock(TransactionContext.class);
+				given(tx.run(anyString())).willAnswer(i -> {
+					statements.add(i.getArgument(0));
+					return result;
+				});
+				given(tx.run(anyString(), anyMap())).willAnswer(i -> {
+					checkpoints.add((Integer) i.<Map<String, Object>>getArgument(1).get("statements"));
+					return result;
+				});
+				var value = invocation.<TransactionCallback<Object>>getArgument(0).execute(tx);
+				transactionSizes.add(statements.size());
+				executedStatements.addAll(statements);
+				return value;
+			});
+		return session;
+	}
+
+	private static MigrationContext mockContext(MigrationsConfig config, Session session) {
+
+		var driver = mock(Driver.class);
+		given(driver.session(any(SessionConfig.class))).willReturn(session);
+		var context = mock(MigrationContext.class);
+		given(context.getConfig()).willReturn(config);
+		given(context.getDriver()).willReturn(driver);
+		given(context.getSessionConfig(any())).willReturn(SessionConfig.defaultConfig());
+		return context;
+	}
+
 	@Test
 	void emptyPlaceholderNameShouldNotMatch() {
 		Map<String, String> placeholders = Map.of("key", "value");
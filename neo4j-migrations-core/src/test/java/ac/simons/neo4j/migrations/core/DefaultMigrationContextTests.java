@@ -21,6 +21,7 @@ import java.util.Collections;
 import ac.simons.neo4j.migrations.core.DefaultMigrationContext.ExtendedResultSummary;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.neo4j.driver.AccessMode;
@@ -40,6 +41,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -117,6 +119,33 @@ class DefaultMigrationContextTests {
 		assertThat(config.database()).hasValue("aDatabase");
 	}
 
+	@Test
+	void readSessionsShouldShareTheBookmarkManager() {
+
+		Session session = mock(Session.class);
+		Driver driver = mock(Driver.class);
+		given(driver.session(any(SessionConfig.class))).willReturn(session);
+
+		MigrationsConfig config = MigrationsConfig.builder()
+			.withDatabase("target")
+			.withSchemaDatabase("schema")
+			.build();
+		MigrationContext ctx = new DefaultMigrationContext(config, driver);
+		ctx.getSchemaSession();
+		ctx.getSchemaSession(AccessMode.READ);
+		ctx.getSession(AccessMode.READ);
+
+		ArgumentCaptor<SessionConfig> sessionConfigs = ArgumentCaptor.forClass(SessionConfig.class);
+		verify(driver, times(3)).session(sessionConfigs.capture());
+		assertThat(sessionConfigs.getAllValues()).extracting(SessionConfig::defaultAccessMode)
+			.containsExactly(AccessMode.WRITE, AccessMode.READ, AccessMode.READ);
+		assertThat(sessionConfigs.getAllValues()).extracting(sessionConfig -> sessionConfig.database().orElseThrow())
+			.containsExactly("schema", "schema", "target");
+		assertThat(sessionConfigs.getAllValues())
+			.extracting(sessionConfig -> sessionConfig.bookmarkManager().orElseThrow())
+			.containsOnly(sessionConfigs.getValue().bookmarkManager().orElseThrow());
+	}
+
 	@Test
 	void copyIntoBuilderShouldWork() {
 
@@ -15,24 +15,34 @@
  */
 package ac.simons.neo4j.migrations.core;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import ac.simons.neo4j.migrations.core.refactorings.QueryRunner;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
 import org.neo4j.driver.Values;
 import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ResultSummary;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Michael J. Simons
@@ -94,6 +104,44 @@ class DefaultRefactoringContextTests {
 		assertThat(DefaultRefactoringContext.hasSingleElement(plan)).isFalse();
 	}
 
+	@Test
+	void shouldCachePlanAnalysisAndCloseSessions() {
+
+		Plan plan = mock(Plan.class);
+		given(plan.operatorType()).willReturn("ProduceResults@neo4j");
+		given(plan.identifiers()).willReturn(Collections.singletonList("n"));
+		given(plan.arguments()).willReturn(Collections.singletonMap("Details", Values.value("n")));
+		ResultSummary summary = mock(ResultSummary.class);
+		given(summary.queryPlan()).willReturn(Optional.of(plan));
+
+		List<Session> sessions = new ArrayList<>();
+		Supplier<Session> sessionSupplier = () -> {
+			Session session = mock(Session.class);
+			given(session.executeRead(any())).willReturn(summary);
+			sessions.add(session);
+			return session;
+		};
+
+		var planCache = new DefaultRefactoringContext.PlanCache();
+		for (int i = 0; i < 3; ++i) {
+			var ctx = new DefaultRefactoringContext(sessionSupplier, Neo4jVersion.LATEST, "2025.06.0", null, null,
+					planCache);
+			assertThat(ctx.findSingleResultIdentifier("MATCH (n:Movie) RETURN n")).hasValue("n");
+		}
+		// Calendar versions are all the same coarse version, but might plan differently
+		assertThat(new DefaultRefactoringContext(sessionSupplier, Neo4jVersion.LATEST, "2025.10.0", null, null,
+				planCache)
+			.findSingleResultIdentifier("MATCH (n:Movie) RETURN n")).hasValue("n");
+		assertThat(planCache.size()).isEqualTo(2);
+
+		// Contexts not created for the same instance of Migrations don't share plans
+		assertThat(new DefaultRefactoringContext(sessionSupplier, Neo4jVersion.LATEST)
+			.findSingleResultIdentifier("MATCH (n:Movie) RETURN n")).hasValue("n");
+
+		assertThat(sessions).hasSize(3);
+		sessions.forEach(session -> verify(session).close());
+	}
+
 	@Nested
 	class EvaluationOfFeatureSet {
 
@@ -116,6 +164,67 @@ class DefaultRefactoringContextTests {
 			assertThatNoException().isThrownBy(() -> ctx.getQueryRunner(featureSet));
 		}
 
+		@ParameterizedTest
+		@CsvSource(textBlock = """
+				LATEST,true,true
+				LATEST,false,false
+				V5,true,false
+				V4_4,true,false
+				""")
+		void concurrentTransactionsShouldBeOptional(Neo4jVersion version, boolean batching, boolean expected) {
+
+			DefaultRefactoringContext ctx = new DefaultRefactoringContext(() -> mock(Session.class), version);
+			QueryRunner.FeatureSet featureSet = QueryRunner.defaultFeatureSet()
+				.withBatchingSupport(batching)
+				.withConcurrentTransactionsSupport(true)
+				.withRequiredVersion("4.4");
+
+			assertThat(ctx.getQueryRunner(featureSet).getFeatureSet().hasConcurrentTransactionsSupport())
+				.isEqualTo(expected);
+		}
+
+		@ParameterizedTest
+		@CsvSource(textBlock = """
+				2025.04.0,2025.06,true
+				2025.06.0,2025.06,false
+				Neo4j/2025.10.1,2025.06,false
+				2024.12.0,2025.06,true
+				2026.01.0,2025.06,false
+				5.26.0,2025.06,false
+				2025.04.0,5.0,false
+				""")
+		void shouldCompareCalendarVersions(String serverVersion, String requiredVersion, boolean expected) {
+
+			assertThat(DefaultRefactoringContext.isCalendarVersionBelow(serverVersion, requiredVersion))
+				.isEqualTo(expected);
+		}
+
+		@ParameterizedTest
+		@CsvSource(textBlock = """
+				2025.04.0,false
+				2025.06.0,true
+				""")
+		void calendarVersionsShouldBeCheckedAgainstTheServer(String serverVersion, boolean supported) {
+
+			Record record = mock(Record.class);
+			given(record.get("version")).willReturn(Values.value(serverVersion));
+			Session session = mock(Session.class);
+			given(session.executeRead(any())).willReturn(record);
+
+			DefaultRefactoringContext ctx = new DefaultRefactoringContext(() -> session, Neo4jVersion.LATEST);
+			QueryRunner.FeatureSet featureSet = QueryRunner.defaultFeatureSet()
+				.withBatchingSupport(true)
+				.withRequiredVersion("2025.06");
+
+			if (supported) {
+				assertThatNoException().isThrownBy(() -> ctx.getQueryRunner(featureSet));
+			}
+			else {
+				assertThatIllegalArgumentException().isThrownBy(() -> ctx.getQueryRunner(featureSet))
+					.withMessage("Supported version is 2025.04.0 which is below the required value of 2025.06");
+			}
+		}
+
 		@Test
 		void shouldNotFailWithSupportedVersion() {
 
@@ -17,11 +17,14 @@ package ac.simons.neo4j.migrations.core;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 /**
  * @author Michael J. Simons
@@ -111,6 +114,37 @@ class MigrationChainTests {
 					"executionTime", "state", "source");
 		}
 
+		@Test
+		void shouldFormatAsNdjson() {
+
+			var element = pendingMigration("A \"quoted\", multi\nline\tdescription");
+			assertThat(MigrationChain.ElementFormat.NDJSON.getHeader()).isEmpty();
+			assertThat(MigrationChain.ElementFormat.NDJSON.format(element)).isEqualTo(
+					"{\"version\":\"1\",\"description\":\"A \\\"quoted\\\", multi\\nline\\tdescription\",\"type\":\"CYPHER\","
+							+ "\"installedOn\":null,\"installedBy\":null,\"executionTime\":null,\"state\":\"PENDING\",\"source\":\"1.cypher\"}");
+		}
+
+		@Test
+		void shouldFormatAsCsv() {
+
+			var element = pendingMigration("A \"quoted\", multi\nline description");
+			assertThat(MigrationChain.ElementFormat.CSV.getHeader())
+				.hasValue("version,description,type,installedOn,installedBy,executionTime,state,source");
+			assertThat(MigrationChain.ElementFormat.CSV.format(element))
+				.isEqualTo("1,\"A \"\"quoted\"\", multi\nline description\",CYPHER,,,,PENDING,1.cypher");
+			assertThat(MigrationChain.ElementFormat.CSV.format(ChainToolTests.appliedMigration("2", "C2")))
+				.startsWith("2,a description,CYPHER,")
+				.endsWith(",Der Mann Panik Panzer/Danger Dan,PT1H18M31S,APPLIED,foobar.cypher");
+		}
+
+		private static MigrationChain.Element pendingMigration(String description) {
+			var migration = mock(AbstractCypherBasedMigration.class);
+			given(migration.getVersion()).willReturn(MigrationVersion.withValue("1"));
+			given(migration.getSource()).willReturn("1.cypher");
+			given(migration.getOptionalDescription()).willReturn(Optional.of(description));
+			return DefaultMigrationChainElement.pendingElement(migration);
+		}
+
 	}
 
 }
@@ -192,6 +192,24 @@ class MigrationsConfigTests {
 		assertThat(logCollector.logMessages).containsExactlyElementsOf(expected);
 	}
 
+	@Test
+	void chunkedTransactionsShouldBeLogged() {
+
+		MigrationsConfig config = MigrationsConfig.builder()
+			.withTransactionMode(MigrationsConfig.TransactionMode.PER_N_STATEMENTS)
+			.withStatementsPerTransaction(42)
+			.build();
+
+		Logger logger = Logger.getLogger(UUID.randomUUID().toString());
+		LogCollector logCollector = new LogCollector();
+		logger.addHandler(logCollector);
+
+		config.logTo(logger, true);
+		assertThat(logCollector.logMessages)
+			.contains("Statements will be applied in transactions of up to 42 statements");
+		assertThat(config.getMaxBytesPerTransaction()).isEqualTo(Defaults.MAX_BYTES_PER_TRANSACTION);
+	}
+
 	static class LogCollector extends Handler {
 
 		final List<String> logMessages = new ArrayList<>();
@@ -48,6 +48,7 @@ import ac.simons.neo4j.migrations.core.refactorings.Counters;
 import ac.simons.neo4j.migrations.core.refactorings.Normalize;
 import ac.simons.neo4j.migrations.core.refactorings.Refactoring;
 import ac.simons.neo4j.migrations.core.refactorings.Rename;
+import ac.simons.neo4j.migrations.core.test_migrations.changeset2.V023__NichtsIstWieEsScheint;
 import ac.simons.neo4j.migrations.core.test_migrations.changeset5.V003__Repeatable;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Nested;
@@ -204,6 +205,26 @@ class MigrationsIT extends TestBase {
 		}
 	}
 
+	@Test
+	void shouldApplyParsedMigrationsOnTopOfTheChain() {
+
+		Migrations migrations = new Migrations(MigrationsConfig.builder()
+			.withPackagesToScan("ac.simons.neo4j.migrations.core.test_migrations.changeset1")
+			.build(), this.driver);
+		migrations.apply();
+		assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(2);
+
+		List<Migration> newMigrations = List.of(new V023__NichtsIstWieEsScheint());
+		assertThat(migrations.apply(newMigrations)).hasValueSatisfying(v -> assertThat(v.getValue()).isEqualTo("023"));
+		assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(3);
+
+		// Already applied migrations are skipped and the cached migrations know about the
+		// new one, so that the chain stays valid
+		assertThat(migrations.apply(newMigrations)).hasValueSatisfying(v -> assertThat(v.getValue()).isEqualTo("023"));
+		assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(3);
+		assertThat(migrations.validate().isValid()).isTrue();
+	}
+
 	@Test // GH-573
 	void shouldIgnoreNullResources() {
 
@@ -264,6 +285,25 @@ class MigrationsIT extends TestBase {
 				.isEqualTo(info2.getElements().iterator().next().getInstalledOn()));
 	}
 
+	@Test
+	void appliedMigrationsShouldBeReadInPages() {
+
+		Migrations migrations = new Migrations(MigrationsConfig.builder()
+			.withPackagesToScan("ac.simons.neo4j.migrations.core.test_migrations.changeset1",
+					"ac.simons.neo4j.migrations.core.test_migrations.changeset2")
+			.build(), this.driver);
+		migrations.apply();
+
+		List<List<String>> pages = migrations.getAppliedMigrationsInPages(2)
+			.map(page -> page.stream().map(MigrationChain.Element::getVersion).toList())
+			.toList();
+		assertThat(pages).containsExactly(List.of("001", "002"), List.of("023", "023.1"), List.of("023.1.1"));
+
+		assertThat(migrations.getAppliedMigrationsInPages(5)).hasSize(1);
+		assertThatIllegalArgumentException().isThrownBy(() -> migrations.getAppliedMigrationsInPages(0))
+			.withMessage("The page size must be greater than zero");
+	}
+
 	@Test
 	void shouldFailIfNoMigrationsAreDiscoveredButThingsAreInsideTheDatabase() {
 
@@ -457,6 +497,242 @@ class MigrationsIT extends TestBase {
 		assertThat(result.getVersion()).isEmpty();
 	}
 
+	@Test
+	void compactingMigrationsShouldWork() throws IOException {
+
+		File dir = Files.createTempDirectory("neo4j-migrations").toFile();
+		List<File> files = createMigrationFiles(4, dir);
+
+		try {
+			String location = "file:" + dir.getAbsolutePath();
+			MigrationsConfig configuration = MigrationsConfig.builder().withLocationsToScan(location).build();
+			Migrations migrations = new Migrations(configuration, this.driver);
+			migrations.apply();
+
+			var result = migrations.compact(MigrationVersion.withValue("3"), 1);
+			assertThat(result.isDatabaseChanged()).isTrue();
+			assertThat(result.getVersion()).hasValueSatisfying(v -> assertThat(v.getValue()).isEqualTo("3"));
+			assertThat(result.getMigrationsCompacted()).isEqualTo(3);
+			assertThat(result.getNodesDeleted()).isEqualTo(3L);
+			assertThat(lengthOfMigrations(this.driver, null)).isOne();
+
+			assertThat(migrations.validate().getOutcome()).isEqualTo(ValidationResult.Outcome.VALID);
+			assertThat(migrations.info().getElements()).extracting(MigrationChain.Element::getVersion)
+				.containsExactly("1", "2", "3", "4");
+
+			files.addAll(createMigrationFiles(1, 4, dir));
+			migrations = new Migrations(configuration, this.driver);
+			assertThat(migrations.apply()).hasValueSatisfying(v -> assertThat(v.getValue()).isEqualTo("5"));
+			assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(2);
+
+			Files.write(files.get(1).toPath(), List.of("MATCH (n) RETURN count(n)"));
+			var failingMigrations = new Migrations(configuration, this.driver);
+			assertThat(failingMigrations.validate().getOutcome()).isEqualTo(ValidationResult.Outcome.DIFFERENT_CONTENT);
+			assertThatExceptionOfType(MigrationsException.class).isThrownBy(failingMigrations::apply)
+				.withMessage("Checksum of the migrations compacted up to version 3 changed!");
+			assertThatExceptionOfType(MigrationsException.class)
+				.isThrownBy(() -> failingMigrations.compact(MigrationVersion.withValue("4"), 1))
+				.withMessageStartingWith("Only a database in a valid state can be compacted");
+		}
+		finally {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	@Test
+	void shouldNotCompactMigrationsAppliedOutOfOrder() throws IOException {
+
+		File dir = Files.createTempDirectory("neo4j-migrations").toFile();
+		List<File> files = createMigrationFiles(5, dir);
+
+		try {
+			String location = "file:" + dir.getAbsolutePath();
+			MigrationsConfig configuration = MigrationsConfig.builder().withLocationsToScan(location).build();
+			Migrations migrations = new Migrations(configuration, this.driver);
+			migrations.apply();
+
+			// Turn the chain into V1, V2, V4, V5, V3
+			try (Session session = this.driver.session()) {
+				session.run("""
+						MATCH (m2:__Neo4jMigration {version: '2'})-[r23:MIGRATED_TO]->(m3:__Neo4jMigration {version: '3'})
+						      -[r34:MIGRATED_TO]->(m4:__Neo4jMigration {version: '4'})
+						MATCH (m5:__Neo4jMigration {version: '5'})
+						CREATE (m2)-[r24:MIGRATED_TO]->(m4) SET r24 = properties(r34)
+						CREATE (m5)-[r53:MIGRATED_TO]->(m3) SET r53 = properties(r23)
+						DELETE r23, r34
+						""").consume();
+			}
+
+			var outOfOrderMigrations = new Migrations(
+					MigrationsConfig.builder().withLocationsToScan(location).withOutOfOrderAllowed(true).build(),
+					this.driver);
+			for (Migrations candidate : List.of(migrations, outOfOrderMigrations)) {
+				assertThatExceptionOfType(MigrationsException.class)
+					.isThrownBy(() -> candidate.compact(MigrationVersion.withValue("4"), 1));
+				assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(5);
+			}
+		}
+		finally {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	@Test
+	void shouldBootstrapFromSnapshot(@TempDir File dir) throws IOException {
+
+		Files.writeString(new File(dir, "V1__Catalog.xml").toPath(), """
+				<?xml version="1.0" encoding="UTF-8"?>
+				<migration xmlns="https://michael-simons.github.io/neo4j-migrations">
+					<catalog>
+						<constraints>
+							<constraint name="unique_isbn" type="unique">
+								<label>Book</label>
+								<properties>
+									<property>isbn</property>
+								</properties>
+							</constraint>
+						</constraints>
+					</catalog>
+					<apply/>
+				</migration>
+				""");
+		createMigrationFiles(2, 1, dir);
+		var seed = Files.createTempFile("seed", ".cypher");
+		Files.writeString(seed, "MERGE (:Book {isbn: '4711'});");
+		var snapshotFile = Files.createTempFile("snapshot", ".cypher").toFile();
+
+		String location = "file:" + dir.getAbsolutePath();
+		try {
+			var snapshot = new Migrations(MigrationsConfig.builder().withLocationsToScan(location).build(), this.driver)
+				.snapshot(MigrationVersion.withValue("2"), seed.toUri().toURL());
+			assertThat(snapshot).startsWith("// neo4j-migrations snapshot version=2 migrations=2 checksum=")
+				.contains("unique_isbn", "MERGE (:Book {isbn: '4711'});");
+			Files.writeString(snapshotFile.toPath(), snapshot);
+
+			var configuration = MigrationsConfig.builder()
+				.withLocationsToScan(location)
+				.withBootstrapSnapshot("file:" + snapshotFile.getAbsolutePath())
+				.build();
+			var migrations = new Migrations(configuration, this.driver);
+			assertThat(migrations.apply()).hasValueSatisfying(v -> assertThat(v.getValue()).isEqualTo("3"));
+			assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(2);
+			assertThat(migrations.validate().getOutcome()).isEqualTo(ValidationResult.Outcome.VALID);
+			assertThat(migrations.info().getElements()).extracting(MigrationChain.Element::getVersion)
+				.containsExactly("1", "2", "3");
+
+			try (Session session = this.driver.session()) {
+				assertThat(session.run("MATCH (n:Book) RETURN count(n)").single().get(0).asLong()).isOne();
+			}
+			assertThat(migrations.getDatabaseCatalog().getItems()).extracting(item -> item.getName().getValue())
+				.contains("unique_isbn");
+
+			// The snapshot is only used for databases without any applied migrations
+			assertThatNoException().isThrownBy(migrations::apply);
+			assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(2);
+		}
+		finally {
+			Files.deleteIfExists(seed);
+			Files.deleteIfExists(snapshotFile.toPath());
+		}
+	}
+
+	@Test
+	void shouldOnlyBootstrapEmptyDatabases(@TempDir File dir) throws IOException {
+
+		createMigrationFiles(2, dir);
+		var seed = Files.createTempFile("seed", ".cypher");
+		Files.writeString(seed, "CREATE (:Seeded);");
+		var snapshotFile = Files.createTempFile("snapshot", ".cypher");
+
+		String location = "file:" + dir.getAbsolutePath();
+		try {
+			var configuration = MigrationsConfig.builder().withLocationsToScan(location).build();
+			Files.writeString(snapshotFile, new Migrations(configuration, this.driver)
+				.snapshot(MigrationVersion.withValue("2"), seed.toUri().toURL()));
+
+			try (Session session = this.driver.session()) {
+				session.run("CREATE (:Existing)").consume();
+			}
+
+			var migrations = new Migrations(MigrationsConfig.builder()
+				.withLocationsToScan(location)
+				.withBootstrapSnapshot("file:" + snapshotFile.toAbsolutePath())
+				.build(), this.driver);
+			assertThat(migrations.apply()).hasValueSatisfying(v -> assertThat(v.getValue()).isEqualTo("2"));
+			assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(2);
+			try (Session session = this.driver.session()) {
+				assertThat(session.run("MATCH (n:Seeded) RETURN count(n)").single().get(0).asLong()).isZero();
+			}
+		}
+		finally {
+			Files.deleteIfExists(seed);
+			Files.deleteIfExists(snapshotFile);
+		}
+	}
+
+	@Test
+	void shouldNotReapplyPartlyAppliedSnapshots(@TempDir File dir) throws IOException {
+
+		createMigrationFiles(2, dir);
+		var seed = Files.createTempFile("seed", ".cypher");
+		Files.writeString(seed, "CREATE (:Seeded);\nTHIS IS NOT CYPHER;");
+		var snapshotFile = Files.createTempFile("snapshot", ".cypher");
+
+		String location = "file:" + dir.getAbsolutePath();
+		try {
+			var configuration = MigrationsConfig.builder().withLocationsToScan(location).build();
+			Files.writeString(snapshotFile, new Migrations(configuration, this.driver)
+				.snapshot(MigrationVersion.withValue("2"), seed.toUri().toURL()));
+
+			var snapshotLocation = "file:" + snapshotFile.toAbsolutePath();
+			var migrations = new Migrations(
+					MigrationsConfig.builder().withLocationsToScan(location).withBootstrapSnapshot(snapshotLocation).build(),
+					this.driver);
+			var expectedMessage = "Snapshot " + snapshotLocation
+					+ " has only been partly applied, the target database must be cleaned up manually before it can be migrated.";
+			for (int i = 0; i < 2; ++i) {
+				assertThatExceptionOfType(MigrationsException.class).isThrownBy(migrations::apply)
+					.withMessage(expectedMessage);
+			}
+			assertThat(lengthOfMigrations(this.driver, null)).isZero();
+			try (Session session = this.driver.session()) {
+				assertThat(session.run("MATCH (n:Seeded) RETURN count(n)").single().get(0).asLong()).isOne();
+			}
+		}
+		finally {
+			Files.deleteIfExists(seed);
+			Files.deleteIfExists(snapshotFile);
+		}
+	}
+
+	@Test
+	void shouldNotCompactTheLastAppliedMigration() throws IOException {
+
+		File dir = Files.createTempDirectory("neo4j-migrations").toFile();
+		List<File> files = createMigrationFiles(2, dir);
+
+		try {
+			String location = "file:" + dir.getAbsolutePath();
+			MigrationsConfig configuration = MigrationsConfig.builder().withLocationsToScan(location).build();
+			Migrations migrations = new Migrations(configuration, this.driver);
+			migrations.apply();
+
+			assertThatExceptionOfType(MigrationsException.class)
+				.isThrownBy(() -> migrations.compact(MigrationVersion.withValue("2"), 1))
+				.withMessage("The last applied migration can't be compacted.");
+			assertThat(lengthOfMigrations(this.driver, null)).isEqualTo(2);
+		}
+		finally {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
 	@Test // GH-702
 	void shouldNotAllowChangingRepeatableType1() throws IOException {
 
@@ -1001,7 +1277,7 @@ class MigrationsIT extends TestBase {
 
 		try (var session = this.driver.session()) {
 			var indexes = session.run("SHOW INDEXES yield name").list(record -> record.get("name").asString());
-			assertThat(indexes).contains("repeated_at__Neo4jMigration");
+			assertThat(indexes).contains("repeated_at__Neo4jMigration", "version_target__Neo4jMigrationProgress");
 		}
 	}
 
@@ -59,4 +59,12 @@ class MigrationsTests {
 			.withMessage("A valid version must be passed to the delete operation");
 	}
 
+	@Test
+	void compactingShouldKeepAtLeastOneRepetition() {
+
+		Migrations migrations = new Migrations(MigrationsConfig.defaultConfig(), mock(Driver.class));
+		assertThatIllegalArgumentException().isThrownBy(() -> migrations.compact(null, 0))
+			.withMessage("At least the latest repetition of repeatable migrations must be kept.");
+	}
+
 }
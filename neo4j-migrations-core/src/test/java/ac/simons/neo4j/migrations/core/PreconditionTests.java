@@ -28,12 +28,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.SessionConfig;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Michael J. Simons
@@ -192,6 +199,27 @@ class PreconditionTests {
 		});
 	}
 
+	@ParameterizedTest
+	@CsvSource(delimiterString = ";",
+			value = { "// assume in target q'RETURN TRUE; false", "// assume in schema q'RETURN TRUE; true" })
+	@SuppressWarnings("unchecked")
+	void cypherPreconditionsShouldUseReadSessions(String value, boolean inSchema) {
+
+		Session session = mock(Session.class);
+		given(session.executeRead(any())).willReturn(true);
+		MigrationContext ctx = mock(MigrationContext.class);
+		given(ctx.getSession(AccessMode.READ)).willReturn(session);
+		given(ctx.getSchemaSession(AccessMode.READ)).willReturn(session);
+
+		Optional<Precondition> optionalPrecondition = Precondition.parse(value);
+		assertThat(optionalPrecondition)
+			.hasValueSatisfying(precondition -> assertThat(precondition.isMet(ctx)).isTrue());
+		verify(ctx, times(inSchema ? 1 : 0)).getSchemaSession(AccessMode.READ);
+		verify(ctx, times(inSchema ? 0 : 1)).getSession(AccessMode.READ);
+		verify(ctx, never()).getSchemaSession();
+		verify(ctx, never()).getSession();
+	}
+
 	@ParameterizedTest
 	@CsvSource(delimiterString = ";", value = { "// assume in target q'", "// assume q' ", "// assume q'" })
 	void shouldFailOnWrongCypherPrecondition(String value) {
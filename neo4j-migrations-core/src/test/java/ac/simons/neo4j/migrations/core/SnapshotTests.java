@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class SnapshotTests {
+
+	private static Migration migration(String version) {
+		var migration = mock(AbstractCypherBasedMigration.class);
+		given(migration.getVersion()).willReturn(MigrationVersion.withValue(version));
+		given(migration.getChecksum()).willReturn(Optional.of("c" + version));
+		return migration;
+	}
+
+	private static MigrationsConfig configFor(Path snapshot) {
+		return MigrationsConfig.builder().withBootstrapSnapshot("file:" + snapshot.toAbsolutePath()).build();
+	}
+
+	@Test
+	void noSnapshotShouldBeConfiguredByDefault() {
+
+		assertThat(Snapshot.of(MigrationsConfig.defaultConfig())).isEmpty();
+	}
+
+	@Test
+	void shouldReadHeader(@TempDir Path dir) throws IOException {
+
+		var migrations = List.of(migration("1"), migration("2"), migration("3"));
+		var checksum = ChainCompaction.checksum(migrations.subList(0, 2));
+		var file = dir.resolve("snapshot.cypher");
+		Files.writeString(file, """
+				// neo4j-migrations snapshot version=2 migrations=2 checksum=%s
+				// Catalog at version 2
+				CREATE CONSTRAINT a IF NOT EXISTS FOR (n:A) REQUIRE n.id IS UNIQUE;
+				// Seed V2__Seed.cypher
+				CREATE (:A {id: 1});
+				""".formatted(checksum));
+
+		var snapshot = Snapshot.of(configFor(file));
+		assertThat(snapshot).hasValueSatisfying(s -> {
+			assertThat(s.chain()).isEqualTo(new ChainCompaction("2", checksum, 2));
+			assertThat(s.resource().getExecutableStatements()).hasSize(2);
+			assertThat(s.verify(migrations).getVersion().getValue()).isEqualTo("2");
+		});
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "classpath:snapshots/snapshot.cypher", "classpath:/snapshots/snapshot.cypher" })
+	void shouldFindClasspathSnapshots(String location) {
+
+		var config = MigrationsConfig.builder().withBootstrapSnapshot(location).build();
+		assertThat(Snapshot.of(config)).hasValueSatisfying(s -> {
+			assertThat(s.identifier()).isEqualTo(location);
+			assertThat(s.chain().version()).isEqualTo("2");
+			assertThat(s.resource().getExecutableStatements()).hasSize(1);
+		});
+	}
+
+	@Test
+	void shouldDetectDivergingMigrations(@TempDir Path dir) throws IOException {
+
+		var file = dir.resolve("snapshot.cypher");
+		Files.writeString(file, "// neo4j-migrations snapshot version=2 migrations=2 checksum=4711\n");
+
+		var snapshot = Snapshot.of(configFor(file)).orElseThrow();
+		var migrations = List.of(migration("1"), migration("2"));
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> snapshot.verify(migrations))
+			.withMessageMatching("Snapshot file:.*snapshot.cypher does not match the locally resolved migrations.")
+			.havingCause()
+			.withMessage("Checksum of the migrations compacted up to version 2 changed!");
+	}
+
+	@Test
+	void shouldRequireHeader(@TempDir Path dir) throws IOException {
+
+		var file = dir.resolve("snapshot.cypher");
+		Files.writeString(file, "CREATE (:A {id: 1});\n");
+
+		var config = configFor(file);
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> Snapshot.of(config))
+			.withMessageEndingWith("snapshot.cypher is not a valid snapshot.");
+	}
+
+	@Test
+	void shouldFailOnMissingSnapshots(@TempDir Path dir) {
+
+		var config = configFor(dir.resolve("missing.cypher"));
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> Snapshot.of(config))
+			.withMessageEndingWith("missing.cypher.");
+		var classpathConfig = MigrationsConfig.builder()
+			.withBootstrapSnapshot("classpath:missing/snapshot.cypher")
+			.build();
+		assertThatExceptionOfType(MigrationsException.class).isThrownBy(() -> Snapshot.of(classpathConfig))
+			.withMessage("Could not find snapshot classpath:missing/snapshot.cypher.");
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Michael J. Simons
+ */
+class ThrottleTests {
+
+	private final AtomicLong now = new AtomicLong();
+
+	private final List<Duration> sleeps = new ArrayList<>();
+
+	private Throttle throttle(Throttle.Unit unit, double rate) {
+		return new Throttle(unit, rate, null, null, this.now::get, (monitor, nanos) -> {
+			this.sleeps.add(Duration.ofNanos(nanos));
+			this.now.addAndGet(nanos);
+		});
+	}
+
+	@Test
+	void shouldLimitRowsPerSecond() {
+
+		var throttle = throttle(Throttle.Unit.ROWS, 1000);
+		// 500 rows took 100ms, so another 400ms are needed to stay at 1000 rows/s
+		this.now.set(Duration.ofMillis(100).toNanos());
+		throttle.acquire(500, 1, Duration.ofMillis(100), () -> 0);
+		assertThat(this.sleeps).containsExactly(Duration.ofMillis(400));
+
+		this.now.addAndGet(Duration.ofMillis(2000).toNanos());
+		throttle.acquire(500, 1, Duration.ofMillis(2000), () -> 0);
+		assertThat(this.sleeps).hasSize(1);
+	}
+
+	@Test
+	void shouldLimitTransactionsPerSecond() {
+
+		var throttle = throttle(Throttle.Unit.TRANSACTIONS, 2);
+		throttle.acquire(100_000, 4, Duration.ZERO, () -> 0);
+		assertThat(this.sleeps).containsExactly(Duration.ofSeconds(2));
+	}
+
+	@Test
+	void shouldSlowDownAboveLatencyTargetAndRecover() {
+
+		var throttle = throttle(Throttle.Unit.ROWS, 1000).withLatencyTarget(Duration.ofMillis(50));
+		throttle.acquire(10, 1, Duration.ofMillis(100), () -> 0);
+		throttle.acquire(10, 1, Duration.ofMillis(100), () -> 0);
+		assertThat(throttle.currentFactor()).isEqualTo(0.25);
+		throttle.acquire(10, 1, Duration.ofMillis(10), () -> 0);
+		assertThat(throttle.currentFactor()).isEqualTo(0.35);
+	}
+
+	@Test
+	void shouldProbeActiveTransactionsAtMostOncePerInterval() {
+
+		var probes = new AtomicLong();
+		var throttle = throttle(Throttle.Unit.TRANSACTIONS, 1000).withMaxActiveTransactions(10);
+		for (int i = 0; i < 5; ++i) {
+			throttle.acquire(1, 1, Duration.ZERO, () -> {
+				probes.incrementAndGet();
+				return 20;
+			});
+		}
+		assertThat(probes).hasValue(1L);
+		assertThat(throttle.currentFactor()).isEqualTo(0.5 + 4 * Throttle.RECOVERY_STEP, offset());
+	}
+
+	@Test
+	void shouldBlockWhilePaused() throws InterruptedException {
+
+		var throttle = Throttle.transactionsPerSecond(1_000_000);
+		throttle.pause();
+		assertThat(throttle.isPaused()).isTrue();
+
+		var started = new CountDownLatch(1);
+		var done = new AtomicBoolean();
+		var worker = new Thread(() -> {
+			started.countDown();
+			throttle.acquire(1, 1, Duration.ZERO, () -> 0);
+			done.set(true);
+		});
+		worker.start();
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		worker.join(200);
+		assertThat(done).isFalse();
+
+		throttle.resume();
+		worker.join(5000);
+		assertThat(done).isTrue();
+	}
+
+	@Test
+	void shouldValidateArguments() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> Throttle.rowsPerSecond(0))
+			.withMessage("The rate must be greater than 0");
+		var throttle = Throttle.rowsPerSecond(1);
+		assertThatIllegalArgumentException().isThrownBy(() -> throttle.withMaxActiveTransactions(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> throttle.withLatencyTarget(Duration.ZERO));
+	}
+
+	private static org.assertj.core.data.Offset<Double> offset() {
+		return org.assertj.core.data.Offset.offset(1e-9);
+	}
+
+}
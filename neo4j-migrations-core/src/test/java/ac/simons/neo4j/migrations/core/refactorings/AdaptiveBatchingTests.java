@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class AdaptiveBatchingTests {
+
+	private final List<Batching> batchings = new ArrayList<>();
+
+	private final AtomicLong clock = new AtomicLong();
+
+	static Record batch(boolean committed, String error, long rows) {
+		var record = mock(Record.class);
+		given(record.get("committed")).willReturn(Values.value(committed));
+		given(record.get("error")).willReturn((error != null) ? Values.value(error) : Values.NULL);
+		given(record.get("rows")).willReturn(Values.value(rows));
+		return record;
+	}
+
+	static Result result(int propertiesSet, Record... records) {
+		var counters = mock(SummaryCounters.class);
+		given(counters.propertiesSet()).willReturn(propertiesSet);
+		var summary = mock(ResultSummary.class);
+		given(summary.counters()).willReturn(counters);
+		var result = mock(Result.class);
+		given(result.list()).willReturn(Arrays.asList(records));
+		given(result.consume()).willReturn(summary);
+		return result;
+	}
+
+	private QueryRunner queryRunner(long nanosPerRound, Result... results) {
+		var queryRunner = mock(QueryRunner.class);
+		var stubbing = given(queryRunner.run(any(Query.class)));
+		for (Result result : results) {
+			stubbing = stubbing.willAnswer(invocation -> {
+				this.clock.addAndGet(nanosPerRound);
+				return result;
+			});
+		}
+		return queryRunner;
+	}
+
+	private Counters run(QueryRunner queryRunner, int initialBatchSize, boolean boundedRounds) {
+		return AdaptiveBatching.run(queryRunner, initialBatchSize, null, boundedRounds, batching -> {
+			this.batchings.add(batching);
+			return new Query("RETURN 1");
+		}, this.clock::get);
+	}
+
+	@Test
+	void fastBoundedRoundsShouldGrowTheBatchSize() {
+
+		var queryRunner = queryRunner(1_000, result(100, batch(true, null, 100)),
+				result(200, batch(true, null, 100), batch(true, null, 100)), result(50, batch(true, null, 50)));
+
+		var counters = run(queryRunner, 10, true);
+
+		assertThat(counters.propertiesSet()).isEqualTo(350);
+		assertThat(this.batchings).extracting(Batching::size).containsExactly(10, 20, 40);
+		assertThat(this.batchings).extracting(Batching::limit).containsExactly(100, 200, 400);
+		assertThat(this.batchings).allMatch(Batching::reportStatus);
+	}
+
+	@Test
+	void slowBoundedRoundsShouldShrinkTheBatchSize() {
+
+		var queryRunner = queryRunner(AdaptiveBatching.SHRINK_ABOVE.toNanos() * 2, result(10, batch(true, null, 10)),
+				result(5, batch(true, null, 4)));
+
+		run(queryRunner, 1, true);
+		run(queryRunner(AdaptiveBatching.SHRINK_ABOVE.toNanos() * 2, result(100, batch(true, null, 100)),
+				result(40, batch(true, null, 40))), 10, true);
+
+		assertThat(this.batchings).extracting(Batching::size).containsExactly(1, 1, 10, 5);
+	}
+
+	@Test
+	void roundsRunningOutOfMemoryShouldBeRetriedWithSmallerBatches() {
+
+		var queryRunner = queryRunner(1_000,
+				result(10, batch(true, null, 10),
+						batch(false, "The allocation of an extra 2.0 MiB would use more than the limit", 10)),
+				result(10, batch(true, null, 5), batch(true, null, 5)));
+
+		var counters = run(queryRunner, 10, false);
+
+		assertThat(counters.propertiesSet()).isEqualTo(20);
+		assertThat(this.batchings).extracting(Batching::size).containsExactly(10, 5);
+		assertThat(this.batchings).extracting(Batching::limit).containsOnlyNulls();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "Constraint violated", "MemoryPoolOutOfMemoryError" })
+	void otherFailuresShouldNotBeRetried(String error) {
+
+		var queryRunner = queryRunner(1_000, result(0, batch(false, error, 1)));
+
+		int batchSize = error.startsWith("Memory") ? 1 : 10;
+		assertThatIllegalStateException().isThrownBy(() -> run(queryRunner, batchSize, true))
+			.withMessage("Batched refactoring failed with batch size %d: %s", batchSize, error);
+	}
+
+	@Test
+	void roundsWithoutChangesShouldEndTheRefactoring() {
+
+		var queryRunner = queryRunner(1_000, result(0, batch(true, null, 100)));
+
+		var counters = run(queryRunner, 10, true);
+
+		assertThat(counters.propertiesSet()).isZero();
+		assertThat(this.batchings).hasSize(1);
+	}
+
+	@Test
+	void memoryRelatedErrorsShouldBeRecognized() {
+
+		assertThat(AdaptiveBatching.isMemoryRelated("Neo.TransientError.General.MemoryPoolOutOfMemoryError")).isTrue();
+		assertThat(AdaptiveBatching.isMemoryRelated("The allocation of an extra 8 MiB would exceed the limit"))
+			.isTrue();
+		assertThat(AdaptiveBatching.isMemoryRelated("Node(42) already exists")).isFalse();
+	}
+
+}
@@ -63,6 +63,35 @@ class DefaultAddSurrogateKeyTests {
 				"MATCH ()-[r:`ACTED IN`]->() WHERE r.`Le`` property` IS NULL SET r.`Le`` property` = randomUUID()");
 	}
 
+	@Test
+	void shouldGenerateRangesByElementId() {
+		DefaultAddSurrogateKey refactoring = (DefaultAddSurrogateKey) AddSurrogateKey.toNodes("Movie").resumable();
+		assertThat(refactoring.generateRangeQuery(Neo4jVersion.LATEST::sanitizeSchemaName, false).text()).isEqualTo(
+				"MATCH (n:Movie) WHERE n.id IS NULL AND ($checkpoint IS NULL OR elementId(n) > $checkpoint) WITH n ORDER BY elementId(n) ASC LIMIT $rangeSize SET n.id = randomUUID() RETURN count(*) AS rows, max(elementId(n)) AS last");
+		assertThat(refactoring.generateRangeQuery(Neo4jVersion.LATEST::sanitizeSchemaName, true).text()).isEqualTo(
+				"MATCH (n:Movie) WHERE n.id IS NULL AND ($checkpoint IS NULL OR elementId(n) > $checkpoint) RETURN count(*) AS remaining");
+		assertThat(refactoring.getFeatures().hasElementIdSupport()).isTrue();
+		assertThat(refactoring.getFeatures().hasBatchingSupport()).isTrue();
+	}
+
+	@Test
+	void shouldGenerateRangesByProperty() {
+		DefaultAddSurrogateKey refactoring = (DefaultAddSurrogateKey) AddSurrogateKey.toRelationships("RATED")
+			.resumableBy("rated at");
+		assertThat(refactoring.generateRangeQuery(Neo4jVersion.LATEST::sanitizeSchemaName, false).text()).isEqualTo(
+				"MATCH ()-[r:RATED]->() WHERE r.id IS NULL AND ($checkpoint IS NULL OR r.`rated at` > $checkpoint) WITH r ORDER BY r.`rated at` ASC LIMIT $rangeSize SET r.id = randomUUID() RETURN count(*) AS rows, max(r.`rated at`) AS last");
+		assertThat(refactoring.getFeatures().hasElementIdSupport()).isFalse();
+	}
+
+	@Test
+	void resumableRefactoringsShouldNotUseCustomQueries() {
+		AddSurrogateKey refactoring = AddSurrogateKey.toNodesMatching("MATCH (n:Movie) RETURN n");
+		assertThatIllegalArgumentException().isThrownBy(refactoring::resumable)
+			.withMessage("Resumable refactorings cannot be combined with custom queries");
+		assertThatIllegalArgumentException().isThrownBy(() -> refactoring.resumableBy(" "))
+			.withMessage("The range property must not be null or blank");
+	}
+
 	@Nested
 	class ToNodes {
 
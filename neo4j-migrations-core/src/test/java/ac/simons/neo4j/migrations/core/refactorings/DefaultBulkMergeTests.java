@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.List;
+import java.util.Map;
+
+import ac.simons.neo4j.migrations.core.Neo4jVersion;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Michael J. Simons
+ */
+class DefaultBulkMergeTests {
+
+	private static final List<Merge.PropertyMergePolicy> POLICIES = List.of(
+			Merge.PropertyMergePolicy.of("name", Merge.PropertyMergePolicy.Strategy.KEEP_LAST),
+			Merge.PropertyMergePolicy.of(".*", Merge.PropertyMergePolicy.Strategy.KEEP_FIRST));
+
+	@Test
+	void shouldGenerateBatchedQuery() {
+
+		var merge = (DefaultBulkMerge) Merge.nodesGroupedBy("Person", "e-mail", POLICIES)
+			.inBatchesOf(500)
+			.orderedBy("createdAt");
+
+		Query query = merge.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName, new Batching(500, 4, null, false));
+		assertThat(query.text()).startsWith("""
+				CYPHER 25
+				MATCH (n:Person) WHERE n.`e-mail` IS NOT NULL
+				WITH n ORDER BY n.createdAt ASC
+				WITH n.`e-mail` AS groupKey, collect(n) AS nodes
+				WHERE size(nodes) > 1
+				""")
+			.contains("CREATE (target)-[copy:$(type(r))]->(end) SET copy = properties(r)")
+			.endsWith("} IN 4 CONCURRENT TRANSACTIONS OF 500 ROWS ON ERROR RETRY");
+		assertThat(query.parameters().asMap()).containsEntry("policies", List
+			.of(Map.of("pattern", "name", "strategy", "KEEP_LAST"), Map.of("pattern", ".*", "strategy", "KEEP_FIRST")));
+		assertThat(merge.getFeatures().requiredVersion()).isEqualTo("2025.06");
+	}
+
+	@Test
+	void shouldOrderByElementIdByDefault() {
+
+		var merge = (DefaultBulkMerge) Merge.nodesGroupedBy("Person", "email");
+		Query query = merge.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName,
+				new Batching(DefaultBulkMerge.DEFAULT_BATCH_SIZE, null, null, false));
+		assertThat(query.text()).contains("WITH n ORDER BY elementId(n) ASC")
+			.endsWith("} IN TRANSACTIONS OF 1000 ROWS");
+	}
+
+	@Test
+	void shouldFailBeforeMergingPropertiesWithoutPolicy() {
+
+		var unmatchedProperties = KeysetRangesTests.result(0,
+				KeysetRangesTests.record(Map.of("keys", List.of("age", "name"))));
+		var queryRunner = mock(QueryRunner.class);
+		given(queryRunner.run(any(Query.class))).willReturn(unmatchedProperties);
+		var context = mock(RefactoringContext.class);
+		given(context.getQueryRunner(any())).willReturn(queryRunner);
+		given(context.sanitizeSchemaName(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+		var merge = Merge.nodesGroupedBy("Person", "email");
+		assertThatIllegalStateException().isThrownBy(() -> merge.apply(context))
+			.withMessage("Could not find merge policy for node properties `age`, `name`");
+		verify(queryRunner, never()).getFeatureSet();
+	}
+
+	@Test
+	void shouldValidateArguments() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> Merge.nodesGroupedBy(" ", "email"))
+			.withMessage("Label and grouping property must not be blank");
+		var merge = Merge.nodesGroupedBy("Person", "email");
+		assertThatIllegalArgumentException().isThrownBy(() -> merge.inBatchesOf(0))
+			.withMessage("Batch size must be equal or greater one");
+		assertThat(merge.inBatchesOf(DefaultBulkMerge.DEFAULT_BATCH_SIZE)).isSameAs(merge);
+	}
+
+}
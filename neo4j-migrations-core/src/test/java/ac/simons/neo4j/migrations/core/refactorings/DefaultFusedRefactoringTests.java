@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import ac.simons.neo4j.migrations.core.Neo4jVersion;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class DefaultFusedRefactoringTests {
+
+	private static final String CUSTOM_QUERY = "MATCH (n:Movie) RETURN n";
+
+	@Test
+	void shouldFuseConsecutiveRefactoringsWithTheSameKey() {
+
+		var rename = Rename.nodeProperty("released", "year").withCustomQuery(CUSTOM_QUERY);
+		var normalize = Normalize.asBoolean("watched", List.of("y"), List.of("n")).withCustomQuery(CUSTOM_QUERY);
+		var addKey = AddSurrogateKey.toNodesMatching(CUSTOM_QUERY);
+		var other = Rename.label("Movie", "Film");
+
+		var optimized = FusedRefactoring.fuse(List.of(rename, normalize, addKey, other, rename));
+		assertThat(optimized).hasSize(3);
+		assertThat(optimized.get(0)).isInstanceOf(FusedRefactoring.class);
+		assertThat(((FusedRefactoring) optimized.get(0)).getRefactorings()).containsExactly(rename, normalize, addKey);
+		assertThat(optimized.subList(1, 3)).containsExactly(other, rename);
+	}
+
+	@Test
+	void shouldNotFuseIncompatibleRefactorings() {
+
+		var refactorings = List.<Refactoring>of(Rename.nodeProperty("a", "b").withCustomQuery(CUSTOM_QUERY),
+				Rename.nodeProperty("b", "c").withCustomQuery(CUSTOM_QUERY).inBatchesOf(10),
+				Rename.nodeProperty("c", "d").withCustomQuery("MATCH (n:Person) RETURN n"),
+				Rename.nodeProperty("d", "e"), Rename.nodeProperty("e", "f"),
+				Rename.label("A", "B").withCustomQuery(CUSTOM_QUERY),
+				Rename.label("B", "C").withCustomQuery(CUSTOM_QUERY),
+				Rename.nodeProperty("f", "g").withCustomQuery(CUSTOM_QUERY).inBatchesOf(10).withAdaptiveBatchSize(true),
+				Rename.nodeProperty("g", "h")
+					.withCustomQuery(CUSTOM_QUERY)
+					.inBatchesOf(10)
+					.withAdaptiveBatchSize(true));
+
+		assertThat(FusedRefactoring.fuse(refactorings)).containsExactlyElementsOf(refactorings);
+	}
+
+	@Test
+	void shouldGenerateSingleStatement() {
+
+		var fused = fused(Rename.nodeProperty("released", "year").withCustomQuery(CUSTOM_QUERY),
+				Normalize.asBoolean("watched", List.of("y"), List.of("n")).withCustomQuery(CUSTOM_QUERY),
+				AddSurrogateKey.toNodesMatching(CUSTOM_QUERY));
+
+		Query query = fused.generateQuery(Neo4jVersion.V5::sanitizeSchemaName, s -> Optional.of("n"), null);
+		assertThat(query.text()).isEqualTo("CALL { MATCH (n:Movie) RETURN n } WITH n AS e "
+				+ "WITH e, e.released IS NOT NULL AS step0 FOREACH (_ IN CASE WHEN step0 THEN [1] ELSE [] END | SET e.year = e.released REMOVE e.released) "
+				+ "WITH e, step0, e.watched IS NOT NULL AS step1 FOREACH (_ IN CASE WHEN step1 THEN [1] ELSE [] END | SET e.watched = CASE WHEN e.watched IN $r1_trueValues THEN true WHEN e.watched IN $r1_falseValues THEN false WHEN e.watched IN [true, false] THEN e.watched ELSE $r1_nullValue END) "
+				+ "WITH e, step0, step1, e.id IS NULL AS step2 FOREACH (_ IN CASE WHEN step2 THEN [1] ELSE [] END | SET e.id = randomUUID()) "
+				+ "RETURN count(CASE WHEN step0 THEN 1 END) AS step0, count(CASE WHEN step1 THEN 1 END) AS step1, count(CASE WHEN step2 THEN 1 END) AS step2");
+		assertThat(query.parameters().asMap()).containsEntry("r1_trueValues", List.of("y"))
+			.containsEntry("r1_falseValues", List.of("n"));
+	}
+
+	@Test
+	void shouldGenerateBatchedStatement() {
+
+		var fused = fused(Rename.nodeProperty("a", "b").withCustomQuery(CUSTOM_QUERY).inBatchesOf(100),
+				Rename.nodeProperty("b", "c").withCustomQuery(CUSTOM_QUERY).inBatchesOf(100));
+
+		Query query = fused.generateQuery(Neo4jVersion.V5::sanitizeSchemaName, s -> Optional.of("n"),
+				Batching.of(100, null));
+		assertThat(query.text()).isEqualTo("CALL { MATCH (n:Movie) RETURN n } WITH n AS e "
+				+ "CALL { WITH e WITH e, e.a IS NOT NULL AS step0 FOREACH (_ IN CASE WHEN step0 THEN [1] ELSE [] END | SET e.b = e.a REMOVE e.a) "
+				+ "WITH e, step0, e.b IS NOT NULL AS step1 FOREACH (_ IN CASE WHEN step1 THEN [1] ELSE [] END | SET e.c = e.b REMOVE e.b) "
+				+ "RETURN step0, step1 } IN TRANSACTIONS OF 100 ROWS "
+				+ "RETURN count(CASE WHEN step0 THEN 1 END) AS step0, count(CASE WHEN step1 THEN 1 END) AS step1");
+		assertThat(fused.getFeatures().requiredVersion()).isEqualTo("5.0");
+		assertThat(fused.isSupportedBy(Neo4jVersion.V4_4)).isFalse();
+		assertThat(fused.isSupportedBy(Neo4jVersion.UNDEFINED)).isFalse();
+		assertThat(fused.isSupportedBy(Neo4jVersion.V5)).isTrue();
+		assertThat(fused.isSupportedBy(Neo4jVersion.LATEST)).isTrue();
+	}
+
+	@Test
+	void unbatchedFusionShouldBeSupportedByNeo4j44() {
+
+		var fused = fused(Rename.nodeProperty("a", "b").withCustomQuery(CUSTOM_QUERY),
+				Rename.nodeProperty("b", "c").withCustomQuery(CUSTOM_QUERY));
+		assertThat(fused.isSupportedBy(Neo4jVersion.V4_4)).isTrue();
+	}
+
+	@Test
+	void shouldReportCountersOfTheServer() {
+
+		var executedQueries = new ArrayList<Query>();
+		var queryRunner = mock(QueryRunner.class);
+		given(queryRunner.getFeatureSet()).willReturn(QueryRunner.defaultFeatureSet());
+		given(queryRunner.run(any(Query.class))).willAnswer(invocation -> {
+			executedQueries.add(invocation.getArgument(0));
+			return KeysetRangesTests.result(7, KeysetRangesTests.record(Map.of("step0", 3, "step1", 1)));
+		});
+		var context = mock(RefactoringContext.class);
+		given(context.getQueryRunner(any())).willReturn(queryRunner);
+		given(context.findSingleResultIdentifier(CUSTOM_QUERY)).willReturn(Optional.of("n"));
+		given(context.sanitizeSchemaName(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+		var fused = fused(Rename.nodeProperty("a", "b").withCustomQuery(CUSTOM_QUERY),
+				AddSurrogateKey.toNodesMatching(CUSTOM_QUERY));
+		assertThat(fused.apply(context).propertiesSet()).isEqualTo(7);
+		assertThat(executedQueries).hasSize(1);
+
+		var counters = fused.applyFused(context);
+		assertThat(counters.total().propertiesSet()).isEqualTo(7);
+		assertThat(counters.perRefactoring()).extracting(Counters::propertiesSet).containsExactly(3, 1);
+		assertThat(executedQueries).hasSize(2);
+	}
+
+	@Test
+	void countersOfRefactoringsAppliedOneByOneShouldBeSummedUp() {
+
+		var counters = FusedRefactoring.FusedCounters
+			.of(List.of(Counters.of(Map.of("propertiesSet", 2)), Counters.of(Map.of("labelsAdded", 3))));
+		assertThat(counters.total().propertiesSet()).isEqualTo(2);
+		assertThat(counters.total().labelsAdded()).isEqualTo(3);
+		assertThat(counters.perRefactoring()).hasSize(2);
+	}
+
+	private static DefaultFusedRefactoring fused(Refactoring... refactorings) {
+		var optimized = FusedRefactoring.fuse(List.of(refactorings));
+		assertThat(optimized).singleElement().isInstanceOf(DefaultFusedRefactoring.class);
+		return (DefaultFusedRefactoring) optimized.get(0);
+	}
+
+}
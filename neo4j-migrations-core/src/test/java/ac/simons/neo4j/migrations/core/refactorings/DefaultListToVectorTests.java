@@ -21,6 +21,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import ac.simons.neo4j.migrations.core.Neo4jVersion;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -61,6 +62,24 @@ class DefaultListToVectorTests {
 			.withMessage("Property name must not be blank");
 	}
 
+	@Test
+	void generateQueryShouldRenderConcurrentTransactions() {
+		var refactoring = (DefaultListToVector) ListToVector.onNodes("Le Test")
+			.inBatchesOf(23)
+			.inConcurrentTransactions(2);
+		assertThat(refactoring.generateQuery(s -> Optional.of("n"), Batching.of(23, 2)).text()).isEqualTo(
+				"CYPHER 25 MATCH (n:$all($identifiers)) WHERE n[$property] :: LIST<FLOAT NOT NULL> NOT NULL CALL(n) { SET n[$property] = VECTOR(n[$property], size(n[$property]), FLOAT) } IN 2 CONCURRENT TRANSACTIONS OF $batchSize ROWS ON ERROR RETRY");
+	}
+
+	@Test
+	void generateRangeQueryShouldWork() {
+		var refactoring = (DefaultListToVector) ListToVector.onNodes("Le Test").inBatchesOf(23).resumableBy("sku");
+		var query = refactoring.generateRangeQuery(Neo4jVersion.LATEST::sanitizeSchemaName, false);
+		assertThat(query.text()).isEqualTo(
+				"CYPHER 25 MATCH (n:$all($identifiers)) WHERE n[$property] :: LIST<FLOAT NOT NULL> NOT NULL AND ($checkpoint IS NULL OR n.sku > $checkpoint) WITH n ORDER BY n.sku ASC LIMIT $rangeSize SET n[$property] = VECTOR(n[$property], size(n[$property]), FLOAT) RETURN count(*) AS rows, max(n.sku) AS last");
+		assertThat(query.parameters().asMap()).containsOnlyKeys("identifiers", "property");
+	}
+
 	static Stream<Arguments> generateQueryShouldWorkWithIdentifiers() {
 		var queryNodeWithoutBatch = "CYPHER 25 MATCH (n:$all($identifiers)) WHERE n[$property] :: LIST<FLOAT NOT NULL> NOT NULL SET n[$property] = VECTOR(n[$property], size(n[$property]), FLOAT)";
 		var queryNodeWithBatch = "CYPHER 25 MATCH (n:$all($identifiers)) WHERE n[$property] :: LIST<FLOAT NOT NULL> NOT NULL CALL(n) { SET n[$property] = VECTOR(n[$property], size(n[$property]), FLOAT) } IN TRANSACTIONS OF $batchSize ROWS";
@@ -79,6 +79,30 @@ class DefaultNormalizeTests {
 		assertThat(normalize.getFeatures().requiredVersion()).isEqualTo("4.4");
 	}
 
+	@Test
+	void shouldGenerateQueryInConcurrentTransactions() {
+
+		String expected = """
+				CALL { MATCH (n) RETURN n AS t UNION ALL MATCH ()-[r]->() RETURN r AS t } WITH t AS e
+				WHERE e.`a property` IS NOT NULL
+				CALL { WITH e SET e.`a property` = CASE
+				  WHEN e.`a property` IN $trueValues THEN true
+				  WHEN e.`a property` IN $falseValues THEN false
+				  WHEN e.`a property` IN [true, false] THEN e.`a property`
+				  ELSE $nullValue
+				END } IN 8 CONCURRENT TRANSACTIONS OF 15 ROWS ON ERROR RETRY""";
+
+		DefaultNormalize normalize = (DefaultNormalize) new DefaultNormalize("a property", Collections.emptyList(),
+				Collections.emptyList())
+			.inBatchesOf(15)
+			.inConcurrentTransactions(8);
+		Query query = normalize.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName, s -> Optional.of("n"),
+				Batching.of(15, 8));
+
+		assertThat(query.text()).isEqualTo(expected);
+		assertThat(normalize.getFeatures().hasConcurrentTransactionsSupport()).isTrue();
+	}
+
 	@Test
 	void shouldGenerateQueryWithCustomQuery() {
 
@@ -190,6 +214,50 @@ class DefaultNormalizeTests {
 		assertThat(query.parameters().get("nullValue").asBoolean()).isTrue();
 	}
 
+	@Test
+	void shouldScopeToLabelsAndTypes() {
+
+		String expected = """
+				CALL { MATCH (n:Movie) WHERE n.watched IS NOT NULL RETURN n AS t UNION ALL MATCH (n:`A Series`) WHERE n.watched IS NOT NULL RETURN n AS t UNION ALL MATCH ()-[r:REVIEWED]->() WHERE r.watched IS NOT NULL RETURN r AS t } WITH t AS e
+				CALL { WITH e SET e.watched = CASE
+				  WHEN e.watched IN $trueValues THEN true
+				  WHEN e.watched IN $falseValues THEN false
+				  WHEN e.watched IN [true, false] THEN e.watched
+				  ELSE $nullValue
+				END } IN 4 CONCURRENT TRANSACTIONS OF 100 ROWS ON ERROR RETRY""";
+
+		DefaultNormalize normalize = (DefaultNormalize) Normalize.asBoolean("watched", List.of("y"), List.of("n"))
+			.withLabels("Movie", "A Series", " ", "Movie")
+			.withTypes("REVIEWED")
+			.inBatchesOf(100);
+		Query query = normalize.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName, s -> Optional.of("n"),
+				Batching.of(100, 4));
+
+		assertThat(query.text()).isEqualTo(expected);
+	}
+
+	@Test
+	void shouldNotFilterScopedElementsWhenNullHasAValue() {
+
+		List<Object> falseValues = new ArrayList<>();
+		falseValues.add(null);
+
+		DefaultNormalize normalize = (DefaultNormalize) Normalize.asBoolean("watched", List.of("y"), falseValues)
+			.withTypes("REVIEWED");
+		Query query = normalize.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName, s -> Optional.of("n"));
+
+		assertThat(query.text())
+			.startsWith("CALL { MATCH ()-[r:REVIEWED]->() RETURN r AS t } WITH t AS e\nSET e.watched = CASE");
+	}
+
+	@Test
+	void scopesAndCustomQueriesShouldBeExclusive() {
+
+		Normalize normalize = Normalize.asBoolean("watched", List.of("y"), List.of("n")).withLabels("Movie");
+		assertThatIllegalArgumentException().isThrownBy(() -> normalize.withCustomQuery("MATCH (n) RETURN n"))
+			.withMessage("Labels or types cannot be combined with custom queries");
+	}
+
 	// Sonar, are you drunk?! Both collections are used
 	@SuppressWarnings("squid:S4030")
 	@Test
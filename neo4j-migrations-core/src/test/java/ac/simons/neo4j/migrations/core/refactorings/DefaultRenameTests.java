@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.neo4j.driver.Query;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * @author Michael J. Simons
@@ -73,6 +74,47 @@ class DefaultRenameTests {
 		assertThat(rename.getFeatures().requiredVersion()).isEqualTo("4.4");
 	}
 
+	@Test
+	void simpleLabelRenameInConcurrentTransactions() {
+
+		DefaultRename rename = (DefaultRename) Rename.label("Film", "Movie")
+			.inBatchesOf(23)
+			.inConcurrentTransactions(4);
+
+		assertThat(rename.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName, this.elementExtractor,
+				Batching.of(23, 4)))
+			.extracting(Query::text)
+			.isEqualTo(
+					"MATCH (s:Film) CALL { WITH s REMOVE s:Film SET s:Movie } IN 4 CONCURRENT TRANSACTIONS OF 23 ROWS ON ERROR RETRY");
+		assertThat(rename.getFeatures().hasConcurrentTransactionsSupport()).isTrue();
+		assertThat(rename).isNotEqualTo(Rename.label("Film", "Movie").inBatchesOf(23));
+	}
+
+	@Test
+	void adaptiveBatchesShouldReportStatus() {
+
+		DefaultRename rename = (DefaultRename) Rename.label("Film", "Movie")
+			.inBatchesOf(23)
+			.withAdaptiveBatchSize(true);
+
+		assertThat(rename.generateQuery(Neo4jVersion.LATEST::sanitizeSchemaName, this.elementExtractor,
+				new Batching(42, null, 420, true)))
+			.extracting(Query::text)
+			.isEqualTo(
+					"MATCH (s:Film) WITH * LIMIT 420 CALL { WITH s REMOVE s:Film SET s:Movie } IN TRANSACTIONS OF 42 ROWS ON ERROR CONTINUE REPORT STATUS AS status RETURN status.transactionId AS transactionId, status.committed AS committed, status.errorMessage AS error, count(*) AS rows");
+		assertThat(rename.getFeatures().requiredVersion()).isEqualTo("5.7");
+		assertThat(rename).isNotEqualTo(Rename.label("Film", "Movie").inBatchesOf(23));
+		assertThat(rename.withAdaptiveBatchSize(true)).isSameAs(rename);
+	}
+
+	@Test
+	void concurrencyMustBePositive() {
+
+		Rename rename = Rename.label("Film", "Movie");
+		assertThatIllegalArgumentException().isThrownBy(() -> rename.inConcurrentTransactions(0))
+			.withMessage("Concurrency must be either null or equal or greater one");
+	}
+
 	@Test
 	void labelRenameWithCustomQuery() {
 		DefaultRename rename = (DefaultRename) Rename.label("Movie", "Film")
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.core.refactorings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Michael J. Simons
+ */
+class KeysetRangesTests {
+
+	private static final Query RANGE_QUERY = new Query("MATCH (n:Movie) RANGE", Map.of("property", "embedding"));
+
+	private final List<Query> executedQueries = new ArrayList<>();
+
+	private final List<RefactoringProgress> progress = new ArrayList<>();
+
+	static Result result(int propertiesSet, Record... records) {
+		var counters = mock(SummaryCounters.class);
+		given(counters.propertiesSet()).willReturn(propertiesSet);
+		var summary = mock(ResultSummary.class);
+		given(summary.counters()).willReturn(counters);
+		var result = mock(Result.class);
+		given(result.list()).willReturn(List.of(records));
+		if (records.length > 0) {
+			given(result.single()).willReturn(records[0]);
+		}
+		given(result.consume()).willReturn(summary);
+		return result;
+	}
+
+	static Record record(Map<String, Object> values) {
+		var record = mock(Record.class);
+		values.forEach((k, v) -> given(record.get(k)).willReturn(Values.value(v)));
+		return record;
+	}
+
+	private QueryRunner queryRunner(Result checkpoint, long remaining, Result... ranges) {
+		var queryRunner = mock(QueryRunner.class);
+		var rangeResults = new ArrayList<>(List.of(ranges));
+		given(queryRunner.run(any(Query.class))).willAnswer(invocation -> {
+			Query query = invocation.getArgument(0);
+			this.executedQueries.add(query);
+			if (query.text().equals(KeysetRanges.READ_QUERY)) {
+				return checkpoint;
+			}
+			if (query.text().endsWith("COUNT")) {
+				return result(0, record(Map.of("remaining", remaining)));
+			}
+			if (query.text().endsWith("RANGE")) {
+				return rangeResults.remove(0);
+			}
+			return result(0);
+		});
+		return queryRunner;
+	}
+
+	private Counters run(QueryRunner queryRunner) {
+		long[] clock = { 0 };
+		return KeysetRanges.run(queryRunner, 10,
+				count -> count ? RANGE_QUERY.withText("MATCH (n:Movie) COUNT") : RANGE_QUERY, this.progress::add,
+				() -> (clock[0] += 1_000_000_000L));
+	}
+
+	@Test
+	void shouldProcessAllRangesAndRemoveTheCheckpoint() {
+
+		var queryRunner = queryRunner(result(0), 15, result(10, record(Map.of("rows", 10L, "last", "4:x:9"))),
+				result(5, record(Map.of("rows", 5L, "last", "4:x:14"))));
+
+		var counters = run(queryRunner);
+
+		assertThat(counters.propertiesSet()).isEqualTo(15);
+		assertThat(this.executedQueries).extracting(Query::text)
+			.containsExactly(KeysetRanges.READ_QUERY, "MATCH (n:Movie) COUNT", "MATCH (n:Movie) RANGE",
+					KeysetRanges.UPDATE_QUERY, "MATCH (n:Movie) RANGE", KeysetRanges.UPDATE_QUERY,
+					KeysetRanges.DELETE_QUERY);
+		assertThat(this.executedQueries.get(2).parameters().get("checkpoint").isNull()).isTrue();
+		assertThat(this.executedQueries.get(4).parameters().get("checkpoint").asString()).isEqualTo("4:x:9");
+		assertThat(this.executedQueries.get(4).parameters().get("rangeSize").asInt()).isEqualTo(10);
+		assertThat(this.executedQueries.get(5).parameters().get("rows").asLong()).isEqualTo(15L);
+
+		assertThat(this.progress).hasSize(2).last().satisfies(p -> {
+			assertThat(p.checkpointId()).isEqualTo(KeysetRanges.checkpointId(RANGE_QUERY));
+			assertThat(p.rowsProcessed()).isEqualTo(15L);
+			assertThat(p.rowsTotal()).isEqualTo(15L);
+			assertThat(p.estimatedTimeRemaining()).hasValue(Duration.ZERO);
+		});
+		// Only full ranges are followed by another one and need to be throttled
+		verify(queryRunner).throttle(anyLong(), anyInt(), any());
+		verify(queryRunner).throttle(10L, 1, Duration.ofSeconds(2));
+	}
+
+	@Test
+	void shouldResumeAfterCheckpoint() {
+
+		var queryRunner = queryRunner(result(0, record(Map.of("last", "4:x:41", "rows", 42L))), 10,
+				result(10, record(Map.of("rows", 10L, "last", "4:x:51"))), result(0, record(Map.of("rows", 0L))));
+
+		run(queryRunner);
+
+		assertThat(this.executedQueries.get(1).parameters().get("checkpoint").asString()).isEqualTo("4:x:41");
+		assertThat(this.executedQueries.get(2).parameters().get("checkpoint").asString()).isEqualTo("4:x:41");
+		assertThat(this.executedQueries).extracting(Query::text).endsWith(KeysetRanges.DELETE_QUERY);
+		assertThat(this.progress).singleElement().satisfies(p -> {
+			assertThat(p.rowsProcessed()).isEqualTo(52L);
+			assertThat(p.rowsTotal()).isEqualTo(52L);
+		});
+	}
+
+	@Test
+	void progressShouldEstimateRemainingTime() {
+
+		var progress = KeysetRanges.progress("x", 300, 1300, 200, 2_000_000_000L);
+		assertThat(progress.rowsPerSecond()).isEqualTo(100.0);
+		assertThat(progress.estimatedTimeRemaining()).hasValue(Duration.ofSeconds(10));
+		assertThat(KeysetRanges.progress("x", 0, 10, 0, 0).estimatedTimeRemaining()).isEmpty();
+	}
+
+	@Test
+	void checkpointIdsShouldDependOnStatementAndParameters() {
+
+		assertThat(KeysetRanges.checkpointId(RANGE_QUERY))
+			.isEqualTo(KeysetRanges.checkpointId(new Query("MATCH (n:Movie) RANGE", Map.of("property", "embedding"))));
+		assertThat(KeysetRanges.checkpointId(RANGE_QUERY))
+			.isNotEqualTo(KeysetRanges.checkpointId(RANGE_QUERY.withParameters(Map.of("property", "other"))));
+	}
+
+}
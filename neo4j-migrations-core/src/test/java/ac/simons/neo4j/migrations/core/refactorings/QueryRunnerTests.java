@@ -30,6 +30,7 @@ class QueryRunnerTests {
 		QueryRunner.FeatureSet featureSet = QueryRunner.defaultFeatureSet();
 		assertThat(featureSet.hasBatchingSupport()).isFalse();
 		assertThat(featureSet.hasElementIdSupport()).isFalse();
+		assertThat(featureSet.hasConcurrentTransactionsSupport()).isFalse();
 		assertThat(featureSet.requiredVersion()).isEqualTo("4.4");
 	}
 
@@ -60,6 +61,19 @@ class QueryRunnerTests {
 			assertThat(newFeatureSet.hasElementIdSupport()).isEqualTo(newValue);
 		}
 
+		@Test
+		void withConcurrentTransactionsSupportShouldWork() {
+
+			QueryRunner.FeatureSet featureSet = QueryRunner.defaultFeatureSet();
+			assertThat(featureSet.withConcurrentTransactionsSupport(featureSet.hasConcurrentTransactionsSupport()))
+				.isSameAs(featureSet);
+
+			QueryRunner.FeatureSet newFeatureSet = featureSet.withConcurrentTransactionsSupport(true);
+			assertThat(newFeatureSet).isNotSameAs(featureSet);
+			assertThat(newFeatureSet.hasConcurrentTransactionsSupport()).isTrue();
+			assertThat(newFeatureSet.withBatchingSupport(true).hasConcurrentTransactionsSupport()).isTrue();
+		}
+
 		@Test
 		void withRequiredVersionShouldWork() {
 
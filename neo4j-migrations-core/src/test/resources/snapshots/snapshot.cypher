@@ -0,0 +1,3 @@
+// neo4j-migrations snapshot version=2 migrations=2 checksum=4711
+// Seed V2__Seed.cypher
+CREATE (:A {id: 1});
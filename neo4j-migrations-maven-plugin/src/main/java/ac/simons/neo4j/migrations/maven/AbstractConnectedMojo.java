@@ -92,6 +92,24 @@ abstract class AbstractConnectedMojo extends AbstractMojo {
 	@Parameter(defaultValue = Defaults.TRANSACTION_MODE_VALUE)
 	private TransactionMode transactionMode;
 
+	/**
+	 * The maximum number of statements per transaction when using
+	 * {@link TransactionMode#PER_N_STATEMENTS}.
+	 *
+	 * @since 4.2.0
+	 */
+	@Parameter(defaultValue = Defaults.STATEMENTS_PER_TRANSACTION_VALUE)
+	private int statementsPerTransaction;
+
+	/**
+	 * An optional budget of bytes of statements per transaction when using
+	 * {@link TransactionMode#PER_N_STATEMENTS}, {@literal 0} disables the budget.
+	 *
+	 * @since 4.2.0
+	 */
+	@Parameter(defaultValue = Defaults.MAX_BYTES_PER_TRANSACTION_VALUE)
+	private long maxBytesPerTransaction;
+
 	/**
 	 * Configures the transaction timeout that should be applied for each migration or
 	 * each statement (the latter depends on {@link #transactionMode}). {@literal null} is
@@ -151,6 +169,14 @@ abstract class AbstractConnectedMojo extends AbstractMojo {
 	@Parameter(defaultValue = Defaults.USE_FLYWAY_COMPATIBLE_CHECKSUMS_VALUE)
 	private boolean useFlywayCompatibleChecksums;
 
+	/**
+	 * Whether to fuse consecutive refactorings over the same elements into one statement
+	 * where the server supports it.
+	 * @since 4.2.0
+	 */
+	@Parameter(defaultValue = Defaults.FUSE_REFACTORINGS_VALUE)
+	private boolean fuseRefactorings;
+
 	/**
 	 * Use this property to configure a Cypher version that will be prepended to every
 	 * statement in every migration found. Leave it {@literal null} or use
@@ -204,6 +230,8 @@ abstract class AbstractConnectedMojo extends AbstractMojo {
 			.withLocationsToScan(this.locationsToScan)
 			.withPackagesToScan(this.packagesToScan)
 			.withTransactionMode(this.transactionMode)
+			.withStatementsPerTransaction(this.statementsPerTransaction)
+			.withMaxBytesPerTransaction(this.maxBytesPerTransaction)
 			.withTransactionTimeout(Optional.ofNullable(this.transactionTimeout).map(Duration::parse).orElse(null))
 			.withDatabase(this.database)
 			.withSchemaDatabase(this.schemaDatabase)
@@ -211,6 +239,7 @@ abstract class AbstractConnectedMojo extends AbstractMojo {
 			.withVersionSortOrder(this.versionSortOrder)
 			.withOutOfOrderAllowed(this.outOfOrder)
 			.withFlywayCompatibleChecksums(this.useFlywayCompatibleChecksums)
+			.withFuseRefactorings(this.fuseRefactorings)
 			.withTarget(this.target)
 			.withCypherVersion(this.cypherVersion)
 			.build();
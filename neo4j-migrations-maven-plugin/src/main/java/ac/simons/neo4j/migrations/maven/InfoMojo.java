@@ -16,9 +16,11 @@
 package ac.simons.neo4j.migrations.maven;
 
 import ac.simons.neo4j.migrations.core.MigrationChain;
+import ac.simons.neo4j.migrations.core.MigrationChain.ChainBuilderMode;
 import ac.simons.neo4j.migrations.core.Migrations;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 
 /**
@@ -32,6 +34,15 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 		defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST, threadSafe = true)
 public class InfoMojo extends AbstractConnectedMojo {
 
+	/**
+	 * The format in which the information is logged. {@literal NDJSON} and {@literal CSV}
+	 * log one line per migration without computing a table, which is useful for further
+	 * processing. Combined with {@literal REMOTE} mode, the applied migrations are read
+	 * in pages and logged as soon as each page has been read.
+	 */
+	@Parameter(defaultValue = "TABLE")
+	private Format format = Format.TABLE;
+
 	/**
 	 * The default constructor is primarily used by the Maven machinery.
 	 */
@@ -42,8 +53,35 @@ public class InfoMojo extends AbstractConnectedMojo {
 	@Override
 	void withMigrations(Migrations migrations) {
 
-		MigrationChain migrationChain = migrations.info();
-		LOGGER.info(migrationChain::prettyPrint);
+		if (this.format == Format.TABLE) {
+			MigrationChain migrationChain = migrations.info();
+			LOGGER.info(migrationChain::prettyPrint);
+		}
+		else {
+			MigrationChain.ElementFormat elementFormat = MigrationChain.ElementFormat.valueOf(this.format.name());
+			elementFormat.getHeader().ifPresent(LOGGER::info);
+			migrations.info(ChainBuilderMode.COMPARE, element -> LOGGER.info(() -> elementFormat.format(element)));
+		}
+	}
+
+	/**
+	 * Formats in which the information can be logged.
+	 */
+	public enum Format {
+
+		/**
+		 * An ASCII table including the connection details.
+		 */
+		TABLE,
+		/**
+		 * Newline delimited JSON, one object per migration.
+		 */
+		NDJSON,
+		/**
+		 * Comma separated values, one line per migration.
+		 */
+		CSV
+
 	}
 
 }
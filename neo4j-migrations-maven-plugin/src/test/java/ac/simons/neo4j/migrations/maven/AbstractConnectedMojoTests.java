@@ -20,6 +20,7 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
+import ac.simons.neo4j.migrations.core.Defaults;
 import ac.simons.neo4j.migrations.core.MigrationsConfig;
 import ac.simons.neo4j.migrations.core.MigrationsConfig.TransactionMode;
 import org.apache.maven.api.plugin.testing.InjectMojo;
@@ -91,6 +92,8 @@ public class AbstractConnectedMojoTests {
 		assertThat(config.getLocationsToScan()).hasSize(1);
 		assertThat(expectedLocationsToScan.matcher(config.getLocationsToScan()[0]).matches()).isTrue();
 		assertThat(config.getTransactionMode()).isEqualTo(TransactionMode.PER_MIGRATION);
+		assertThat(config.getStatementsPerTransaction()).isEqualTo(Defaults.STATEMENTS_PER_TRANSACTION);
+		assertThat(config.getMaxBytesPerTransaction()).isEqualTo(Defaults.MAX_BYTES_PER_TRANSACTION);
 		assertThat(config.getTransactionTimeout()).isEqualTo(Duration.ofMinutes(1).plusSeconds(23));
 	}
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.maven;
+
+import java.lang.reflect.Field;
+
+import ac.simons.neo4j.migrations.core.MigrationChain.ChainBuilderMode;
+import ac.simons.neo4j.migrations.core.Migrations;
+import org.junit.jupiter.api.Test;
+
+import static com.github.stefanbirkner.systemlambda.SystemLambda.tapSystemErr;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * @author Michael J. Simons
+ */
+public class InfoMojoTests {
+
+	@Test
+	public void shouldStreamCsv() throws Exception {
+
+		Migrations migrations = mock(Migrations.class);
+
+		InfoMojo mojo = new InfoMojo();
+		Field format = InfoMojo.class.getDeclaredField("format");
+		format.setAccessible(true);
+		format.set(mojo, InfoMojo.Format.CSV);
+
+		String log = tapSystemErr(() -> mojo.withMigrations(migrations));
+
+		assertThat(log).contains("version,description,type,installedOn,installedBy,executionTime,state,source");
+		verify(migrations).info(eq(ChainBuilderMode.COMPARE), any());
+		verifyNoMoreInteractions(migrations);
+	}
+
+}
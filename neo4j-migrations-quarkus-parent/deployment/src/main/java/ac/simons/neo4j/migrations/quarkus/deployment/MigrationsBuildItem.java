@@ -16,6 +16,7 @@
 package ac.simons.neo4j.migrations.quarkus.deployment;
 
 import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsConfig;
 import io.quarkus.builder.item.SimpleBuildItem;
 import io.quarkus.runtime.RuntimeValue;
 
@@ -30,8 +31,11 @@ final class MigrationsBuildItem extends SimpleBuildItem {
 
 	private final RuntimeValue<Migrations> value;
 
-	MigrationsBuildItem(RuntimeValue<Migrations> value) {
+	private final RuntimeValue<MigrationsConfig> config;
+
+	MigrationsBuildItem(RuntimeValue<Migrations> value, RuntimeValue<MigrationsConfig> config) {
 		this.value = value;
+		this.config = config;
 	}
 
 	/**
@@ -41,4 +45,11 @@ final class MigrationsBuildItem extends SimpleBuildItem {
 		return this.value;
 	}
 
+	/**
+	 * {@return the runtime value containing the configuration of the migrations}
+	 */
+	RuntimeValue<MigrationsConfig> getConfig() {
+		return this.config;
+	}
+
 }
@@ -33,18 +33,22 @@ import ac.simons.neo4j.migrations.core.Migrations;
 import ac.simons.neo4j.migrations.core.MigrationsConfig;
 import ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider;
 import ac.simons.neo4j.migrations.quarkus.runtime.MigrationsBuildTimeProperties;
+import ac.simons.neo4j.migrations.quarkus.runtime.MigrationsDevModeWatcher;
 import ac.simons.neo4j.migrations.quarkus.runtime.MigrationsRecorder;
 import ac.simons.neo4j.migrations.quarkus.runtime.ResourceWrapper;
 import ac.simons.neo4j.migrations.quarkus.runtime.StaticClasspathResourceScanner;
 import ac.simons.neo4j.migrations.quarkus.runtime.StaticJavaBasedMigrationDiscoverer;
 import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.deployment.IsDevelopment;
 import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.annotations.ExecutionTime;
 import io.quarkus.deployment.annotations.Record;
 import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.deployment.builditem.HotDeploymentWatchedFileBuildItem;
 import io.quarkus.deployment.builditem.ServiceStartBuildItem;
+import io.quarkus.deployment.builditem.ShutdownContextBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.NativeImageResourceBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.ServiceProviderBuildItem;
@@ -225,7 +229,7 @@ public class MigrationsProcessor {
 		syntheticBeans.produce(
 				SyntheticBeanBuildItem.configure(Migrations.class).runtimeValue(migrationsRv).setRuntimeInit().done());
 
-		return new MigrationsBuildItem(migrationsRv);
+		return new MigrationsBuildItem(migrationsRv, configRv);
 	}
 
 	@BuildStep
@@ -237,4 +241,50 @@ public class MigrationsProcessor {
 		return new ServiceStartBuildItem(FEATURE_NAME);
 	}
 
+	@BuildStep(onlyIf = IsDevelopment.class)
+	@SuppressWarnings("unused")
+	void watchClasspathLocations(MigrationsBuildTimeProperties buildTimeProperties,
+			BuildProducer<HotDeploymentWatchedFileBuildItem> watchedFiles) {
+
+		if (!buildTimeProperties.watchLocationsInDevMode()) {
+			return;
+		}
+
+		var prefixes = buildTimeProperties.locationsToScan()
+			.stream()
+			.map(Location::of)
+			.filter(location -> location.getType() == Location.LocationType.CLASSPATH)
+			.map(location -> location.getName().startsWith("/") ? location.getName().substring(1) : location.getName())
+			.toList();
+		if (prefixes.isEmpty()) {
+			return;
+		}
+		// Changed scripts are copied over without restarting the application, the
+		// watcher recorded below takes care of them
+		watchedFiles.produce(HotDeploymentWatchedFileBuildItem.builder()
+			.setLocationPredicate(path -> prefixes.stream().anyMatch(path::startsWith))
+			.setRestartNeeded(false)
+			.build());
+	}
+
+	@BuildStep(onlyIf = IsDevelopment.class)
+	@Record(ExecutionTime.RUNTIME_INIT)
+	@SuppressWarnings("unused")
+	void watchLocations(MigrationsBuildTimeProperties buildTimeProperties, MigrationsRecorder migrationsRecorder,
+			MigrationsBuildItem migrationsBuildItem, ShutdownContextBuildItem shutdownContextBuildItem,
+			BuildProducer<SyntheticBeanBuildItem> syntheticBeans) {
+
+		if (!buildTimeProperties.watchLocationsInDevMode()) {
+			return;
+		}
+
+		var watcherRv = migrationsRecorder.watchLocations(migrationsBuildItem.getValue(),
+				migrationsBuildItem.getConfig(), migrationsRecorder.isEnabled(), shutdownContextBuildItem);
+		syntheticBeans.produce(SyntheticBeanBuildItem.configure(MigrationsDevModeWatcher.class)
+			.runtimeValue(watcherRv)
+			.setRuntimeInit()
+			.unremovable()
+			.done());
+	}
+
 }
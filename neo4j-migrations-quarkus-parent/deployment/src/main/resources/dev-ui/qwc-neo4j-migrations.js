@@ -34,7 +34,8 @@ export class QwcNeo4jMigrations extends LitElement {
     static properties = {
         _connectionDetails: {state: true},
         _elements: {state: true},
-        _confirmOpened: {state: true}
+        _confirmOpened: {state: true},
+        _devModeChanges: {state: true}
     };
 
     connectedCallback() {
@@ -46,6 +47,10 @@ export class QwcNeo4jMigrations extends LitElement {
         };
         this._elements = [];
         this._confirmOpened = false;
+        this._devModeChanges = {};
+        this.rpc.getDevModeChanges().then(jsonRpcResponse => {
+            this._devModeChanges = jsonRpcResponse.result;
+        });
         this.rpc.getAllMigrations().then(jsonRpcResponse => {
             this._elements = jsonRpcResponse.result;
         });
@@ -120,7 +125,16 @@ export class QwcNeo4jMigrations extends LitElement {
 
             <vaadin-horizontal-layout>
                 <vaadin-button theme="primary" @click="${() => this._migrate()}">Migrate</vaadin-button>&#160;
-                <vaadin-button theme="error" @click="${() => this._confirmOpened = true}">Clean</vaadin-button>
+                <vaadin-button theme="error" @click="${() => this._confirmOpened = true}">Clean</vaadin-button>&#160;
+                ${(() => {
+                    if (this._devModeChanges.confirmationRequired) {
+                        return html`
+                            <vaadin-button theme="secondary" @click="${() => this._applyChangedMigrations()}">Re-apply changed repeatable migrations</vaadin-button>
+                        `
+                    } else {
+                        return html``
+                    }
+                })()}
             </vaadin-horizontal-layout>
         `;
     }
@@ -133,6 +147,14 @@ export class QwcNeo4jMigrations extends LitElement {
         });
     }
 
+    _applyChangedMigrations() {
+        this.rpc.applyChangedMigrations().then(response => {
+            this._devModeChanges = response.result;
+            this._elements = response.result.elements;
+            notifier.showPrimarySuccessMessage(response.result.message, null);
+        });
+    }
+
     _clean() {
         this._confirmOpened = false;
         this.rpc.clean().then(response => {
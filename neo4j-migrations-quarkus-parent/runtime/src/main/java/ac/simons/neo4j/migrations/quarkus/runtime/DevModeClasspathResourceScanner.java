@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.quarkus.runtime;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import ac.simons.neo4j.migrations.core.ClasspathResourceScanner;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider;
+
+/**
+ * A scanner used in dev-mode only. The resources found during build time are fixed, but
+ * in dev-mode migrations might be added to the directories backing the classpath at any
+ * time. This scanner adds those files to the ones found by the static scanner.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class DevModeClasspathResourceScanner implements ClasspathResourceScanner {
+
+	private final ClasspathResourceScanner delegate;
+
+	private final Set<String> supportedExtensions;
+
+	DevModeClasspathResourceScanner(ClasspathResourceScanner delegate) {
+		this.delegate = delegate;
+		this.supportedExtensions = ResourceBasedMigrationProvider.unique()
+			.stream()
+			.map(provider -> "." + provider.getExtension().toLowerCase(Locale.ROOT))
+			.collect(Collectors.toSet());
+	}
+
+	@Override
+	public List<URL> scan(List<String> locations) {
+
+		var result = new ArrayList<>(this.delegate.scan(locations));
+		var knownFiles = new HashSet<Path>();
+		for (var url : result) {
+			toPath(url).ifPresent(knownFiles::add);
+		}
+
+		var classpathLocations = locations.stream().map(location -> "classpath:" + location).toList();
+		for (var directory : MigrationsDevModeWatcher.resolveDirectories(classpathLocations)) {
+			try (var files = Files.walk(directory)) {
+				for (var file : files.filter(this::isSupported).toList()) {
+					if (knownFiles.add(file)) {
+						result.add(file.toUri().toURL());
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+		return result;
+	}
+
+	private boolean isSupported(Path path) {
+
+		if (!Files.isRegularFile(path)) {
+			return false;
+		}
+		var fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+		return this.supportedExtensions.stream().anyMatch(fileName::endsWith);
+	}
+
+	private static Optional<Path> toPath(URL url) {
+
+		if (!"file".equals(url.getProtocol())) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(Path.of(url.toURI()));
+		}
+		catch (URISyntaxException ex) {
+			throw new MigrationsException("Could not convert " + url + " into a path", ex);
+		}
+	}
+
+}
@@ -47,4 +47,14 @@ public interface MigrationsBuildTimeProperties {
 	@WithDefault(Defaults.LOCATIONS_TO_SCAN_VALUE)
 	List<String> locationsToScan();
 
+	/**
+	 * This is a build time configuration option and can't be changed during runtime. When
+	 * enabled, the directories backing the configured locations are watched in dev-mode
+	 * and new migrations are applied without restarting the application.
+	 * @return whether to watch the locations of migration scripts in dev-mode
+	 * @since 4.2.0
+	 */
+	@WithDefault("false")
+	boolean watchLocationsInDevMode();
+
 }
@@ -0,0 +1,468 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.quarkus.runtime;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import ac.simons.neo4j.migrations.core.Location;
+import ac.simons.neo4j.migrations.core.Migration;
+import ac.simons.neo4j.migrations.core.MigrationChain;
+import ac.simons.neo4j.migrations.core.MigrationState;
+import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsConfig;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider;
+import ac.simons.neo4j.migrations.core.ResourceContext;
+import org.jboss.logging.Logger;
+
+/**
+ * Watches the directories backing the configured locations while running in dev-mode.
+ * Only the files that changed are parsed and compared against the migrations already
+ * applied to the database: New migrations are applied right away, changed repeatable
+ * migrations are only re-applied after confirmation through the dev-ui and changes to
+ * migrations that have already been applied are reported, but never applied. The
+ * application is not restarted in any of those cases.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public final class MigrationsDevModeWatcher implements AutoCloseable {
+
+	private static final Logger LOG = Logger.getLogger("ac.simons.neo4j.migrations.quarkus.runtime");
+
+	private static final Duration QUIET_PERIOD = Duration.ofMillis(200);
+
+	private final Migrations migrations;
+
+	private final Supplier<Map<String, Optional<String>>> appliedChecksums;
+
+	private final MigrationsConfig config;
+
+	private final boolean applyNewMigrations;
+
+	private final Map<String, ResourceBasedMigrationProvider> providers;
+
+	private final Object lock = new Object();
+
+	private volatile Report lastReport;
+
+	/**
+	 * New and changed repeatable migrations of the last report, waiting for confirmation.
+	 */
+	private List<Migration> pendingMigrations = List.of();
+
+	private WatchService watchService;
+
+	private Thread watcherThread;
+
+	MigrationsDevModeWatcher(Migrations migrations, MigrationsConfig config, boolean applyNewMigrations) {
+		this(migrations, () -> appliedChecksums(migrations), config, applyNewMigrations);
+	}
+
+	MigrationsDevModeWatcher(Migrations migrations, Supplier<Map<String, Optional<String>>> appliedChecksums,
+			MigrationsConfig config, boolean applyNewMigrations) {
+		this.migrations = migrations;
+		this.appliedChecksums = appliedChecksums;
+		this.config = config;
+		this.applyNewMigrations = applyNewMigrations;
+		this.providers = ResourceBasedMigrationProvider.unique()
+			.stream()
+			.collect(Collectors.toMap(p -> p.getExtension().toLowerCase(Locale.ROOT), Function.identity()));
+	}
+
+	/**
+	 * Only the remote chain is retrieved, so that nothing is discovered locally.
+	 * @param migrations the migrations instance used to retrieve the chain
+	 * @return the checksums of all applied migrations, indexed by version
+	 */
+	static Map<String, Optional<String>> appliedChecksums(Migrations migrations) {
+
+		var result = new HashMap<String, Optional<String>>();
+		for (var element : migrations.info(MigrationChain.ChainBuilderMode.REMOTE).getElements()) {
+			if (element.getState() == MigrationState.APPLIED) {
+				result.put(element.getVersion(), element.getChecksum());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves the directories of all classpath and filesystem locations that are
+	 * actually backed by a directory. Classpath locations inside jar files can't change
+	 * and are ignored.
+	 * @param locationsToScan the configured locations
+	 * @return a list of existing directories
+	 */
+	static List<Path> resolveDirectories(Collection<String> locationsToScan) {
+
+		var ccl = Thread.currentThread().getContextClassLoader();
+		var result = new LinkedHashSet<Path>();
+		for (var value : locationsToScan) {
+			var location = Location.of(value);
+			if (location.getType() == Location.LocationType.FILESYSTEM) {
+				result.add(Path.of(location.getName()));
+				continue;
+			}
+			var name = location.getName();
+			if (name.startsWith("/")) {
+				name = name.substring(1);
+			}
+			try {
+				var resources = ccl.getResources(name);
+				while (resources.hasMoreElements()) {
+					var url = resources.nextElement();
+					if ("file".equals(url.getProtocol())) {
+						result.add(Path.of(url.toURI()));
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			catch (URISyntaxException ex) {
+				throw new MigrationsException("Could not resolve location " + value, ex);
+			}
+		}
+		return result.stream().filter(Files::isDirectory).toList();
+	}
+
+	/**
+	 * Starts watching the given directories on a daemon thread.
+	 * @param directories the directories to watch, including their subdirectories
+	 */
+	void start(Collection<Path> directories) {
+
+		if (directories.isEmpty()) {
+			LOG.debug("No directories backing the configured locations, not watching for changes.");
+			return;
+		}
+		try {
+			this.watchService = FileSystems.getDefault().newWatchService();
+			for (var directory : directories) {
+				register(directory);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		this.watcherThread = new Thread(this::watch, "neo4j-migrations-dev-mode-watcher");
+		this.watcherThread.setDaemon(true);
+		this.watcherThread.start();
+		LOG.infov("Watching {0} for changed migrations", directories);
+	}
+
+	/**
+	 * {@return the report of the last batch of changes, if any}
+	 */
+	public Optional<Report> getLastReport() {
+		return Optional.ofNullable(this.lastReport);
+	}
+
+	/**
+	 * Applies pending changes that required confirmation, such as changed repeatable
+	 * migrations.
+	 * @return the updated report
+	 */
+	public Report applyPendingChanges() {
+
+		synchronized (this.lock) {
+			var report = this.lastReport;
+			if (report == null || !report.confirmationRequired()) {
+				return new Report(Instant.now(), List.of(), false, "Nothing to apply");
+			}
+			this.lastReport = new Report(report.detectedAt(), report.changes(), false, apply(this.pendingMigrations));
+			this.pendingMigrations = List.of();
+			return this.lastReport;
+		}
+	}
+
+	@Override
+	public void close() {
+
+		if (this.watcherThread != null) {
+			this.watcherThread.interrupt();
+		}
+		if (this.watchService != null) {
+			try {
+				this.watchService.close();
+			}
+			catch (IOException ex) {
+				LOG.debug("Could not close watch service", ex);
+			}
+		}
+	}
+
+	/**
+	 * Classifies and possibly applies a batch of changed files.
+	 * @param changedFiles the files that have been created or modified
+	 * @return the report of those changes
+	 */
+	Report onChange(Collection<Path> changedFiles) {
+
+		synchronized (this.lock) {
+			var applied = this.appliedChecksums.get();
+
+			var changes = new ArrayList<Change>();
+			var migrationsToApply = new ArrayList<Migration>();
+			for (var file : changedFiles) {
+				for (var migration : parse(file)) {
+					var change = classify(migration, applied.get(migration.getVersion().getValue()));
+					changes.add(change);
+					if (change.kind() == ChangeKind.NEW || change.kind() == ChangeKind.CHANGED_REPEATABLE) {
+						migrationsToApply.add(migration);
+					}
+				}
+			}
+
+			var kinds = changes.stream().map(Change::kind).collect(Collectors.toSet());
+			for (var change : changes) {
+				if (change.kind() == ChangeKind.CHANGED_APPLIED) {
+					LOG.warnv("Migration {0} has already been applied and was changed, it won't be applied again",
+							change.source());
+				}
+			}
+
+			String message;
+			boolean confirmationRequired = false;
+			this.pendingMigrations = List.of();
+			if (kinds.contains(ChangeKind.CHANGED_REPEATABLE)) {
+				// Applying migrations will re-apply changed repeatable migrations, too, so
+				// nothing happens without confirmation
+				confirmationRequired = true;
+				this.pendingMigrations = List.copyOf(migrationsToApply);
+				message = "Changed repeatable migrations detected, confirm to re-apply them";
+			}
+			else if (kinds.contains(ChangeKind.CHANGED_APPLIED)) {
+				message = "Changes to already applied migrations detected, not applying anything";
+			}
+			else if (!kinds.contains(ChangeKind.NEW)) {
+				message = "No new migrations";
+			}
+			else if (!this.applyNewMigrations) {
+				message = "New migrations detected, but migrations are disabled";
+			}
+			else {
+				message = apply(migrationsToApply);
+			}
+
+			this.lastReport = new Report(Instant.now(), List.copyOf(changes), confirmationRequired, message);
+			LOG.info(message);
+			return this.lastReport;
+		}
+	}
+
+	private void register(Path directory) throws IOException {
+
+		try (var directories = Files.walk(directory)) {
+			for (var dir : directories.filter(Files::isDirectory).toList()) {
+				dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+		}
+	}
+
+	private void watch() {
+
+		while (!Thread.currentThread().isInterrupted()) {
+			var changedFiles = new LinkedHashSet<Path>();
+			try {
+				var key = this.watchService.take();
+				// Editors tend to write a file in several steps, so all events are
+				// collected until nothing happens for a moment
+				while (key != null) {
+					collect(key, changedFiles);
+					key = this.watchService.poll(QUIET_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (ClosedWatchServiceException ex) {
+				return;
+			}
+
+			if (!changedFiles.isEmpty()) {
+				try {
+					onChange(changedFiles);
+				}
+				catch (RuntimeException ex) {
+					LOG.error("Could not process changed migrations", ex);
+				}
+			}
+		}
+	}
+
+	private void collect(WatchKey key, Set<Path> changedFiles) {
+
+		var directory = (Path) key.watchable();
+		for (var event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				continue;
+			}
+			var path = directory.resolve((Path) event.context());
+			if (Files.isDirectory(path) && event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+				try {
+					register(path);
+					try (var files = Files.walk(path)) {
+						files.filter(this::isSupported).forEach(changedFiles::add);
+					}
+				}
+				catch (IOException ex) {
+					LOG.warnv("Could not watch {0}", path);
+				}
+			}
+			else if (isSupported(path)) {
+				changedFiles.add(path);
+			}
+		}
+		key.reset();
+	}
+
+	private boolean isSupported(Path path) {
+		return Files.isRegularFile(path) && findProvider(path).isPresent();
+	}
+
+	private Optional<ResourceBasedMigrationProvider> findProvider(Path path) {
+
+		var fileName = path.getFileName().toString();
+		var idx = fileName.lastIndexOf('.');
+		if (idx < 0) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(this.providers.get(fileName.substring(idx + 1).toLowerCase(Locale.ROOT)));
+	}
+
+	private Collection<Migration> parse(Path file) {
+
+		var provider = findProvider(file);
+		if (provider.isEmpty() || !Files.isRegularFile(file)) {
+			return List.of();
+		}
+		try {
+			return provider.get().handle(ResourceContext.of(file.toUri().toURL(), this.config));
+		}
+		catch (MalformedURLException | MigrationsException ex) {
+			LOG.warnv("Could not parse {0}: {1}", file, ex.getMessage());
+			return List.of();
+		}
+	}
+
+	private static Change classify(Migration migration, Optional<String> appliedChecksum) {
+
+		ChangeKind kind;
+		if (appliedChecksum == null) {
+			kind = ChangeKind.NEW;
+		}
+		else if (appliedChecksum.equals(migration.getChecksum())) {
+			kind = ChangeKind.UNCHANGED;
+		}
+		else if (migration.isRepeatable()) {
+			kind = ChangeKind.CHANGED_REPEATABLE;
+		}
+		else {
+			kind = ChangeKind.CHANGED_APPLIED;
+		}
+		return new Change(migration.getSource(), migration.getVersion().getValue(), kind);
+	}
+
+	private String apply(List<Migration> migrationsToApply) {
+
+		try {
+			// Only the parsed migrations are applied on top of the chain, nothing is
+			// discovered again
+			return this.migrations.apply(migrationsToApply)
+				.map(version -> "Database migrated to " + version.getValue())
+				.orElse("No change");
+		}
+		catch (MigrationsException ex) {
+			LOG.error("Could not apply changed migrations", ex);
+			return "Could not apply changed migrations: " + ex.getMessage();
+		}
+	}
+
+	/**
+	 * The kind of change detected for a single migration.
+	 */
+	public enum ChangeKind {
+
+		/**
+		 * The migration has not been applied yet.
+		 */
+		NEW,
+		/**
+		 * The migration has been applied with the same checksum.
+		 */
+		UNCHANGED,
+		/**
+		 * A repeatable migration that has been applied with a different checksum.
+		 */
+		CHANGED_REPEATABLE,
+		/**
+		 * A non-repeatable migration that has been applied with a different checksum.
+		 */
+		CHANGED_APPLIED
+
+	}
+
+	/**
+	 * A change to a single migration.
+	 *
+	 * @param source the source of the migration
+	 * @param version the version of the migration
+	 * @param kind the kind of change
+	 */
+	public record Change(String source, String version, ChangeKind kind) {
+	}
+
+	/**
+	 * The outcome of processing a batch of changed files.
+	 *
+	 * @param detectedAt the instant the changes have been processed
+	 * @param changes all changes detected
+	 * @param confirmationRequired {@literal true} if changes are pending until
+	 * {@link #applyPendingChanges()} is called
+	 * @param message a human-readable summary
+	 */
+	public record Report(Instant detectedAt, List<Change> changes, boolean confirmationRequired, String message) {
+	}
+
+}
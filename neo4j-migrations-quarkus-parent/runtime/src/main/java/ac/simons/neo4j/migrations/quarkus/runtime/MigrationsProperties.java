@@ -68,6 +68,25 @@ public interface MigrationsProperties {
 	@WithDefault(Defaults.TRANSACTION_MODE_VALUE)
 	MigrationsConfig.TransactionMode transactionMode();
 
+	/**
+	 * The maximum number of statements run in one transaction when the transaction mode
+	 * is "per n statements".
+	 * @return the maximum number of statements per transaction
+	 * @since 4.2.0
+	 */
+	@WithDefault(Defaults.STATEMENTS_PER_TRANSACTION_VALUE)
+	int statementsPerTransaction();
+
+	/**
+	 * An optional budget of bytes of all statements run in one transaction when the
+	 * transaction mode is "per n statements". {@literal 0} (the default) disables the
+	 * budget.
+	 * @return the budget of bytes per transaction
+	 * @since 4.2.0
+	 */
+	@WithDefault(Defaults.MAX_BYTES_PER_TRANSACTION_VALUE)
+	long maxBytesPerTransaction();
+
 	/**
 	 * Returns the database that should be migrated (Neo4j EE 4.0+ only), leave empty for
 	 * using the default database.
@@ -158,6 +177,15 @@ public interface MigrationsProperties {
 	@WithDefault(Defaults.USE_FLYWAY_COMPATIBLE_CHECKSUMS_VALUE)
 	boolean useFlywayCompatibleChecksums();
 
+	/**
+	 * Fuse consecutive refactorings over the same elements into one statement. Fusing is
+	 * skipped on servers that don't support the fused statement.
+	 * @return whether to fuse consecutive refactorings or not
+	 * @since 4.2.0
+	 */
+	@WithDefault(Defaults.FUSE_REFACTORINGS_VALUE)
+	boolean fuseRefactorings();
+
 	/**
 	 * Configures the target version up to which migrations should be considered. This
 	 * must be a valid migration version, or one of the special values {@code current},
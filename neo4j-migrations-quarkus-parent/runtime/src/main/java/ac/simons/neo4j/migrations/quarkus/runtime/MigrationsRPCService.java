@@ -23,6 +23,7 @@ import io.quarkus.runtime.annotations.DevMCPEnableByDefault;
 import io.quarkus.runtime.annotations.JsonRpcDescription;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 
 /**
@@ -35,9 +36,16 @@ public final class MigrationsRPCService {
 
 	private final Migrations migrations;
 
-	@Inject
+	private final MigrationsDevModeWatcher watcher;
+
 	public MigrationsRPCService(Migrations migrations) {
+		this(migrations, null);
+	}
+
+	@Inject
+	public MigrationsRPCService(Migrations migrations, Instance<MigrationsDevModeWatcher> watcher) {
 		this.migrations = migrations;
+		this.watcher = (watcher != null && watcher.isResolvable()) ? watcher.get() : null;
 	}
 
 	public String getLabel() {
@@ -93,4 +101,41 @@ public final class MigrationsRPCService {
 		return result;
 	}
 
+	@JsonRpcDescription("Returns the migrations that have been changed since the application has been started in dev-mode and what has been done with them.")
+	@DevMCPEnableByDefault
+	public JsonObject getDevModeChanges() {
+
+		if (this.watcher == null) {
+			return new JsonObject().put("message", "Locations are not watched for changes");
+		}
+		return this.watcher.getLastReport()
+			.map(MigrationsRPCService::toJson)
+			.orElseGet(() -> new JsonObject().put("message", "No changes"));
+	}
+
+	@JsonRpcDescription("Re-applies changed repeatable migrations detected in dev-mode that are waiting for confirmation.")
+	public JsonObject applyChangedMigrations() {
+
+		if (this.watcher == null) {
+			return new JsonObject().put("message", "Locations are not watched for changes");
+		}
+		var result = toJson(this.watcher.applyPendingChanges());
+		result.put("elements", getAllMigrations());
+		return result;
+	}
+
+	private static JsonObject toJson(MigrationsDevModeWatcher.Report report) {
+
+		var changes = new JsonArray();
+		for (var change : report.changes()) {
+			changes.add(new JsonObject().put("source", change.source())
+				.put("version", change.version())
+				.put("kind", change.kind().name()));
+		}
+		return new JsonObject().put("detectedAt", report.detectedAt().toString())
+			.put("message", report.message())
+			.put("confirmationRequired", report.confirmationRequired())
+			.put("changes", changes);
+	}
+
 }
@@ -22,7 +22,9 @@ import ac.simons.neo4j.migrations.core.ClasspathResourceScanner;
 import ac.simons.neo4j.migrations.core.Location;
 import ac.simons.neo4j.migrations.core.Migrations;
 import ac.simons.neo4j.migrations.core.MigrationsConfig;
+import io.quarkus.runtime.LaunchMode;
 import io.quarkus.runtime.RuntimeValue;
+import io.quarkus.runtime.ShutdownContext;
 import io.quarkus.runtime.annotations.Recorder;
 import org.jboss.logging.Logger;
 import org.neo4j.driver.Driver;
@@ -68,10 +70,17 @@ public class MigrationsRecorder {
 			return isFileSystem;
 		}).forEach(allLocationsToScan::add));
 
+		var scanner = resourceScanner;
+		if (LaunchMode.current() == LaunchMode.DEVELOPMENT && buildTimeProperties.watchLocationsInDevMode()) {
+			scanner = new DevModeClasspathResourceScanner(resourceScanner);
+		}
+
 		var config = MigrationsConfig.builder()
 			.withLocationsToScan(allLocationsToScan.toArray(new String[0]))
 			.withPackagesToScan(buildTimeProperties.packagesToScan().map(v -> v.toArray(String[]::new)).orElse(null))
 			.withTransactionMode(runtimeProperties.transactionMode())
+			.withStatementsPerTransaction(runtimeProperties.statementsPerTransaction())
+			.withMaxBytesPerTransaction(runtimeProperties.maxBytesPerTransaction())
 			.withTransactionTimeout(runtimeProperties.transactionTimeout().orElse(null))
 			.withDatabase(runtimeProperties.database().orElse(null))
 			.withSchemaDatabase(runtimeProperties.schemaDatabase().orElse(null))
@@ -80,11 +89,12 @@ public class MigrationsRecorder {
 			.withValidateOnMigrate(runtimeProperties.validateOnMigrate())
 			.withAutocrlf(runtimeProperties.autocrlf())
 			.withMigrationClassesDiscoverer(discoverer)
-			.withResourceScanner(resourceScanner)
+			.withResourceScanner(scanner)
 			.withDelayBetweenMigrations(runtimeProperties.delayBetweenMigrations().orElse(null))
 			.withVersionSortOrder(runtimeProperties.versionSortOrder())
 			.withOutOfOrderAllowed(runtimeProperties.outOfOrder())
 			.withFlywayCompatibleChecksums(runtimeProperties.useFlywayCompatibleChecksums())
+			.withFuseRefactorings(runtimeProperties.fuseRefactorings())
 			.withTarget(runtimeProperties.target().orElse(null))
 			.withCypherVersion(runtimeProperties.cypherVersion())
 			.withPlaceholders(runtimeProperties.placeholders())
@@ -132,4 +142,26 @@ public class MigrationsRecorder {
 		}
 	}
 
+	/**
+	 * Starts watching the directories backing the configured locations for changed
+	 * migrations. Only to be used in dev-mode.
+	 * @param migrationsRv the runtime value containing the migrations instance
+	 * @param migrationsConfig the runtime value for the configuration
+	 * @param migrationsEnabledRv the runtime value containing the flag whether migrations
+	 * are enabled or not
+	 * @param shutdownContext used to stop watching on shutdown
+	 * @return a runtime value containing the watcher
+	 */
+	public RuntimeValue<MigrationsDevModeWatcher> watchLocations(RuntimeValue<Migrations> migrationsRv,
+			RuntimeValue<MigrationsConfig> migrationsConfig, RuntimeValue<Boolean> migrationsEnabledRv,
+			ShutdownContext shutdownContext) {
+
+		var config = migrationsConfig.getValue();
+		var watcher = new MigrationsDevModeWatcher(migrationsRv.getValue(), config,
+				Boolean.TRUE.equals(migrationsEnabledRv.getValue()));
+		watcher.start(MigrationsDevModeWatcher.resolveDirectories(List.of(config.getLocationsToScan())));
+		shutdownContext.addShutdownTask(watcher::close);
+		return new RuntimeValue<>(watcher);
+	}
+
 }
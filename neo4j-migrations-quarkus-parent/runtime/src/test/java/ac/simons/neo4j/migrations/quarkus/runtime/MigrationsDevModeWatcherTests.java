@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.quarkus.runtime;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import ac.simons.neo4j.migrations.core.ClasspathResourceScanner;
+import ac.simons.neo4j.migrations.core.Migration;
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsConfig;
+import ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider;
+import ac.simons.neo4j.migrations.core.ResourceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Michael J. Simons
+ */
+class MigrationsDevModeWatcherTests {
+
+	private static final MigrationsConfig CONFIG = MigrationsConfig.defaultConfig();
+
+	@TempDir
+	Path dir;
+
+	private static Path write(Path dir, String name, String content) throws IOException {
+		return Files.writeString(dir.resolve(name), content);
+	}
+
+	private static Map<String, Optional<String>> applied(Path file, String checksum) throws IOException {
+
+		var migration = ResourceBasedMigrationProvider.unique()
+			.stream()
+			.filter(provider -> "cypher".equals(provider.getExtension()))
+			.findFirst()
+			.orElseThrow()
+			.handle(ResourceContext.of(file.toUri().toURL(), CONFIG))
+			.iterator()
+			.next();
+
+		return Map.of(migration.getVersion().getValue(),
+				(checksum != null) ? Optional.of(checksum) : migration.getChecksum());
+	}
+
+	private static Migrations newMigrations() {
+
+		var migrations = mock(Migrations.class);
+		given(migrations.apply(anyCollection())).willReturn(Optional.of(MigrationVersion.withValue("2")));
+		return migrations;
+	}
+
+	@Test
+	void newMigrationsShouldBeApplied() throws IOException {
+
+		var v1 = write(this.dir, "V1__first.cypher", "CREATE (n:One)");
+		var migrations = newMigrations();
+		var appliedChecksums = applied(v1, null);
+		var v2 = write(this.dir, "V2__second.cypher", "CREATE (n:Two)");
+
+		var watcher = new MigrationsDevModeWatcher(migrations, () -> appliedChecksums, CONFIG, true);
+		var report = watcher.onChange(List.of(v1, v2));
+
+		assertThat(report.changes()).extracting(MigrationsDevModeWatcher.Change::kind)
+			.containsExactly(MigrationsDevModeWatcher.ChangeKind.UNCHANGED, MigrationsDevModeWatcher.ChangeKind.NEW);
+		assertThat(report.confirmationRequired()).isFalse();
+		assertThat(report.message()).isEqualTo("Database migrated to 2");
+		assertThat(watcher.getLastReport()).hasValue(report);
+		verify(migrations).apply(argThat((Collection<Migration> applied) -> applied.size() == 1
+				&& applied.iterator().next().getVersion().getValue().equals("2")));
+		verify(migrations, never()).clearCache();
+		verify(migrations, never()).apply();
+	}
+
+	@Test
+	void newMigrationsShouldNotBeAppliedWhenDisabled() throws IOException {
+
+		var migrations = newMigrations();
+		Map<String, Optional<String>> appliedChecksums = Map.of();
+		var v1 = write(this.dir, "V1__first.cypher", "CREATE (n:One)");
+
+		var watcher = new MigrationsDevModeWatcher(migrations, () -> appliedChecksums, CONFIG, false);
+		var report = watcher.onChange(List.of(v1));
+
+		assertThat(report.changes()).extracting(MigrationsDevModeWatcher.Change::kind)
+			.containsExactly(MigrationsDevModeWatcher.ChangeKind.NEW);
+		verify(migrations, never()).apply(anyCollection());
+	}
+
+	@Test
+	void changedRepeatableMigrationsShouldRequireConfirmation() throws IOException {
+
+		var r1 = write(this.dir, "R1__repeat.cypher", "MERGE (n:Repeat)");
+		var migrations = newMigrations();
+		var appliedChecksums = applied(r1, "4711");
+		var v2 = write(this.dir, "V2__second.cypher", "CREATE (n:Two)");
+
+		var watcher = new MigrationsDevModeWatcher(migrations, () -> appliedChecksums, CONFIG, true);
+		var report = watcher.onChange(List.of(r1, v2));
+
+		assertThat(report.changes()).extracting(MigrationsDevModeWatcher.Change::kind)
+			.containsExactly(MigrationsDevModeWatcher.ChangeKind.CHANGED_REPEATABLE,
+					MigrationsDevModeWatcher.ChangeKind.NEW);
+		assertThat(report.confirmationRequired()).isTrue();
+		verify(migrations, never()).apply(anyCollection());
+
+		report = watcher.applyPendingChanges();
+		assertThat(report.confirmationRequired()).isFalse();
+		assertThat(report.message()).isEqualTo("Database migrated to 2");
+		verify(migrations).apply(argThat((Collection<Migration> applied) -> applied.size() == 2));
+
+		report = watcher.applyPendingChanges();
+		assertThat(report.message()).isEqualTo("Nothing to apply");
+	}
+
+	@Test
+	void changedAppliedMigrationsShouldNeverBeApplied() throws IOException {
+
+		var v1 = write(this.dir, "V1__first.cypher", "CREATE (n:One)");
+		var migrations = newMigrations();
+		var appliedChecksums = applied(v1, "4711");
+
+		var watcher = new MigrationsDevModeWatcher(migrations, () -> appliedChecksums, CONFIG, true);
+		var report = watcher.onChange(List.of(v1));
+
+		assertThat(report.changes()).extracting(MigrationsDevModeWatcher.Change::kind)
+			.containsExactly(MigrationsDevModeWatcher.ChangeKind.CHANGED_APPLIED);
+		assertThat(report.confirmationRequired()).isFalse();
+		verify(migrations, never()).apply(anyCollection());
+	}
+
+	@Test
+	void unsupportedOrInvalidFilesShouldBeIgnored() throws IOException {
+
+		var migrations = newMigrations();
+		Map<String, Optional<String>> appliedChecksums = Map.of();
+		var txt = write(this.dir, "V1__first.txt", "Hallo");
+		var invalid = write(this.dir, "first.cypher", "CREATE (n:One)");
+
+		var watcher = new MigrationsDevModeWatcher(migrations, () -> appliedChecksums, CONFIG, true);
+		var report = watcher.onChange(List.of(txt, invalid, this.dir.resolve("V3__gone.cypher")));
+
+		assertThat(report.changes()).isEmpty();
+		assertThat(report.message()).isEqualTo("No new migrations");
+		verify(migrations, never()).apply(anyCollection());
+	}
+
+	@Test
+	void shouldWatchDirectories() throws IOException, InterruptedException {
+
+		var migrations = newMigrations();
+		Map<String, Optional<String>> appliedChecksums = Map.of();
+		var nested = Files.createDirectories(this.dir.resolve("nested"));
+
+		try (var watcher = new MigrationsDevModeWatcher(migrations, () -> appliedChecksums, CONFIG, true)) {
+			watcher.start(MigrationsDevModeWatcher.resolveDirectories(List.of("file:" + this.dir)));
+			write(nested, "V1__first.cypher", "CREATE (n:One)");
+
+			var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+			while (watcher.getLastReport().isEmpty() && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+			assertThat(watcher.getLastReport()).hasValueSatisfying(
+					report -> assertThat(report.changes()).extracting(MigrationsDevModeWatcher.Change::version)
+						.containsExactly("1"));
+		}
+		verify(migrations).apply(anyCollection());
+	}
+
+	@Test
+	void devModeScannerShouldFindNewClasspathResources() throws IOException {
+
+		var location = Files.createDirectories(this.dir.resolve("neo4j/migrations"));
+		write(location, "V1__first.cypher", "CREATE (n:One)");
+		write(location, "ignored.txt", "Hallo");
+
+		ClasspathResourceScanner staticScanner = locations -> List.of();
+		var scanner = new DevModeClasspathResourceScanner(staticScanner);
+		var ccl = Thread.currentThread().getContextClassLoader();
+		try (var classLoader = new URLClassLoader(new URL[] { this.dir.toUri().toURL() }, null)) {
+			Thread.currentThread().setContextClassLoader(classLoader);
+
+			assertThat(scanner.scan(List.of("neo4j/migrations"))).hasSize(1)
+				.first()
+				.satisfies(url -> assertThat(url.getPath()).endsWith("V1__first.cypher"));
+
+			write(location, "V2__second.cypher", "CREATE (n:Two)");
+			assertThat(scanner.scan(List.of("neo4j/migrations"))).hasSize(2);
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(ccl);
+		}
+	}
+
+	@Test
+	void devModeScannerShouldNotDuplicateStaticResources() throws IOException {
+
+		var location = Files.createDirectories(this.dir.resolve("neo4j/migrations"));
+		var v1 = write(location, "V1__first.cypher", "CREATE (n:One)");
+
+		var v1Url = v1.toUri().toURL();
+		ClasspathResourceScanner staticScanner = locations -> List.of(v1Url);
+		var scanner = new DevModeClasspathResourceScanner(staticScanner);
+		var ccl = Thread.currentThread().getContextClassLoader();
+		try (var classLoader = new URLClassLoader(new URL[] { this.dir.toUri().toURL() }, null)) {
+			Thread.currentThread().setContextClassLoader(classLoader);
+
+			assertThat(scanner.scan(List.of("/neo4j/migrations"))).containsExactly(v1Url);
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(ccl);
+		}
+	}
+
+}
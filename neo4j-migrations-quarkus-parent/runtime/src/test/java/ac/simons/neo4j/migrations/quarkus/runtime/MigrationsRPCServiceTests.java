@@ -15,10 +15,15 @@
  */
 package ac.simons.neo4j.migrations.quarkus.runtime;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 import ac.simons.neo4j.migrations.core.CleanResult;
 import ac.simons.neo4j.migrations.core.ConnectionDetails;
 import ac.simons.neo4j.migrations.core.MigrationChain;
 import ac.simons.neo4j.migrations.core.Migrations;
+import jakarta.enterprise.inject.Instance;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -131,4 +136,45 @@ class MigrationsRPCServiceTests {
 		verifyNoMoreInteractions(migrations, cleanResult);
 	}
 
+	@Test
+	void devModeChangesShouldWorkWithoutWatcher() {
+		var migrations = mock(Migrations.class);
+
+		var service = new MigrationsRPCService(migrations);
+		assertThat(service.getDevModeChanges().getString("message")).isEqualTo("Locations are not watched for changes");
+		assertThat(service.applyChangedMigrations().getString("message"))
+			.isEqualTo("Locations are not watched for changes");
+		verifyNoMoreInteractions(migrations);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void devModeChangesShouldWork() {
+		var migrations = mock(Migrations.class);
+		given(migrations.info()).willReturn(MigrationChain
+			.empty(ConnectionDetails.of("theAddress", "4711", "USS Stargazer", "Picard", null, null)));
+		var watcher = mock(MigrationsDevModeWatcher.class);
+		var report = new MigrationsDevModeWatcher.Report(Instant.now(),
+				List.of(new MigrationsDevModeWatcher.Change("R1__repeat.cypher", "1",
+						MigrationsDevModeWatcher.ChangeKind.CHANGED_REPEATABLE)),
+				true, "Changed repeatable migrations detected, confirm to re-apply them");
+		given(watcher.getLastReport()).willReturn(Optional.of(report));
+		given(watcher.applyPendingChanges()).willReturn(new MigrationsDevModeWatcher.Report(report.detectedAt(),
+				report.changes(), false, "Database migrated to 1"));
+		Instance<MigrationsDevModeWatcher> instance = mock(Instance.class);
+		given(instance.isResolvable()).willReturn(true);
+		given(instance.get()).willReturn(watcher);
+
+		var service = new MigrationsRPCService(migrations, instance);
+		var changes = service.getDevModeChanges();
+		assertThat(changes.getBoolean("confirmationRequired")).isTrue();
+		assertThat(changes.getJsonArray("changes").getJsonObject(0).getString("kind")).isEqualTo("CHANGED_REPEATABLE");
+
+		var result = service.applyChangedMigrations();
+		assertThat(result.getBoolean("confirmationRequired")).isFalse();
+		assertThat(result.getString("message")).isEqualTo("Database migrated to 1");
+		assertThat(result.containsKey("elements")).isTrue();
+		verify(watcher).applyPendingChanges();
+	}
+
 }
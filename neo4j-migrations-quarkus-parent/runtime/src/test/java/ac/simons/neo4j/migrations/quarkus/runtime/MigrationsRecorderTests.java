@@ -24,6 +24,7 @@ import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
+import ac.simons.neo4j.migrations.core.Defaults;
 import ac.simons.neo4j.migrations.core.MigrationsConfig;
 import io.quarkus.runtime.RuntimeValue;
 import org.junit.jupiter.api.AfterAll;
@@ -64,10 +65,18 @@ class MigrationsRecorderTests {
 		jdkLogger.removeHandler(this.handler);
 	}
 
+	private static MigrationsProperties properties() {
+
+		// Primitive properties have defaults in the configuration mapping that a mock doesn't know about
+		var properties = mock(MigrationsProperties.class);
+		given(properties.statementsPerTransaction()).willReturn(Defaults.STATEMENTS_PER_TRANSACTION);
+		return properties;
+	}
+
 	@Test
 	void migrationConfigShouldWork() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.autocrlf()).willReturn(true);
 		given(properties.database()).willReturn(Optional.of("db"));
 		given(properties.installedBy()).willReturn(Optional.of("ich"));
@@ -107,7 +116,7 @@ class MigrationsRecorderTests {
 	@Test
 	void delayShallBeConfigurable() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.autocrlf()).willReturn(true);
 		given(properties.database()).willReturn(Optional.empty());
 		given(properties.installedBy()).willReturn(Optional.empty());
@@ -127,10 +136,30 @@ class MigrationsRecorderTests {
 		assertThat(config.getOptionalDelayBetweenMigrations()).hasValue(Duration.ofSeconds(1));
 	}
 
+	@Test
+	void chunkedTransactionsShouldBeConfigurable() {
+
+		var properties = properties();
+		given(properties.transactionMode()).willReturn(MigrationsConfig.TransactionMode.PER_N_STATEMENTS);
+		given(properties.statementsPerTransaction()).willReturn(23);
+		given(properties.maxBytesPerTransaction()).willReturn(4096L);
+
+		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
+		given(buildTimeProperties.packagesToScan()).willReturn(Optional.empty());
+		given(buildTimeProperties.locationsToScan()).willReturn(List.of("bar"));
+
+		var config = new MigrationsRecorder(new RuntimeValue<>(properties))
+			.recordConfig(buildTimeProperties, null, null)
+			.getValue();
+		assertThat(config.getTransactionMode()).isEqualTo(MigrationsConfig.TransactionMode.PER_N_STATEMENTS);
+		assertThat(config.getStatementsPerTransaction()).isEqualTo(23);
+		assertThat(config.getMaxBytesPerTransaction()).isEqualTo(4096L);
+	}
+
 	@Test // GH-1213
 	void outOfOrderShouldBeDisallowedByDefault() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
 		given(buildTimeProperties.packagesToScan()).willReturn(Optional.empty());
@@ -145,7 +174,7 @@ class MigrationsRecorderTests {
 	@Test // GH-1213
 	void outOfOrderShouldBeApplied() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.outOfOrder()).willReturn(true);
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
@@ -161,7 +190,7 @@ class MigrationsRecorderTests {
 	@Test
 	void useFlywayCompatibleChecksumsShouldBeDisabled() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
 		given(buildTimeProperties.packagesToScan()).willReturn(Optional.empty());
@@ -176,7 +205,7 @@ class MigrationsRecorderTests {
 	@Test
 	void useFlywayCompatibleChecksumsShouldBeEnabled() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.useFlywayCompatibleChecksums()).willReturn(true);
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
@@ -192,7 +221,7 @@ class MigrationsRecorderTests {
 	@Test // GH-1536
 	void targetShouldBeNullByDefault() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.target()).willReturn(Optional.empty());
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
@@ -208,7 +237,7 @@ class MigrationsRecorderTests {
 	@Test // GH-1536
 	void targetShouldBeApplied() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.target()).willReturn(Optional.of("latest"));
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
@@ -224,7 +253,7 @@ class MigrationsRecorderTests {
 	@Test
 	void cypherVersionShouldHaveDefault() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
 		given(buildTimeProperties.packagesToScan()).willReturn(Optional.empty());
@@ -239,7 +268,7 @@ class MigrationsRecorderTests {
 	@Test
 	void cypherVersionShouldBeApplied() {
 
-		var properties = mock(MigrationsProperties.class);
+		var properties = properties();
 		given(properties.cypherVersion()).willReturn(MigrationsConfig.CypherVersion.CYPHER_25);
 
 		var buildTimeProperties = mock(MigrationsBuildTimeProperties.class);
@@ -17,8 +17,10 @@ package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
 
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import ac.simons.neo4j.migrations.core.Discoverer;
@@ -29,10 +31,13 @@ import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
 
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
 
 /**
  * A discoverer for {@link JavaBasedMigration Java based migrations} using the Spring
- * context, thus enable components being used as migrations.
+ * context, thus enable components being used as migrations. When a
+ * {@link StaticDiscoveryResult} from Spring AOT processing is available, the classes
+ * recorded in there are used instead of scanning the configured packages.
  *
  * @author Michael J. Simons
  * @since 2.11.0
@@ -41,8 +46,40 @@ final class ApplicationContextAwareDiscoverer implements Discoverer<JavaBasedMig
 
 	private final ObjectProvider<JavaBasedMigration> javaBasedMigrations;
 
+	private final StaticDiscoveryResult staticDiscoveryResult;
+
 	ApplicationContextAwareDiscoverer(ObjectProvider<JavaBasedMigration> javaBasedMigrations) {
+		this(javaBasedMigrations, null);
+	}
+
+	ApplicationContextAwareDiscoverer(ObjectProvider<JavaBasedMigration> javaBasedMigrations,
+			StaticDiscoveryResult staticDiscoveryResult) {
 		this.javaBasedMigrations = javaBasedMigrations;
+		this.staticDiscoveryResult = staticDiscoveryResult;
+	}
+
+	private static JavaBasedMigration newInstance(Class<? extends JavaBasedMigration> c) {
+		try {
+			return JavaBasedMigration.getDefaultConstructorFor(c).newInstance();
+		}
+		catch (Exception ex) {
+			throw new MigrationsException("Could not instantiate migration " + c.getName(), ex);
+		}
+	}
+
+	private static Class<? extends JavaBasedMigration> loadClass(String className) {
+		try {
+			return ClassUtils.forName(className, ClassUtils.getDefaultClassLoader())
+				.asSubclass(JavaBasedMigration.class);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new MigrationsException("Could not load migration " + className, ex);
+		}
+	}
+
+	private static boolean isInPackages(String className, String[] packages) {
+		var packageName = ClassUtils.getPackageName(className);
+		return Arrays.stream(packages).anyMatch(p -> packageName.equals(p) || packageName.startsWith(p + "."));
 	}
 
 	@Override
@@ -56,8 +93,24 @@ final class ApplicationContextAwareDiscoverer implements Discoverer<JavaBasedMig
 		// And keep a set of the already discovered types
 		var loadedClasses = result.stream().map(JavaBasedMigration::getClass).collect(Collectors.toSet());
 
-		// If configured, use the same algorithm as the default scanner
-		if (config.getPackagesToScan().length != 0) {
+		if (config.getPackagesToScan().length == 0) {
+			return List.copyOf(result);
+		}
+
+		Predicate<Class<? extends JavaBasedMigration>> notYetLoaded = c -> !(Modifier.isAbstract(c.getModifiers())
+				|| loadedClasses.contains(c));
+		if (this.staticDiscoveryResult != null) {
+			// Classes have been found during AOT processing, no need to scan again
+			this.staticDiscoveryResult.getMigrationClassNames()
+				.stream()
+				.filter(className -> isInPackages(className, config.getPackagesToScan()))
+				.map(ApplicationContextAwareDiscoverer::loadClass)
+				.filter(notYetLoaded)
+				.map(ApplicationContextAwareDiscoverer::newInstance)
+				.forEach(result::add);
+		}
+		else {
+			// If configured, use the same algorithm as the default scanner
 			try (ScanResult scanResult = new ClassGraph().enableAllInfo()
 				.acceptPackages(config.getPackagesToScan())
 				.enableExternalClasses()
@@ -66,15 +119,8 @@ final class ApplicationContextAwareDiscoverer implements Discoverer<JavaBasedMig
 				scanResult.getClassesImplementing(JavaBasedMigration.class.getName())
 					.loadClasses(JavaBasedMigration.class)
 					.stream()
-					.filter(c -> !(Modifier.isAbstract(c.getModifiers()) || loadedClasses.contains(c)))
-					.map(c -> {
-						try {
-							return JavaBasedMigration.getDefaultConstructorFor(c).newInstance();
-						}
-						catch (Exception ex) {
-							throw new MigrationsException("Could not instantiate migration " + c.getName(), ex);
-						}
-					})
+					.filter(notYetLoaded)
+					.map(ApplicationContextAwareDiscoverer::newInstance)
 					.forEach(result::add);
 
 			}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.neo4j.driver.exceptions.ServiceUnavailableException;
+
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Applies migrations on a dedicated thread once the application context has been
+ * refreshed instead of blocking the startup. The application is marked as
+ * {@link ReadinessState#REFUSING_TRAFFIC refusing traffic} until the migrations have been
+ * applied, what happens on failure is determined by an {@link AsyncStartupFailurePolicy}.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class AsyncMigrationsInitializer
+		implements SmartLifecycle, ApplicationListener<AvailabilityChangeEvent<ReadinessState>> {
+
+	private static final Log LOG = LogFactory.getLog(AsyncMigrationsInitializer.class);
+
+	private final Migrations migrations;
+
+	private final ApplicationContext applicationContext;
+
+	private final AsyncStartupFailurePolicy failurePolicy;
+
+	private final Object lock = new Object();
+
+	private volatile Progress progress = new Progress(State.PENDING, null, null, null, null);
+
+	private volatile boolean running;
+
+	AsyncMigrationsInitializer(Migrations migrations, ApplicationContext applicationContext,
+			AsyncStartupFailurePolicy failurePolicy) {
+		this.migrations = migrations;
+		this.applicationContext = applicationContext;
+		this.failurePolicy = failurePolicy;
+	}
+
+	@Override
+	public void start() {
+
+		if (this.running) {
+			return;
+		}
+		this.running = true;
+
+		publish(ReadinessState.REFUSING_TRAFFIC);
+		ExecutorService executor = Executors
+			.newSingleThreadExecutor(runnable -> new Thread(runnable, "neo4j-migrations-startup"));
+		try {
+			executor.execute(this::applyMigrations);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Override
+	public void stop() {
+
+		this.running = false;
+		if (getProgress().state() == State.RUNNING) {
+			LOG.warn("Application is being stopped while Neo4j migrations are still being applied.");
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public void onApplicationEvent(AvailabilityChangeEvent<ReadinessState> event) {
+
+		// Spring Boot marks the application as ready after startup, regardless of
+		// migrations still being applied
+		if (event.getSource() == this || event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+			return;
+		}
+		synchronized (this.lock) {
+			if (!isAcceptingTraffic()) {
+				publish(ReadinessState.REFUSING_TRAFFIC);
+			}
+		}
+	}
+
+	/**
+	 * {@return a snapshot of the progress of applying migrations}
+	 */
+	Progress getProgress() {
+		return this.progress;
+	}
+
+	private void applyMigrations() {
+
+		var startedAt = Instant.now();
+		this.progress = new Progress(State.RUNNING, startedAt, null, null, null);
+		try {
+			var version = this.migrations.apply(true);
+			synchronized (this.lock) {
+				this.progress = new Progress(State.SUCCEEDED, startedAt, Instant.now(), version.orElse(null), null);
+				publish(ReadinessState.ACCEPTING_TRAFFIC);
+			}
+		}
+		catch (RuntimeException ex) {
+			if (ex instanceof ServiceUnavailableException) {
+				LOG.error("Cannot apply Neo4j migrations, driver instance cannot reach any database.", ex);
+			}
+			else {
+				LOG.error("Could not apply Neo4j migrations.", ex);
+			}
+			synchronized (this.lock) {
+				this.progress = new Progress(State.FAILED, startedAt, Instant.now(), null, ex);
+				if (this.failurePolicy == AsyncStartupFailurePolicy.ACCEPT_TRAFFIC) {
+					publish(ReadinessState.ACCEPTING_TRAFFIC);
+				}
+			}
+			if (this.failurePolicy == AsyncStartupFailurePolicy.SHUTDOWN) {
+				publish(LivenessState.BROKEN);
+				if (this.applicationContext instanceof ConfigurableApplicationContext configurableApplicationContext) {
+					configurableApplicationContext.close();
+				}
+			}
+		}
+	}
+
+	private boolean isAcceptingTraffic() {
+		var state = this.progress.state();
+		return state == State.SUCCEEDED
+				|| (state == State.FAILED && this.failurePolicy == AsyncStartupFailurePolicy.ACCEPT_TRAFFIC);
+	}
+
+	private void publish(AvailabilityState state) {
+		AvailabilityChangeEvent.publish(this.applicationContext, this, state);
+	}
+
+	/**
+	 * The state of migrations applied asynchronously.
+	 */
+	enum State {
+
+		/**
+		 * Migrations have not yet been started.
+		 */
+		PENDING,
+		/**
+		 * Migrations are being applied.
+		 */
+		RUNNING,
+		/**
+		 * All migrations have been applied.
+		 */
+		SUCCEEDED,
+		/**
+		 * Applying migrations failed.
+		 */
+		FAILED
+
+	}
+
+	/**
+	 * An immutable snapshot of the progress.
+	 *
+	 * @param state the current state
+	 * @param startedAt the instant migrations have been started
+	 * @param finishedAt the instant migrations have been finished, either successful or
+	 * not
+	 * @param version the version the database has been migrated to
+	 * @param error the error that occurred if any
+	 */
+	record Progress(State state, Instant startedAt, Instant finishedAt, MigrationVersion version, Throwable error) {
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+/**
+ * Determines what happens with the application when migrations that have been applied
+ * asynchronously during startup fail.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public enum AsyncStartupFailurePolicy {
+
+	/**
+	 * The application keeps running but stays in the
+	 * {@link org.springframework.boot.availability.ReadinessState#REFUSING_TRAFFIC}
+	 * state.
+	 */
+	REFUSE_TRAFFIC,
+	/**
+	 * The failure is logged and the application is marked as
+	 * {@link org.springframework.boot.availability.ReadinessState#ACCEPTING_TRAFFIC}
+	 * regardless.
+	 */
+	ACCEPT_TRAFFIC,
+	/**
+	 * The application is marked as
+	 * {@link org.springframework.boot.availability.LivenessState#BROKEN} and the
+	 * application context is closed.
+	 */
+	SHUTDOWN
+
+}
@@ -38,7 +38,10 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.data.neo4j.autoconfigure.DataNeo4jAutoConfiguration;
 import org.springframework.boot.neo4j.autoconfigure.Neo4jAutoConfiguration;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 
@@ -90,6 +93,8 @@ public class MigrationsAutoConfiguration {
 			.withLocationsToScan(migrationsProperties.getLocationsToScan())
 			.withPackagesToScan(migrationsProperties.getPackagesToScan())
 			.withTransactionMode(migrationsProperties.getTransactionMode())
+			.withStatementsPerTransaction(migrationsProperties.getStatementsPerTransaction())
+			.withMaxBytesPerTransaction(migrationsProperties.getMaxBytesPerTransaction())
 			.withTransactionTimeout(migrationsProperties.getTransactionTimeout())
 			.withDatabase(migrationsProperties.getDatabase())
 			.withSchemaDatabase(migrationsProperties.getSchemaDatabase())
@@ -102,6 +107,7 @@ public class MigrationsAutoConfiguration {
 			.withMigrationClassesDiscoverer(applicationContextAwareDiscoverer.getIfAvailable())
 			.withOutOfOrderAllowed(migrationsProperties.isOutOfOrder())
 			.withFlywayCompatibleChecksums(migrationsProperties.isUseFlywayCompatibleChecksums())
+			.withFuseRefactorings(migrationsProperties.isFuseRefactorings())
 			.withTarget(migrationsProperties.getTarget())
 			.withCypherVersion(migrationsProperties.getCypherVersion())
 			.withPlaceholders(migrationsProperties.getPlaceholders());
@@ -119,18 +125,42 @@ public class MigrationsAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean({ MigrationsInitializer.class })
 	@ConditionalOnProperty(prefix = "org.neo4j.migrations", name = "enabled", matchIfMissing = true)
+	@ConditionalOnProperty(prefix = "org.neo4j.migrations", name = "async-startup", havingValue = "false",
+			matchIfMissing = true)
 	MigrationsInitializer neo4jMigrationsInitializer(Migrations neo4jMigrations) {
 
 		return new MigrationsInitializer(neo4jMigrations);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean({ MigrationsInitializer.class, AsyncMigrationsInitializer.class })
+	@ConditionalOnProperty(prefix = "org.neo4j.migrations", name = "enabled", matchIfMissing = true)
+	@ConditionalOnProperty(prefix = "org.neo4j.migrations", name = "async-startup", havingValue = "true")
+	AsyncMigrationsInitializer neo4jAsyncMigrationsInitializer(Migrations neo4jMigrations,
+			MigrationsProperties migrationsProperties, ApplicationContext applicationContext) {
+
+		return new AsyncMigrationsInitializer(neo4jMigrations, applicationContext,
+				migrationsProperties.getAsyncStartupFailurePolicy());
+	}
+
 	@Bean
 	@ConditionalOnMissingBean({ Discoverer.class })
 	@ConditionalOnProperty(prefix = "org.neo4j.migrations", name = "enabled", matchIfMissing = true)
 	Discoverer<JavaBasedMigration> applicationContextAwareDiscoverer(
-			ObjectProvider<JavaBasedMigration> javaBasedMigrations) {
+			ObjectProvider<JavaBasedMigration> javaBasedMigrations,
+			ObjectProvider<StaticDiscoveryResult> staticDiscoveryResult) {
+
+		return new ApplicationContextAwareDiscoverer(javaBasedMigrations, staticDiscoveryResult.getIfAvailable());
+	}
+
+	// Only active when running with code generated by Spring AOT
+	@Bean
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	ConfigBuilderCustomizer neo4jMigrationsStaticResourceScannerCustomizer(
+			ObjectProvider<StaticDiscoveryResult> staticDiscoveryResult) {
 
-		return new ApplicationContextAwareDiscoverer(javaBasedMigrations);
+		return configBuilder -> staticDiscoveryResult.ifAvailable(result -> configBuilder
+			.withResourceScanner(new StaticClasspathResourceScanner(result.getResourcePaths())));
 	}
 
 }
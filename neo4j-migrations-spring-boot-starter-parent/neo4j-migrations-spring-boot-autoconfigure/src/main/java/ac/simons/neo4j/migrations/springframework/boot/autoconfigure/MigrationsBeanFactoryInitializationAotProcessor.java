@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import ac.simons.neo4j.migrations.core.JavaBasedMigration;
+import ac.simons.neo4j.migrations.core.Location;
+import ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider;
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.Resource;
+import io.github.classgraph.ResourceList;
+import io.github.classgraph.ScanResult;
+
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.javapoet.CodeBlock;
+
+/**
+ * Resolves Java-based migrations, callbacks and all other resources in classpath
+ * locations during Spring AOT processing. The processor generates code that registers a
+ * {@link StaticDiscoveryResult} with the bean factory and contributes {@link RuntimeHints
+ * runtime hints} for everything it found, so that AOT-enabled applications on the JVM and
+ * in a native image skip classpath scanning at startup.
+ * <p>
+ * As with the Quarkus extension, {@code org.neo4j.migrations.packages-to-scan} and
+ * classpath entries in {@code org.neo4j.migrations.locations-to-scan} are effectively
+ * fixed at build time then.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class MigrationsBeanFactoryInitializationAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+	static final String PROPERTIES_PREFIX = "org.neo4j.migrations";
+
+	static List<String> findMigrationClassNames(String[] packagesToScan) {
+
+		if (packagesToScan.length == 0) {
+			return List.of();
+		}
+
+		try (ScanResult scanResult = new ClassGraph().enableClassInfo()
+			.acceptPackages(packagesToScan)
+			.enableExternalClasses()
+			.scan()) {
+
+			return scanResult.getClassesImplementing(JavaBasedMigration.class.getName())
+				.stream()
+				.filter(classInfo -> !classInfo.isAbstract())
+				.map(ClassInfo::getName)
+				.sorted()
+				.toList();
+		}
+	}
+
+	static List<String> findResourcePaths(String[] locationsToScan) {
+
+		var paths = Arrays.stream(locationsToScan)
+			.map(Location::of)
+			.filter(location -> location.getType() == Location.LocationType.CLASSPATH)
+			.map(Location::getName)
+			.toArray(String[]::new);
+		if (paths.length == 0) {
+			return List.of();
+		}
+
+		try (ScanResult scanResult = new ClassGraph().acceptPaths(paths).scan();
+				ResourceList allResources = scanResult.getAllResources().nonClassFilesOnly()) {
+			return allResources.stream().map(Resource::getPath).distinct().sorted().toList();
+		}
+	}
+
+	@Override
+	public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+
+		if (beanFactory.getBeanNamesForType(MigrationsAutoConfiguration.class, false, false).length == 0
+				|| !beanFactory.containsBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME)) {
+			return null;
+		}
+
+		var environment = beanFactory.getBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, Environment.class);
+		var properties = Binder.get(environment)
+			.bind(PROPERTIES_PREFIX, MigrationsProperties.class)
+			.orElseGet(MigrationsProperties::new);
+
+		return new Contribution(StaticDiscoveryResult.of(findMigrationClassNames(properties.getPackagesToScan()),
+				findResourcePaths(properties.getLocationsToScan())));
+	}
+
+	/**
+	 * Contributes the runtime hints and the code registering the
+	 * {@link StaticDiscoveryResult}.
+	 */
+	static final class Contribution implements BeanFactoryInitializationAotContribution {
+
+		private final StaticDiscoveryResult discoveryResult;
+
+		Contribution(StaticDiscoveryResult discoveryResult) {
+			this.discoveryResult = discoveryResult;
+		}
+
+		private static CodeBlock toListOf(List<String> values) {
+			return CodeBlock.of("$T.of($L)", List.class,
+					CodeBlock.join(values.stream().map(value -> CodeBlock.of("$S", value)).toList(), ", "));
+		}
+
+		StaticDiscoveryResult getDiscoveryResult() {
+			return this.discoveryResult;
+		}
+
+		@Override
+		public void applyTo(GenerationContext generationContext,
+				BeanFactoryInitializationCode beanFactoryInitializationCode) {
+
+			RuntimeHints runtimeHints = generationContext.getRuntimeHints();
+			this.discoveryResult.getMigrationClassNames()
+				.forEach(className -> runtimeHints.reflection()
+					.registerType(TypeReference.of(className), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+			this.discoveryResult.getResourcePaths().forEach(runtimeHints.resources()::registerPattern);
+			runtimeHints.resources()
+				.registerPattern("META-INF/services/" + ResourceBasedMigrationProvider.class.getName());
+
+			var generatedMethod = beanFactoryInitializationCode.getMethods()
+				.add("registerNeo4jMigrationsStaticDiscoveryResult", method -> method
+					.addJavadoc("Registers the Java-based migrations and resources discovered during AOT.")
+					.addModifiers(Modifier.PRIVATE)
+					.addParameter(DefaultListableBeanFactory.class, "beanFactory")
+					.addStatement("beanFactory.registerSingleton($S, $T.of($L, $L))", StaticDiscoveryResult.BEAN_NAME,
+							StaticDiscoveryResult.class, toListOf(this.discoveryResult.getMigrationClassNames()),
+							toListOf(this.discoveryResult.getResourcePaths())));
+			beanFactoryInitializationCode.addInitializer(generatedMethod.toMethodReference());
+		}
+
+	}
+
+}
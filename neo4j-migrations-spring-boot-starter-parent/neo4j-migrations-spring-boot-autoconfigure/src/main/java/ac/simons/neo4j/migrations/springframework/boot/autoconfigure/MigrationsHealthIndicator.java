@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+
+/**
+ * Reports the progress of migrations applied by an {@link AsyncMigrationsInitializer}.
+ * The indicator is {@code UNKNOWN} while migrations are pending or running, so that it
+ * doesn't affect the overall health in that phase, {@code UP} after all migrations have
+ * been applied and {@code DOWN} if applying them failed.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class MigrationsHealthIndicator implements HealthIndicator {
+
+	private final AsyncMigrationsInitializer initializer;
+
+	MigrationsHealthIndicator(AsyncMigrationsInitializer initializer) {
+		this.initializer = initializer;
+	}
+
+	@Override
+	public Health health() {
+
+		var progress = this.initializer.getProgress();
+		var builder = switch (progress.state()) {
+			case PENDING, RUNNING -> Health.unknown();
+			case SUCCEEDED -> Health.up();
+			case FAILED -> Health.down(progress.error());
+		};
+		builder.withDetail("state", progress.state());
+		if (progress.startedAt() != null) {
+			builder.withDetail("startedAt", progress.startedAt());
+			var end = (progress.finishedAt() != null) ? progress.finishedAt() : Instant.now();
+			builder.withDetail("duration", Duration.between(progress.startedAt(), end).toString());
+		}
+		if (progress.version() != null) {
+			builder.withDetail("version", progress.version().getValue());
+		}
+		return builder.build();
+	}
+
+}
@@ -62,6 +62,22 @@ public class MigrationsProperties {
 	 */
 	private TransactionMode transactionMode = Defaults.TRANSACTION_MODE;
 
+	/**
+	 * The maximum number of statements run in one transaction when the transaction mode
+	 * is "per n statements".
+	 *
+	 * @since 4.2.0
+	 */
+	private int statementsPerTransaction = Defaults.STATEMENTS_PER_TRANSACTION;
+
+	/**
+	 * An optional budget of bytes of all statements run in one transaction when the
+	 * transaction mode is "per n statements". {@literal 0} disables the budget.
+	 *
+	 * @since 4.2.0
+	 */
+	private long maxBytesPerTransaction = Defaults.MAX_BYTES_PER_TRANSACTION;
+
 	/**
 	 * Encoding of Cypher migrations.
 	 */
@@ -151,6 +167,14 @@ public class MigrationsProperties {
 	 */
 	private boolean useFlywayCompatibleChecksums = Defaults.USE_FLYWAY_COMPATIBLE_CHECKSUMS;
 
+	/**
+	 * Fuse consecutive refactorings over the same elements into one statement. Fusing is
+	 * skipped on servers that don't support the fused statement.
+	 *
+	 * @since 4.2.0
+	 */
+	private boolean fuseRefactorings = Defaults.FUSE_REFACTORINGS;
+
 	/**
 	 * Use this property to configure a Cypher version that will be prepended to every
 	 * statement in every migration found. Leave it {@literal null} or use
@@ -179,6 +203,23 @@ public class MigrationsProperties {
 	 */
 	private Map<String, String> placeholders = new HashMap<>();
 
+	/**
+	 * When this flag is set to {@literal true}, migrations are applied on a dedicated
+	 * thread after the application context has been refreshed instead of blocking the
+	 * startup. The application refuses traffic until all migrations have been applied.
+	 *
+	 * @since 4.2.0
+	 */
+	private boolean asyncStartup = false;
+
+	/**
+	 * Determines what happens with the application when migrations applied asynchronously
+	 * during startup fail.
+	 *
+	 * @since 4.2.0
+	 */
+	private AsyncStartupFailurePolicy asyncStartupFailurePolicy = AsyncStartupFailurePolicy.REFUSE_TRAFFIC;
+
 	/**
 	 * {@return wether migrations are enabled or not}
 	 */
@@ -269,6 +310,40 @@ public class MigrationsProperties {
 		this.transactionMode = transactionMode;
 	}
 
+	/**
+	 * {@return the maximum number of statements per transaction}
+	 * @since 4.2.0
+	 */
+	public int getStatementsPerTransaction() {
+		return this.statementsPerTransaction;
+	}
+
+	/**
+	 * Configures the maximum number of statements per transaction.
+	 * @param statementsPerTransaction a new value for {@link #statementsPerTransaction}
+	 * @since 4.2.0
+	 */
+	public void setStatementsPerTransaction(int statementsPerTransaction) {
+		this.statementsPerTransaction = statementsPerTransaction;
+	}
+
+	/**
+	 * {@return the budget of bytes per transaction}
+	 * @since 4.2.0
+	 */
+	public long getMaxBytesPerTransaction() {
+		return this.maxBytesPerTransaction;
+	}
+
+	/**
+	 * Configures the budget of bytes per transaction.
+	 * @param maxBytesPerTransaction a new value for {@link #maxBytesPerTransaction}
+	 * @since 4.2.0
+	 */
+	public void setMaxBytesPerTransaction(long maxBytesPerTransaction) {
+		this.maxBytesPerTransaction = maxBytesPerTransaction;
+	}
+
 	/**
 	 * {@return the encoding of migration files}
 	 */
@@ -436,6 +511,23 @@ public class MigrationsProperties {
 		this.useFlywayCompatibleChecksums = useFlywayCompatibleChecksums;
 	}
 
+	/**
+	 * {@return whether to fuse consecutive refactorings or not}
+	 * @since 4.2.0
+	 */
+	public boolean isFuseRefactorings() {
+		return this.fuseRefactorings;
+	}
+
+	/**
+	 * Configures whether consecutive refactorings should be fused or not.
+	 * @param fuseRefactorings the new value for the corresponding flag
+	 * @since 4.2.0
+	 */
+	public void setFuseRefactorings(boolean fuseRefactorings) {
+		this.fuseRefactorings = fuseRefactorings;
+	}
+
 	/**
 	 * {@return the version up-to which migrations should be considered}
 	 */
@@ -482,4 +574,38 @@ public class MigrationsProperties {
 		this.placeholders = placeholders;
 	}
 
+	/**
+	 * {@return whether migrations are applied asynchronously during startup}
+	 * @since 4.2.0
+	 */
+	public boolean isAsyncStartup() {
+		return this.asyncStartup;
+	}
+
+	/**
+	 * Configures whether migrations are applied asynchronously during startup.
+	 * @param asyncStartup a new value for {@link #asyncStartup}
+	 * @since 4.2.0
+	 */
+	public void setAsyncStartup(boolean asyncStartup) {
+		this.asyncStartup = asyncStartup;
+	}
+
+	/**
+	 * {@return the policy applied when asynchronously applied migrations fail}
+	 * @since 4.2.0
+	 */
+	public AsyncStartupFailurePolicy getAsyncStartupFailurePolicy() {
+		return this.asyncStartupFailurePolicy;
+	}
+
+	/**
+	 * Configures the policy applied when asynchronously applied migrations fail.
+	 * @param asyncStartupFailurePolicy a new value for {@link #asyncStartupFailurePolicy}
+	 * @since 4.2.0
+	 */
+	public void setAsyncStartupFailurePolicy(AsyncStartupFailurePolicy asyncStartupFailurePolicy) {
+		this.asyncStartupFailurePolicy = asyncStartupFailurePolicy;
+	}
+
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.net.URL;
+import java.util.List;
+import java.util.Objects;
+
+import ac.simons.neo4j.migrations.core.ClasspathResourceScanner;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link ClasspathResourceScanner} that works on the resources found during Spring AOT
+ * processing instead of scanning the classpath.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+final class StaticClasspathResourceScanner implements ClasspathResourceScanner {
+
+	private final List<String> resourcePaths;
+
+	StaticClasspathResourceScanner(List<String> resourcePaths) {
+		this.resourcePaths = List.copyOf(resourcePaths);
+	}
+
+	@Override
+	public List<URL> scan(List<String> locations) {
+
+		var classLoader = ClassUtils.getDefaultClassLoader();
+		var stripped = locations.stream()
+			.map(location -> location.startsWith("/") ? location.substring(1) : location)
+			.map(location -> location.endsWith("/") ? location.substring(0, location.length() - 1) : location)
+			.toList();
+		return this.resourcePaths.stream()
+			.filter(path -> stripped.stream()
+				.anyMatch(location -> path.equals(location) || path.startsWith(location + "/")))
+			.map(path -> (classLoader != null) ? classLoader.getResource(path) : ClassLoader.getSystemResource(path))
+			.filter(Objects::nonNull)
+			.toList();
+	}
+
+}
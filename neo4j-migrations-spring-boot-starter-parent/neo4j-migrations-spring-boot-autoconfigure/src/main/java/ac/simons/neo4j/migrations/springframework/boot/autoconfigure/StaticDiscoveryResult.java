@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.util.List;
+
+/**
+ * The result of discovering Java-based migrations and classpath resources during Spring
+ * AOT processing. An instance of this class is registered as a singleton by the code that
+ * {@link MigrationsBeanFactoryInitializationAotProcessor} generates and replaces any
+ * classpath scanning at runtime. Classes are referred to by name, as the generated code
+ * cannot access non-public migrations.
+ * <p>
+ * This class is not meant to be used outside generated code.
+ *
+ * @author Michael J. Simons
+ * @since 4.2.0
+ */
+public final class StaticDiscoveryResult {
+
+	/**
+	 * The name under which the result is registered in the bean factory.
+	 */
+	public static final String BEAN_NAME = "neo4jMigrationsStaticDiscoveryResult";
+
+	private final List<String> migrationClassNames;
+
+	private final List<String> resourcePaths;
+
+	private StaticDiscoveryResult(List<String> migrationClassNames, List<String> resourcePaths) {
+		this.migrationClassNames = List.copyOf(migrationClassNames);
+		this.resourcePaths = List.copyOf(resourcePaths);
+	}
+
+	/**
+	 * Creates a new discovery result.
+	 * @param migrationClassNames the fully qualified names of all Java-based migrations
+	 * found
+	 * @param resourcePaths the paths of all resources found in classpath locations,
+	 * relative to the root of the classpath
+	 * @return a new discovery result
+	 */
+	public static StaticDiscoveryResult of(List<String> migrationClassNames, List<String> resourcePaths) {
+		return new StaticDiscoveryResult(migrationClassNames, resourcePaths);
+	}
+
+	/**
+	 * {@return the fully qualified names of all Java-based migrations found}
+	 */
+	public List<String> getMigrationClassNames() {
+		return this.migrationClassNames;
+	}
+
+	/**
+	 * {@return the paths of all resources found in classpath locations}
+	 */
+	public List<String> getResourcePaths() {
+		return this.resourcePaths;
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import ac.simons.neo4j.migrations.core.MigrationVersion;
+import ac.simons.neo4j.migrations.core.Migrations;
+import ac.simons.neo4j.migrations.core.MigrationsException;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class AsyncMigrationsInitializerTests {
+
+	private static GenericApplicationContext newContext(List<AvailabilityState> states) {
+
+		var context = new GenericApplicationContext();
+		context.addApplicationListener((ApplicationListener<ApplicationEvent>) event -> {
+			if (event instanceof AvailabilityChangeEvent<?> availabilityChangeEvent) {
+				states.add(availabilityChangeEvent.getState());
+			}
+		});
+		context.refresh();
+		return context;
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+
+		var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	@Test
+	void shouldRefuseTrafficUntilMigrationsHaveBeenApplied() throws InterruptedException {
+
+		var migrationsStarted = new CountDownLatch(1);
+		var releaseMigrations = new CountDownLatch(1);
+		var migrations = mock(Migrations.class);
+		willAnswer(invocation -> {
+			migrationsStarted.countDown();
+			releaseMigrations.await();
+			return Optional.of(MigrationVersion.withValue("42"));
+		}).given(migrations).apply(true);
+
+		var states = new CopyOnWriteArrayList<AvailabilityState>();
+		var context = newContext(states);
+		var initializer = new AsyncMigrationsInitializer(migrations, context, AsyncStartupFailurePolicy.REFUSE_TRAFFIC);
+		context.addApplicationListener(initializer);
+		var healthIndicator = new MigrationsHealthIndicator(initializer);
+
+		initializer.start();
+		assertThat(migrationsStarted.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(initializer.getProgress().state()).isEqualTo(AsyncMigrationsInitializer.State.RUNNING);
+		assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+		// What Spring Boot does once the application has been started
+		AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+		assertThat(states).last().isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+
+		releaseMigrations.countDown();
+		await(() -> states.size() == 4);
+
+		assertThat(states).containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC,
+				ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+		var health = healthIndicator.health();
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).containsEntry("version", "42").containsKeys("startedAt", "duration");
+		context.close();
+	}
+
+	@Test
+	void shouldKeepRefusingTrafficOnFailure() throws InterruptedException {
+
+		var migrations = mock(Migrations.class);
+		given(migrations.apply(true)).willThrow(new MigrationsException("Oh no"));
+
+		var states = new CopyOnWriteArrayList<AvailabilityState>();
+		var context = newContext(states);
+		var initializer = new AsyncMigrationsInitializer(migrations, context, AsyncStartupFailurePolicy.REFUSE_TRAFFIC);
+		context.addApplicationListener(initializer);
+
+		initializer.start();
+		await(() -> initializer.getProgress().state() == AsyncMigrationsInitializer.State.FAILED);
+		AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+
+		assertThat(states).last().isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+		assertThat(initializer.getProgress().state()).isEqualTo(AsyncMigrationsInitializer.State.FAILED);
+		var health = new MigrationsHealthIndicator(initializer).health();
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat(health.getDetails()).containsKey("error");
+		context.close();
+	}
+
+	@Test
+	void shouldAcceptTrafficOnFailureIfConfigured() throws InterruptedException {
+
+		var migrations = mock(Migrations.class);
+		given(migrations.apply(true)).willThrow(new MigrationsException("Oh no"));
+
+		var states = new CopyOnWriteArrayList<AvailabilityState>();
+		var context = newContext(states);
+		var initializer = new AsyncMigrationsInitializer(migrations, context, AsyncStartupFailurePolicy.ACCEPT_TRAFFIC);
+		context.addApplicationListener(initializer);
+
+		initializer.start();
+		await(() -> states.size() == 2);
+
+		assertThat(states).containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+		context.close();
+	}
+
+	@Test
+	void shouldShutdownOnFailureIfConfigured() throws InterruptedException {
+
+		var migrations = mock(Migrations.class);
+		given(migrations.apply(true)).willThrow(new MigrationsException("Oh no"));
+
+		var states = new CopyOnWriteArrayList<AvailabilityState>();
+		var context = newContext(states);
+		var initializer = new AsyncMigrationsInitializer(migrations, context, AsyncStartupFailurePolicy.SHUTDOWN);
+		context.addApplicationListener(initializer);
+
+		initializer.start();
+		await(() -> !context.isActive());
+
+		assertThat(states).containsExactly(ReadinessState.REFUSING_TRAFFIC, LivenessState.BROKEN);
+	}
+
+}
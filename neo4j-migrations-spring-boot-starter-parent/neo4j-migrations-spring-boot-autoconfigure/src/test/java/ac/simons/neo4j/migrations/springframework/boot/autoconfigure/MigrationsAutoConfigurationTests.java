@@ -599,6 +599,33 @@ class MigrationsAutoConfigurationTests {
 				});
 		}
 
+		@Test
+		void shouldCreateAsyncInitializerAndHealthIndicator() {
+
+			MigrationsAutoConfigurationTests.this.contextRunner
+				.withConfiguration(AutoConfigurations.of(MigrationsHealthContributorAutoConfiguration.class))
+				.withUserConfiguration(WithDriver.class)
+				.withPropertyValues("org.neo4j.migrations.async-startup=true")
+				.run(ctx -> {
+					assertThat(ctx).doesNotHaveBean(MigrationsInitializer.class);
+					assertThat(ctx).hasSingleBean(AsyncMigrationsInitializer.class);
+					assertThat(ctx).hasBean("neo4jMigrationsHealthIndicator");
+				});
+		}
+
+		@Test
+		void shouldNotCreateHealthIndicatorWithoutAsyncInitializer() {
+
+			MigrationsAutoConfigurationTests.this.contextRunner
+				.withConfiguration(AutoConfigurations.of(MigrationsHealthContributorAutoConfiguration.class))
+				.withUserConfiguration(WithDriver.class)
+				.run(ctx -> {
+					assertThat(ctx).hasSingleBean(MigrationsInitializer.class);
+					assertThat(ctx).doesNotHaveBean(AsyncMigrationsInitializer.class);
+					assertThat(ctx).doesNotHaveBean("neo4jMigrationsHealthIndicator");
+				});
+		}
+
 	}
 
 	@Nested
@@ -647,6 +674,23 @@ class MigrationsAutoConfigurationTests {
 				});
 		}
 
+		@Test
+		void shouldConfigureChunkedTransactions() {
+
+			MigrationsAutoConfigurationTests.this.contextRunner.withUserConfiguration(WithDriver.class)
+				.withPropertyValues("org.neo4j.migrations.transaction-mode=PER_N_STATEMENTS",
+						"org.neo4j.migrations.statements-per-transaction=23",
+						"org.neo4j.migrations.max-bytes-per-transaction=4096",
+						"org.neo4j.migrations.check-location=false")
+				.run(ctx -> {
+
+					MigrationsConfig config = ctx.getBean(MigrationsConfig.class);
+					assertThat(config.getTransactionMode()).isEqualTo(TransactionMode.PER_N_STATEMENTS);
+					assertThat(config.getStatementsPerTransaction()).isEqualTo(23);
+					assertThat(config.getMaxBytesPerTransaction()).isEqualTo(4096L);
+				});
+		}
+
 	}
 
 }
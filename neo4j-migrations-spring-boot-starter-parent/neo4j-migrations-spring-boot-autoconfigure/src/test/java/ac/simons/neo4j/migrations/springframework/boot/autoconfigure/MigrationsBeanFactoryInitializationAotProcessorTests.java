@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ac.simons.neo4j.migrations.springframework.boot.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import ac.simons.neo4j.migrations.core.JavaBasedMigration;
+import ac.simons.neo4j.migrations.core.MigrationContext;
+import ac.simons.neo4j.migrations.core.MigrationsConfig;
+import ac.simons.neo4j.migrations.springframework.boot.autoconfigure.test_migrations.V0002__SomeOtherMigration;
+import ac.simons.neo4j.migrations.springframework.boot.autoconfigure.test_migrations.V0003__AFreshSpringMigration;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedMethods;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.generate.MethodReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.javapoet.ClassName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author Michael J. Simons
+ */
+class MigrationsBeanFactoryInitializationAotProcessorTests {
+
+	private static final String TEST_MIGRATIONS = V0002__SomeOtherMigration.class.getPackageName();
+
+	private static DefaultListableBeanFactory newBeanFactory(Map<String, Object> properties) {
+
+		var environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+
+		var beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, environment);
+		beanFactory.registerBeanDefinition("migrationsAutoConfiguration",
+				new RootBeanDefinition(MigrationsAutoConfiguration.class));
+		return beanFactory;
+	}
+
+	@Test
+	void shouldNotContributeWithoutAutoConfiguration() {
+
+		var processor = new MigrationsBeanFactoryInitializationAotProcessor();
+		assertThat(processor.processAheadOfTime(new DefaultListableBeanFactory())).isNull();
+	}
+
+	@Test
+	void shouldDiscoverMigrationsAndResources() {
+
+		var processor = new MigrationsBeanFactoryInitializationAotProcessor();
+		var contribution = (MigrationsBeanFactoryInitializationAotProcessor.Contribution) processor
+			.processAheadOfTime(newBeanFactory(Map.of("org.neo4j.migrations.packages-to-scan", TEST_MIGRATIONS)));
+
+		assertThat(contribution).isNotNull();
+		var discoveryResult = contribution.getDiscoveryResult();
+		assertThat(discoveryResult.getMigrationClassNames()).containsExactly(V0002__SomeOtherMigration.class.getName(),
+				V0003__AFreshSpringMigration.class.getName());
+		assertThat(discoveryResult.getResourcePaths()).contains("neo4j/migrations/V0001__KeepMe.cypher");
+	}
+
+	@Test
+	void shouldContributeHintsAndInitializer() {
+
+		var generationContext = new DefaultGenerationContext(
+				new ClassNameGenerator(ClassName.get("com.example", "Application")), new InMemoryGeneratedFiles());
+		var generatedClass = generationContext.getGeneratedClasses().addForFeature("Test", type -> {
+		});
+		var initializers = new ArrayList<MethodReference>();
+		var code = new BeanFactoryInitializationCode() {
+			@Override
+			public GeneratedMethods getMethods() {
+				return generatedClass.getMethods();
+			}
+
+			@Override
+			public ClassName getClassName() {
+				return generatedClass.getName();
+			}
+
+			@Override
+			public void addInitializer(MethodReference methodReference) {
+				initializers.add(methodReference);
+			}
+		};
+
+		var contribution = new MigrationsBeanFactoryInitializationAotProcessor.Contribution(StaticDiscoveryResult
+			.of(List.of(V0002__SomeOtherMigration.class.getName()), List.of("neo4j/migrations/V0001__KeepMe.cypher")));
+		contribution.applyTo(generationContext, code);
+
+		var runtimeHints = generationContext.getRuntimeHints();
+		assertThat(RuntimeHintsPredicates.reflection().onType(V0002__SomeOtherMigration.class)).accepts(runtimeHints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("neo4j/migrations/V0001__KeepMe.cypher"))
+			.accepts(runtimeHints);
+		assertThat(RuntimeHintsPredicates.resource()
+			.forResource("META-INF/services/ac.simons.neo4j.migrations.core.ResourceBasedMigrationProvider"))
+			.accepts(runtimeHints);
+		assertThat(initializers).hasSize(1);
+	}
+
+	@Test
+	void discovererShouldUseStaticResult() {
+
+		var config = MigrationsConfig.builder().withPackagesToScan(TEST_MIGRATIONS).build();
+		var context = mock(MigrationContext.class);
+		given(context.getConfig()).willReturn(config);
+
+		var discoverer = new ApplicationContextAwareDiscoverer(
+				new DefaultListableBeanFactory().getBeanProvider(JavaBasedMigration.class), StaticDiscoveryResult
+					.of(List.of(V0002__SomeOtherMigration.class.getName(), "some.other.package.V1__Nope"), List.of()));
+		assertThat(discoverer.discover(context)).singleElement().isInstanceOf(V0002__SomeOtherMigration.class);
+	}
+
+	@Test
+	void scannerShouldOnlyReturnResourcesInRequestedLocations() {
+
+		var scanner = new StaticClasspathResourceScanner(
+				List.of("neo4j/migrations/V0001__KeepMe.cypher", "somewhere/else/V0001__Nope.cypher"));
+		assertThat(scanner.scan(List.of("/neo4j/migrations"))).singleElement()
+			.satisfies(url -> assertThat(url.getPath()).endsWith("neo4j/migrations/V0001__KeepMe.cypher"));
+	}
+
+	@Test
+	void scannerShouldOnlyMatchCompleteLocations() {
+
+		var scanner = new StaticClasspathResourceScanner(List.of("neo4j/migrations/V0001__KeepMe.cypher"));
+		assertThat(scanner.scan(List.of("neo4j/migr"))).isEmpty();
+		assertThat(scanner.scan(List.of("neo4j/migrations/"))).hasSize(1);
+	}
+
+}